@@ -0,0 +1,405 @@
+/*
+ *  The MIT License
+ *
+ *  Copyright 2026 agent. All rights reserved.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package com.sonyericsson.hudson.plugins.gerrit.trigger;
+
+import com.sonymobile.tools.gerrit.gerritevents.dto.GerritEvent;
+import com.sonymobile.tools.gerrit.gerritevents.dto.events.GerritTriggeredEvent;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Opt-in execution of blocking calls to Gerrit on virtual threads, turned on with the system property
+ * <code>&lt;this class name&gt;.virtualThreads=true</code> on a Java runtime that has them (21 or later).
+ *
+ * Work that nobody waits for, like sending build notifications, is handed to a virtual thread of its own
+ * instead of waiting for a thread of a small fixed pool, as long as fewer than
+ * <code>&lt;this class name&gt;.maxConcurrentPerServer</code> such calls are being made to the server.
+ * When the server is at that limit the work is not taken, so that the caller puts it in the
+ * {@link com.sonymobile.tools.gerrit.gerritevents.GerritSendCommandQueue} where it waits in a bounded queue
+ * that is seen by the {@link WorkerPoolScaler}. No virtual thread is ever started just to wait.
+ * Work that doesn't talk to a Gerrit server, like fetching dynamic trigger configurations,
+ * has a limit of its own.
+ *
+ * Calls that the caller waits for, like queries for the files of a change, still run on the caller
+ * and have a limit per server of their own, so they never wait behind notifications.
+ * A caller waits at most <code>&lt;this class name&gt;.acquireTimeoutMillis</code> for a permit
+ * and then makes the call anyway.
+ * When turned off everything runs where it always has.
+ *
+ * @author agent &lt;agent@local&gt;
+ */
+public final class BlockingIoExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlockingIoExecutor.class);
+
+    /**
+     * If virtual threads should be used when available.
+     */
+    public static final boolean VIRTUAL_THREADS =
+            Boolean.getBoolean(BlockingIoExecutor.class.getName() + ".virtualThreads");
+
+    /**
+     * The most calls made to one server at a time when virtual threads are used.
+     */
+    public static final int MAX_CONCURRENT_PER_SERVER =
+            Integer.getInteger(BlockingIoExecutor.class.getName() + ".maxConcurrentPerServer", 32);
+
+    /**
+     * The longest time a caller waits for a permit to query a server before making the call anyway.
+     */
+    public static final long ACQUIRE_TIMEOUT_MILLIS =
+            Long.getLong(BlockingIoExecutor.class.getName() + ".acquireTimeoutMillis", 1000);
+
+    private static final String THREAD_NAME_PREFIX = "Gerrit I/O ";
+
+    private static BlockingIoExecutor instance;
+
+    private final ExecutorService executor;
+    private final int maxConcurrentPerServer;
+    private final long acquireTimeoutMillis;
+    private final ConcurrentMap<String, Semaphore> submitPermits = new ConcurrentHashMap<String, Semaphore>();
+    private final ConcurrentMap<String, Semaphore> queryPermits = new ConcurrentHashMap<String, Semaphore>();
+    private final Semaphore otherPermits;
+    private final AtomicLong submittedCount = new AtomicLong();
+    private final AtomicLong handedBackCount = new AtomicLong();
+    private final AtomicLong acquireTimeoutCount = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param executor runs the submitted work, null when turned off.
+     * @param maxConcurrentPerServer the most calls made to one server at a time.
+     */
+    BlockingIoExecutor(ExecutorService executor, int maxConcurrentPerServer) {
+        this(executor, maxConcurrentPerServer, ACQUIRE_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param executor runs the submitted work, null when turned off.
+     * @param maxConcurrentPerServer the most calls made to one server at a time.
+     * @param acquireTimeoutMillis the longest time a caller waits for a permit.
+     */
+    BlockingIoExecutor(ExecutorService executor, int maxConcurrentPerServer, long acquireTimeoutMillis) {
+        this.executor = executor;
+        this.maxConcurrentPerServer = Math.max(maxConcurrentPerServer, 1);
+        this.acquireTimeoutMillis = Math.max(acquireTimeoutMillis, 0);
+        this.otherPermits = new Semaphore(this.maxConcurrentPerServer);
+    }
+
+    /**
+     * The singleton instance.
+     *
+     * @return the instance.
+     */
+    public static synchronized BlockingIoExecutor getInstance() {
+        if (instance == null) {
+            ExecutorService executor = null;
+            if (VIRTUAL_THREADS) {
+                executor = newVirtualThreadExecutor();
+            }
+            instance = new BlockingIoExecutor(executor, MAX_CONCURRENT_PER_SERVER);
+        }
+        return instance;
+    }
+
+    /**
+     * Stops the virtual thread executor of the singleton instance, if there is one.
+     * Work already submitted is allowed to finish.
+     */
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            if (instance.executor != null) {
+                instance.executor.shutdown();
+            }
+            instance = null;
+        }
+    }
+
+    /**
+     * Creates an executor that starts a new virtual thread for each task.
+     * Looked up reflectively since the plugin is built for runtimes that do not have them.
+     *
+     * @return the executor, or null if the runtime does not have virtual threads.
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, THREAD_NAME_PREFIX, 0L);
+            ThreadFactory factory = (ThreadFactory)builderClass.getMethod("factory").invoke(builder);
+            ExecutorService executor = (ExecutorService)Executors.class
+                    .getMethod("newThreadPerTaskExecutor", ThreadFactory.class).invoke(null, factory);
+            logger.info("Blocking calls to Gerrit are made on virtual threads, at most {} at a time per server",
+                    MAX_CONCURRENT_PER_SERVER);
+            return executor;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.warn("Virtual threads are not available on Java {}, blocking calls to Gerrit run as before",
+                    System.getProperty("java.version"));
+            return null;
+        }
+    }
+
+    /**
+     * If work is run on virtual threads.
+     *
+     * @return true if so.
+     */
+    public boolean isEnabled() {
+        return executor != null;
+    }
+
+    /**
+     * Runs the work on a virtual thread of its own as System, if the server has a free permit right now.
+     *
+     * @param server the name of the server the work talks to, can be null.
+     * @param work the work.
+     * @return false if virtual threads are not used or the server is at its limit,
+     *         and the caller should run or queue the work as it normally would.
+     */
+    public boolean submit(String server, Runnable work) {
+        if (executor == null) {
+            return false;
+        }
+        return submit(getPermits(submitPermits, server), server, work);
+    }
+
+    /**
+     * Runs work that doesn't talk to a Gerrit server on a virtual thread of its own as System,
+     * if there is a free permit for such work right now.
+     *
+     * @param work the work.
+     * @return false if virtual threads are not used or there are too many such calls being made,
+     *         and the caller should run the work as it normally would.
+     */
+    public boolean submit(Runnable work) {
+        if (executor == null) {
+            return false;
+        }
+        return submit(otherPermits, "other work", work);
+    }
+
+    /**
+     * Runs the work on a virtual thread of its own holding a permit, if one is free right now.
+     *
+     * @param semaphore the permits.
+     * @param description what the work talks to, for logging.
+     * @param work the work.
+     * @return true if the work was taken.
+     */
+    private boolean submit(Semaphore semaphore, final String description, final Runnable work) {
+        if (!semaphore.tryAcquire()) {
+            handedBackCount.incrementAndGet();
+            logger.debug("Too many calls to {}, handing {} back to the caller", description, work);
+            return false;
+        }
+        final Permit permit = new Permit(semaphore);
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try (ACLContext ctx = ACL.as(ACL.SYSTEM); Permit held = permit) {
+                        work.run();
+                    } catch (RuntimeException e) {
+                        logger.error("Failed to run " + work + " for " + description, e);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permit.close();
+            logger.debug("Executor is shut down, running {} as before", work);
+            return false;
+        }
+        submittedCount.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Waits for a permit to query the server on the current thread, to be closed when the call is done.
+     * Queries have permits of their own, so they never wait for notifications to be sent.
+     * Waits at most {@link #ACQUIRE_TIMEOUT_MILLIS} and then hands out an empty permit so that the call
+     * is made anyway. Returns right away when virtual threads are not used.
+     *
+     * @param server the name of the server the call is made to, can be null.
+     * @return the permit.
+     */
+    public Permit acquire(String server) {
+        if (executor == null) {
+            return Permit.NONE;
+        }
+        Semaphore semaphore = getPermits(queryPermits, server);
+        try {
+            if (semaphore.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                return new Permit(semaphore);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Permit.NONE;
+        }
+        acquireTimeoutCount.incrementAndGet();
+        logger.debug("No permit to query {} within {} ms, querying anyway", server, acquireTimeoutMillis);
+        return Permit.NONE;
+    }
+
+    /**
+     * The permits of a server.
+     *
+     * @param permits the permits of all servers.
+     * @param server the name of the server, can be null.
+     * @return the permits.
+     */
+    private Semaphore getPermits(ConcurrentMap<String, Semaphore> permits, String server) {
+        String key = keyOf(server);
+        Semaphore semaphore = permits.get(key);
+        if (semaphore == null) {
+            semaphore = new Semaphore(maxConcurrentPerServer, true);
+            Semaphore existing = permits.putIfAbsent(key, semaphore);
+            if (existing != null) {
+                semaphore = existing;
+            }
+        }
+        return semaphore;
+    }
+
+    /**
+     * The key of a server in the permit maps.
+     *
+     * @param server the name of the server, can be null.
+     * @return the key.
+     */
+    private static String keyOf(String server) {
+        if (server == null) {
+            return "";
+        }
+        return server;
+    }
+
+    /**
+     * The number of calls being made to a server right now, both work run on virtual threads and queries.
+     *
+     * @param server the name of the server, can be null.
+     * @return the number of calls.
+     */
+    public int getActiveCount(String server) {
+        return getActiveCount(submitPermits, server) + getActiveCount(queryPermits, server);
+    }
+
+    /**
+     * The number of calls being made to a server right now with permits from the map.
+     *
+     * @param permits the permits of all servers.
+     * @param server the name of the server, can be null.
+     * @return the number of calls.
+     */
+    private int getActiveCount(ConcurrentMap<String, Semaphore> permits, String server) {
+        Semaphore semaphore = permits.get(keyOf(server));
+        if (semaphore == null) {
+            return 0;
+        }
+        return maxConcurrentPerServer - semaphore.availablePermits();
+    }
+
+    /**
+     * The number of pieces of work that were handed back to the caller because the server was at its limit.
+     *
+     * @return the number.
+     */
+    public long getHandedBackCount() {
+        return handedBackCount.get();
+    }
+
+    /**
+     * The number of queries that were made without a permit because none was free in time.
+     *
+     * @return the number.
+     */
+    public long getAcquireTimeoutCount() {
+        return acquireTimeoutCount.get();
+    }
+
+    /**
+     * The number of pieces of work that have been handed to virtual threads.
+     *
+     * @return the number.
+     */
+    public long getSubmittedCount() {
+        return submittedCount.get();
+    }
+
+    /**
+     * The name of the server an event is from.
+     *
+     * @param event the event, can be null.
+     * @return the name, or null if not known.
+     */
+    public static String serverOf(GerritEvent event) {
+        if (event instanceof GerritTriggeredEvent && ((GerritTriggeredEvent)event).getProvider() != null) {
+            return ((GerritTriggeredEvent)event).getProvider().getName();
+        }
+        return null;
+    }
+
+    /**
+     * A permit to make a blocking call to a server, given back when closed.
+     */
+    public static final class Permit implements AutoCloseable {
+
+        /**
+         * The permit handed out when there is no limit.
+         */
+        static final Permit NONE = new Permit(null);
+
+        private Semaphore semaphore;
+
+        /**
+         * Constructor.
+         *
+         * @param semaphore the semaphore the permit was taken from, null if none.
+         */
+        private Permit(Semaphore semaphore) {
+            this.semaphore = semaphore;
+        }
+
+        @Override
+        public synchronized void close() {
+            if (semaphore != null) {
+                semaphore.release();
+                semaphore = null;
+            }
+        }
+    }
+}
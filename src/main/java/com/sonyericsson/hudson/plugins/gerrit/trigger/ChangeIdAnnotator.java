@@ -2,35 +2,169 @@ package com.sonyericsson.hudson.plugins.gerrit.trigger;
 
 import hudson.Extension;
 import hudson.MarkupText;
-import hudson.MarkupText.SubText;
 import hudson.model.Run;
 import hudson.scm.ChangeLogAnnotator;
 import hudson.scm.ChangeLogSet.Entry;
+import org.kohsuke.stapler.Stapler;
+import org.kohsuke.stapler.StaplerRequest;
 
-import java.util.regex.Pattern;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
 
 import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.GerritCause;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.utils.BoundedLinkedHashMap;
 
 /**
  * Turns "Change-ID: XXXX" into a hyperlink to Gerrit.
  *
+ * The Change-Ids are found with a single pass over the text instead of a regular expression,
+ * the positions found are remembered per commit and only so many entries are annotated per page.
+ *
  * @author Kohsuke Kawaguchi
  */
 @Extension
 public class ChangeIdAnnotator extends ChangeLogAnnotator {
+
+    /**
+     * The most changelog entries annotated while rendering one page.
+     */
+    public static final int MAX_ENTRIES_PER_PAGE =
+            Integer.getInteger(ChangeIdAnnotator.class.getName() + ".maxEntriesPerPage", 1000);
+
+    private static final String PREFIX = "Change-Id: ";
+    private static final int ID_LENGTH = 41;
+    private static final int MAX_CACHED_COMMITS = 5000;
+    private static final String REQUEST_COUNT = ChangeIdAnnotator.class.getName() + ".count";
+    private static final int[] NONE = new int[0];
+
+    private final Map<String, int[]> positions = Collections.synchronizedMap(
+            new BoundedLinkedHashMap<String, int[]>(MAX_CACHED_COMMITS));
+
     @Override
     public void annotate(Run<?, ?> build, Entry change, MarkupText text) {
-        for (SubText token : text.findTokens(CHANGE_ID)) {
-            GerritCause gerritCause = build.getCause(GerritCause.class);
-            if (gerritCause != null
-                && gerritCause.getEvent() != null
-                && gerritCause.getEvent().getProvider() != null
-                && gerritCause.getEvent().getProvider().getUrl() != null
-                && !gerritCause.getEvent().getProvider().getUrl().trim().isEmpty()) {
-                token.href(gerritCause.getEvent().getProvider().getUrl() + "r/" + token.getText());
+        GerritCause gerritCause = build.getCause(GerritCause.class);
+        if (gerritCause == null
+            || gerritCause.getEvent() == null
+            || gerritCause.getEvent().getProvider() == null
+            || gerritCause.getEvent().getProvider().getUrl() == null
+            || gerritCause.getEvent().getProvider().getUrl().trim().isEmpty()
+            || !countEntry()) {
+            return;
+        }
+        String url = gerritCause.getEvent().getProvider().getUrl() + "r/";
+        String plain = text.getText();
+        int[] found = getPositions(change, plain);
+        for (int start : found) {
+            text.addHyperlink(start, start + ID_LENGTH, url + plain.substring(start, start + ID_LENGTH));
+        }
+    }
+
+    /**
+     * Counts the entry towards the entries annotated for the current page.
+     *
+     * @return false if enough entries have been annotated already.
+     */
+    private static boolean countEntry() {
+        StaplerRequest request = Stapler.getCurrentRequest();
+        if (request == null) {
+            return true;
+        }
+        Integer count = (Integer)request.getAttribute(REQUEST_COUNT);
+        if (count == null) {
+            count = 0;
+        }
+        request.setAttribute(REQUEST_COUNT, count + 1);
+        return count < MAX_ENTRIES_PER_PAGE;
+    }
+
+    /**
+     * The positions of the Change-Ids in the text, remembered per commit.
+     *
+     * @param change the changelog entry, can be null.
+     * @param text the text of the entry.
+     * @return the positions.
+     */
+    private int[] getPositions(Entry change, String text) {
+        String commitId = null;
+        if (change != null) {
+            commitId = change.getCommitId();
+        }
+        if (commitId == null) {
+            return findChangeIds(text);
+        }
+        String key = commitId + ':' + text.length();
+        int[] found = positions.get(key);
+        if (found == null) {
+            found = findChangeIds(text);
+            positions.put(key, found);
+        }
+        return found;
+    }
+
+    /**
+     * Finds the start of every "I" followed by 40 hex digits that comes right after "Change-Id: ",
+     * where neither the prefix nor the id is part of a longer word.
+     *
+     * @param text the text to search.
+     * @return the start positions of the ids.
+     */
+    static int[] findChangeIds(String text) {
+        int[] found = NONE;
+        int count = 0;
+        int from = text.indexOf(PREFIX);
+        while (from >= 0) {
+            int start = from + PREFIX.length();
+            if ((from == 0 || !isWordChar(text.charAt(from - 1))) && isChangeId(text, start)) {
+                if (count == found.length) {
+                    found = Arrays.copyOf(found, count * 2 + 1);
+                }
+                found[count++] = start;
+                from = text.indexOf(PREFIX, start + ID_LENGTH);
+            } else {
+                from = text.indexOf(PREFIX, start);
             }
         }
+        return Arrays.copyOf(found, count);
     }
 
-    private static final Pattern CHANGE_ID = Pattern.compile("(?<=\\bChange-Id: )I[0-9a-fA-F]{40}\\b");
+    /**
+     * If there is a whole Change-Id at the position.
+     *
+     * @param text the text.
+     * @param start the position.
+     * @return true if so.
+     */
+    private static boolean isChangeId(String text, int start) {
+        int end = start + ID_LENGTH;
+        if (end > text.length() || text.charAt(start) != 'I') {
+            return false;
+        }
+        for (int i = start + 1; i < end; i++) {
+            if (!isHexDigit(text.charAt(i))) {
+                return false;
+            }
+        }
+        return end == text.length() || !isWordChar(text.charAt(end));
+    }
+
+    /**
+     * If the character is a hexadecimal digit as in [0-9a-fA-F].
+     *
+     * @param c the character.
+     * @return true if so.
+     */
+    private static boolean isHexDigit(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
+
+    /**
+     * If the character is a word character as in the regular expression \w.
+     *
+     * @param c the character.
+     * @return true if so.
+     */
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
 }
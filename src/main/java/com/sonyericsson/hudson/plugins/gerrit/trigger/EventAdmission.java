@@ -0,0 +1,290 @@
+/*
+ *  The MIT License
+ *
+ *  Copyright 2026 agent. All rights reserved.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package com.sonyericsson.hudson.plugins.gerrit.trigger;
+
+import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.EventListener;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.GerritTrigger;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.data.GerritProject;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.events.PluginGerritEvent;
+import com.sonymobile.tools.gerrit.gerritevents.GerritEventListener;
+import com.sonymobile.tools.gerrit.gerritevents.dto.GerritEvent;
+import com.sonymobile.tools.gerrit.gerritevents.dto.attr.Provider;
+import com.sonymobile.tools.gerrit.gerritevents.dto.events.ChangeAbandoned;
+import com.sonymobile.tools.gerrit.gerritevents.dto.events.ChangeBasedEvent;
+import com.sonymobile.tools.gerrit.gerritevents.dto.events.GerritTriggeredEvent;
+import com.sonymobile.tools.gerrit.gerritevents.dto.events.RefUpdated;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Decides if an event needs to be offered to the listeners of the jobs at all,
+ * from the union of the servers, event types and projects that the configured triggers are interested in.
+ * Events that no trigger could possibly be interested in are only given to the other listeners.
+ *
+ * The triggers are looked up when first needed and again after a trigger has been started or stopped.
+ * The rules only rule out events that {@link GerritTrigger#isInteresting(GerritTriggeredEvent)}
+ * would say no to for every job, so everything else is left to the triggers as before.
+ *
+ * @author agent &lt;agent@local&gt;
+ */
+public final class EventAdmission {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventAdmission.class);
+    private static final EventAdmission INSTANCE = new EventAdmission(
+            Boolean.getBoolean(EventAdmission.class.getName() + ".disabled"));
+
+    private final boolean disabled;
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile List<Rule> rules;
+
+    /**
+     * Constructor.
+     *
+     * @param disabled if all events should be admitted.
+     */
+    EventAdmission(boolean disabled) {
+        this.disabled = disabled;
+    }
+
+    /**
+     * The singleton instance.
+     *
+     * @return the instance.
+     */
+    public static EventAdmission getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Tells that the configuration of the triggers has changed so the rules need to be computed again.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        rules = null;
+    }
+
+    /**
+     * If the event could be interesting to any job.
+     *
+     * @param event the event.
+     * @param listeners the registered listeners, to compute the rules from.
+     * @return true if the listeners of the jobs should be notified.
+     */
+    public boolean isAdmitted(GerritEvent event, Collection<GerritEventListener> listeners) {
+        if (disabled) {
+            return true;
+        }
+        boolean admit = false;
+        if (event instanceof GerritTriggeredEvent) {
+            List<Rule> current = getRules(listeners);
+            if (current == null) {
+                admit = true;
+            } else {
+                for (Rule rule : current) {
+                    if (rule.matches((GerritTriggeredEvent)event)) {
+                        admit = true;
+                        break;
+                    }
+                }
+            }
+        }
+        if (admit) {
+            admitted.incrementAndGet();
+        } else {
+            dropped.incrementAndGet();
+            logger.trace("No job could be interested in event {}", event);
+        }
+        return admit;
+    }
+
+    /**
+     * The number of events that were given to the listeners of the jobs.
+     *
+     * @return the number of events.
+     */
+    public long getAdmittedCount() {
+        return admitted.get();
+    }
+
+    /**
+     * The number of events that no job could be interested in.
+     *
+     * @return the number of events.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * The current rules, computed if needed.
+     *
+     * @param listeners the registered listeners.
+     * @return the rules or null if they could not be computed and everything should be admitted.
+     */
+    private List<Rule> getRules(Collection<GerritEventListener> listeners) {
+        List<Rule> current = rules;
+        if (current != null) {
+            return current;
+        }
+        long startGeneration = generation.get();
+        current = new ArrayList<Rule>();
+        try (ACLContext ctx = ACL.as(ACL.SYSTEM)) {
+            for (GerritEventListener listener : listeners) {
+                if (listener instanceof EventListener) {
+                    GerritTrigger trigger = ((EventListener)listener).getTrigger();
+                    if (trigger == null) {
+                        // Not fully loaded yet, try again with the next event.
+                        return null;
+                    }
+                    current.add(new Rule(trigger));
+                }
+            }
+        }
+        current = Collections.unmodifiableList(current);
+        synchronized (this) {
+            if (generation.get() == startGeneration) {
+                rules = current;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * What one trigger could be interested in.
+     * The configuration is read from the trigger every time, since it can be changed without restarting the trigger.
+     */
+    static final class Rule {
+        private final GerritTrigger trigger;
+
+        /**
+         * Constructor.
+         *
+         * @param trigger the trigger.
+         */
+        Rule(GerritTrigger trigger) {
+            this.trigger = trigger;
+        }
+
+        /**
+         * If the trigger could be interested in the event.
+         *
+         * @param event the event.
+         * @return true if so.
+         */
+        boolean matches(GerritTriggeredEvent event) {
+            try {
+                return isServerMatching(event) && isTypeMatching(event) && isProjectMatching(event);
+            } catch (RuntimeException e) {
+                // The configuration is being changed, let the trigger decide.
+                logger.debug("Could not check the configuration of a trigger", e);
+                return true;
+            }
+        }
+
+        /**
+         * If the event is from the server of the trigger.
+         *
+         * @param event the event.
+         * @return true if so, or if the server is not known.
+         */
+        private boolean isServerMatching(GerritTriggeredEvent event) {
+            String serverName = trigger.getServerName();
+            if (GerritServer.isAnyServer(serverName)) {
+                return true;
+            }
+            Provider provider = event.getProvider();
+            return provider == null || provider.getName() == null || provider.getName().equals(serverName);
+        }
+
+        /**
+         * If the trigger is configured to trigger on the type of the event.
+         * Abandoned changes can also abort builds, so they always match.
+         *
+         * @param event the event.
+         * @return true if so.
+         */
+        private boolean isTypeMatching(GerritTriggeredEvent event) {
+            if (event instanceof ChangeAbandoned) {
+                return true;
+            }
+            List<PluginGerritEvent> triggerOnEvents = trigger.getTriggerOnEvents();
+            if (triggerOnEvents != null) {
+                for (PluginGerritEvent e : triggerOnEvents) {
+                    if (e.shouldTriggerOn(event)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * If the project of the event matches any of the projects of the trigger.
+         * Triggers with a dynamic configuration or a topic association can be interested in any project.
+         *
+         * @param event the event.
+         * @return true if so.
+         */
+        private boolean isProjectMatching(GerritTriggeredEvent event) {
+            if (trigger.isDynamicTriggerConfiguration() || trigger.getTopicAssociation() != null) {
+                return true;
+            }
+            String project;
+            if (event instanceof ChangeBasedEvent && ((ChangeBasedEvent)event).getChange() != null) {
+                project = ((ChangeBasedEvent)event).getChange().getProject();
+            } else if (event instanceof RefUpdated && ((RefUpdated)event).getRefUpdate() != null) {
+                project = ((RefUpdated)event).getRefUpdate().getProject();
+            } else {
+                return true;
+            }
+            List<GerritProject> projects = trigger.getGerritProjects();
+            if (project == null) {
+                return true;
+            } else if (projects == null) {
+                return false;
+            }
+            for (GerritProject p : projects) {
+                try {
+                    if (p.getCompareType().matches(p.getPattern(), project)) {
+                        return true;
+                    }
+                } catch (PatternSyntaxException e) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
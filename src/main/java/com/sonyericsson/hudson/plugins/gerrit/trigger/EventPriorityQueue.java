@@ -0,0 +1,792 @@
+/*
+ *  The MIT License
+ *
+ *  Copyright 2026 agent. All rights reserved.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package com.sonyericsson.hudson.plugins.gerrit.trigger;
+
+import com.sonymobile.tools.gerrit.gerritevents.workers.Work;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The work queue of the {@link JenkinsAwareGerritHandler}, one queue per {@link Priority}
+ * served in turns according to their weights so that a flood of low priority events
+ * does not hold up the events developers are waiting for.
+ *
+ * The priority of an event is looked up from rules in the global configuration on the form
+ * <code>[server:]event-type=high|normal|low</code>, one per line, where the event type can be <code>*</code>.
+ * When more than <code>&lt;this class name&gt;.overloadThreshold</code> events are waiting,
+ * low priority events are either shed or deferred until there is nothing else to do,
+ * as set by <code>&lt;this class name&gt;.overloadPolicy</code>.
+ * The weights of the priorities are set with <code>&lt;this class name&gt;.weights</code>, highest first.
+ *
+ * Events of one change are taken in the order they were added: while an event of a change is waiting,
+ * later events of the same change join its lane whatever their own priority is.
+ * Ref replicated events are never low priority, since builds wait for them.
+ *
+ * @author agent &lt;agent@local&gt;
+ */
+public final class EventPriorityQueue extends AbstractQueue<Work> implements BlockingQueue<Work> {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventPriorityQueue.class);
+
+    /**
+     * The priority classes, highest first.
+     */
+    public enum Priority {
+        /**
+         * Served most often.
+         */
+        HIGH,
+        /**
+         * What events get when no rule matches.
+         */
+        NORMAL,
+        /**
+         * Served least often, shed or deferred when overloaded.
+         */
+        LOW
+    }
+
+    /**
+     * What happens to low priority events when the queue is overloaded.
+     */
+    public enum OverloadPolicy {
+        /**
+         * Low priority events are queued but only handled when no other events are waiting.
+         */
+        DEFER,
+        /**
+         * Low priority events are dropped.
+         */
+        SHED
+    }
+
+    /**
+     * The number of waiting events from which the queue is overloaded, 0 to never be.
+     */
+    public static final int OVERLOAD_THRESHOLD =
+            Integer.getInteger(EventPriorityQueue.class.getName() + ".overloadThreshold", 1000);
+
+    /**
+     * What to do with low priority events when overloaded.
+     */
+    public static final OverloadPolicy OVERLOAD_POLICY =
+            parsePolicy(System.getProperty(EventPriorityQueue.class.getName() + ".overloadPolicy"));
+
+    private static final String DEFAULT_WEIGHTS = "8,4,1";
+    private static final long LEGACY_CHECK_MILLIS = 100;
+    private static final String ANY_TYPE = "*";
+    private static final String TYPE_ATTRIBUTE = "\"type\":\"";
+    private static final String CHANGE_ATTRIBUTE = "\"change\":{";
+    private static final String ID_ATTRIBUTE = "\"id\":\"";
+    /**
+     * The type of the events builds blocked by the replication dispatcher wait for.
+     */
+    static final String REF_REPLICATED = "ref-replicated";
+
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    private final BlockingQueue<Work> legacy;
+    private final List<Deque<Queued>> lanes = new ArrayList<Deque<Queued>>(PRIORITIES.length);
+    //The lane and number of waiting events of each change with events waiting, to keep them in order.
+    private final Map<String, Waiting> waiting = new HashMap<String, Waiting>();
+    private final int[] weights;
+    private final int[] credits = new int[PRIORITIES.length];
+    private final int overloadThreshold;
+    private final OverloadPolicy overloadPolicy;
+    private final AtomicLongArray shedCount = new AtomicLongArray(PRIORITIES.length);
+    private final AtomicLongArray deferredCount = new AtomicLongArray(PRIORITIES.length);
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private volatile Map<String, Priority> rules = Collections.emptyMap();
+    private volatile String ruleText = "";
+
+    /**
+     * Constructor.
+     *
+     * @param legacy a queue work can be added to without going through this one, taken as normal priority.
+     *               Can be null.
+     * @param weights the weights of the priorities, highest first.
+     * @param overloadThreshold the number of waiting events from which the queue is overloaded, 0 to never be.
+     * @param overloadPolicy what to do with low priority events when overloaded.
+     */
+    EventPriorityQueue(BlockingQueue<Work> legacy, int[] weights, int overloadThreshold,
+                       OverloadPolicy overloadPolicy) {
+        this.legacy = legacy;
+        this.weights = weights.clone();
+        this.overloadThreshold = overloadThreshold;
+        this.overloadPolicy = overloadPolicy;
+        for (int i = 0; i < PRIORITIES.length; i++) {
+            lanes.add(new ArrayDeque<Queued>());
+        }
+    }
+
+    /**
+     * Constructor with the weights and overload settings from the system properties.
+     *
+     * @param legacy a queue work can be added to without going through this one, taken as normal priority.
+     *               Can be null.
+     */
+    EventPriorityQueue(BlockingQueue<Work> legacy) {
+        this(legacy, parseWeights(System.getProperty(EventPriorityQueue.class.getName() + ".weights",
+                DEFAULT_WEIGHTS)), OVERLOAD_THRESHOLD, OVERLOAD_POLICY);
+    }
+
+    /**
+     * Parses the name of an overload policy.
+     *
+     * @param name the name, can be null.
+     * @return the policy, {@link OverloadPolicy#DEFER} if the name is not known.
+     */
+    static OverloadPolicy parsePolicy(String name) {
+        if (name != null) {
+            try {
+                return OverloadPolicy.valueOf(name.trim().toUpperCase(Locale.ENGLISH));
+            } catch (IllegalArgumentException e) {
+                logger.warn("Unknown overload policy '{}', using {}", name, OverloadPolicy.DEFER);
+            }
+        }
+        return OverloadPolicy.DEFER;
+    }
+
+    /**
+     * Parses a comma separated list of weights, highest priority first.
+     *
+     * @param text the text.
+     * @return the weights.
+     */
+    static int[] parseWeights(String text) {
+        int[] parsed = parseWeightsOrNull(text);
+        if (parsed == null) {
+            logger.warn("Bad event priority weights '{}', using {}", text, DEFAULT_WEIGHTS);
+            parsed = parseWeightsOrNull(DEFAULT_WEIGHTS);
+        }
+        return parsed;
+    }
+
+    /**
+     * Parses a comma separated list of weights.
+     *
+     * @param text the text.
+     * @return the weights, or null if the text is not one weight per priority.
+     */
+    private static int[] parseWeightsOrNull(String text) {
+        String[] parts = text.split(",");
+        if (parts.length != PRIORITIES.length) {
+            return null;
+        }
+        int[] parsed = new int[PRIORITIES.length];
+        try {
+            for (int i = 0; i < parts.length; i++) {
+                parsed[i] = Math.max(Integer.parseInt(parts[i].trim()), 0);
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return parsed;
+    }
+
+    /**
+     * Sets the priority rules, one per line on the form <code>[server:]event-type=priority</code>.
+     * Empty lines and lines starting with # are ignored, bad lines are logged and ignored.
+     *
+     * @param text the rules, can be null.
+     */
+    public void setRules(String text) {
+        Map<String, Priority> parsed = new HashMap<String, Priority>();
+        if (text != null) {
+            for (String line : text.split("\\r?\\n")) {
+                String rule = line.trim();
+                if (rule.isEmpty() || rule.startsWith("#")) {
+                    continue;
+                }
+                int equals = rule.lastIndexOf('=');
+                Priority priority = null;
+                if (equals > 0) {
+                    try {
+                        priority = Priority.valueOf(rule.substring(equals + 1).trim().toUpperCase(Locale.ENGLISH));
+                    } catch (IllegalArgumentException e) {
+                        priority = null;
+                    }
+                }
+                if (priority == null) {
+                    logger.warn("Ignoring bad event priority rule: {}", rule);
+                    continue;
+                }
+                String selector = rule.substring(0, equals).trim();
+                int colon = selector.lastIndexOf(':');
+                String server = null;
+                String type = selector;
+                if (colon >= 0) {
+                    server = selector.substring(0, colon).trim();
+                    type = selector.substring(colon + 1).trim();
+                }
+                if (priority == Priority.LOW && REF_REPLICATED.equals(type)) {
+                    logger.warn("Ref replicated events can't be low priority since builds wait for them, "
+                            + "using normal for the rule: {}", rule);
+                    priority = Priority.NORMAL;
+                }
+                parsed.put(key(server, type), priority);
+            }
+        }
+        rules = parsed;
+        if (text == null) {
+            ruleText = "";
+        } else {
+            ruleText = text;
+        }
+    }
+
+    /**
+     * The priority rules as last set.
+     *
+     * @return the rules.
+     */
+    public String getRules() {
+        return ruleText;
+    }
+
+    /**
+     * The key of a rule.
+     *
+     * @param server the server name, null or empty for any server.
+     * @param type the event type or *.
+     * @return the key.
+     */
+    private static String key(String server, String type) {
+        if (server == null || server.isEmpty()) {
+            return type;
+        }
+        return server + '\t' + type;
+    }
+
+    /**
+     * Looks up the priority of an event, the most specific matching rule wins.
+     * Ref replicated events are never low priority, a rule for any type makes them normal.
+     *
+     * @param server the name of the server the event is from, can be null.
+     * @param type the event type, can be null.
+     * @return the priority.
+     */
+    public Priority getPriority(String server, String type) {
+        Priority priority = lookUpPriority(server, type);
+        if (priority == Priority.LOW && REF_REPLICATED.equals(type)) {
+            return Priority.NORMAL;
+        }
+        return priority;
+    }
+
+    /**
+     * Looks up the priority of an event from the rules, the most specific matching rule wins.
+     *
+     * @param server the name of the server the event is from, can be null.
+     * @param type the event type, can be null.
+     * @return the priority.
+     */
+    private Priority lookUpPriority(String server, String type) {
+        Map<String, Priority> current = rules;
+        if (current.isEmpty()) {
+            return Priority.NORMAL;
+        }
+        Priority priority = null;
+        if (server != null) {
+            if (type != null) {
+                priority = current.get(key(server, type));
+            }
+            if (priority == null) {
+                priority = current.get(key(server, ANY_TYPE));
+            }
+        }
+        if (priority == null && type != null) {
+            priority = current.get(type);
+        }
+        if (priority == null) {
+            priority = current.get(ANY_TYPE);
+        }
+        if (priority == null) {
+            return Priority.NORMAL;
+        }
+        return priority;
+    }
+
+    /**
+     * Looks up the priority of an event that is not parsed yet.
+     * The event type is found with a search of the JSON for a type attribute with a value that a rule is for,
+     * or that is ref replicated, which is cheap compared to parsing the event.
+     *
+     * @param server the name of the server the event is from, can be null.
+     * @param json the JSON of the event.
+     * @return the priority.
+     */
+    public Priority getPriorityOfLine(String server, String json) {
+        Map<String, Priority> current = rules;
+        if (current.isEmpty()) {
+            return Priority.NORMAL;
+        }
+        String type = null;
+        int from = json.indexOf(TYPE_ATTRIBUTE);
+        while (type == null && from >= 0) {
+            int start = from + TYPE_ATTRIBUTE.length();
+            int end = json.indexOf('"', start);
+            if (end < 0) {
+                break;
+            }
+            String candidate = json.substring(start, end);
+            if (current.containsKey(candidate) || (server != null && current.containsKey(key(server, candidate)))
+                    || REF_REPLICATED.equals(candidate)) {
+                type = candidate;
+            }
+            from = json.indexOf(TYPE_ATTRIBUTE, end);
+        }
+        return getPriority(server, type);
+    }
+
+    /**
+     * The key that keeps the events of one change in order, found with a search of the JSON
+     * for the id of the change, which is cheap compared to parsing the event.
+     *
+     * @param server the name of the server the event is from, can be null.
+     * @param json the JSON of the event.
+     * @return the key, or null if the event is not for a change.
+     */
+    public static String getOrderKeyOfLine(String server, String json) {
+        int change = json.indexOf(CHANGE_ATTRIBUTE);
+        if (change < 0) {
+            return null;
+        }
+        int start = json.indexOf(ID_ATTRIBUTE, change + CHANGE_ATTRIBUTE.length());
+        if (start < 0) {
+            return null;
+        }
+        start += ID_ATTRIBUTE.length();
+        int end = json.indexOf('"', start);
+        if (end < 0) {
+            return null;
+        }
+        return getOrderKey(server, json.substring(start, end));
+    }
+
+    /**
+     * The key that keeps the events of one change in order.
+     *
+     * @param server the name of the server the event is from, can be null.
+     * @param changeId the id of the change, can be null.
+     * @return the key, or null if there is no change.
+     */
+    public static String getOrderKey(String server, String changeId) {
+        if (changeId == null || changeId.isEmpty()) {
+            return null;
+        }
+        return key(server, changeId);
+    }
+
+    /**
+     * Adds work with a priority, unless it is shed because the queue is overloaded.
+     *
+     * @param work the work.
+     * @param priority the priority.
+     * @return false if the work was shed.
+     */
+    public boolean offer(Work work, Priority priority) {
+        return offer(work, priority, null);
+    }
+
+    /**
+     * Adds work with a priority, unless it is shed because the queue is overloaded.
+     * While other work with the same order key is waiting, the work joins the lane of that work
+     * so that it is not taken before it.
+     *
+     * @param work the work.
+     * @param priority the priority.
+     * @param orderKey the key of the work to keep in order with, usually the change, can be null.
+     * @return false if the work was shed.
+     */
+    public boolean offer(Work work, Priority priority, String orderKey) {
+        if (work == null) {
+            throw new NullPointerException();
+        }
+        lock.lock();
+        try {
+            if (priority == Priority.LOW && isOverloadedLocked()) {
+                if (overloadPolicy == OverloadPolicy.SHED) {
+                    shedCount.incrementAndGet(priority.ordinal());
+                    return false;
+                }
+                deferredCount.incrementAndGet(priority.ordinal());
+            }
+            int lane = priority.ordinal();
+            if (orderKey != null) {
+                Waiting earlier = waiting.get(orderKey);
+                if (earlier == null) {
+                    waiting.put(orderKey, new Waiting(lane));
+                } else {
+                    lane = earlier.lane;
+                    earlier.count++;
+                }
+            }
+            lanes.get(lane).addLast(new Queued(work, orderKey));
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(Work work) {
+        return offer(work, Priority.NORMAL, null);
+    }
+
+    @Override
+    public void put(Work work) {
+        offer(work);
+    }
+
+    @Override
+    public boolean offer(Work work, long timeout, TimeUnit unit) {
+        return offer(work);
+    }
+
+    @Override
+    public Work take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            Work work = pollLocked();
+            while (work == null) {
+                notEmpty.await(LEGACY_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+                work = pollLocked();
+            }
+            return work;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Work poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        long check = TimeUnit.MILLISECONDS.toNanos(LEGACY_CHECK_MILLIS);
+        lock.lockInterruptibly();
+        try {
+            Work work = pollLocked();
+            while (work == null && nanos > 0) {
+                long waited = Math.min(nanos, check);
+                nanos -= waited - notEmpty.awaitNanos(waited);
+                work = pollLocked();
+            }
+            return work;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Work poll() {
+        lock.lock();
+        try {
+            return pollLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes the next work in turn, the lanes are served by their weights
+     * and a deferred lane only when the others are empty.
+     *
+     * @return the work or null if there is none.
+     */
+    private Work pollLocked() {
+        drainLegacyLocked();
+        boolean deferLow = overloadPolicy == OverloadPolicy.DEFER && isOverloadedLocked();
+        for (int round = 0; round < 2; round++) {
+            for (Priority priority : PRIORITIES) {
+                int i = priority.ordinal();
+                Deque<Queued> lane = lanes.get(i);
+                if (credits[i] > 0 && !lane.isEmpty() && !(deferLow && priority == Priority.LOW)) {
+                    credits[i]--;
+                    return takeLocked(lane);
+                }
+            }
+            System.arraycopy(weights, 0, credits, 0, credits.length);
+        }
+        for (Deque<Queued> lane : lanes) {
+            if (!lane.isEmpty()) {
+                return takeLocked(lane);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Takes the first work of a lane and forgets its order key when no other work with it is waiting.
+     *
+     * @param lane the lane, not empty.
+     * @return the work.
+     */
+    private Work takeLocked(Deque<Queued> lane) {
+        Queued queued = lane.pollFirst();
+        if (queued.orderKey != null) {
+            Waiting others = waiting.get(queued.orderKey);
+            if (others != null && --others.count <= 0) {
+                waiting.remove(queued.orderKey);
+            }
+        }
+        return queued.work;
+    }
+
+    /**
+     * Moves the work added directly to the legacy queue to the normal lane.
+     */
+    private void drainLegacyLocked() {
+        if (legacy != null && !legacy.isEmpty()) {
+            List<Work> drained = new ArrayList<Work>(legacy.size());
+            legacy.drainTo(drained);
+            Deque<Queued> lane = lanes.get(Priority.NORMAL.ordinal());
+            for (Work work : drained) {
+                lane.addLast(new Queued(work, null));
+            }
+        }
+    }
+
+    /**
+     * If so many events are waiting that low priority events are shed or deferred.
+     *
+     * @return true if so.
+     */
+    private boolean isOverloadedLocked() {
+        return overloadThreshold > 0 && sizeLocked() >= overloadThreshold;
+    }
+
+    /**
+     * The number of waiting events.
+     *
+     * @return the number.
+     */
+    private int sizeLocked() {
+        int size = 0;
+        for (Deque<Queued> lane : lanes) {
+            size += lane.size();
+        }
+        if (legacy != null) {
+            size += legacy.size();
+        }
+        return size;
+    }
+
+    /**
+     * The first work of the highest priority lane that has any, not necessarily the one taken next.
+     *
+     * @return the work or null.
+     */
+    @Override
+    public Work peek() {
+        lock.lock();
+        try {
+            drainLegacyLocked();
+            for (Deque<Queued> lane : lanes) {
+                if (!lane.isEmpty()) {
+                    return lane.peekFirst().work;
+                }
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return sizeLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A snapshot of the waiting work, highest priority first. Does not support removal.
+     *
+     * @return the iterator.
+     */
+    @Override
+    public Iterator<Work> iterator() {
+        lock.lock();
+        try {
+            drainLegacyLocked();
+            List<Work> all = new ArrayList<Work>(sizeLocked());
+            for (Deque<Queued> lane : lanes) {
+                for (Queued queued : lane) {
+                    all.add(queued.work);
+                }
+            }
+            return Collections.unmodifiableList(all).iterator();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public int drainTo(Collection<? super Work> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super Work> c, int maxElements) {
+        lock.lock();
+        try {
+            int count = 0;
+            Work work;
+            while (count < maxElements && (work = pollLocked()) != null) {
+                c.add(work);
+                count++;
+            }
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The number of events waiting with a priority.
+     *
+     * @param priority the priority.
+     * @return the number.
+     */
+    public int getDepth(Priority priority) {
+        lock.lock();
+        try {
+            drainLegacyLocked();
+            return lanes.get(priority.ordinal()).size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The weight of a priority, how many of its events are taken in each turn.
+     *
+     * @param priority the priority.
+     * @return the weight.
+     */
+    public int getWeight(Priority priority) {
+        return weights[priority.ordinal()];
+    }
+
+    /**
+     * The number of events with a priority that have been dropped since the queue was overloaded.
+     *
+     * @param priority the priority.
+     * @return the number.
+     */
+    public long getShedCount(Priority priority) {
+        return shedCount.get(priority.ordinal());
+    }
+
+    /**
+     * The number of events with a priority that have been deferred since the queue was overloaded.
+     *
+     * @param priority the priority.
+     * @return the number.
+     */
+    public long getDeferredCount(Priority priority) {
+        return deferredCount.get(priority.ordinal());
+    }
+
+    /**
+     * The number of waiting events from which the queue is overloaded.
+     *
+     * @return the threshold, 0 if never.
+     */
+    public int getOverloadThreshold() {
+        return overloadThreshold;
+    }
+
+    /**
+     * What is done with low priority events when overloaded.
+     *
+     * @return the policy.
+     */
+    public OverloadPolicy getOverloadPolicy() {
+        return overloadPolicy;
+    }
+
+    /**
+     * Work in a lane with the key it is kept in order with.
+     */
+    private static final class Queued {
+        private final Work work;
+        private final String orderKey;
+
+        /**
+         * Constructor.
+         *
+         * @param work the work.
+         * @param orderKey the order key, can be null.
+         */
+        private Queued(Work work, String orderKey) {
+            this.work = work;
+            this.orderKey = orderKey;
+        }
+    }
+
+    /**
+     * The lane and number of waiting work with one order key.
+     */
+    private static final class Waiting {
+        private final int lane;
+        private int count = 1;
+
+        /**
+         * Constructor.
+         *
+         * @param lane the lane the first work was added to.
+         */
+        private Waiting(int lane) {
+            this.lane = lane;
+        }
+    }
+}
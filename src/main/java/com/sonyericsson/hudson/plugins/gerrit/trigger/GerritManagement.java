@@ -247,6 +247,7 @@ public class GerritManagement extends ManagementLink implements StaplerProxy, De
             obj.put("status", status);
             obj.put("hasErrors", server.hasErrors());
             obj.put("hasWarnings", server.hasWarnings());
+            obj.put("playback", server.getMissedEventsPlaybackProgress());
             array.add(obj);
         }
 
@@ -421,8 +422,17 @@ public class GerritManagement extends ManagementLink implements StaplerProxy, De
             pluginConfig.setValues(form);
             PluginImpl.save_();
             GerritSendCommandQueue.configure(pluginConfig);
+            PluginImpl plugin = PluginImpl.getInstance();
+            if (plugin != null && plugin.isActive()) {
+                if (plugin.getWorkerPoolScaler() != null) {
+                    plugin.getWorkerPoolScaler().configurationChanged();
+                }
+                if (plugin.getHandler() instanceof JenkinsAwareGerritHandler) {
+                    ((JenkinsAwareGerritHandler)plugin.getHandler()).setEventPriorities(
+                            pluginConfig.getEventPriorities());
+                }
+            }
         }
-        //TODO reconfigure the incoming worker threads as well
 
         rsp.sendRedirect(".");
     }
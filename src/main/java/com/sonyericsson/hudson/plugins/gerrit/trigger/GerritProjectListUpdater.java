@@ -270,7 +270,10 @@ public class GerritProjectListUpdater implements ConnectionListener, NamedGerrit
                         activeConfig.getGerritProxy(),
                         activeConfig.getGerritAuthentication()
                 );
-                List<String> projects = readProjects(sshConnection.executeCommandReader(GERRIT_LS_PROJECTS));
+                List<String> projects;
+                try (BlockingIoExecutor.Permit permit = BlockingIoExecutor.getInstance().acquire(serverName)) {
+                    projects = readProjects(sshConnection.executeCommandReader(GERRIT_LS_PROJECTS));
+                }
                 if (projects.size() > 0) {
                     setGerritProjects(projects);
                     logger.info("Project list from {} contains {} entries", serverName, projects.size());
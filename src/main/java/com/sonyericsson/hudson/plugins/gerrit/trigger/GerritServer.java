@@ -67,6 +67,7 @@ import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
+import edu.umd.cs.findbugs.annotations.CheckForNull;
 import javax.servlet.ServletException;
 
 import jenkins.model.Jenkins;
@@ -117,6 +118,8 @@ import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.GerritConnec
 import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.GerritTrigger;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.data.GerritSlave;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.playback.GerritMissedEventsPlaybackManager;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.playback.PlaybackProgress;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.version.GerritFeatureSet;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.version.GerritVersionChecker;
 
 /**
@@ -284,6 +287,17 @@ public class GerritServer implements Describable<GerritServer>, Action {
      */
     public void setName(String name) {
         this.name = name;
+        reindexServers();
+    }
+
+    /**
+     * Tells {@link PluginImpl} that the name of this server has changed.
+     */
+    private void reindexServers() {
+        PluginImpl plugin = PluginImpl.getInstance();
+        if (plugin != null) {
+            plugin.serverRenamed();
+        }
     }
 
     /**
@@ -712,6 +726,19 @@ public class GerritServer implements Describable<GerritServer>, Action {
         }
     }
 
+    /**
+     * The features supported by the connected Gerrit, as computed by the connection listener
+     * when the connection was established.
+     *
+     * @return the feature set, or null if not connected or the listener is not initialized.
+     */
+    public GerritFeatureSet getFeatureSet() {
+        if (gerritConnectionListener != null) {
+            return gerritConnectionListener.getFeatureSet();
+        }
+        return null;
+    }
+
     /**
      * Return if the current server support replication events.
      * @return true if replication events are supported, otherwise false
@@ -983,6 +1010,7 @@ public class GerritServer implements Describable<GerritServer>, Action {
             stop();
             String oldName = name;
             name = newName;
+            reindexServers();
             start();
             startConnection();
             changeSelectedServerInJobs(oldName);
@@ -990,6 +1018,7 @@ public class GerritServer implements Describable<GerritServer>, Action {
             stop();
             String oldName = name;
             name = newName;
+            reindexServers();
             start();
             changeSelectedServerInJobs(oldName);
         }
@@ -1226,6 +1255,22 @@ public class GerritServer implements Describable<GerritServer>, Action {
         return false;
     }
 
+    /**
+     * How far the playback of missed events has come, for display.
+     *
+     * @return the progress or null if no playback is in progress.
+     */
+    @CheckForNull
+    public String getMissedEventsPlaybackProgress() {
+        if (missedEventsPlaybackManager != null) {
+            PlaybackProgress progress = missedEventsPlaybackManager.getPlayBackProgress();
+            if (progress != null) {
+                return progress.getDisplayText();
+            }
+        }
+        return null;
+    }
+
     /**
      * If server with features disabled due to old Gerrit version.
      *
@@ -28,10 +28,31 @@ import hudson.security.ACLContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.sonymobile.tools.gerrit.gerritevents.GerritEventListener;
 import com.sonymobile.tools.gerrit.gerritevents.GerritHandler;
 import com.sonymobile.tools.gerrit.gerritevents.dto.GerritEvent;
+import com.sonymobile.tools.gerrit.gerritevents.dto.attr.Provider;
+import com.sonymobile.tools.gerrit.gerritevents.dto.events.ChangeBasedEvent;
+import com.sonymobile.tools.gerrit.gerritevents.dto.events.CommentAdded;
+import com.sonymobile.tools.gerrit.gerritevents.dto.events.GerritTriggeredEvent;
+import com.sonymobile.tools.gerrit.gerritevents.workers.Coordinator;
 import com.sonymobile.tools.gerrit.gerritevents.workers.EventThread;
+import com.sonymobile.tools.gerrit.gerritevents.workers.GerritEventWork;
+import com.sonymobile.tools.gerrit.gerritevents.workers.StreamEventsStringWork;
+import com.sonymobile.tools.gerrit.gerritevents.workers.Work;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.events.lifecycle.GerritEventLifecycle;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.events.source.GerritEventSource;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.EventListener;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Specialization of GerritHandler that supports gerrit event's
@@ -41,8 +62,36 @@ import com.sonyericsson.hudson.plugins.gerrit.trigger.events.lifecycle.GerritEve
  */
 public class JenkinsAwareGerritHandler extends GerritHandler {
 
+    /**
+     * The number of listeners from which the listeners of the jobs are notified about one event in parallel,
+     * 0 to always notify them one at a time on the worker thread.
+     */
+    public static final int PARALLEL_SCAN_THRESHOLD =
+            Integer.getInteger(JenkinsAwareGerritHandler.class.getName() + ".parallelScanThreshold", 0);
+
+    /**
+     * The most listeners notified one after the other by one thread of a parallel scan.
+     */
+    public static final int PARALLEL_SCAN_CHUNK_SIZE =
+            Integer.getInteger(JenkinsAwareGerritHandler.class.getName() + ".parallelScanChunkSize", 64);
+
+    /**
+     * The number of threads doing parallel scans.
+     */
+    public static final int PARALLEL_SCAN_THREADS = Integer.getInteger(
+            JenkinsAwareGerritHandler.class.getName() + ".parallelScanThreads",
+            Runtime.getRuntime().availableProcessors());
+
     private static final Logger logger = LoggerFactory.getLogger(JenkinsAwareGerritHandler.class);
 
+    private volatile int parallelScanThreshold = PARALLEL_SCAN_THRESHOLD;
+    private ForkJoinPool scanPool;
+    private final int numberOfBaseWorkerThreads;
+    private final List<ElasticEventThread> extraWorkers = new ArrayList<ElasticEventThread>();
+    private final AtomicLong handledCount = new AtomicLong();
+    //Created on first use since the worker threads started by the super constructor ask for it.
+    private volatile EventPriorityQueue priorityQueue;
+
     /**
      * Standard Constructor.
      *
@@ -51,6 +100,7 @@ public class JenkinsAwareGerritHandler extends GerritHandler {
      */
     public JenkinsAwareGerritHandler(int numberOfWorkerThreads) {
         super(numberOfWorkerThreads);
+        this.numberOfBaseWorkerThreads = numberOfWorkerThreads;
     }
 
     /**
@@ -66,6 +116,308 @@ public class JenkinsAwareGerritHandler extends GerritHandler {
 
     @Override
     public void notifyListeners(GerritEvent event) {
+        try {
+            Set<GerritEventListener> listeners = getGerritEventListenersView();
+            if (!EventAdmission.getInstance().isAdmitted(event, listeners)) {
+                notifyListeners(event, () -> notifyOtherListeners(event));
+            } else if (isParallelScan(event, listeners)) {
+                notifyListeners(event, () -> notifyListenersInParallel(event, listeners));
+            } else {
+                notifyListeners(event, () -> super.notifyListeners(event));
+            }
+        } finally {
+            handledCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * The queue of the worker threads, with a lane per {@link EventPriorityQueue.Priority}.
+     *
+     * @return the queue.
+     */
+    @Override
+    public EventPriorityQueue getWorkQueue() {
+        EventPriorityQueue queue = priorityQueue;
+        if (queue == null) {
+            synchronized (this) {
+                queue = priorityQueue;
+                if (queue == null) {
+                    queue = new EventPriorityQueue(super.getWorkQueue());
+                    priorityQueue = queue;
+                }
+            }
+        }
+        return queue;
+    }
+
+    /**
+     * Sets the rules the priorities of events are looked up from.
+     *
+     * @param rules the rules, one per line.
+     * @see EventPriorityQueue#setRules(String)
+     */
+    public void setEventPriorities(String rules) {
+        getWorkQueue().setRules(rules);
+    }
+
+    /**
+     * Adds the event to the queue with the priority of its type and server.
+     * If it is shed since the queue is overloaded, anyone waiting for it to be handled is told it is.
+     *
+     * @param event the event.
+     */
+    @Override
+    public void post(GerritEvent event) {
+        post(event, null);
+    }
+
+    /**
+     * Adds the event to the queue the same way as {@link #post(GerritEvent)}
+     * and tells when the listeners have been notified about it, or when it was shed.
+     * Lets a producer of events keep track of how far behind the workers are.
+     *
+     * @param event the event.
+     * @param notified run on the worker thread after the listeners have been notified, can be null.
+     */
+    public void post(GerritEvent event, Runnable notified) {
+        String server = null;
+        if (event instanceof GerritTriggeredEvent && ((GerritTriggeredEvent)event).getProvider() != null) {
+            server = ((GerritTriggeredEvent)event).getProvider().getName();
+        }
+        String type = null;
+        if (event.getEventType() != null) {
+            type = event.getEventType().getTypeValue();
+        }
+        String orderKey = null;
+        if (event instanceof ChangeBasedEvent && ((ChangeBasedEvent)event).getChange() != null) {
+            orderKey = EventPriorityQueue.getOrderKey(server, ((ChangeBasedEvent)event).getChange().getId());
+        }
+        Work work = new GerritEventWork(event);
+        if (notified != null) {
+            work = new NotifiedWork(work, notified);
+        }
+        EventPriorityQueue queue = getWorkQueue();
+        if (!queue.offer(work, queue.getPriority(server, type), orderKey)) {
+            logger.debug("Shed event since the queue is overloaded: {}", event);
+            if (notified != null) {
+                notified.run();
+            }
+        }
+    }
+
+    /**
+     * Lets the {@link GerritEventSource}s see the raw stream before the line is added to the queue
+     * with the priority of its type and server.
+     *
+     * @param data the JSON of the event.
+     * @param provider the provider of the event.
+     */
+    @Override
+    public void post(String data, Provider provider) {
+        GerritEventSource.fireReceived(provider, data);
+        String server = null;
+        if (provider != null) {
+            server = provider.getName();
+        }
+        EventPriorityQueue queue = getWorkQueue();
+        if (!queue.offer(new StreamEventsStringWork(data, provider), queue.getPriorityOfLine(server, data),
+                EventPriorityQueue.getOrderKeyOfLine(server, data))) {
+            logger.debug("Shed event since the queue is overloaded: {}", data);
+        }
+    }
+
+    /**
+     * Sets the number of listeners from which the listeners of the jobs are notified in parallel.
+     *
+     * @param parallelScanThreshold the number of listeners, 0 to never notify in parallel.
+     * @see #PARALLEL_SCAN_THRESHOLD
+     */
+    public void setParallelScanThreshold(int parallelScanThreshold) {
+        this.parallelScanThreshold = parallelScanThreshold;
+    }
+
+    @Override
+    public void shutdown(boolean join) {
+        setNumberOfExtraWorkerThreads(0);
+        super.shutdown(join);
+        synchronized (this) {
+            if (scanPool != null) {
+                scanPool.shutdown();
+                scanPool = null;
+            }
+        }
+    }
+
+    /**
+     * The number of worker threads the handler was created with, it never has fewer.
+     *
+     * @return the number of threads.
+     */
+    public int getNumberOfBaseWorkerThreads() {
+        return numberOfBaseWorkerThreads;
+    }
+
+    /**
+     * The number of worker threads taking work from the queue, the base ones and the extra ones.
+     *
+     * @return the number of threads.
+     */
+    public synchronized int getWorkerThreadCount() {
+        return numberOfBaseWorkerThreads + extraWorkers.size();
+    }
+
+    /**
+     * Starts or retires worker threads on top of the ones the handler was created with.
+     * Retired threads finish the work they are doing before they stop.
+     *
+     * @param count the number of extra threads.
+     */
+    public synchronized void setNumberOfExtraWorkerThreads(int count) {
+        while (extraWorkers.size() < count) {
+            ElasticEventThread thread = new ElasticEventThread(this,
+                    "Gerrit Worker EventThread_" + (numberOfBaseWorkerThreads + extraWorkers.size()));
+            thread.start();
+            extraWorkers.add(thread);
+        }
+        while (extraWorkers.size() > Math.max(count, 0)) {
+            extraWorkers.remove(extraWorkers.size() - 1).retire();
+        }
+    }
+
+    /**
+     * The number of events and lines waiting for a worker thread.
+     *
+     * @return the queue depth.
+     */
+    public int getQueuedWorkCount() {
+        return getWorkQueue().size();
+    }
+
+    /**
+     * The number of events the listeners have been notified about since the handler was created.
+     *
+     * @return the number of events.
+     */
+    public long getHandledCount() {
+        return handledCount.get();
+    }
+
+    /**
+     * The pool doing parallel scans, created the first time it is needed.
+     *
+     * @return the pool.
+     */
+    private synchronized ForkJoinPool getScanPool() {
+        if (scanPool == null) {
+            scanPool = new ForkJoinPool(PARALLEL_SCAN_THREADS, pool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("Gerrit trigger scan " + thread.getPoolIndex());
+                return thread;
+            }, null, false);
+        }
+        return scanPool;
+    }
+
+    /**
+     * If the listeners of the jobs should be notified about the event in parallel.
+     * Comments always go through {@link GerritHandler#notifyListeners(GerritEvent)},
+     * which leaves out the comments made by the user Jenkins connects as.
+     *
+     * @param event the event.
+     * @param listeners the listeners.
+     * @return true if so.
+     */
+    private boolean isParallelScan(GerritEvent event, Set<GerritEventListener> listeners) {
+        int threshold = parallelScanThreshold;
+        return threshold > 0 && listeners.size() >= threshold && !(event instanceof CommentAdded);
+    }
+
+    /**
+     * Notifies all listeners, the ones for jobs split in chunks that are notified in parallel.
+     * The other listeners are notified first on the current thread, so that for example
+     * the {@link com.sonyericsson.hudson.plugins.gerrit.trigger.dependency.DependencyQueueTaskDispatcher}
+     * has seen the event before any build for it is scheduled. Returns when all listeners have been notified,
+     * so the trigger scan is done when the lifecycle listeners are told it is.
+     *
+     * @param event the event.
+     * @param listeners the listeners.
+     */
+    private void notifyListenersInParallel(GerritEvent event, Set<GerritEventListener> listeners) {
+        List<GerritEventListener> jobListeners = new ArrayList<GerritEventListener>(listeners.size());
+        for (GerritEventListener listener : listeners) {
+            if (listener instanceof EventListener) {
+                jobListeners.add(listener);
+            } else {
+                notifySafely(listener, event);
+            }
+        }
+        if (!jobListeners.isEmpty()) {
+            getScanPool().invoke(new ScanTask(event, jobListeners, 0, jobListeners.size()));
+        }
+    }
+
+    /**
+     * Notifies one listener, logging if it fails.
+     *
+     * @param listener the listener.
+     * @param event the event.
+     */
+    private static void notifySafely(GerritEventListener listener, GerritEvent event) {
+        try {
+            notifyListener(listener, event);
+        } catch (Exception ex) {
+            logger.error("When notifying listener: " + listener + " about event: " + event, ex);
+        }
+    }
+
+    /**
+     * Notifies the listeners that are not for jobs, used when no job could be interested in the event.
+     *
+     * @param event the event.
+     * @see EventAdmission
+     */
+    private void notifyOtherListeners(GerritEvent event) {
+        for (GerritEventListener listener : getGerritEventListenersView()) {
+            if (!(listener instanceof EventListener)) {
+                notifySafely(listener, event);
+            }
+        }
+    }
+
+    /**
+     * Calls the most specific gerritEvent method of the listener for the event, the same way
+     * {@link GerritHandler#notifyListeners(GerritEvent)} does.
+     *
+     * @param listener the listener.
+     * @param event the event.
+     * @throws ReflectiveOperationException if the method could not be called.
+     */
+    public static void notifyListener(GerritEventListener listener, GerritEvent event)
+            throws ReflectiveOperationException {
+        for (Class<?> c = event.getClass(); GerritEvent.class.isAssignableFrom(c); c = c.getSuperclass()) {
+            Method method;
+            try {
+                method = listener.getClass().getMethod("gerritEvent", c);
+            } catch (NoSuchMethodException e) {
+                continue;
+            }
+            method.invoke(listener, event);
+            return;
+        }
+        listener.gerritEvent(event);
+    }
+
+    /**
+     * Notifies listeners about the event in the same way as {@link #notifyListeners(GerritEvent)},
+     * but lets the caller decide which listeners are notified and how.
+     * Used when a batch of events is scanned against listeners that are looked up once for the whole batch.
+     *
+     * @param event the event.
+     * @param notification notifies the listeners, run as System.
+     */
+    public void notifyListeners(GerritEvent event, Runnable notification) {
+        TopicChangesCache.getInstance().onEvent(event);
+
         // Notify lifecycle listeners.
         if (event instanceof GerritEventLifecycle) {
             try {
@@ -77,7 +429,7 @@ public class JenkinsAwareGerritHandler extends GerritHandler {
 
         try (ACLContext ctx = ACL.as(ACL.SYSTEM)) {
             // The read deal
-            super.notifyListeners(event);
+            notification.run();
         }
 
         // //Notify lifecycle listeners.
@@ -89,4 +441,123 @@ public class JenkinsAwareGerritHandler extends GerritHandler {
             }
         }
     }
+
+    /**
+     * Notifies a range of listeners about an event, splitting the range in two until it is small enough.
+     */
+    private static final class ScanTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient GerritEvent event;
+        private final transient List<GerritEventListener> listeners;
+        private final int from;
+        private final int to;
+
+        /**
+         * Constructor.
+         *
+         * @param event the event.
+         * @param listeners the listeners.
+         * @param from the first listener to notify.
+         * @param to the index after the last listener to notify.
+         */
+        ScanTask(GerritEvent event, List<GerritEventListener> listeners, int from, int to) {
+            this.event = event;
+            this.listeners = listeners;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_SCAN_CHUNK_SIZE) {
+                try (ACLContext ctx = ACL.as(ACL.SYSTEM)) {
+                    for (int i = from; i < to; i++) {
+                        notifySafely(listeners.get(i), event);
+                    }
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ScanTask(event, listeners, from, middle), new ScanTask(event, listeners, middle, to));
+            }
+        }
+    }
+
+    /**
+     * Work that tells when it has been performed, whether it succeeded or not.
+     */
+    private static final class NotifiedWork implements Work {
+        private final Work work;
+        private final Runnable notified;
+
+        /**
+         * Constructor.
+         *
+         * @param work the work.
+         * @param notified run when the work has been performed.
+         */
+        NotifiedWork(Work work, Runnable notified) {
+            this.work = work;
+            this.notified = notified;
+        }
+
+        @Override
+        public void perform(Coordinator coordinator) {
+            try {
+                work.perform(coordinator);
+            } finally {
+                notified.run();
+            }
+        }
+    }
+
+    /**
+     * A worker thread that can be retired without interrupting the work it is doing.
+     */
+    private static final class ElasticEventThread extends Thread {
+        private static final long POLL_SECONDS = 1;
+
+        private final Coordinator coordinator;
+        private volatile boolean retired;
+
+        /**
+         * Constructor.
+         *
+         * @param coordinator the handler to take work from.
+         * @param name the thread name.
+         */
+        ElasticEventThread(Coordinator coordinator, String name) {
+            super(name);
+            this.coordinator = coordinator;
+            setDaemon(true);
+        }
+
+        /**
+         * Tells the thread to stop when it has finished its current work.
+         */
+        void retire() {
+            retired = true;
+        }
+
+        @Override
+        public void run() {
+            try (ACLContext ctx = ACL.as(ACL.SYSTEM)) {
+                while (!retired) {
+                    Work work;
+                    try {
+                        work = coordinator.getWorkQueue().poll(POLL_SECONDS, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    if (work != null) {
+                        try {
+                            work.perform(coordinator);
+                        } catch (Exception e) {
+                            logger.error("Work failed on " + getName(), e);
+                        }
+                    }
+                }
+            }
+        }
+    }
 }
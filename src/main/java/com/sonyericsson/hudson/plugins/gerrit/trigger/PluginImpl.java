@@ -32,8 +32,15 @@ import com.sonyericsson.hudson.plugins.gerrit.trigger.config.Config;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.config.IGerritHudsonTriggerConfig;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.config.PluginConfig;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.events.ManualPatchsetCreated;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.events.lifecycle.GerritEventLifecycleDispatcher;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.events.source.GerritEventSource;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.GerritNotificationScheduler;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.job.ssh.SshSessionPool;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.GerritTrigger;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.PatchsetDebouncer;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.actions.manual.BulkManualTrigger;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.data.TriggerContextConverter;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.impls.RabbitMQIngestion;
 
 import com.sonymobile.tools.gerrit.gerritevents.dto.attr.Provider;
 import com.sonymobile.tools.gerrit.gerritevents.dto.events.GerritTriggeredEvent;
@@ -63,11 +70,17 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
 
 import jenkins.model.Jenkins;
 
@@ -118,7 +131,14 @@ public class PluginImpl extends GlobalConfiguration {
 
     private static final Logger logger = LoggerFactory.getLogger(PluginImpl.class);
     private final List<GerritServer> servers = new CopyOnWriteArrayList<GerritServer>();
+    /**
+     * Name index over {@link #servers}, replaced as a whole whenever the list changes or a server is renamed.
+     */
+    private transient volatile Map<String, GerritServer> serversByName;
+    private final transient Object serversLock = new Object();
+    private final transient List<GerritServer> serversView = new ServerList();
     private transient GerritHandler gerritEventManager;
+    private transient WorkerPoolScaler workerPoolScaler;
     private transient volatile boolean active = false;
 
     // the old config field is left as deprecated and transient so that data in previous format can be read in but
@@ -179,7 +199,7 @@ public class PluginImpl extends GlobalConfiguration {
      */
     @Exported
     public List<GerritServer> getServers() {
-        return servers;
+        return serversView;
     }
 
     /**
@@ -237,12 +257,42 @@ public class PluginImpl extends GlobalConfiguration {
      * @return the GerritServer object to get, or null if no server has this name.
      */
     public GerritServer getServer(String name) {
-        for (GerritServer s : servers) {
-            if (s.getName().equals(name)) {
-                return s;
+        if (name == null) {
+            return null;
+        }
+        Map<String, GerritServer> index = serversByName;
+        if (index == null) {
+            index = reindexServers();
+        }
+        return index.get(name);
+    }
+
+    /**
+     * Tells that a server in the list has changed its name, so that {@link #getServer(String)} finds it
+     * by the new name.
+     */
+    void serverRenamed() {
+        reindexServers();
+    }
+
+    /**
+     * Rebuilds the name index used by {@link #getServer(String)}.
+     * Done by every method that changes the list and when the name of a server changes.
+     *
+     * @return the new index.
+     */
+    private Map<String, GerritServer> reindexServers() {
+        synchronized (serversLock) {
+            Map<String, GerritServer> index = new HashMap<String, GerritServer>();
+            for (GerritServer s : servers) {
+                if (s.getName() != null && !index.containsKey(s.getName())) {
+                    index.put(s.getName(), s);
+                }
             }
+            index = Collections.unmodifiableMap(index);
+            serversByName = index;
+            return index;
         }
-        return null;
     }
 
     /**
@@ -277,7 +327,7 @@ public class PluginImpl extends GlobalConfiguration {
             logger.warn("The event {} has no provider specified. BUG!", event);
             return null;
         }
-        GerritServer gerritServer = getServer_(provider.getName());
+        GerritServer gerritServer = getServer(provider.getName());
         if (gerritServer == null) {
             logger.warn("Could not find server config for {} - no such server.", provider.getName());
             return null;
@@ -355,9 +405,12 @@ public class PluginImpl extends GlobalConfiguration {
             throw new IllegalArgumentException("Illegal gerrit server name: " + GerritServer.ANY_SERVER);
         }
 
-        if (this.servers != servers) {
-            this.servers.clear();
-            this.servers.addAll(servers);
+        synchronized (serversLock) {
+            if (this.servers != servers && serversView != servers) {
+                this.servers.clear();
+                this.servers.addAll(servers);
+            }
+            reindexServers();
         }
     }
 
@@ -369,8 +422,11 @@ public class PluginImpl extends GlobalConfiguration {
      */
     public List<GerritServer> addServer(GerritServer s) {
         checkAdmin();
-        servers.add(s);
-        return servers;
+        synchronized (serversLock) {
+            servers.add(s);
+            reindexServers();
+        }
+        return serversView;
     }
 
     /**
@@ -381,8 +437,11 @@ public class PluginImpl extends GlobalConfiguration {
      */
     public List<GerritServer> removeServer(GerritServer s) {
         checkAdmin();
-        servers.remove(s);
-        return servers;
+        synchronized (serversLock) {
+            servers.remove(s);
+            reindexServers();
+        }
+        return serversView;
     }
 
     /**
@@ -405,13 +464,7 @@ public class PluginImpl extends GlobalConfiguration {
      * @return whether the list contains a server with the given name.
      */
     public boolean containsServer(String serverName) {
-        boolean contains = false;
-        for (GerritServer s : getServers()) {
-            if (s.getName().equals(serverName)) {
-                contains = true;
-            }
-        }
-        return contains;
+        return getServer(serverName) != null;
     }
 
     /**
@@ -520,6 +573,16 @@ public class PluginImpl extends GlobalConfiguration {
         return gerritEventManager;
     }
 
+    /**
+     * The scaler of the receiving and sending worker pools.
+     *
+     * @return the scaler, null if the plugin is not started.
+     */
+    @CheckForNull
+    public WorkerPoolScaler getWorkerPoolScaler() {
+        return workerPoolScaler;
+    }
+
     /**
      * Static shorthand for {@link #getHandler()}.
      *
@@ -581,10 +644,17 @@ public class PluginImpl extends GlobalConfiguration {
         logger.trace("Loading configs");
         load();
         GerritSendCommandQueue.initialize(pluginConfig);
-        gerritEventManager = new JenkinsAwareGerritHandler(pluginConfig.getNumberOfReceivingWorkerThreads());
+        GerritEventLifecycleDispatcher.initialize();
+        JenkinsAwareGerritHandler handler =
+                new JenkinsAwareGerritHandler(pluginConfig.getNumberOfReceivingWorkerThreads());
+        handler.setEventPriorities(pluginConfig.getEventPriorities());
+        gerritEventManager = handler;
+        workerPoolScaler = WorkerPoolScaler.create(handler, this::getPluginConfig);
+        workerPoolScaler.start();
         for (GerritServer s : servers) {
             s.start();
         }
+        GerritEventSource.startAll(gerritEventManager);
         active = true;
     }
 
@@ -631,6 +701,7 @@ public class PluginImpl extends GlobalConfiguration {
             }
             save();
         }
+        reindexServers();
         pluginConfig.updateEventFilter();
         //For unit/integration testing only...
         if (System.getProperty(TEST_SSH_KEYFILE_LOCATION_PROPERTY) != null && !servers.isEmpty()) {
@@ -674,13 +745,29 @@ public class PluginImpl extends GlobalConfiguration {
         for (GerritServer s : servers) {
             s.stop();
         }
+        GerritEventSource.stopAll();
+        if (workerPoolScaler != null) {
+            workerPoolScaler.stop();
+            workerPoolScaler = null;
+        }
         if (gerritEventManager != null) {
             gerritEventManager.shutdown(false);
             //TODO save to registered listeners?
             gerritEventManager = null;
         }
+        // Before the notifications are flushed, so that the builds of held patch sets are reported.
+        PatchsetDebouncer.shutdown();
+        GerritNotificationScheduler.getInstance().flush();
         GerritSendCommandQueue.shutdown();
-        servers.clear();
+        SshSessionPool.getInstance().shutdown();
+        GerritEventLifecycleDispatcher.shutdown();
+        BulkManualTrigger.shutdown();
+        RabbitMQIngestion.shutdown();
+        BlockingIoExecutor.shutdown();
+        synchronized (serversLock) {
+            servers.clear();
+            reindexServers();
+        }
     }
 
     /**
@@ -715,4 +802,105 @@ public class PluginImpl extends GlobalConfiguration {
     static {
         doXStreamRegistrations();
     }
+
+    /**
+     * The list returned by {@link #getServers()}. Changes go to {@link #servers} and rebuild the name index,
+     * iteration is over a snapshot like for {@link CopyOnWriteArrayList}.
+     */
+    private final class ServerList extends AbstractList<GerritServer> {
+
+        @Override
+        public GerritServer get(int index) {
+            return servers.get(index);
+        }
+
+        @Override
+        public int size() {
+            return servers.size();
+        }
+
+        @Override
+        public Iterator<GerritServer> iterator() {
+            return servers.iterator();
+        }
+
+        @Override
+        public GerritServer set(int index, GerritServer server) {
+            synchronized (serversLock) {
+                GerritServer old = servers.set(index, server);
+                reindexServers();
+                return old;
+            }
+        }
+
+        @Override
+        public void add(int index, GerritServer server) {
+            synchronized (serversLock) {
+                servers.add(index, server);
+                reindexServers();
+            }
+        }
+
+        @Override
+        public GerritServer remove(int index) {
+            synchronized (serversLock) {
+                GerritServer old = servers.remove(index);
+                reindexServers();
+                return old;
+            }
+        }
+
+        @Override
+        public boolean addAll(Collection<? extends GerritServer> c) {
+            synchronized (serversLock) {
+                boolean changed = servers.addAll(c);
+                reindexServers();
+                return changed;
+            }
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            synchronized (serversLock) {
+                boolean changed = servers.remove(o);
+                reindexServers();
+                return changed;
+            }
+        }
+
+        @Override
+        public boolean removeAll(Collection<?> c) {
+            synchronized (serversLock) {
+                boolean changed = servers.removeAll(c);
+                reindexServers();
+                return changed;
+            }
+        }
+
+        @Override
+        public boolean retainAll(Collection<?> c) {
+            synchronized (serversLock) {
+                boolean changed = servers.retainAll(c);
+                reindexServers();
+                return changed;
+            }
+        }
+
+        @Override
+        public boolean removeIf(Predicate<? super GerritServer> filter) {
+            synchronized (serversLock) {
+                boolean changed = servers.removeIf(filter);
+                reindexServers();
+                return changed;
+            }
+        }
+
+        @Override
+        public void clear() {
+            synchronized (serversLock) {
+                servers.clear();
+                reindexServers();
+            }
+        }
+    }
 }
@@ -0,0 +1,196 @@
+/*
+ *  The MIT License
+ *
+ *  Copyright 2026 agent. All rights reserved.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package com.sonyericsson.hudson.plugins.gerrit.trigger;
+
+import com.sonyericsson.hudson.plugins.gerrit.trigger.utils.BoundedLinkedHashMap;
+import com.sonymobile.tools.gerrit.gerritevents.dto.GerritEvent;
+import com.sonymobile.tools.gerrit.gerritevents.dto.attr.Change;
+import com.sonymobile.tools.gerrit.gerritevents.dto.attr.PatchSet;
+import com.sonymobile.tools.gerrit.gerritevents.dto.attr.Provider;
+import com.sonymobile.tools.gerrit.gerritevents.dto.events.ChangeAbandoned;
+import com.sonymobile.tools.gerrit.gerritevents.dto.events.ChangeBasedEvent;
+import com.sonymobile.tools.gerrit.gerritevents.dto.events.ChangeMerged;
+import com.sonymobile.tools.gerrit.gerritevents.dto.events.ChangeRestored;
+import com.sonymobile.tools.gerrit.gerritevents.dto.events.PatchsetCreated;
+import com.sonymobile.tools.gerrit.gerritevents.dto.events.TopicChanged;
+import com.sonymobile.tools.gerrit.gerritevents.dto.rest.Topic;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the changes of a topic per server, so that the vote-same-topic notifications and topic association
+ * don't query Gerrit for the same topic over and over.
+ *
+ * An entry is dropped when an event tells that the changes of the topic, or their patch sets or status,
+ * have changed, see {@link #onEvent(GerritEvent)}. Entries also expire after a while in case an event was missed.
+ *
+ * @author agent &lt;agent@local&gt;
+ */
+public final class TopicChangesCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TopicChangesCache.class);
+
+    private static final long DEFAULT_EXPIRE_SECONDS = 60;
+    private static final int MAX_ENTRIES = 1000;
+
+    private static final TopicChangesCache INSTANCE = new TopicChangesCache(TimeUnit.SECONDS.toMillis(
+            Long.getLong(TopicChangesCache.class.getName() + ".expireSeconds", DEFAULT_EXPIRE_SECONDS)));
+
+    private final long expireMillis;
+    private final Map<String, Entry> entries = new BoundedLinkedHashMap<String, Entry>(MAX_ENTRIES);
+
+    /**
+     * Constructor.
+     *
+     * @param expireMillis how long an entry is used.
+     */
+    TopicChangesCache(long expireMillis) {
+        this.expireMillis = expireMillis;
+    }
+
+    /**
+     * The singleton instance.
+     *
+     * @return the instance.
+     */
+    public static TopicChangesCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * The changes of the topic and their current patch sets, queried from the server if not cached.
+     *
+     * @param server the server.
+     * @param topic the topic.
+     * @return the changes.
+     */
+    public Map<Change, PatchSet> getChanges(GerritServer server, Topic topic) {
+        String key = getKey(server.getName(), topic.getName());
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expires > now) {
+                return entry.changes;
+            }
+        }
+        Map<Change, PatchSet> changes;
+        try (BlockingIoExecutor.Permit permit = BlockingIoExecutor.getInstance().acquire(server.getName())) {
+            changes = topic.getChanges(server.getQueryHandler());
+        }
+        if (changes.isEmpty()) {
+            // Could just as well be a failed query, don't remember it.
+            return changes;
+        }
+        changes = Collections.unmodifiableMap(new LinkedHashMap<Change, PatchSet>(changes));
+        synchronized (entries) {
+            entries.put(key, new Entry(changes, now + expireMillis));
+        }
+        return changes;
+    }
+
+    /**
+     * Drops the cached changes of the topics that the event tells have changed.
+     *
+     * @param event the event.
+     */
+    public void onEvent(GerritEvent event) {
+        if (!(event instanceof ChangeBasedEvent)) {
+            return;
+        }
+        if (!(event instanceof PatchsetCreated || event instanceof TopicChanged || event instanceof ChangeAbandoned
+                || event instanceof ChangeMerged || event instanceof ChangeRestored)) {
+            return;
+        }
+        ChangeBasedEvent changeBasedEvent = (ChangeBasedEvent)event;
+        Provider provider = changeBasedEvent.getProvider();
+        if (provider == null || changeBasedEvent.getChange() == null) {
+            return;
+        }
+        invalidate(provider.getName(), changeBasedEvent.getChange().getTopic());
+        if (event instanceof TopicChanged) {
+            invalidate(provider.getName(), ((TopicChanged)event).getOldTopic());
+        }
+    }
+
+    /**
+     * Drops the cached changes of a topic.
+     *
+     * @param serverName the server name.
+     * @param topicName the topic name.
+     */
+    public void invalidate(String serverName, String topicName) {
+        if (topicName == null || topicName.isEmpty()) {
+            return;
+        }
+        synchronized (entries) {
+            if (entries.remove(getKey(serverName, topicName)) != null) {
+                logger.trace("Dropped cached changes of topic {} on {}", topicName, serverName);
+            }
+        }
+    }
+
+    /**
+     * Drops all cached changes.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * The cache key.
+     *
+     * @param serverName the server name.
+     * @param topicName the topic name.
+     * @return the key.
+     */
+    private static String getKey(String serverName, String topicName) {
+        return serverName + "\n" + topicName;
+    }
+
+    /**
+     * The cached changes of a topic.
+     */
+    private static final class Entry {
+        private final Map<Change, PatchSet> changes;
+        private final long expires;
+
+        /**
+         * Constructor.
+         *
+         * @param changes the changes.
+         * @param expires when to stop using them.
+         */
+        private Entry(Map<Change, PatchSet> changes, long expires) {
+            this.changes = changes;
+            this.expires = expires;
+        }
+    }
+}
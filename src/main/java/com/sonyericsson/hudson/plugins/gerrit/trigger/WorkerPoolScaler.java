@@ -0,0 +1,473 @@
+/*
+ *  The MIT License
+ *
+ *  Copyright 2026 agent. All rights reserved.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package com.sonyericsson.hudson.plugins.gerrit.trigger;
+
+import com.sonyericsson.hudson.plugins.gerrit.trigger.config.PluginConfig;
+import com.sonymobile.tools.gerrit.gerritevents.GerritSendCommandQueue;
+import jenkins.util.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Grows and shrinks the receiving and sending worker pools between the configured number of threads
+ * and the configured max as the load goes up and down.
+ *
+ * The receiving pool is grown when the time an event is estimated to wait in the queue,
+ * the queue depth divided by the rate events are handled at, is longer than
+ * <code>&lt;this class name&gt;.targetLatencyMillis</code>.
+ * The sending pool is grown when there are more than <code>&lt;this class name&gt;.sendBacklogPerThread</code>
+ * commands waiting per thread. Both are shrunk by one thread at a time after being idle for a while.
+ * The receiving pool never gets smaller than the number of threads the handler was started with.
+ *
+ * @author agent &lt;agent@local&gt;
+ */
+public final class WorkerPoolScaler {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkerPoolScaler.class);
+
+    /**
+     * Seconds between each look at the pools, 0 to never resize them.
+     */
+    public static final long INTERVAL_SECONDS =
+            Long.getLong(WorkerPoolScaler.class.getName() + ".intervalSeconds", 5);
+    /**
+     * The longest an event should wait for a receiving worker thread before the pool is grown.
+     */
+    public static final long TARGET_LATENCY_MILLIS =
+            Long.getLong(WorkerPoolScaler.class.getName() + ".targetLatencyMillis", 1000);
+    /**
+     * The number of waiting commands per sending worker thread before the pool is grown.
+     */
+    public static final int SEND_BACKLOG_PER_THREAD =
+            Integer.getInteger(WorkerPoolScaler.class.getName() + ".sendBacklogPerThread", 10);
+    /**
+     * The number of intervals in a row a pool needs to have an empty queue before it is shrunk.
+     */
+    public static final int IDLE_INTERVALS =
+            Integer.getInteger(WorkerPoolScaler.class.getName() + ".idleIntervals", 6);
+
+    private static final int MAX_DECISIONS = 20;
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final long MILLIS_PER_SECOND = 1000;
+
+    /**
+     * The queue and threads of the sending pool, replaceable for testing.
+     */
+    interface SendingPool {
+        /**
+         * The number of commands waiting to be sent.
+         *
+         * @return the queue size.
+         */
+        int getQueueSize();
+
+        /**
+         * Changes the number of threads.
+         *
+         * @param threads the new number of threads.
+         */
+        void resize(int threads);
+    }
+
+    private final JenkinsAwareGerritHandler handler;
+    private final Supplier<PluginConfig> config;
+    private final SendingPool sendingPool;
+    private final Deque<Decision> decisions = new ArrayDeque<Decision>();
+    private int sendingThreads;
+    private int receivingIdle;
+    private int sendingIdle;
+    private long lastHandledCount;
+    private long lastNanos;
+    private volatile long estimatedWaitMillis;
+    private ScheduledFuture<?> task;
+
+    /**
+     * Constructor.
+     *
+     * @param handler the handler owning the receiving pool.
+     * @param config the current configuration.
+     * @param sendingPool the sending pool.
+     */
+    WorkerPoolScaler(JenkinsAwareGerritHandler handler, Supplier<PluginConfig> config, SendingPool sendingPool) {
+        this.handler = handler;
+        this.config = config;
+        this.sendingPool = sendingPool;
+        this.lastHandledCount = handler.getHandledCount();
+        this.lastNanos = System.nanoTime();
+        PluginConfig current = config.get();
+        if (current != null) {
+            sendingThreads = current.getNumberOfSendingWorkerThreads();
+        }
+    }
+
+    /**
+     * Creates a scaler for the handler and the {@link GerritSendCommandQueue}.
+     *
+     * @param handler the handler owning the receiving pool.
+     * @param config the current configuration.
+     * @return the scaler, not yet started.
+     */
+    public static WorkerPoolScaler create(JenkinsAwareGerritHandler handler, final Supplier<PluginConfig> config) {
+        return new WorkerPoolScaler(handler, config, new SendingPool() {
+            @Override
+            public int getQueueSize() {
+                return GerritSendCommandQueue.getQueueSize();
+            }
+
+            @Override
+            public void resize(int threads) {
+                PluginConfig resized = new PluginConfig(config.get());
+                resized.setNumberOfSendingWorkerThreads(threads);
+                GerritSendCommandQueue.configure(resized);
+            }
+        });
+    }
+
+    /**
+     * Starts looking at the pools periodically.
+     */
+    public synchronized void start() {
+        if (task == null && INTERVAL_SECONDS > 0) {
+            task = Timer.get().scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        adjust();
+                    } catch (RuntimeException e) {
+                        logger.warn("Failed to resize the worker pools", e);
+                    }
+                }
+            }, INTERVAL_SECONDS, INTERVAL_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Stops looking at the pools.
+     */
+    public synchronized void stop() {
+        if (task != null) {
+            task.cancel(false);
+            task = null;
+        }
+    }
+
+    /**
+     * To be called when the configuration has been changed and the sending pool
+     * has been set to the configured number of threads, applies the new bounds right away.
+     */
+    public synchronized void configurationChanged() {
+        PluginConfig current = config.get();
+        if (current != null) {
+            sendingThreads = current.getNumberOfSendingWorkerThreads();
+        }
+        receivingIdle = 0;
+        sendingIdle = 0;
+        adjust();
+    }
+
+    /**
+     * Looks at the queues and resizes the pools if needed.
+     */
+    synchronized void adjust() {
+        PluginConfig current = config.get();
+        if (current == null) {
+            return;
+        }
+        adjustReceiving(current);
+        adjustSending(current);
+    }
+
+    /**
+     * Resizes the receiving pool.
+     *
+     * @param current the configuration.
+     */
+    private void adjustReceiving(PluginConfig current) {
+        int base = handler.getNumberOfBaseWorkerThreads();
+        int min = Math.max(current.getNumberOfReceivingWorkerThreads(), base);
+        int max = Math.max(min, current.getMaxReceivingWorkerThreads());
+        int threads = handler.getWorkerThreadCount();
+        int depth = handler.getQueuedWorkCount();
+
+        long now = System.nanoTime();
+        long handled = handler.getHandledCount();
+        double perSecond = 0;
+        if (now > lastNanos) {
+            perSecond = (handled - lastHandledCount) * NANOS_PER_SECOND / (now - lastNanos);
+        }
+        lastHandledCount = handled;
+        lastNanos = now;
+        long waitMillis;
+        if (depth == 0) {
+            waitMillis = 0;
+        } else if (perSecond > 0) {
+            waitMillis = (long)(depth * MILLIS_PER_SECOND / perSecond);
+        } else {
+            waitMillis = Long.MAX_VALUE;
+        }
+        estimatedWaitMillis = waitMillis;
+
+        int target = threads;
+        String reason = null;
+        if (threads < min) {
+            target = min;
+            reason = "raised to the configured number of threads";
+        } else if (threads > max) {
+            target = max;
+            reason = "lowered to the configured max";
+        } else if (waitMillis > TARGET_LATENCY_MILLIS) {
+            receivingIdle = 0;
+            if (threads < max) {
+                //Grow in proportion to how far behind the queue is, at least one thread.
+                double factor = 2;
+                if (waitMillis != Long.MAX_VALUE) {
+                    factor = (double)waitMillis / TARGET_LATENCY_MILLIS;
+                }
+                target = Math.min(max, Math.max(threads + 1, (int)Math.ceil(threads * factor)));
+                reason = depth + " events waiting, estimated wait " + describeWait(waitMillis);
+            }
+        } else if (depth == 0) {
+            receivingIdle++;
+            if (receivingIdle >= IDLE_INTERVALS && threads > min) {
+                target = threads - 1;
+                receivingIdle = 0;
+                reason = "no events waiting for " + IDLE_INTERVALS + " intervals";
+            }
+        } else {
+            receivingIdle = 0;
+        }
+        if (target != threads) {
+            handler.setNumberOfExtraWorkerThreads(target - base);
+            record("receiving", threads, target, reason);
+        }
+    }
+
+    /**
+     * Resizes the sending pool.
+     *
+     * @param current the configuration.
+     */
+    private void adjustSending(PluginConfig current) {
+        int min = current.getNumberOfSendingWorkerThreads();
+        int max = Math.max(min, current.getMaxSendingWorkerThreads());
+        int threads = sendingThreads;
+        int depth = sendingPool.getQueueSize();
+
+        int target = threads;
+        String reason = null;
+        if (threads < min) {
+            target = min;
+            reason = "raised to the configured number of threads";
+        } else if (threads > max) {
+            target = max;
+            reason = "lowered to the configured max";
+        } else if (depth > threads * SEND_BACKLOG_PER_THREAD) {
+            sendingIdle = 0;
+            if (threads < max) {
+                int wanted = (depth + SEND_BACKLOG_PER_THREAD - 1) / SEND_BACKLOG_PER_THREAD;
+                target = Math.min(max, Math.max(threads + 1, wanted));
+                reason = depth + " commands waiting";
+            }
+        } else if (depth == 0) {
+            sendingIdle++;
+            if (sendingIdle >= IDLE_INTERVALS && threads > min) {
+                target = threads - 1;
+                sendingIdle = 0;
+                reason = "no commands waiting for " + IDLE_INTERVALS + " intervals";
+            }
+        } else {
+            sendingIdle = 0;
+        }
+        if (target != threads) {
+            sendingPool.resize(target);
+            sendingThreads = target;
+            record("sending", threads, target, reason);
+        }
+    }
+
+    /**
+     * Human readable estimated wait.
+     *
+     * @param waitMillis the wait.
+     * @return the text.
+     */
+    private static String describeWait(long waitMillis) {
+        if (waitMillis == Long.MAX_VALUE) {
+            return "unknown, none handled";
+        }
+        return waitMillis + " ms";
+    }
+
+    /**
+     * Remembers a decision.
+     *
+     * @param pool the name of the pool.
+     * @param from the number of threads before.
+     * @param to the number of threads after.
+     * @param reason why.
+     */
+    private void record(String pool, int from, int to, String reason) {
+        logger.info("Resized the {} worker pool from {} to {} threads: {}", pool, from, to, reason);
+        decisions.addFirst(new Decision(System.currentTimeMillis(), pool, from, to, reason));
+        while (decisions.size() > MAX_DECISIONS) {
+            decisions.removeLast();
+        }
+    }
+
+    /**
+     * The latest decisions, newest first.
+     *
+     * @return the decisions.
+     */
+    public synchronized List<Decision> getDecisions() {
+        return new ArrayList<Decision>(decisions);
+    }
+
+    /**
+     * The current number of receiving worker threads.
+     *
+     * @return the number of threads.
+     */
+    public int getReceivingThreads() {
+        return handler.getWorkerThreadCount();
+    }
+
+    /**
+     * The current number of sending worker threads.
+     *
+     * @return the number of threads.
+     */
+    public synchronized int getSendingThreads() {
+        return sendingThreads;
+    }
+
+    /**
+     * The number of events waiting for a receiving worker thread.
+     *
+     * @return the queue depth.
+     */
+    public int getReceivingQueueDepth() {
+        return handler.getQueuedWorkCount();
+    }
+
+    /**
+     * The number of commands waiting for a sending worker thread.
+     *
+     * @return the queue depth.
+     */
+    public int getSendingQueueDepth() {
+        return sendingPool.getQueueSize();
+    }
+
+    /**
+     * The estimated wait for a receiving worker thread at the last look at the pools.
+     *
+     * @return the wait in milliseconds, {@link Long#MAX_VALUE} if events were waiting but none were handled.
+     */
+    public long getEstimatedWaitMillis() {
+        return estimatedWaitMillis;
+    }
+
+    /**
+     * A resize of one of the pools.
+     */
+    public static final class Decision {
+        private final long time;
+        private final String pool;
+        private final int from;
+        private final int to;
+        private final String reason;
+
+        /**
+         * Constructor.
+         *
+         * @param time when.
+         * @param pool the name of the pool.
+         * @param from the number of threads before.
+         * @param to the number of threads after.
+         * @param reason why.
+         */
+        Decision(long time, String pool, int from, int to, String reason) {
+            this.time = time;
+            this.pool = pool;
+            this.from = from;
+            this.to = to;
+            this.reason = reason;
+        }
+
+        /**
+         * When the pool was resized.
+         *
+         * @return the time.
+         */
+        public Date getTime() {
+            return new Date(time);
+        }
+
+        /**
+         * The name of the pool, receiving or sending.
+         *
+         * @return the name.
+         */
+        public String getPool() {
+            return pool;
+        }
+
+        /**
+         * The number of threads before.
+         *
+         * @return the number of threads.
+         */
+        public int getFrom() {
+            return from;
+        }
+
+        /**
+         * The number of threads after.
+         *
+         * @return the number of threads.
+         */
+        public int getTo() {
+            return to;
+        }
+
+        /**
+         * Why the pool was resized.
+         *
+         * @return the reason.
+         */
+        public String getReason() {
+            return reason;
+        }
+    }
+}
@@ -204,6 +204,7 @@ public class Config implements IGerritHudsonTriggerConfig {
     @Deprecated
     private transient int numberOfSendingWorkerThreads;
     private int buildScheduleDelay;
+    private int patchsetDebounceWindow;
     private int dynamicConfigRefreshInterval;
     private boolean enableProjectAutoCompletion;
     private int projectListRefreshInterval;
@@ -272,6 +273,7 @@ public class Config implements IGerritHudsonTriggerConfig {
         enablePluginMessages = config.isEnablePluginMessages();
         triggerOnAllComments = config.isTriggerOnAllComments();
         buildScheduleDelay = config.getBuildScheduleDelay();
+        patchsetDebounceWindow = config.getPatchsetDebounceWindow();
         dynamicConfigRefreshInterval = config.getDynamicConfigRefreshInterval();
         enableProjectAutoCompletion = config.isEnableProjectAutoCompletion();
         projectListFetchDelay = config.getProjectListFetchDelay();
@@ -374,6 +376,7 @@ public class Config implements IGerritHudsonTriggerConfig {
         if (buildScheduleDelay < 0) {
             buildScheduleDelay = 0;
         }
+        patchsetDebounceWindow = Math.max(formData.optInt("patchsetDebounceWindow", 0), 0);
         dynamicConfigRefreshInterval = formData.optInt(
                 "dynamicConfigRefreshInterval",
                 DEFAULT_DYNAMIC_CONFIG_REFRESH_INTERVAL);
@@ -688,6 +691,21 @@ public class Config implements IGerritHudsonTriggerConfig {
         this.buildScheduleDelay = buildScheduleDelay;
     }
 
+    @Override
+    public int getPatchsetDebounceWindow() {
+        return patchsetDebounceWindow;
+    }
+
+    /**
+     * Setting patchsetDebounceWindow.
+     *
+     * @param patchsetDebounceWindow the window in seconds, 0 to not hold any patch sets.
+     * @see #getPatchsetDebounceWindow()
+     */
+    public void setPatchsetDebounceWindow(int patchsetDebounceWindow) {
+        this.patchsetDebounceWindow = patchsetDebounceWindow;
+    }
+
     @Override
     public int getDynamicConfigRefreshInterval() {
         if (dynamicConfigRefreshInterval == 0) {
@@ -225,6 +225,14 @@ public interface IGerritHudsonTriggerConfig extends GerritConnectionConfig2 {
      */
    int getBuildScheduleDelay();
 
+    /**
+     * The seconds a new patch set is held before builds are scheduled for it, so that when more patch sets
+     * of the change come in the meantime only the newest is built. 0 to schedule right away.
+     * Only used for jobs where older patch sets are cancelled by a {@link BuildCancellationPolicy}.
+     * @return the value.
+     */
+    int getPatchsetDebounceWindow();
+
     /**
      * Returns the dynamicConfigRefreshInterval.
      * @return the value.
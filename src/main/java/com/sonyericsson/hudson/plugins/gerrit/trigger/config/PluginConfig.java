@@ -67,6 +67,9 @@ public class PluginConfig implements GerritWorkersConfig {
     private static final Logger logger = LoggerFactory.getLogger(PluginImpl.class);
     private int numberOfReceivingWorkerThreads;
     private int numberOfSendingWorkerThreads;
+    private int maxReceivingWorkerThreads;
+    private int maxSendingWorkerThreads;
+    private String eventPriorities;
     private int replicationCacheExpirationInMinutes;
     private List<String> filterIn;
 
@@ -95,6 +98,9 @@ public class PluginConfig implements GerritWorkersConfig {
     public PluginConfig(PluginConfig pluginConfig) {
         numberOfReceivingWorkerThreads = pluginConfig.getNumberOfReceivingWorkerThreads();
         numberOfSendingWorkerThreads = pluginConfig.getNumberOfSendingWorkerThreads();
+        maxReceivingWorkerThreads = pluginConfig.getMaxReceivingWorkerThreads();
+        maxSendingWorkerThreads = pluginConfig.getMaxSendingWorkerThreads();
+        eventPriorities = pluginConfig.getEventPriorities();
         replicationCacheExpirationInMinutes = pluginConfig.getReplicationCacheExpirationInMinutes();
         filterIn = pluginConfig.getFilterIn();
     }
@@ -129,6 +135,10 @@ public class PluginConfig implements GerritWorkersConfig {
             numberOfSendingWorkerThreads = DEFAULT_NR_OF_SENDING_WORKER_THREADS;
         }
 
+        maxReceivingWorkerThreads = Math.max(formData.optInt("maxReceivingWorkerThreads", 0), 0);
+        maxSendingWorkerThreads = Math.max(formData.optInt("maxSendingWorkerThreads", 0), 0);
+        eventPriorities = formData.optString("eventPriorities", "");
+
         replicationCacheExpirationInMinutes = formData.optInt("replicationCacheExpirationInMinutes",
             ReplicationCache.DEFAULT_EXPIRATION_IN_MINUTES);
         if (replicationCacheExpirationInMinutes <= 0) {
@@ -185,6 +195,70 @@ public class PluginConfig implements GerritWorkersConfig {
         this.numberOfSendingWorkerThreads = numberOfSendingWorkerThreads;
     }
 
+    /**
+     * The most threads to handle incoming events with when there are many events waiting.
+     * The pool is not grown beyond {@link #getNumberOfReceivingWorkerThreads()} if this is not larger.
+     *
+     * @return the max number of worker threads.
+     */
+    public int getMaxReceivingWorkerThreads() {
+        return maxReceivingWorkerThreads;
+    }
+
+    /**
+     * MaxReceivingWorkerThreads.
+     *
+     * @param maxReceivingWorkerThreads max nr of threads, 0 for a fixed number of threads.
+     * @see #getMaxReceivingWorkerThreads()
+     */
+    public void setMaxReceivingWorkerThreads(int maxReceivingWorkerThreads) {
+        this.maxReceivingWorkerThreads = maxReceivingWorkerThreads;
+    }
+
+    /**
+     * The most worker threads to send approvals/review commands with when there are many commands waiting.
+     * The pool is not grown beyond {@link #getNumberOfSendingWorkerThreads()} if this is not larger.
+     *
+     * @return the max number of worker threads.
+     */
+    public int getMaxSendingWorkerThreads() {
+        return maxSendingWorkerThreads;
+    }
+
+    /**
+     * MaxSendingWorkerThreads.
+     *
+     * @param maxSendingWorkerThreads max nr of threads, 0 for a fixed number of threads.
+     * @see #getMaxSendingWorkerThreads()
+     */
+    public void setMaxSendingWorkerThreads(int maxSendingWorkerThreads) {
+        this.maxSendingWorkerThreads = maxSendingWorkerThreads;
+    }
+
+    /**
+     * The rules the priorities of incoming events are looked up from,
+     * one per line on the form <code>[server:]event-type=high|normal|low</code>.
+     *
+     * @return the rules, empty if all events have the same priority.
+     * @see com.sonyericsson.hudson.plugins.gerrit.trigger.EventPriorityQueue#setRules(String)
+     */
+    public String getEventPriorities() {
+        if (eventPriorities == null) {
+            return "";
+        }
+        return eventPriorities;
+    }
+
+    /**
+     * EventPriorities.
+     *
+     * @param eventPriorities the rules.
+     * @see #getEventPriorities()
+     */
+    public void setEventPriorities(String eventPriorities) {
+        this.eventPriorities = eventPriorities;
+    }
+
     /**
      * Replication cache expiration in minutes.
      * @return the replicationCacheExpirationInMinutes
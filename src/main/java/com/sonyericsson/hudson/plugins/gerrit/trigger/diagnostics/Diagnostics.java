@@ -24,11 +24,17 @@
 
 package com.sonyericsson.hudson.plugins.gerrit.trigger.diagnostics;
 
+import com.sonyericsson.hudson.plugins.gerrit.trigger.EventPriorityQueue;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.GerritServer;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.JenkinsAwareGerritHandler;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.Messages;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.PluginImpl;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.WorkerPoolScaler;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.events.ManualPatchsetCreated;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.GerritNotificationScheduler;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.ToGerritRunListener;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.job.ssh.SshSessionPool;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.PatchsetDebouncer;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.actions.manual.ManualTriggerAction;
 import com.sonymobile.tools.gerrit.gerritevents.dto.GerritChangeKind;
 import com.sonymobile.tools.gerrit.gerritevents.dto.attr.Account;
@@ -153,6 +159,64 @@ public class Diagnostics implements ModelObjectWithChildren, ModelObjectWithCont
         return EventListenersReport.report();
     }
 
+    /**
+     * The scheduler of build notifications, for showing its queue depths.
+     *
+     * @return the scheduler.
+     */
+    @NonNull
+    public GerritNotificationScheduler getNotificationScheduler() {
+        return GerritNotificationScheduler.getInstance();
+    }
+
+    /**
+     * The pool of SSH sessions used for notifications, for showing its reuse and latency.
+     *
+     * @return the pool.
+     */
+    @NonNull
+    public SshSessionPool getSshSessionPool() {
+        return SshSessionPool.getInstance();
+    }
+
+    /**
+     * The holder of new patch sets, for showing how many builds it has saved.
+     *
+     * @return the debouncer.
+     */
+    @NonNull
+    public PatchsetDebouncer getPatchsetDebouncer() {
+        return PatchsetDebouncer.getInstance();
+    }
+
+    /**
+     * The queue of incoming events, for showing the depths and shed events per priority.
+     *
+     * @return the queue, null if the plugin is not started.
+     */
+    @CheckForNull
+    public EventPriorityQueue getEventQueue() {
+        PluginImpl plugin = PluginImpl.getInstance();
+        if (plugin != null && plugin.isActive() && plugin.getHandler() instanceof JenkinsAwareGerritHandler) {
+            return ((JenkinsAwareGerritHandler)plugin.getHandler()).getWorkQueue();
+        }
+        return null;
+    }
+
+    /**
+     * The scaler of the worker pools, for showing the pool sizes and why they were resized.
+     *
+     * @return the scaler, null if the plugin is not started.
+     */
+    @CheckForNull
+    public WorkerPoolScaler getWorkerPoolScaler() {
+        PluginImpl plugin = PluginImpl.getInstance();
+        if (plugin != null) {
+            return plugin.getWorkerPoolScaler();
+        }
+        return null;
+    }
+
     @Override
     public ContextMenu doContextMenu(StaplerRequest request, StaplerResponse response) throws Exception {
         return getContextMenu(null);
@@ -48,6 +48,9 @@ import java.util.TreeSet;
  */
 public class EventListenersReport implements ModelObject {
 
+    private static final ReportSnapshot<EventListenersReport> SNAPSHOT =
+            ReportSnapshot.timed(EventListenersReport::createReport);
+
     private Set<EventListener> jobs;
     private Set<GerritEventListener> others;
 
@@ -101,13 +104,24 @@ public class EventListenersReport implements ModelObject {
     }
 
     /**
-     * Produces a report from the active {@link GerritHandler}.
+     * A recent report from the active {@link GerritHandler}.
+     * Listeners are only walked again when the last report is older than {@link ReportSnapshot#DEFAULT_MAX_AGE_MILLIS}.
      *
      * @return the report.
      * @see PluginImpl#getHandler_()
      */
     @CheckForNull
     public static EventListenersReport report() {
+        return SNAPSHOT.get();
+    }
+
+    /**
+     * Produces a report from the active {@link GerritHandler}.
+     *
+     * @return the report.
+     */
+    @CheckForNull
+    private static EventListenersReport createReport() {
         GerritHandler handler = PluginImpl.getHandler_();
         if (handler != null) {
             Set<EventListener> jobs = new TreeSet<EventListener>(new Comparator<EventListener>() {
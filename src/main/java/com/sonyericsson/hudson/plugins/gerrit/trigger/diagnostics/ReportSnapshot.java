@@ -0,0 +1,176 @@
+/*
+ *  The MIT License
+ *
+ *  Copyright 2026 agent. All rights reserved.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package com.sonyericsson.hudson.plugins.gerrit.trigger.diagnostics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Holds the last produced report so that looking at diagnostics doesn't need the locks of what is reported on.
+ *
+ * A snapshot that tracks changes is told about every change through {@link #changed()} and publishes a new report
+ * in the background at most once per {@link #DEFAULT_MAX_AGE_MILLIS}. Reading it never produces a report, it only
+ * returns the last published one, so a reader never waits for the locks of the reported state.
+ *
+ * A timed snapshot is produced again by the reader when the held one is older than
+ * {@link #DEFAULT_MAX_AGE_MILLIS}, so the reported state is walked at most once per that interval
+ * no matter how often the report is read.
+ *
+ * @param <T> the type of report.
+ * @author agent &lt;agent@local&gt;
+ */
+public final class ReportSnapshot<T> {
+
+    /**
+     * The longest time a report is shown after the reported state has changed.
+     */
+    public static final long DEFAULT_MAX_AGE_MILLIS =
+            Long.getLong(ReportSnapshot.class.getName() + ".maxAgeMillis", 5000);
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportSnapshot.class);
+
+    private final Supplier<T> producer;
+    private final long maxAgeMillis;
+    private final boolean tracksChanges;
+    private final Supplier<ScheduledExecutorService> scheduler;
+    private final AtomicBoolean publishScheduled = new AtomicBoolean();
+    private volatile T report;
+    private volatile long producedAt;
+
+    /**
+     * Constructor.
+     *
+     * @param producer produces a new report.
+     * @param maxAgeMillis the longest time a report is shown after the reported state has changed.
+     * @param tracksChanges if {@link #changed()} is called when the reported state changes,
+     *                      otherwise the state is assumed to have changed all the time.
+     * @param initial the report until one is produced, the report of the initial state if changes are tracked.
+     * @param scheduler where new reports are published when changes are tracked.
+     */
+    ReportSnapshot(Supplier<T> producer, long maxAgeMillis, boolean tracksChanges, T initial,
+                   Supplier<ScheduledExecutorService> scheduler) {
+        this.producer = producer;
+        this.maxAgeMillis = maxAgeMillis;
+        this.tracksChanges = tracksChanges;
+        this.report = initial;
+        this.scheduler = scheduler;
+        if (initial != null) {
+            producedAt = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * A snapshot that is told about changes through {@link #changed()}.
+     *
+     * @param producer produces a new report, called on the Jenkins timer.
+     * @param initial the report of the initial state.
+     * @param <T> the type of report.
+     * @return the snapshot.
+     */
+    public static <T> ReportSnapshot<T> onChange(Supplier<T> producer, T initial) {
+        return new ReportSnapshot<T>(producer, DEFAULT_MAX_AGE_MILLIS, true, initial, jenkins.util.Timer::get);
+    }
+
+    /**
+     * A snapshot that is produced again when it gets too old.
+     *
+     * @param producer produces a new report.
+     * @param <T> the type of report.
+     * @return the snapshot.
+     */
+    public static <T> ReportSnapshot<T> timed(Supplier<T> producer) {
+        return new ReportSnapshot<T>(producer, DEFAULT_MAX_AGE_MILLIS, false, null, null);
+    }
+
+    /**
+     * Tells the snapshot that the reported state has changed, so that a new report is published
+     * when the current one is {@link #DEFAULT_MAX_AGE_MILLIS} old.
+     * Cheap enough to be called while holding the locks of the reported state, it never produces the report itself.
+     */
+    public void changed() {
+        if (tracksChanges && publishScheduled.compareAndSet(false, true)) {
+            long delay = Math.max(0, producedAt + maxAgeMillis - System.currentTimeMillis());
+            scheduler.get().schedule(this::publish, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * The current report.
+     * When changes are tracked this is the last published report and the reader never waits,
+     * otherwise it is produced if there is none or if it is out of date.
+     *
+     * @return the report.
+     */
+    public T get() {
+        T current = report;
+        if (!tracksChanges && (current == null || isOutOfDate())) {
+            current = produce();
+        }
+        return current;
+    }
+
+    /**
+     * Produces and publishes a new report, on the scheduler.
+     */
+    private void publish() {
+        //Cleared before producing so that changes made while producing schedule another report.
+        publishScheduled.set(false);
+        try {
+            T current = producer.get();
+            producedAt = System.currentTimeMillis();
+            report = current;
+        } catch (RuntimeException e) {
+            logger.warn("Failed to produce the diagnostics report", e);
+        }
+    }
+
+    /**
+     * If a timed report should be produced again.
+     *
+     * @return true if so.
+     */
+    private boolean isOutOfDate() {
+        return System.currentTimeMillis() - producedAt >= maxAgeMillis;
+    }
+
+    /**
+     * Produces a new timed report unless another thread did while this one was waiting.
+     *
+     * @return the report.
+     */
+    private synchronized T produce() {
+        T current = report;
+        if (current == null || isOutOfDate()) {
+            current = producer.get();
+            report = current;
+            producedAt = System.currentTimeMillis();
+        }
+        return current;
+    }
+}
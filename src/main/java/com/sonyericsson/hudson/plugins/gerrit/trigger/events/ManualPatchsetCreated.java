@@ -32,8 +32,11 @@ import com.sonymobile.tools.gerrit.gerritevents.dto.GerritEvent;
 import com.sonymobile.tools.gerrit.gerritevents.dto.attr.Change;
 import com.sonymobile.tools.gerrit.gerritevents.dto.attr.PatchSet;
 import com.sonymobile.tools.gerrit.gerritevents.dto.events.PatchsetCreated;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.events.lifecycle.AsyncGerritEventLifecycleListener;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.events.lifecycle.GerritEventLifecycle;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.events.lifecycle.GerritEventLifecycleDispatcher;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.events.lifecycle.GerritEventLifecycleListener;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.events.lifecycle.LifecycleCallback;
 
 import hudson.model.Job;
 import hudson.model.Run;
@@ -127,59 +130,59 @@ public class ManualPatchsetCreated extends PatchsetCreated implements GerritEven
 
     @Override
     public synchronized void fireTriggerScanStarting() {
-        fireEvent(GerritEventLifecycleListener::triggerScanStarting);
+        fireEvent(LifecycleCallback.TRIGGER_SCAN_STARTING, null, null);
     }
 
     @Override
     public synchronized void fireTriggerScanDone() {
-        fireEvent(GerritEventLifecycleListener::triggerScanDone);
+        fireEvent(LifecycleCallback.TRIGGER_SCAN_DONE, null, null);
     }
 
     @Override
     public synchronized void fireProjectTriggered(final Job project) {
-        fireEvent(new ListenerVisitor() {
-            @Override
-            public void visit(GerritEventLifecycleListener listener, GerritEvent event) {
-                listener.projectTriggered(event, project);
-            }
-        });
+        fireEvent(LifecycleCallback.PROJECT_TRIGGERED, project, null);
     }
 
     @Override
     public synchronized void fireBuildStarted(final Run build) {
-        fireEvent(new ListenerVisitor() {
-            @Override
-            public void visit(GerritEventLifecycleListener listener, GerritEvent event) {
-                listener.buildStarted(event, build);
-            }
-        });
+        fireEvent(LifecycleCallback.BUILD_STARTED, null, build);
     }
 
     @Override
     public synchronized void fireBuildCompleted(final Run build) {
-        fireEvent(new ListenerVisitor() {
-            @Override
-            public void visit(GerritEventLifecycleListener listener, GerritEvent event) {
-                listener.buildCompleted(event, build);
-            }
-        });
+        fireEvent(LifecycleCallback.BUILD_COMPLETED, null, build);
     }
 
     @Override
     public synchronized void fireAllBuildsCompleted() {
-        fireEvent(GerritEventLifecycleListener::allBuildsCompleted);
+        fireEvent(LifecycleCallback.ALL_BUILDS_COMPLETED, null, null);
     }
+
     /**
-     * Fires an event with the help of a visitor.
-     * It iterates through all the listeners, and for each listener asks the visitor to do stuff.
-     * @param visitor the visitor that calls the correct method.
+     * Fires an event to all the listeners.
+     * Plain listeners are notified directly, {@link AsyncGerritEventLifecycleListener}s are handed to the
+     * {@link GerritEventLifecycleDispatcher}.
+     * @param callback the callback to invoke on the listeners.
+     * @param project the project if the callback has one.
+     * @param build the build if the callback has one.
      */
-    private synchronized void fireEvent(ListenerVisitor visitor) {
+    private synchronized void fireEvent(LifecycleCallback callback, Job project, Run build) {
         if (listeners != null) {
             //Get a cloned list so we don't risk modifying it on the same thread.
             List<GerritEventLifecycleListener> list = getListeners();
+            List<GerritEventLifecycleListener> async = null;
             for (GerritEventLifecycleListener listener : list) {
-                visitor.visit(listener, this);
+                if (listener instanceof AsyncGerritEventLifecycleListener) {
+                    if (async == null) {
+                        async = new LinkedList<GerritEventLifecycleListener>();
+                    }
+                    async.add(listener);
+                } else {
+                    callback.invoke(listener, this, project, build);
+                }
+            }
+            if (async != null) {
+                GerritEventLifecycleDispatcher.getInstance().dispatch(this, async, callback, project, build);
             }
         }
     }
@@ -195,16 +198,4 @@ public class ManualPatchsetCreated extends PatchsetCreated implements GerritEven
             return null;
         }
     }
-
-    /**
-     * Internal Visitor for different events.
-     */
-    private interface ListenerVisitor {
-        /**
-         * Visits the listener.
-         * @param listener the listener to visit.
-         * @param event the event.
-         */
-        void visit(GerritEventLifecycleListener listener, GerritEvent event);
-    }
 }
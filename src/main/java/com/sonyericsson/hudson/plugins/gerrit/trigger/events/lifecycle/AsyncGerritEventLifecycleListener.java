@@ -0,0 +1,40 @@
+/*
+ *  The MIT License
+ *
+ *  Copyright 2026 agent. All rights reserved.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package com.sonyericsson.hudson.plugins.gerrit.trigger.events.lifecycle;
+
+/**
+ * A {@link GerritEventLifecycleListener} that doesn't need to be notified on the thread firing the event.
+ * Notifications to these listeners are handed to the {@link GerritEventLifecycleDispatcher} and delivered
+ * in order per event on a separate thread, so a slow listener can't hold up the trigger scan or
+ * the build completion handling.
+ *
+ * Listeners that take part in decisions that have to be made before the firing thread continues,
+ * like the trigger scan barrier in
+ * {@link com.sonyericsson.hudson.plugins.gerrit.trigger.dependency.DependencyQueueTaskDispatcher},
+ * should implement the plain {@link GerritEventLifecycleListener} instead.
+ *
+ * @author agent &lt;agent@local&gt;.
+ */
+public interface AsyncGerritEventLifecycleListener extends GerritEventLifecycleListener {
+}
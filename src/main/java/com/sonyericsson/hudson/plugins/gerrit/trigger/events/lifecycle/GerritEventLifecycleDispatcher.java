@@ -0,0 +1,403 @@
+/*
+ *  The MIT License
+ *
+ *  Copyright 2026 agent. All rights reserved.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package com.sonyericsson.hudson.plugins.gerrit.trigger.events.lifecycle;
+
+import com.sonymobile.tools.gerrit.gerritevents.dto.GerritEvent;
+import hudson.model.Job;
+import hudson.model.Run;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers lifecycle notifications to {@link AsyncGerritEventLifecycleListener}s on a small pool of threads.
+ * Notifications for the same event are delivered in the order they were fired, notifications for
+ * different events are delivered in parallel. Everything that is waiting for an event when one of its
+ * threads gets to it is delivered as one batch, which is where the notifications to
+ * {@link CoalescingGerritEventLifecycleListener}s are coalesced. Every notification that is delivered
+ * has the project and build it was fired with.
+ *
+ * @author agent &lt;agent@local&gt;.
+ */
+public final class GerritEventLifecycleDispatcher {
+
+    /**
+     * The number of threads delivering notifications.
+     */
+    public static final int NUMBER_OF_THREADS = 2;
+
+    private static final Logger logger = LoggerFactory.getLogger(GerritEventLifecycleDispatcher.class);
+    private static GerritEventLifecycleDispatcher instance;
+
+    private final ExecutorService executor;
+    private final Map<GerritEvent, EventQueue> queues = new IdentityHashMap<GerritEvent, EventQueue>();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param executor the executor to deliver the notifications on.
+     */
+    GerritEventLifecycleDispatcher(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * The dispatcher, created the first time it is needed unless the dispatcher has been shut down.
+     * After {@link #shutdown()} the shut down dispatcher is returned, which delivers on the calling thread,
+     * until {@link #initialize()} starts a new one.
+     *
+     * @return the dispatcher.
+     */
+    public static synchronized GerritEventLifecycleDispatcher getInstance() {
+        if (instance == null) {
+            instance = create();
+        }
+        return instance;
+    }
+
+    /**
+     * Starts a new dispatcher if there is none or the current one has been shut down.
+     * Called when the plugin starts.
+     */
+    public static synchronized void initialize() {
+        if (instance == null || instance.executor.isShutdown()) {
+            instance = create();
+        }
+    }
+
+    /**
+     * Stops the threads of the current dispatcher, notifications already waiting are still delivered.
+     * Notifications dispatched after this are delivered on the calling thread, no new threads are started
+     * until {@link #initialize()} is called.
+     */
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            instance.executor.shutdown();
+        }
+    }
+
+    /**
+     * Creates a dispatcher with its own threads.
+     *
+     * @return the dispatcher.
+     */
+    private static GerritEventLifecycleDispatcher create() {
+        return new GerritEventLifecycleDispatcher(Executors.newFixedThreadPool(NUMBER_OF_THREADS,
+                new NamingThreadFactory(new DaemonThreadFactory(),
+                        GerritEventLifecycleDispatcher.class.getSimpleName())));
+    }
+
+    /**
+     * Queues a notification to the given listeners.
+     *
+     * @param event the event the notification is about.
+     * @param listeners the listeners to notify.
+     * @param callback the callback to invoke.
+     * @param project the project, for {@link LifecycleCallback#PROJECT_TRIGGERED}, otherwise null.
+     * @param build the build, for {@link LifecycleCallback#BUILD_STARTED} and
+     *              {@link LifecycleCallback#BUILD_COMPLETED}, otherwise null.
+     */
+    public void dispatch(GerritEvent event, Collection<? extends GerritEventLifecycleListener> listeners,
+                         LifecycleCallback callback, Job project, Run build) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        EventQueue queue;
+        boolean schedule = false;
+        synchronized (queues) {
+            queue = queues.get(event);
+            if (queue == null) {
+                queue = new EventQueue(event);
+                queues.put(event, queue);
+            }
+            for (GerritEventLifecycleListener listener : listeners) {
+                queue.pending.add(new Notification(listener, callback, project, build));
+            }
+            if (!queue.scheduled) {
+                queue.scheduled = true;
+                schedule = true;
+            }
+        }
+        if (schedule) {
+            schedule(queue);
+        }
+    }
+
+    /**
+     * Hands the queue to the executor, or drains it on this thread if the executor is shut down.
+     *
+     * @param queue the queue.
+     */
+    private void schedule(EventQueue queue) {
+        try {
+            executor.execute(queue);
+        } catch (RejectedExecutionException e) {
+            logger.debug("Dispatcher is shut down, delivering lifecycle notifications on the calling thread.");
+            queue.drainAll();
+        }
+    }
+
+    /**
+     * The number of notifications waiting to be delivered.
+     *
+     * @return the number of notifications.
+     */
+    public int getPendingCount() {
+        int count = 0;
+        synchronized (queues) {
+            for (EventQueue queue : queues.values()) {
+                count += queue.pending.size();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * The number of notifications delivered since the dispatcher was created.
+     *
+     * @return the number of notifications.
+     */
+    public long getDeliveredCount() {
+        return delivered.get();
+    }
+
+    /**
+     * The number of notifications to {@link CoalescingGerritEventLifecycleListener}s that were dropped
+     * because a later notification made them obsolete.
+     *
+     * @return the number of notifications.
+     */
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    /**
+     * Removes the notifications to {@link CoalescingGerritEventLifecycleListener}s that are made obsolete by
+     * a later notification in the same batch. A notification is obsolete if a later one to the same listener
+     * is of the same kind and about the same project, or about a build of the same job.
+     *
+     * @param batch the notifications in the order they were fired.
+     * @return the notifications to deliver, in the same order.
+     */
+    static List<Notification> coalesce(List<Notification> batch) {
+        Map<Slot, Integer> last = new HashMap<Slot, Integer>();
+        for (int i = 0; i < batch.size(); i++) {
+            Notification notification = batch.get(i);
+            if (notification.listener instanceof CoalescingGerritEventLifecycleListener) {
+                last.put(new Slot(notification), i);
+            }
+        }
+        if (last.isEmpty()) {
+            return batch;
+        }
+        List<Notification> result = new ArrayList<Notification>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Notification notification = batch.get(i);
+            Integer index = last.get(new Slot(notification));
+            if (index == null || index == i) {
+                result.add(notification);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * A notification waiting to be delivered.
+     */
+    static final class Notification {
+        private final GerritEventLifecycleListener listener;
+        private final LifecycleCallback callback;
+        private final Job project;
+        private final Run build;
+
+        /**
+         * Constructor.
+         *
+         * @param listener the listener to notify.
+         * @param callback the callback to invoke.
+         * @param project the project if any.
+         * @param build the build if any.
+         */
+        Notification(GerritEventLifecycleListener listener, LifecycleCallback callback, Job project, Run build) {
+            this.listener = listener;
+            this.callback = callback;
+            this.project = project;
+            this.build = build;
+        }
+
+        /**
+         * The callback.
+         *
+         * @return the callback.
+         */
+        LifecycleCallback getCallback() {
+            return callback;
+        }
+
+        /**
+         * The project.
+         *
+         * @return the project if any.
+         */
+        Job getProject() {
+            return project;
+        }
+
+        /**
+         * The build.
+         *
+         * @return the build if any.
+         */
+        Run getBuild() {
+            return build;
+        }
+    }
+
+    /**
+     * What a notification to a coalescing listener is about; the listener, the kind of notification and
+     * the project, or the job of the build. The listener and the project are compared by identity.
+     */
+    private static final class Slot {
+        private final GerritEventLifecycleListener listener;
+        private final LifecycleCallback callback;
+        private final Object subject;
+
+        /**
+         * Constructor.
+         *
+         * @param notification the notification.
+         */
+        Slot(Notification notification) {
+            this.listener = notification.listener;
+            this.callback = notification.callback;
+            if (notification.project != null) {
+                this.subject = notification.project;
+            } else if (notification.build != null && notification.build.getParent() != null) {
+                this.subject = notification.build.getParent();
+            } else {
+                this.subject = notification.build;
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Slot)) {
+                return false;
+            }
+            Slot other = (Slot)o;
+            return listener == other.listener && callback == other.callback && subject == other.subject;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(listener), callback, System.identityHashCode(subject));
+        }
+    }
+
+    /**
+     * The notifications waiting for one event.
+     */
+    private final class EventQueue implements Runnable {
+        private final GerritEvent event;
+        private final List<Notification> pending = new LinkedList<Notification>();
+        private boolean scheduled = false;
+
+        /**
+         * Constructor.
+         *
+         * @param event the event.
+         */
+        EventQueue(GerritEvent event) {
+            this.event = event;
+        }
+
+        /**
+         * Delivers one batch and then hands the queue back to the executor if more has arrived,
+         * so that one busy event doesn't starve the others.
+         */
+        @Override
+        public void run() {
+            if (deliverBatch()) {
+                schedule(this);
+            }
+        }
+
+        /**
+         * Delivers batches until the queue is empty.
+         */
+        void drainAll() {
+            while (deliverBatch()) {
+                logger.trace("More lifecycle notifications arrived for {}", event);
+            }
+        }
+
+        /**
+         * Delivers what is currently waiting.
+         *
+         * @return true if more notifications arrived while delivering.
+         */
+        private boolean deliverBatch() {
+            List<Notification> batch;
+            synchronized (queues) {
+                batch = new ArrayList<Notification>(pending);
+                pending.clear();
+            }
+            List<Notification> toDeliver = coalesce(batch);
+            coalesced.addAndGet(batch.size() - toDeliver.size());
+            for (Notification notification : toDeliver) {
+                try {
+                    notification.callback.invoke(notification.listener, event,
+                            notification.project, notification.build);
+                } catch (Exception e) {
+                    logger.error("Error when notifying LifecycleListener " + notification.listener, e);
+                }
+                delivered.incrementAndGet();
+            }
+            synchronized (queues) {
+                if (pending.isEmpty()) {
+                    scheduled = false;
+                    queues.remove(event);
+                    return false;
+                }
+                return true;
+            }
+        }
+    }
+}
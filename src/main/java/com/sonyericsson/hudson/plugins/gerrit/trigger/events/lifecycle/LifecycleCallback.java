@@ -0,0 +1,100 @@
+/*
+ *  The MIT License
+ *
+ *  Copyright 2026 agent. All rights reserved.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package com.sonyericsson.hudson.plugins.gerrit.trigger.events.lifecycle;
+
+import com.sonymobile.tools.gerrit.gerritevents.dto.GerritEvent;
+import hudson.model.Job;
+import hudson.model.Run;
+
+/**
+ * The callbacks of {@link GerritEventLifecycleListener}.
+ *
+ * @author agent &lt;agent@local&gt;.
+ */
+public enum LifecycleCallback {
+    /**
+     * {@link GerritEventLifecycleListener#triggerScanStarting(GerritEvent)}.
+     */
+    TRIGGER_SCAN_STARTING {
+        @Override
+        public void invoke(GerritEventLifecycleListener listener, GerritEvent event, Job project, Run build) {
+            listener.triggerScanStarting(event);
+        }
+    },
+    /**
+     * {@link GerritEventLifecycleListener#triggerScanDone(GerritEvent)}.
+     */
+    TRIGGER_SCAN_DONE {
+        @Override
+        public void invoke(GerritEventLifecycleListener listener, GerritEvent event, Job project, Run build) {
+            listener.triggerScanDone(event);
+        }
+    },
+    /**
+     * {@link GerritEventLifecycleListener#projectTriggered(GerritEvent, Job)}.
+     */
+    PROJECT_TRIGGERED {
+        @Override
+        public void invoke(GerritEventLifecycleListener listener, GerritEvent event, Job project, Run build) {
+            listener.projectTriggered(event, project);
+        }
+    },
+    /**
+     * {@link GerritEventLifecycleListener#buildStarted(GerritEvent, Run)}.
+     */
+    BUILD_STARTED {
+        @Override
+        public void invoke(GerritEventLifecycleListener listener, GerritEvent event, Job project, Run build) {
+            listener.buildStarted(event, build);
+        }
+    },
+    /**
+     * {@link GerritEventLifecycleListener#buildCompleted(GerritEvent, Run)}.
+     */
+    BUILD_COMPLETED {
+        @Override
+        public void invoke(GerritEventLifecycleListener listener, GerritEvent event, Job project, Run build) {
+            listener.buildCompleted(event, build);
+        }
+    },
+    /**
+     * {@link GerritEventLifecycleListener#allBuildsCompleted(GerritEvent)}.
+     */
+    ALL_BUILDS_COMPLETED {
+        @Override
+        public void invoke(GerritEventLifecycleListener listener, GerritEvent event, Job project, Run build) {
+            listener.allBuildsCompleted(event);
+        }
+    };
+
+    /**
+     * Calls the corresponding method on the listener.
+     *
+     * @param listener the listener to notify.
+     * @param event the event.
+     * @param project the project, for {@link #PROJECT_TRIGGERED}.
+     * @param build the build, for {@link #BUILD_STARTED} and {@link #BUILD_COMPLETED}.
+     */
+    public abstract void invoke(GerritEventLifecycleListener listener, GerritEvent event, Job project, Run build);
+}
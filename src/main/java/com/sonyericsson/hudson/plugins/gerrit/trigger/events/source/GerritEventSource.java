@@ -0,0 +1,137 @@
+/*
+ *  The MIT License
+ *
+ *  Copyright 2026 agent. All rights reserved.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package com.sonyericsson.hudson.plugins.gerrit.trigger.events.source;
+
+import com.sonymobile.tools.gerrit.gerritevents.GerritHandler;
+import com.sonymobile.tools.gerrit.gerritevents.dto.attr.Provider;
+import hudson.ExtensionList;
+import hudson.ExtensionPoint;
+import jenkins.model.Jenkins;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * ExtensionPoint for sources of Gerrit events other than the built in connections.
+ *
+ * A source is started with the handler when the plugin starts and can post events to it
+ * from then on until it is stopped. Every source also sees the raw JSON stream that the plugin
+ * receives from the connected servers, so a source can record the live stream as well as produce one.
+ *
+ * @author agent &lt;agent@local&gt;
+ */
+public abstract class GerritEventSource implements ExtensionPoint {
+
+    private static final Logger logger = LoggerFactory.getLogger(GerritEventSource.class);
+
+    /**
+     * Called when the plugin starts, the source can start posting events to the handler.
+     *
+     * @param handler the handler to post events to.
+     */
+    public void start(GerritHandler handler) {
+    }
+
+    /**
+     * Called when the plugin stops, the source should stop posting events and release its resources.
+     */
+    public void stop() {
+    }
+
+    /**
+     * Called with every line of the event stream that the plugin receives from a server, before it is parsed.
+     * Called on the thread that receives the stream, so it should return quickly.
+     *
+     * @param serverName the name of the server the line came from, null if not known.
+     * @param line the JSON of the event.
+     */
+    public void onReceived(String serverName, String line) {
+    }
+
+    /**
+     * All registered sources.
+     *
+     * @return the sources.
+     */
+    public static ExtensionList<GerritEventSource> all() {
+        return Jenkins.get().getExtensionList(GerritEventSource.class);
+    }
+
+    /**
+     * Starts all registered sources.
+     *
+     * @param handler the handler to post events to.
+     */
+    public static void startAll(GerritHandler handler) {
+        if (Jenkins.getInstanceOrNull() == null) {
+            return;
+        }
+        for (GerritEventSource source : all()) {
+            try {
+                source.start(handler);
+            } catch (Exception e) {
+                logger.error("Failed to start the event source " + source.getClass().getName(), e);
+            }
+        }
+    }
+
+    /**
+     * Stops all registered sources.
+     */
+    public static void stopAll() {
+        if (Jenkins.getInstanceOrNull() == null) {
+            return;
+        }
+        for (GerritEventSource source : all()) {
+            try {
+                source.stop();
+            } catch (Exception e) {
+                logger.error("Failed to stop the event source " + source.getClass().getName(), e);
+            }
+        }
+    }
+
+    /**
+     * Tells all registered sources about a line of the event stream received from a server.
+     *
+     * @param provider the provider of the line, can be null.
+     * @param line the JSON of the event.
+     * @see #onReceived(String, String)
+     */
+    public static void fireReceived(Provider provider, String line) {
+        if (Jenkins.getInstanceOrNull() == null) {
+            return;
+        }
+        String serverName = null;
+        if (provider != null) {
+            serverName = provider.getName();
+        }
+        for (GerritEventSource source : all()) {
+            try {
+                source.onReceived(serverName, line);
+            } catch (Exception e) {
+                logger.warn("The event source " + source.getClass().getName() + " failed to receive an event.", e);
+            }
+        }
+    }
+}
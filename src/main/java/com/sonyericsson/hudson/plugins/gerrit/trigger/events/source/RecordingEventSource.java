@@ -0,0 +1,425 @@
+/*
+ *  The MIT License
+ *
+ *  Copyright 2026 agent. All rights reserved.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package com.sonyericsson.hudson.plugins.gerrit.trigger.events.source;
+
+import hudson.Extension;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import org.apache.commons.io.output.CountingOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Records the raw event stream of every server to gzip compressed files that roll over at a given size,
+ * for {@link ReplayEventSource} to play back later.
+ *
+ * The files of a server are kept in a directory of their own under the directory given by the system property
+ * {@code com.sonyericsson.hudson.plugins.gerrit.trigger.events.source.RecordingEventSource.directory},
+ * nothing is recorded when it is not set. A file is complete when it has been rolled over or the plugin has stopped,
+ * the file being written when the controller dies can be read up to where it was cut off.
+ *
+ * The lines are written by a thread of its own so that the threads receiving the streams never wait for the disk.
+ * At most {@link #QUEUE_SIZE} lines wait to be written, lines received when that many are waiting are not recorded.
+ *
+ * @author agent &lt;agent@local&gt;
+ */
+@Extension
+public class RecordingEventSource extends GerritEventSource {
+
+    private static final String PROPERTY_PREFIX = RecordingEventSource.class.getName();
+    private static final long BYTES_PER_MEGABYTE = 1024L * 1024L;
+
+    /**
+     * The size a file is rolled over at, in megabytes of uncompressed JSON.
+     */
+    public static final int MAX_FILE_MEGABYTES = Integer.getInteger(PROPERTY_PREFIX + ".maxFileMegabytes", 64);
+
+    /**
+     * The number of files kept per server, the oldest are deleted when there are more.
+     */
+    public static final int MAX_FILES = Integer.getInteger(PROPERTY_PREFIX + ".maxFiles", 20);
+
+    /**
+     * The most lines waiting to be written.
+     */
+    public static final int QUEUE_SIZE = Integer.getInteger(PROPERTY_PREFIX + ".queueSize", 10000);
+
+    private static final String FILE_PREFIX = "events-";
+    private static final String UNKNOWN_SERVER = "_unknown";
+    private static final long POLL_MILLIS = 500;
+    private static final int BYTE_MASK = 0xff;
+    private static final long STOP_TIMEOUT_SECONDS = 10;
+    private static final Logger logger = LoggerFactory.getLogger(RecordingEventSource.class);
+
+    private final File directory;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final Map<String, RollingFile> files = new HashMap<String, RollingFile>();
+    private final BlockingQueue<Received> queue;
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean dropping;
+    private volatile boolean running;
+    private Thread writer;
+
+    /**
+     * Default constructor, configured from system properties.
+     */
+    public RecordingEventSource() {
+        this(directoryProperty(), MAX_FILE_MEGABYTES * BYTES_PER_MEGABYTE, MAX_FILES);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param directory the directory to record to, null to not record anything.
+     * @param maxFileBytes the size a file is rolled over at, in bytes of uncompressed JSON.
+     * @param maxFiles the number of files kept per server.
+     */
+    RecordingEventSource(File directory, long maxFileBytes, int maxFiles) {
+        this(directory, maxFileBytes, maxFiles, QUEUE_SIZE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param directory the directory to record to, null to not record anything.
+     * @param maxFileBytes the size a file is rolled over at, in bytes of uncompressed JSON.
+     * @param maxFiles the number of files kept per server.
+     * @param queueSize the most lines waiting to be written.
+     */
+    RecordingEventSource(File directory, long maxFileBytes, int maxFiles, int queueSize) {
+        this.directory = directory;
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = maxFiles;
+        this.queue = new ArrayBlockingQueue<Received>(Math.max(1, queueSize));
+    }
+
+    /**
+     * The directory from the system property.
+     *
+     * @return the directory or null if not set.
+     */
+    private static File directoryProperty() {
+        String path = System.getProperty(PROPERTY_PREFIX + ".directory");
+        if (path == null || path.trim().isEmpty()) {
+            return null;
+        }
+        return new File(path.trim());
+    }
+
+    /**
+     * If anything is recorded.
+     *
+     * @return true if so.
+     */
+    public boolean isRecording() {
+        return directory != null;
+    }
+
+    /**
+     * The number of lines that were not recorded because too many were waiting to be written.
+     *
+     * @return the number.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    @Override
+    public void onReceived(String serverName, String line) {
+        if (directory == null) {
+            return;
+        }
+        if (!running) {
+            startWriter();
+        }
+        if (queue.offer(new Received(System.currentTimeMillis(), serverName, line))) {
+            dropping = false;
+        } else {
+            dropped.incrementAndGet();
+            if (!dropping) {
+                dropping = true;
+                logger.warn("Recording of the event stream can't keep up, events are not recorded until it does.");
+            }
+        }
+    }
+
+    /**
+     * Starts the thread that writes the files unless it is running.
+     */
+    private synchronized void startWriter() {
+        if (running) {
+            return;
+        }
+        running = true;
+        writer = new NamingThreadFactory(new DaemonThreadFactory(), RecordingEventSource.class.getSimpleName())
+                .newThread(this::writeQueued);
+        writer.start();
+    }
+
+    /**
+     * Writes the waiting lines until stopped and all lines are written.
+     */
+    private void writeQueued() {
+        while (running || !queue.isEmpty()) {
+            Received received;
+            try {
+                received = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                break;
+            }
+            if (received != null) {
+                getFile(received.serverName).write(received.time, received.line);
+            }
+        }
+    }
+
+    /**
+     * The files of a server.
+     *
+     * @param serverName the server name, null if not known.
+     * @return the files.
+     */
+    private RollingFile getFile(String serverName) {
+        synchronized (files) {
+            RollingFile file = files.get(serverName);
+            if (file == null) {
+                file = new RollingFile(serverName);
+                files.put(serverName, file);
+            }
+            return file;
+        }
+    }
+
+    @Override
+    public void stop() {
+        Thread thread;
+        synchronized (this) {
+            running = false;
+            thread = writer;
+            writer = null;
+        }
+        if (thread != null) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(STOP_TIMEOUT_SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (thread.isAlive()) {
+                logger.warn("Gave up waiting for {} events to be recorded.", queue.size());
+                thread.interrupt();
+            }
+        }
+        List<RollingFile> toClose;
+        synchronized (files) {
+            toClose = new ArrayList<RollingFile>(files.values());
+            files.clear();
+        }
+        for (RollingFile file : toClose) {
+            file.close();
+        }
+    }
+
+    /**
+     * The directory the files of a server are kept in.
+     *
+     * @param serverName the server name, null if not known.
+     * @return the directory.
+     */
+    File getServerDirectory(String serverName) {
+        if (serverName == null) {
+            return new File(directory, UNKNOWN_SERVER);
+        }
+        return new File(directory, toDirectoryName(serverName));
+    }
+
+    /**
+     * A directory name that is safe on any file system and different for every server name.
+     * Letters, digits and dashes are kept, every other byte of the name in UTF-8 is written as _ and two hex digits.
+     * Since _ is always followed by two hex digits no name gets the directory of unknown servers.
+     *
+     * @param serverName the server name.
+     * @return the directory name.
+     */
+    static String toDirectoryName(String serverName) {
+        StringBuilder name = new StringBuilder();
+        for (byte b : serverName.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char)(b & BYTE_MASK);
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-') {
+                name.append(c);
+            } else {
+                name.append('_').append(String.format("%02X", b & BYTE_MASK));
+            }
+        }
+        return name.toString();
+    }
+
+    /**
+     * The recorded files of a server, the oldest first.
+     *
+     * @param serverDirectory the directory of the server.
+     * @return the files.
+     */
+    static File[] listRecordings(File serverDirectory) {
+        File[] found = serverDirectory.listFiles((dir, name) -> name.endsWith(StreamRecord.FILE_EXTENSION));
+        if (found == null) {
+            return new File[0];
+        }
+        Arrays.sort(found);
+        return found;
+    }
+
+    /**
+     * The files of one server.
+     */
+    private final class RollingFile {
+        private final String serverField;
+        private final File serverDirectory;
+        private CountingOutputStream out;
+        private long lastSuffix;
+        private boolean failing;
+
+        /**
+         * Constructor.
+         *
+         * @param serverName the server name, null if not known.
+         */
+        RollingFile(String serverName) {
+            this.serverField = StreamRecord.serverField(serverName);
+            this.serverDirectory = getServerDirectory(serverName);
+        }
+
+        /**
+         * Writes a record, rolling over to a new file when the current one is full.
+         *
+         * @param time when the line was received.
+         * @param line the JSON.
+         */
+        synchronized void write(long time, String line) {
+            try {
+                if (out == null) {
+                    open(time);
+                }
+                out.write(StreamRecord.format(time, serverField, line).getBytes(StandardCharsets.UTF_8));
+                failing = false;
+                if (out.getByteCount() >= maxFileBytes) {
+                    close();
+                    prune();
+                }
+            } catch (IOException e) {
+                if (!failing) {
+                    logger.warn("Failed to record the event stream to " + serverDirectory, e);
+                    failing = true;
+                }
+                close();
+            }
+        }
+
+        /**
+         * Opens a new file.
+         *
+         * @param time the time to name the file after.
+         * @throws IOException if so.
+         */
+        private void open(long time) throws IOException {
+            if (!serverDirectory.isDirectory() && !serverDirectory.mkdirs()) {
+                throw new IOException("Could not create " + serverDirectory);
+            }
+            //Names must sort in the order the files were written, even when several are opened in one millisecond.
+            long suffix = Math.max(time, lastSuffix + 1);
+            File file = new File(serverDirectory, FILE_PREFIX + suffix + StreamRecord.FILE_EXTENSION);
+            while (file.exists()) {
+                suffix++;
+                file = new File(serverDirectory, FILE_PREFIX + suffix + StreamRecord.FILE_EXTENSION);
+            }
+            lastSuffix = suffix;
+            out = new CountingOutputStream(new BufferedOutputStream(
+                    new GZIPOutputStream(new FileOutputStream(file))));
+        }
+
+        /**
+         * Deletes the oldest files when there are too many.
+         */
+        private void prune() {
+            File[] recordings = listRecordings(serverDirectory);
+            for (int i = 0; i < recordings.length - maxFiles; i++) {
+                if (!recordings[i].delete()) {
+                    logger.warn("Could not delete the old recording {}", recordings[i]);
+                }
+            }
+        }
+
+        /**
+         * Closes the current file.
+         */
+        synchronized void close() {
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException e) {
+                    logger.warn("Failed to close the recording in " + serverDirectory, e);
+                }
+                out = null;
+            }
+        }
+    }
+
+    /**
+     * A line waiting to be written.
+     */
+    private static final class Received {
+        private final long time;
+        private final String serverName;
+        private final String line;
+
+        /**
+         * Constructor.
+         *
+         * @param time when the line was received.
+         * @param serverName the server name, null if not known.
+         * @param line the JSON.
+         */
+        private Received(long time, String serverName, String line) {
+            this.time = time;
+            this.serverName = serverName;
+            this.line = line;
+        }
+    }
+}
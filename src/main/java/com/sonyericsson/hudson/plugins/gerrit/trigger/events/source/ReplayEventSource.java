@@ -0,0 +1,365 @@
+/*
+ *  The MIT License
+ *
+ *  Copyright 2026 agent. All rights reserved.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package com.sonyericsson.hudson.plugins.gerrit.trigger.events.source;
+
+import com.sonymobile.tools.gerrit.gerritevents.GerritHandler;
+import com.sonymobile.tools.gerrit.gerritevents.GerritJsonEventFactory;
+import com.sonymobile.tools.gerrit.gerritevents.dto.GerritEvent;
+import com.sonymobile.tools.gerrit.gerritevents.dto.attr.Provider;
+import com.sonymobile.tools.gerrit.gerritevents.dto.events.GerritTriggeredEvent;
+import hudson.Extension;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import net.sf.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Plays back event streams recorded by {@link RecordingEventSource} into the handler,
+ * as if the events were received from the servers again.
+ *
+ * Replays the recordings in the directory given by the system property
+ * {@code com.sonyericsson.hudson.plugins.gerrit.trigger.events.source.ReplayEventSource.directory}
+ * once when the plugin starts. The streams of all servers found in it are merged in the order they were received
+ * and played back at the speed given by {@code ...ReplayEventSource.speed}: 1 is real time, 10 is ten times as fast
+ * and 0 is as fast as possible.
+ *
+ * The replayed events trigger builds and get votes sent to the servers just like live events, so they are only
+ * posted to the handler when {@code ...ReplayEventSource.live} is {@code true}. Otherwise the replay is a dry run
+ * that reads and parses the recordings and logs the events without posting them.
+ *
+ * @author agent &lt;agent@local&gt;
+ */
+@Extension
+public class ReplayEventSource extends GerritEventSource {
+
+    private static final String PROPERTY_PREFIX = ReplayEventSource.class.getName();
+    private static final Logger logger = LoggerFactory.getLogger(ReplayEventSource.class);
+
+    private final File directory;
+    private final double speed;
+    private final boolean live;
+    private volatile Thread replayer;
+
+    /**
+     * Default constructor, configured from system properties.
+     */
+    public ReplayEventSource() {
+        this(directoryProperty(), speedProperty(), Boolean.getBoolean(PROPERTY_PREFIX + ".live"));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param directory the directory of recordings, null to not replay anything.
+     * @param speed how many times as fast as recorded to play back, 0 or less for as fast as possible.
+     * @param live if the events are posted to the handler, otherwise they are only logged.
+     */
+    ReplayEventSource(File directory, double speed, boolean live) {
+        this.directory = directory;
+        this.speed = speed;
+        this.live = live;
+    }
+
+    /**
+     * The directory from the system property.
+     *
+     * @return the directory or null if not set.
+     */
+    private static File directoryProperty() {
+        String path = System.getProperty(PROPERTY_PREFIX + ".directory");
+        if (path == null || path.trim().isEmpty()) {
+            return null;
+        }
+        return new File(path.trim());
+    }
+
+    /**
+     * The speed from the system property.
+     *
+     * @return the speed, 1 if not set or not a number.
+     */
+    private static double speedProperty() {
+        String value = System.getProperty(PROPERTY_PREFIX + ".speed");
+        if (value == null) {
+            return 1;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            logger.warn("Bad replay speed {}, replaying in real time.", value);
+            return 1;
+        }
+    }
+
+    @Override
+    public void start(GerritHandler handler) {
+        if (directory == null) {
+            return;
+        }
+        Thread thread = new NamingThreadFactory(new DaemonThreadFactory(), ReplayEventSource.class.getSimpleName())
+                .newThread(() -> {
+                    if (live) {
+                        logger.warn("Replaying the recorded event streams in {} at speed {}, "
+                                + "the events will trigger builds and send votes.", directory, speed);
+                    } else {
+                        logger.info("Dry run of the recorded event streams in {} at speed {}", directory, speed);
+                    }
+                    int count = replay(handler);
+                    logger.info("Replayed {} recorded events from {}", count, directory);
+                });
+        replayer = thread;
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        Thread thread = replayer;
+        replayer = null;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Plays back the recordings on the current thread.
+     *
+     * @param handler the handler to post the events to, when live.
+     * @return the number of events posted, or that would have been posted in a dry run.
+     */
+    int replay(GerritHandler handler) {
+        PriorityQueue<Cursor> cursors = new PriorityQueue<Cursor>(Comparator.comparingLong(Cursor::getTime));
+        for (File serverDirectory : listServerDirectories()) {
+            Cursor cursor = new Cursor(RecordingEventSource.listRecordings(serverDirectory));
+            if (cursor.next()) {
+                cursors.add(cursor);
+            }
+        }
+        int count = 0;
+        long firstTime = -1;
+        long startNanos = System.nanoTime();
+        try {
+            while (!cursors.isEmpty()) {
+                Cursor cursor = cursors.poll();
+                StreamRecord record = cursor.getRecord();
+                if (firstTime < 0) {
+                    firstTime = record.getTime();
+                }
+                waitUntilDue(record.getTime() - firstTime, startNanos);
+                if (post(handler, record)) {
+                    count++;
+                }
+                if (cursor.next()) {
+                    cursors.add(cursor);
+                }
+            }
+        } catch (InterruptedException e) {
+            logger.info("Replay of {} stopped after {} events.", directory, count);
+            Thread.currentThread().interrupt();
+        } finally {
+            for (Cursor cursor : cursors) {
+                cursor.close();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * The directories of the servers in the recordings directory,
+     * including the directory itself in case the recordings were put directly in it.
+     *
+     * @return the directories.
+     */
+    private List<File> listServerDirectories() {
+        List<File> found = new ArrayList<File>();
+        found.add(directory);
+        File[] children = directory.listFiles(File::isDirectory);
+        if (children != null) {
+            Arrays.sort(children);
+            found.addAll(Arrays.asList(children));
+        }
+        return found;
+    }
+
+    /**
+     * Sleeps until it is time to play back a record.
+     *
+     * @param offsetMillis when the record was received, relative to the first record.
+     * @param startNanos when the play back started.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    private void waitUntilDue(long offsetMillis, long startNanos) throws InterruptedException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedException();
+        }
+        if (speed <= 0) {
+            return;
+        }
+        long dueMillis = (long)(offsetMillis / speed);
+        long waitMillis = dueMillis - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        if (waitMillis > 0) {
+            Thread.sleep(waitMillis);
+        }
+    }
+
+    /**
+     * Parses a record and posts the event, or only logs it in a dry run.
+     *
+     * @param handler the handler.
+     * @param record the record.
+     * @return true if an event was posted, or would have been in a dry run.
+     */
+    private boolean post(GerritHandler handler, StreamRecord record) {
+        JSONObject json;
+        try {
+            json = GerritJsonEventFactory.getJsonObjectIfInterestingAndUsable(record.getLine());
+        } catch (Exception e) {
+            logger.warn("Could not parse a recorded event: " + record.getLine(), e);
+            return false;
+        }
+        if (json == null) {
+            return false;
+        }
+        GerritEvent event = GerritJsonEventFactory.getEvent(json);
+        if (event == null) {
+            return false;
+        }
+        if (event instanceof GerritTriggeredEvent) {
+            Provider provider = new Provider();
+            provider.setName(record.getServerName());
+            ((GerritTriggeredEvent)event).setProvider(provider);
+        }
+        if (live) {
+            handler.post(event);
+        } else {
+            logger.info("Dry run, not posting {} from {}", event, record.getServerName());
+        }
+        return true;
+    }
+
+    /**
+     * Reads the records of one server from its files in turn.
+     */
+    private static final class Cursor {
+        private final File[] files;
+        private int fileIndex;
+        private BufferedReader reader;
+        private StreamRecord record;
+
+        /**
+         * Constructor.
+         *
+         * @param files the files, the oldest first.
+         */
+        Cursor(File[] files) {
+            this.files = files;
+        }
+
+        /**
+         * Moves to the next record.
+         *
+         * @return false if there are no more records.
+         */
+        boolean next() {
+            while (true) {
+                if (reader == null) {
+                    if (fileIndex >= files.length) {
+                        record = null;
+                        return false;
+                    }
+                    File file = files[fileIndex++];
+                    try {
+                        reader = new BufferedReader(new InputStreamReader(
+                                new GZIPInputStream(new FileInputStream(file)), StandardCharsets.UTF_8));
+                    } catch (IOException e) {
+                        logger.warn("Could not open the recording " + file, e);
+                        continue;
+                    }
+                }
+                String text;
+                try {
+                    text = reader.readLine();
+                } catch (IOException e) {
+                    //The file was cut off when the recording stopped, the rest of it is lost.
+                    logger.debug("The recording {} ends early.", files[fileIndex - 1]);
+                    text = null;
+                }
+                if (text == null) {
+                    close();
+                    continue;
+                }
+                record = StreamRecord.parse(text);
+                if (record != null) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * The current record.
+         *
+         * @return the record.
+         */
+        StreamRecord getRecord() {
+            return record;
+        }
+
+        /**
+         * When the current record was received.
+         *
+         * @return the time.
+         */
+        long getTime() {
+            return record.getTime();
+        }
+
+        /**
+         * Closes the current file.
+         */
+        void close() {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    logger.debug("Failed to close a recording.", e);
+                }
+                reader = null;
+            }
+        }
+    }
+}
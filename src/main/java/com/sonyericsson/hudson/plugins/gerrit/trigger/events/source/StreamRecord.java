@@ -0,0 +1,141 @@
+/*
+ *  The MIT License
+ *
+ *  Copyright 2026 agent. All rights reserved.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package com.sonyericsson.hudson.plugins.gerrit.trigger.events.source;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * One line of a recorded event stream: when it was received, from which server and the JSON.
+ * Written as the receive time in milliseconds, the URL encoded server name and the JSON separated by tabs.
+ *
+ * @author agent &lt;agent@local&gt;
+ */
+final class StreamRecord {
+
+    /**
+     * The extension of recorded stream files.
+     */
+    static final String FILE_EXTENSION = ".jsonl.gz";
+
+    private static final char SEPARATOR = '\t';
+
+    private final long time;
+    private final String serverName;
+    private final String line;
+
+    /**
+     * Constructor.
+     *
+     * @param time when the line was received.
+     * @param serverName the server it was received from, null if not known.
+     * @param line the JSON.
+     */
+    StreamRecord(long time, String serverName, String line) {
+        this.time = time;
+        this.serverName = serverName;
+        this.line = line;
+    }
+
+    /**
+     * The prefix to put before the receive time of the records of a server.
+     *
+     * @param serverName the server name, null if not known.
+     * @return the encoded server name and separator.
+     */
+    static String serverField(String serverName) {
+        if (serverName == null) {
+            return String.valueOf(SEPARATOR);
+        }
+        return URLEncoder.encode(serverName, StandardCharsets.UTF_8) + SEPARATOR;
+    }
+
+    /**
+     * Parses a record.
+     *
+     * @param text the record as written.
+     * @return the record, null if the text is not a record.
+     */
+    static StreamRecord parse(String text) {
+        int first = text.indexOf(SEPARATOR);
+        if (first <= 0) {
+            return null;
+        }
+        int second = text.indexOf(SEPARATOR, first + 1);
+        if (second < 0) {
+            return null;
+        }
+        long time;
+        try {
+            time = Long.parseLong(text.substring(0, first));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        String serverName = null;
+        if (second > first + 1) {
+            serverName = URLDecoder.decode(text.substring(first + 1, second), StandardCharsets.UTF_8);
+        }
+        return new StreamRecord(time, serverName, text.substring(second + 1));
+    }
+
+    /**
+     * A record as written, with the line break.
+     *
+     * @param time when the line was received.
+     * @param serverField the server name as given by {@link #serverField(String)}.
+     * @param line the JSON.
+     * @return the text.
+     */
+    static String format(long time, String serverField, String line) {
+        return Long.toString(time) + SEPARATOR + serverField + line + '\n';
+    }
+
+    /**
+     * When the line was received.
+     *
+     * @return the time in milliseconds.
+     */
+    long getTime() {
+        return time;
+    }
+
+    /**
+     * The server the line was received from.
+     *
+     * @return the server name, null if not known.
+     */
+    String getServerName() {
+        return serverName;
+    }
+
+    /**
+     * The JSON of the event.
+     *
+     * @return the JSON.
+     */
+    String getLine() {
+        return line;
+    }
+}
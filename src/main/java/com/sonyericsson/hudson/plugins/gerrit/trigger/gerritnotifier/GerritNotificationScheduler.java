@@ -0,0 +1,721 @@
+/*
+ *  The MIT License
+ *
+ *  Copyright 2026 agent. All rights reserved.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier;
+
+import com.sonyericsson.hudson.plugins.gerrit.trigger.events.ManualPatchsetCreated;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.job.NotificationCommandJob;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.utils.BoundedLinkedHashMap;
+import com.sonymobile.tools.gerrit.gerritevents.dto.attr.Provider;
+import com.sonymobile.tools.gerrit.gerritevents.dto.events.ChangeBasedEvent;
+import com.sonymobile.tools.gerrit.gerritevents.dto.events.GerritTriggeredEvent;
+import jenkins.util.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Schedules build notifications onto the {@link com.sonymobile.tools.gerrit.gerritevents.GerritSendCommandQueue}.
+ *
+ * Notifications are kept in a queue per Gerrit server and at most {@link #getMaxInFlightPerServer()} of them
+ * are handed to the send-command queue at the same time for each server.
+ * Build completed notifications carry the votes and are always sent before any pending build started notification.
+ * A build started notification still waiting when the build completed notification for the same event is
+ * scheduled is obsolete and dropped. If too many build started notifications are waiting the oldest ones are
+ * dropped, the build threads that schedule notifications are never blocked.
+ * Notifications the send-command queue refuses are tried again after a delay that doubles,
+ * up to {@link #MAX_RETRY_DELAY_SECONDS}, for as long as it keeps refusing them.
+ *
+ * When builds of a job for a change are cancelled because a newer patch set arrived,
+ * see {@link #supersede(ChangeBasedEvent, String)}, build started notifications of that job for the older
+ * patch sets are dropped, as are build completed notifications for them where all builds were aborted and
+ * the builds of every job were superseded.
+ *
+ * @author agent &lt;agent@local&gt;
+ */
+public final class GerritNotificationScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(GerritNotificationScheduler.class);
+
+    private static final int DEFAULT_MAX_IN_FLIGHT_PER_SERVER = 4;
+    private static final int DEFAULT_MAX_PENDING_STARTED = 1000;
+    private static final long DEFAULT_IN_FLIGHT_TIMEOUT_MINUTES = 10;
+    private static final int MAX_TRACKED_CHANGES = 10000;
+    private static final long MIN_RETRY_DELAY_SECONDS = 2;
+    /**
+     * The longest time to wait before trying to send refused notifications again.
+     */
+    static final long MAX_RETRY_DELAY_SECONDS = 120;
+
+    private static GerritNotificationScheduler instance;
+
+    /**
+     * The kind of notification, in priority order.
+     */
+    public enum Priority {
+        /**
+         * A build completed notification, with the votes.
+         */
+        BUILD_COMPLETED,
+        /**
+         * A build started notification.
+         */
+        BUILD_STARTED
+    }
+
+    private final int maxInFlightPerServer;
+    private final int maxPendingStarted;
+    private final long inFlightTimeout;
+    private final ScheduledExecutorService retryScheduler;
+    private final Map<String, ServerQueue> servers = new TreeMap<String, ServerQueue>();
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong obsoleteCount = new AtomicLong();
+    private final AtomicLong overflowCount = new AtomicLong();
+    private final AtomicLong supersededCount = new AtomicLong();
+    /**
+     * Latest patch set number per server, change and job that superseded older patch sets.
+     * Guarded by {@link #servers}.
+     */
+    private final Map<String, Integer> latestPatchSets = new BoundedLinkedHashMap<String, Integer>(MAX_TRACKED_CHANGES);
+
+    /**
+     * Constructor.
+     *
+     * @param maxInFlightPerServer how many notifications to a server can be on the send-command queue at once.
+     * @param maxPendingStarted how many build started notifications to a server can wait before the oldest are dropped.
+     * @param inFlightTimeout millis before a notification on the send-command queue is considered lost.
+     * @param retryScheduler runs the retries of refused notifications.
+     */
+    GerritNotificationScheduler(int maxInFlightPerServer, int maxPendingStarted, long inFlightTimeout,
+                                ScheduledExecutorService retryScheduler) {
+        this.maxInFlightPerServer = Math.max(1, maxInFlightPerServer);
+        this.maxPendingStarted = Math.max(0, maxPendingStarted);
+        this.inFlightTimeout = inFlightTimeout;
+        this.retryScheduler = retryScheduler;
+    }
+
+    /**
+     * The singleton instance.
+     * The limits can be tuned with the system properties <code>&lt;this class name&gt;.maxInFlightPerServer</code>
+     * and <code>&lt;this class name&gt;.maxPendingStarted</code>.
+     *
+     * @return the instance.
+     */
+    public static synchronized GerritNotificationScheduler getInstance() {
+        if (instance == null) {
+            String prefix = GerritNotificationScheduler.class.getName();
+            instance = new GerritNotificationScheduler(
+                    Integer.getInteger(prefix + ".maxInFlightPerServer", DEFAULT_MAX_IN_FLIGHT_PER_SERVER),
+                    Integer.getInteger(prefix + ".maxPendingStarted", DEFAULT_MAX_PENDING_STARTED),
+                    TimeUnit.MINUTES.toMillis(DEFAULT_IN_FLIGHT_TIMEOUT_MINUTES),
+                    Timer.get());
+        }
+        return instance;
+    }
+
+    /**
+     * Schedules a notification to be sent, that is never dropped because the patch set is superseded.
+     *
+     * @param serverName the name of the server the notification is for.
+     * @param priority the kind of notification.
+     * @param event the event the notification is about.
+     * @param job the job that sends the notification.
+     */
+    public void schedule(String serverName, Priority priority, GerritTriggeredEvent event,
+                         NotificationCommandJob job) {
+        schedule(serverName, priority, event, job, Collections.<String>emptySet());
+    }
+
+    /**
+     * Schedules a notification to be sent.
+     *
+     * @param serverName the name of the server the notification is for.
+     * @param priority the kind of notification.
+     * @param event the event the notification is about.
+     * @param job the job that sends the notification.
+     * @param supersededWith the full names of the jobs whose builds the notification is about. It is dropped when
+     *                       the patch set is superseded for all of them, never if this is empty.
+     */
+    public void schedule(String serverName, Priority priority, GerritTriggeredEvent event,
+                         NotificationCommandJob job, Collection<String> supersededWith) {
+        List<Pending> toQueue;
+        synchronized (servers) {
+            ServerQueue queue = servers.get(serverName);
+            if (queue == null) {
+                queue = new ServerQueue(serverName);
+                servers.put(serverName, queue);
+            }
+            Pending pending = new Pending(priority, event, job, supersededWith);
+            if (pending.isSuperseded(serverName)) {
+                supersededCount.incrementAndGet();
+                logger.debug("Not sending {} notification for superseded {}", priority, event);
+                return;
+            }
+            if (priority == Priority.BUILD_COMPLETED) {
+                queue.dropStarted(event);
+                queue.completed.addLast(pending);
+            } else {
+                queue.started.addLast(pending);
+                while (queue.started.size() > maxPendingStarted) {
+                    Pending dropped = queue.started.removeFirst();
+                    overflowCount.incrementAndGet();
+                    logger.warn("Too many build started notifications waiting for {}, "
+                            + "the build started message and vote of {} for {} will not be posted",
+                            serverName, dropped.job, dropped.event);
+                }
+            }
+            toQueue = queue.take();
+        }
+        send(serverName, toQueue);
+    }
+
+    /**
+     * Tells that builds of the job for older patch sets of the change have been cancelled by the new event.
+     * Waiting notifications for the older patch sets that are obsolete once the job is superseded are dropped,
+     * and so will such notifications scheduled later. Other jobs that built the older patch sets are not affected.
+     *
+     * @param event the event of the newer patch set.
+     * @param jobName the full name of the job whose builds were cancelled.
+     */
+    public void supersede(ChangeBasedEvent event, String jobName) {
+        String serverName = getServerName(event);
+        Integer patchSet = getPatchSetNumber(event);
+        String key = getChangeKey(serverName, event, jobName);
+        if (patchSet == null || key == null) {
+            return;
+        }
+        synchronized (servers) {
+            Integer latest = latestPatchSets.get(key);
+            if (latest == null || latest < patchSet) {
+                latestPatchSets.put(key, patchSet);
+            }
+            ServerQueue queue = servers.get(serverName);
+            if (queue != null) {
+                supersededCount.addAndGet(queue.dropSuperseded(queue.completed) + queue.dropSuperseded(queue.started));
+            }
+        }
+    }
+
+    /**
+     * The name of the server the event came from.
+     *
+     * @param event the event.
+     * @return the name or null if unknown.
+     */
+    private static String getServerName(GerritTriggeredEvent event) {
+        if (event == null) {
+            return null;
+        }
+        Provider provider = event.getProvider();
+        if (provider == null) {
+            return null;
+        }
+        return provider.getName();
+    }
+
+    /**
+     * The key of the change of the event and the job in {@link #latestPatchSets}.
+     *
+     * @param serverName the server name.
+     * @param event the event.
+     * @param jobName the full name of the job.
+     * @return the key, or null if the event is not about a change.
+     */
+    private static String getChangeKey(String serverName, GerritTriggeredEvent event, String jobName) {
+        if (serverName == null || jobName == null || !(event instanceof ChangeBasedEvent)) {
+            return null;
+        }
+        ChangeBasedEvent changeBasedEvent = (ChangeBasedEvent)event;
+        if (changeBasedEvent.getChange() == null || changeBasedEvent.getChange().getNumber() == null) {
+            return null;
+        }
+        return serverName + "#" + changeBasedEvent.getChange().getNumber() + "#" + jobName;
+    }
+
+    /**
+     * The patch set number of the event.
+     *
+     * @param event the event.
+     * @return the number, or null if the event has none.
+     */
+    private static Integer getPatchSetNumber(GerritTriggeredEvent event) {
+        if (!(event instanceof ChangeBasedEvent)) {
+            return null;
+        }
+        ChangeBasedEvent changeBasedEvent = (ChangeBasedEvent)event;
+        if (changeBasedEvent.getPatchSet() == null || changeBasedEvent.getPatchSet().getNumber() == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(changeBasedEvent.getPatchSet().getNumber());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Hands the jobs to the send-command queue. Called outside of the lock.
+     * If the queue refuses a job, it and the ones after it are put back to wait
+     * and their slots are freed, they are tried again with the next notification to the server
+     * or when the retry delay is over, whichever comes first.
+     *
+     * @param serverName the name of the server the jobs are for.
+     * @param jobs the jobs.
+     */
+    private void send(String serverName, List<Pending> jobs) {
+        for (int i = 0; i < jobs.size(); i++) {
+            Pending pending = jobs.get(i);
+            boolean queued;
+            try {
+                queued = pending.job.queue();
+            } catch (RuntimeException e) {
+                logger.error("Failed to queue notification job {}", pending.job, e);
+                queued = false;
+            }
+            if (queued) {
+                sentCount.incrementAndGet();
+            } else {
+                logger.warn("The send-command queue refused notification job {}, will try again later", pending.job);
+                putBack(serverName, jobs.subList(i, jobs.size()));
+                return;
+            }
+        }
+    }
+
+    /**
+     * Frees the slots of jobs that were refused and puts them first in line again, in the same order,
+     * and schedules a retry if one isn't already scheduled.
+     *
+     * @param serverName the name of the server the jobs are for.
+     * @param jobs the jobs.
+     */
+    private void putBack(final String serverName, List<Pending> jobs) {
+        synchronized (servers) {
+            ServerQueue queue = servers.get(serverName);
+            if (queue == null) {
+                return;
+            }
+            boolean putBack = false;
+            for (int i = jobs.size() - 1; i >= 0; i--) {
+                Pending pending = jobs.get(i);
+                if (queue.inFlight.remove(pending.job) == null) {
+                    // Already done or expired.
+                    continue;
+                }
+                pending.job.setCompletionCallback(null);
+                if (pending.priority == Priority.BUILD_COMPLETED) {
+                    queue.completed.addFirst(pending);
+                } else {
+                    queue.started.addFirst(pending);
+                }
+                putBack = true;
+            }
+            if (putBack && queue.retry == null) {
+                if (queue.retryDelay == 0) {
+                    queue.retryDelay = MIN_RETRY_DELAY_SECONDS;
+                } else {
+                    queue.retryDelay = Math.min(queue.retryDelay * 2, MAX_RETRY_DELAY_SECONDS);
+                }
+                logger.debug("Trying to send the notifications to {} again in {} seconds",
+                        serverName, queue.retryDelay);
+                queue.retry = retryScheduler.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        retry(serverName);
+                    }
+                }, queue.retryDelay, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    /**
+     * Tries to send the waiting notifications to the server again, after the send-command queue refused some.
+     *
+     * @param serverName the name of the server.
+     */
+    private void retry(String serverName) {
+        List<Pending> toQueue;
+        synchronized (servers) {
+            ServerQueue queue = servers.get(serverName);
+            if (queue == null) {
+                return;
+            }
+            queue.retry = null;
+            toQueue = queue.take();
+        }
+        send(serverName, toQueue);
+    }
+
+    /**
+     * Called when a job is done running, makes room for the next one.
+     *
+     * @param job the job.
+     */
+    private void done(NotificationCommandJob job) {
+        List<Pending> toQueue = Collections.emptyList();
+        String serverName = null;
+        synchronized (servers) {
+            for (ServerQueue queue : servers.values()) {
+                if (queue.inFlight.remove(job) != null) {
+                    // It got through, so the send-command queue takes jobs again.
+                    queue.retryDelay = 0;
+                    toQueue = queue.take();
+                    serverName = queue.name;
+                    break;
+                }
+            }
+        }
+        send(serverName, toQueue);
+    }
+
+    /**
+     * Hands every waiting build completed notification to the send-command queue without waiting for room,
+     * so that no votes are lost, and drops the waiting build started notifications.
+     * Called before the send-command queue is shut down.
+     */
+    public void flush() {
+        List<Pending> completed = new ArrayList<Pending>();
+        int started = 0;
+        synchronized (servers) {
+            for (ServerQueue queue : servers.values()) {
+                completed.addAll(queue.completed);
+                started += queue.started.size();
+                if (queue.retry != null) {
+                    queue.retry.cancel(false);
+                }
+            }
+            servers.clear();
+            latestPatchSets.clear();
+        }
+        if (!completed.isEmpty()) {
+            logger.info("Sending {} waiting build completed notifications before shutting down", completed.size());
+        }
+        if (started > 0) {
+            logger.info("Dropping {} waiting build started notifications when shutting down", started);
+        }
+        for (Pending pending : completed) {
+            pending.job.setCompletionCallback(null);
+            try {
+                if (!pending.job.queue()) {
+                    logger.error("The send-command queue refused build completed notification {}", pending.job);
+                }
+            } catch (RuntimeException e) {
+                logger.error("Failed to queue notification job {}", pending.job, e);
+            }
+        }
+    }
+
+    /**
+     * How many notifications to one server that can be on the send-command queue at once.
+     *
+     * @return the limit.
+     */
+    public int getMaxInFlightPerServer() {
+        return maxInFlightPerServer;
+    }
+
+    /**
+     * How many notifications that have been handed to the send-command queue.
+     *
+     * @return the count.
+     */
+    public long getSentCount() {
+        return sentCount.get();
+    }
+
+    /**
+     * How many build started notifications that were dropped because the build had already completed.
+     *
+     * @return the count.
+     */
+    public long getObsoleteCount() {
+        return obsoleteCount.get();
+    }
+
+    /**
+     * How many build started notifications that were dropped because too many were waiting.
+     *
+     * @return the count.
+     */
+    public long getOverflowCount() {
+        return overflowCount.get();
+    }
+
+    /**
+     * How many notifications that were dropped because a newer patch set superseded the one they were about.
+     *
+     * @return the count.
+     */
+    public long getSupersededCount() {
+        return supersededCount.get();
+    }
+
+    /**
+     * The current state of the queue of each server, for diagnostics.
+     *
+     * @return the state per server, sorted by name.
+     */
+    public List<ServerStatus> getStatus() {
+        List<ServerStatus> status = new ArrayList<ServerStatus>();
+        synchronized (servers) {
+            for (ServerQueue queue : servers.values()) {
+                status.add(new ServerStatus(queue.name, queue.completed.size(), queue.started.size(),
+                        queue.inFlight.size()));
+            }
+        }
+        return status;
+    }
+
+    /**
+     * A notification waiting to be sent.
+     */
+    private final class Pending {
+        private final Priority priority;
+        private final GerritTriggeredEvent event;
+        private final NotificationCommandJob job;
+        private final Collection<String> supersededWith;
+
+        /**
+         * Constructor.
+         *
+         * @param priority the kind of notification.
+         * @param event the event.
+         * @param job the job.
+         * @param supersededWith the jobs that all must be superseded for it to be dropped.
+         */
+        private Pending(Priority priority, GerritTriggeredEvent event, NotificationCommandJob job,
+                        Collection<String> supersededWith) {
+            this.priority = priority;
+            this.event = event;
+            this.job = job;
+            this.supersededWith = supersededWith;
+        }
+
+        /**
+         * If this notification is about a patch set older than the latest known one for every job it is about.
+         * Manually triggered builds are always reported. Guarded by {@link #servers}.
+         *
+         * @param serverName the server name.
+         * @return true if so.
+         */
+        private boolean isSuperseded(String serverName) {
+            if (supersededWith.isEmpty() || event instanceof ManualPatchsetCreated) {
+                return false;
+            }
+            Integer patchSet = getPatchSetNumber(event);
+            if (patchSet == null) {
+                return false;
+            }
+            for (String jobName : supersededWith) {
+                String key = getChangeKey(serverName, event, jobName);
+                if (key == null) {
+                    return false;
+                }
+                Integer latest = latestPatchSets.get(key);
+                if (latest == null || patchSet >= latest) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * The notifications for one server. Guarded by {@link #servers}.
+     */
+    private final class ServerQueue {
+        private final String name;
+        private final Deque<Pending> completed = new ArrayDeque<Pending>();
+        private final Deque<Pending> started = new ArrayDeque<Pending>();
+        private final Map<NotificationCommandJob, Long> inFlight =
+                new IdentityHashMap<NotificationCommandJob, Long>();
+        private ScheduledFuture<?> retry;
+        private long retryDelay;
+
+        /**
+         * Constructor.
+         *
+         * @param name the server name.
+         */
+        private ServerQueue(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Drops the waiting build started notifications for the event.
+         *
+         * @param event the event.
+         */
+        private void dropStarted(GerritTriggeredEvent event) {
+            Iterator<Pending> it = started.iterator();
+            while (it.hasNext()) {
+                Pending pending = it.next();
+                if (pending.event == event || (pending.event != null && pending.event.equals(event))) {
+                    it.remove();
+                    obsoleteCount.incrementAndGet();
+                }
+            }
+        }
+
+        /**
+         * Drops the waiting notifications that are superseded.
+         *
+         * @param pendings the notifications to look through.
+         * @return how many were dropped.
+         */
+        private int dropSuperseded(Deque<Pending> pendings) {
+            int dropped = 0;
+            Iterator<Pending> it = pendings.iterator();
+            while (it.hasNext()) {
+                if (it.next().isSuperseded(name)) {
+                    it.remove();
+                    dropped++;
+                }
+            }
+            return dropped;
+        }
+
+        /**
+         * Takes the next jobs to send, as many as there is room for, and marks them as in flight.
+         *
+         * @return the jobs to send.
+         */
+        private List<Pending> take() {
+            expireLost();
+            List<Pending> jobs = new ArrayList<Pending>();
+            long now = System.currentTimeMillis();
+            while (inFlight.size() < maxInFlightPerServer) {
+                final Pending pending;
+                if (!completed.isEmpty()) {
+                    pending = completed.removeFirst();
+                } else if (!started.isEmpty()) {
+                    pending = started.removeFirst();
+                } else {
+                    break;
+                }
+                final NotificationCommandJob job = pending.job;
+                job.setCompletionCallback(new Runnable() {
+                    @Override
+                    public void run() {
+                        done(job);
+                    }
+                });
+                inFlight.put(job, now);
+                jobs.add(pending);
+            }
+            return jobs;
+        }
+
+        /**
+         * Forgets jobs that have been on the send-command queue for too long,
+         * so that a job lost by a shut down queue doesn't block the server forever.
+         */
+        private void expireLost() {
+            long limit = System.currentTimeMillis() - inFlightTimeout;
+            Iterator<Map.Entry<NotificationCommandJob, Long>> it = inFlight.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<NotificationCommandJob, Long> entry = it.next();
+                if (entry.getValue() < limit) {
+                    logger.warn("Notification {} to {} has not finished in time, no longer waiting for it.",
+                            entry.getKey(), name);
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Snapshot of the queue of one server.
+     */
+    public static final class ServerStatus {
+        private final String serverName;
+        private final int pendingCompleted;
+        private final int pendingStarted;
+        private final int inFlight;
+
+        /**
+         * Constructor.
+         *
+         * @param serverName the server name.
+         * @param pendingCompleted waiting build completed notifications.
+         * @param pendingStarted waiting build started notifications.
+         * @param inFlight notifications on the send-command queue.
+         */
+        ServerStatus(String serverName, int pendingCompleted, int pendingStarted, int inFlight) {
+            this.serverName = serverName;
+            this.pendingCompleted = pendingCompleted;
+            this.pendingStarted = pendingStarted;
+            this.inFlight = inFlight;
+        }
+
+        /**
+         * The server name.
+         *
+         * @return the name.
+         */
+        public String getServerName() {
+            return serverName;
+        }
+
+        /**
+         * Waiting build completed notifications.
+         *
+         * @return the count.
+         */
+        public int getPendingCompleted() {
+            return pendingCompleted;
+        }
+
+        /**
+         * Waiting build started notifications.
+         *
+         * @return the count.
+         */
+        public int getPendingStarted() {
+            return pendingStarted;
+        }
+
+        /**
+         * Notifications on the send-command queue.
+         *
+         * @return the count.
+         */
+        public int getInFlight() {
+            return inFlight;
+        }
+    }
+}
@@ -33,6 +33,7 @@ import com.sonymobile.tools.gerrit.gerritevents.dto.events.GerritTriggeredEvent;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.GerritServer;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.PluginImpl;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.config.IGerritHudsonTriggerConfig;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.job.NotificationCommandJob;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.job.ssh.BuildCompletedCommandJob;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.job.rest.BuildCompletedRestCommandJob;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.job.ssh.BuildStartedCommandJob;
@@ -44,6 +45,11 @@ import hudson.model.TaskListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
 /**
  * A factory for creating notification entities.
  * This factory is mainly created and used to ease unit testing.
@@ -108,7 +114,7 @@ public class GerritNotifierFactory {
     //CS IGNORE LineLength FOR NEXT 8 LINES. REASON: Javadoc
 
     /**
-     * Queues a build completed command on the send-command queue.
+     * Queues a build completed command on the send-command queue, through the {@link GerritNotificationScheduler}.
      *
      * @param memoryImprint the memory of the builds.
      * @param listener      a listener.
@@ -120,12 +126,16 @@ public class GerritNotifierFactory {
         if (serverName != null) {
             IGerritHudsonTriggerConfig config = getConfig(serverName);
             if (config != null) {
+                NotificationCommandJob job;
                 if (config.isUseRestApi()
                         && memoryImprint.getEvent() instanceof ChangeBasedEvent) {
-                    GerritSendCommandQueue.queue(new BuildCompletedRestCommandJob(config, memoryImprint, listener));
+                    job = new BuildCompletedRestCommandJob(config, memoryImprint, listener);
                 } else {
-                    GerritSendCommandQueue.queue(new BuildCompletedCommandJob(config, memoryImprint, listener));
+                    job = new BuildCompletedCommandJob(config, memoryImprint, listener);
                 }
+                GerritNotificationScheduler.getInstance().schedule(serverName,
+                        GerritNotificationScheduler.Priority.BUILD_COMPLETED, memoryImprint.getEvent(), job,
+                        getSupersededWith(memoryImprint));
             } else {
                 logger.warn("Nothing queued since there is no configuration for serverName: {}", serverName);
             }
@@ -154,6 +164,39 @@ public class GerritNotifierFactory {
         return null;
     }
 
+    /**
+     * The jobs whose builds a build completed notification is about, if all of them were aborted.
+     * The notification is only dropped when the patch set is superseded for every one of them.
+     *
+     * @param memoryImprint the memory of the builds.
+     * @return the full names of the jobs, empty if some build has another result.
+     */
+    private Collection<String> getSupersededWith(BuildMemory.MemoryImprint memoryImprint) {
+        if (!memoryImprint.wereAllBuildsAborted()) {
+            return Collections.emptySet();
+        }
+        Set<String> jobs = new HashSet<String>();
+        for (BuildMemory.MemoryImprint.Entry entry : memoryImprint.getEntries()) {
+            if (entry != null && entry.getProject() != null) {
+                jobs.add(entry.getProject().getFullName());
+            }
+        }
+        return jobs;
+    }
+
+    /**
+     * The job of a build a build started notification is about.
+     *
+     * @param build the build.
+     * @return the full name of the job, or empty if the build has none.
+     */
+    private Collection<String> getSupersededWith(Run build) {
+        if (build == null || build.getParent() == null) {
+            return Collections.emptySet();
+        }
+        return Collections.singleton(build.getParent().getFullName());
+    }
+
     /**
      * Get the server name from the event provider.
      *
@@ -181,7 +224,7 @@ public class GerritNotifierFactory {
     //CS IGNORE LineLength FOR NEXT 10 LINES. REASON: Javadoc
 
     /**
-     * Queues a build started command on the send-command queue.
+     * Queues a build started command on the send-command queue, through the {@link GerritNotificationScheduler}.
      *
      * @param build    the build.
      * @param listener a listener.
@@ -196,12 +239,15 @@ public class GerritNotifierFactory {
         if (serverName != null) {
             IGerritHudsonTriggerConfig config = getConfig(serverName);
             if (config != null) {
+                NotificationCommandJob job;
                 if (config.isUseRestApi() && event instanceof ChangeBasedEvent) {
-                    GerritSendCommandQueue.queue(new BuildStartedRestCommandJob(config, build, listener,
-                            (ChangeBasedEvent)event, stats));
+                    job = new BuildStartedRestCommandJob(config, build, listener, (ChangeBasedEvent)event, stats);
                 } else {
-                    GerritSendCommandQueue.queue(new BuildStartedCommandJob(config, build, listener, event, stats));
+                    job = new BuildStartedCommandJob(config, build, listener, event, stats);
                 }
+                GerritNotificationScheduler.getInstance().schedule(serverName,
+                        GerritNotificationScheduler.Priority.BUILD_STARTED, event, job,
+                        getSupersededWith(build));
             } else {
                 logger.warn("Nothing queued since there is no configuration for serverName: {}", serverName);
             }
@@ -45,6 +45,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import jenkins.model.Jenkins;
@@ -72,6 +73,18 @@ public class ParameterExpander {
      */
     public static final String MESSAGE_DELIMITER = " : ";
 
+    /**
+     * The argument of a command template that names the patch set to review.
+     * Commands for other changes of the same topic can be added after it, see {@link Review#canReviewWith(Review)}.
+     */
+    public static final String REVISION_ARGUMENT = "<CHANGE>,<PATCHSET>";
+
+    /**
+     * The standard parameters that can differ between changes of the same topic.
+     */
+    private static final List<String> CHANGE_PARAMETERS = Arrays.asList(
+            "GERRIT_NAME", "CHANGE_ID", "BRANCH", "CHANGE", "PATCHSET", "PATCHSET_REVISION", "REFSPEC");
+
     private static final Logger logger = LoggerFactory.getLogger(ParameterExpander.class);
     private IGerritHudsonTriggerConfig config;
     private Jenkins jenkins;
@@ -104,6 +117,20 @@ public class ParameterExpander {
      */
     public String getBuildStartedCommand(Run r, TaskListener taskListener,
             ChangeBasedEvent event, BuildsStartedStats stats) {
+        return getBuildStartedReview(r, taskListener, event, stats).getCommand();
+    }
+
+    /**
+     * Gets the command template and parameters to send to Gerrit for a build-started event.
+     * @param r the build.
+     * @param taskListener the taskListener.
+     * @param event the event.
+     * @param stats the statistics.
+     * @return the review.
+     * @see #getBuildStartedCommand(Run, TaskListener, ChangeBasedEvent, BuildsStartedStats)
+     */
+    public Review getBuildStartedReview(Run r, TaskListener taskListener,
+            ChangeBasedEvent event, BuildsStartedStats stats) {
 
         GerritTrigger trigger = GerritTrigger.getTrigger(r.getParent());
         String gerritCmd = config.getGerritCmdBuildStarted();
@@ -131,7 +158,7 @@ public class ParameterExpander {
 
         parameters.put("STARTED_STATS", startedStats.toString());
 
-        return expandParameters(gerritCmd, r, taskListener, parameters);
+        return new Review(gerritCmd, r, taskListener, parameters);
     }
 
     /**
@@ -521,6 +548,20 @@ public class ParameterExpander {
      */
     public String getBuildCompletedCommand(MemoryImprint memoryImprint, TaskListener listener,
                                            GerritTriggeredEvent gerritEvent) {
+        return getBuildCompletedReview(memoryImprint, listener, gerritEvent).getCommand();
+    }
+
+    /**
+     * Gets the command template and parameters of the build completed command to send to gerrit.
+     *
+     * @param memoryImprint the memory with all the information
+     * @param listener      the taskListener
+     * @param gerritEvent   the event, or null for the event of the memory.
+     * @return the review.
+     * @see #getBuildCompletedCommand(MemoryImprint, TaskListener, GerritTriggeredEvent)
+     */
+    public Review getBuildCompletedReview(MemoryImprint memoryImprint, TaskListener listener,
+                                          GerritTriggeredEvent gerritEvent) {
 
         GerritTriggeredEvent event;
         if (gerritEvent == null) {
@@ -578,7 +619,7 @@ public class ParameterExpander {
             build = entries[0].getBuild();
         }
 
-        return expandParameters(command, build, listener, parameters);
+        return new Review(command, build, listener, parameters);
     }
 
     /**
@@ -734,6 +775,92 @@ public class ParameterExpander {
         return message;
     }
 
+    /**
+     * A command template with the parameters to expand it with, for one change.
+     */
+    public final class Review {
+        private final String template;
+        private final Run build;
+        private final TaskListener listener;
+        private final Map<String, String> parameters;
+
+        /**
+         * Constructor.
+         *
+         * @param template the command template.
+         * @param build the build to expand environment variables from, if any.
+         * @param listener the listener.
+         * @param parameters the &lt;parameters&gt;.
+         */
+        private Review(String template, Run build, TaskListener listener, Map<String, String> parameters) {
+            this.template = template;
+            this.build = build;
+            this.listener = listener;
+            this.parameters = parameters;
+        }
+
+        /**
+         * The expanded command.
+         *
+         * @return the command, null if it could not be expanded.
+         */
+        public String getCommand() {
+            return expandParameters(template, build, listener, parameters);
+        }
+
+        /**
+         * The expanded command, reviewing the patch sets of the other reviews as well.
+         * The other reviews must all be ones this review {@link #canReviewWith(Review) can review with}.
+         *
+         * @param others the reviews of other changes in the same topic.
+         * @return the command, null if it could not be expanded.
+         */
+        public String getCommand(List<Review> others) {
+            if (others.isEmpty()) {
+                return getCommand();
+            }
+            StringBuilder revisions = new StringBuilder(REVISION_ARGUMENT);
+            for (Review other : others) {
+                revisions.append(' ').append(other.parameters.get("CHANGE"))
+                        .append(',').append(other.parameters.get("PATCHSET"));
+            }
+            return expandParameters(template.replace(REVISION_ARGUMENT, revisions), build, listener, parameters);
+        }
+
+        /**
+         * If the patch set of the other review can be added to the command of this one.
+         * That is when both use the same template for the same build, the template names the patch set only through
+         * a single {@link #REVISION_ARGUMENT} and uses no other parameter that differs between changes,
+         * and all the other parameters, such as the votes and the message, are the same.
+         *
+         * @param other the review of another change in the same topic.
+         * @return true if so.
+         */
+        public boolean canReviewWith(Review other) {
+            if (template == null || !template.equals(other.template) || build != other.build) {
+                return false;
+            }
+            int index = template.indexOf(REVISION_ARGUMENT);
+            if (index < 0 || index != template.lastIndexOf(REVISION_ARGUMENT)) {
+                return false;
+            }
+            String rest = template.replace(REVISION_ARGUMENT, "");
+            for (String name : CHANGE_PARAMETERS) {
+                if (rest.contains("<" + name + ">")) {
+                    return false;
+                }
+            }
+            if (other.parameters.get("CHANGE") == null || other.parameters.get("PATCHSET") == null) {
+                return false;
+            }
+            Map<String, String> mine = new HashMap<String, String>(parameters);
+            Map<String, String> theirs = new HashMap<String, String>(other.parameters);
+            mine.keySet().removeAll(CHANGE_PARAMETERS);
+            theirs.keySet().removeAll(CHANGE_PARAMETERS);
+            return mine.equals(theirs);
+        }
+    }
+
     /**
      * Sorts build entries along their results.
      */
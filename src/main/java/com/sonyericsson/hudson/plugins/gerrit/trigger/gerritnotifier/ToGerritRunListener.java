@@ -164,13 +164,15 @@ public final class ToGerritRunListener extends RunListener<Run> {
     }
 
     /**
-     * Creates a snapshot report of the current contents of the {@link BuildMemory}.
+     * A recent snapshot report of the contents of the {@link BuildMemory}.
+     * Doesn't wait for builds being started or completed.
      *
      * @return the report.
      * @see com.sonyericsson.hudson.plugins.gerrit.trigger.diagnostics.Diagnostics
+     * @see BuildMemory#report()
      */
     @NonNull
-    public synchronized BuildMemoryReport report() {
+    public BuildMemoryReport report() {
         return memory.report();
     }
 
@@ -0,0 +1,48 @@
+/*
+ *  The MIT License
+ *
+ *  Copyright 2026 agent. All rights reserved.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.job;
+
+/**
+ * A build notification job that is handed to the
+ * {@link com.sonymobile.tools.gerrit.gerritevents.GerritSendCommandQueue} by the
+ * {@link com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.GerritNotificationScheduler}.
+ *
+ * @author agent &lt;agent@local&gt;
+ */
+public interface NotificationCommandJob {
+
+    /**
+     * Puts this job on the {@link com.sonymobile.tools.gerrit.gerritevents.GerritSendCommandQueue}.
+     *
+     * @return false if the job was refused and will not run.
+     */
+    boolean queue();
+
+    /**
+     * Sets something to run when this job is done running, successfully or not.
+     *
+     * @param callback the callback, or null for none.
+     */
+    void setCompletionCallback(Runnable callback);
+}
@@ -24,12 +24,15 @@
  */
 package com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.job.rest;
 
+import com.sonymobile.tools.gerrit.gerritevents.GerritSendCommandQueue;
 import com.sonymobile.tools.gerrit.gerritevents.dto.events.ChangeBasedEvent;
 import com.sonymobile.tools.gerrit.gerritevents.workers.rest.AbstractRestCommandJob;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.BlockingIoExecutor;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.config.Constants;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.config.IGerritHudsonTriggerConfig;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.GerritMessageProvider;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.ParameterExpander;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.job.NotificationCommandJob;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.model.BuildMemory;
 import com.sonymobile.tools.gerrit.gerritevents.dto.rest.CommentedFile;
 import com.sonymobile.tools.gerrit.gerritevents.dto.rest.Notify;
@@ -48,7 +51,7 @@ import java.util.List;
 * A job for the {@link com.sonymobile.tools.gerrit.gerritevents.GerritSendCommandQueue} that
 * sends a build completed message.
 */
-public class BuildCompletedRestCommandJob extends AbstractRestCommandJob {
+public class BuildCompletedRestCommandJob extends AbstractRestCommandJob implements NotificationCommandJob {
 
     private static final String LABEL_CODEREVIEW = "Code-Review";
     private static final String LABEL_VERIFIED   = "Verified";
@@ -57,6 +60,7 @@ public class BuildCompletedRestCommandJob extends AbstractRestCommandJob {
     private final TaskListener listener;
     private final ParameterExpander parameterExpander;
     private final IGerritHudsonTriggerConfig config;
+    private volatile Runnable completionCallback;
 
     /**
      * Constructor.
@@ -118,4 +122,29 @@ public class BuildCompletedRestCommandJob extends AbstractRestCommandJob {
                 .setTag(Constants.TAG_VALUE);
         }
     }
+
+    @Override
+    public void run() {
+        try {
+            super.run();
+        } finally {
+            Runnable callback = completionCallback;
+            if (callback != null) {
+                callback.run();
+            }
+        }
+    }
+
+    @Override
+    public boolean queue() {
+        if (BlockingIoExecutor.getInstance().submit(BlockingIoExecutor.serverOf(memoryImprint.getEvent()), this)) {
+            return true;
+        }
+        return GerritSendCommandQueue.queue(this);
+    }
+
+    @Override
+    public void setCompletionCallback(Runnable callback) {
+        this.completionCallback = callback;
+    }
 }
@@ -24,11 +24,14 @@
  */
 package com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.job.rest;
 
+import com.sonymobile.tools.gerrit.gerritevents.GerritSendCommandQueue;
 import com.sonymobile.tools.gerrit.gerritevents.dto.events.ChangeBasedEvent;
 import com.sonymobile.tools.gerrit.gerritevents.workers.rest.AbstractRestCommandJob;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.BlockingIoExecutor;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.config.Constants;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.config.IGerritHudsonTriggerConfig;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.ParameterExpander;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.job.NotificationCommandJob;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.model.BuildsStartedStats;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.GerritTrigger;
 import com.sonymobile.tools.gerrit.gerritevents.dto.rest.Notify;
@@ -44,7 +47,7 @@ import java.util.Collection;
  * A job for the {@link com.sonymobile.tools.gerrit.gerritevents.GerritSendCommandQueue} that
  * sends a build started message.
  */
-public class BuildStartedRestCommandJob extends AbstractRestCommandJob {
+public class BuildStartedRestCommandJob extends AbstractRestCommandJob implements NotificationCommandJob {
 
 
     private static final String LABEL_CODEREVIEW = "Code-Review";
@@ -55,6 +58,8 @@ public class BuildStartedRestCommandJob extends AbstractRestCommandJob {
     private final TaskListener listener;
     private final ParameterExpander parameterExpander;
     private final IGerritHudsonTriggerConfig config;
+    private final String serverName;
+    private volatile Runnable completionCallback;
 
     /**
      * Constructor.
@@ -74,6 +79,7 @@ public class BuildStartedRestCommandJob extends AbstractRestCommandJob {
         this.listener = listener;
         this.parameterExpander = new ParameterExpander(config);
         this.config = config;
+        this.serverName = BlockingIoExecutor.serverOf(event);
     }
 
     /**
@@ -114,4 +120,28 @@ public class BuildStartedRestCommandJob extends AbstractRestCommandJob {
         return new ReviewInput(message, scoredLabels).setNotify(notificationLevel).setTag(Constants.TAG_VALUE);
     }
 
+    @Override
+    public void run() {
+        try {
+            super.run();
+        } finally {
+            Runnable callback = completionCallback;
+            if (callback != null) {
+                callback.run();
+            }
+        }
+    }
+
+    @Override
+    public boolean queue() {
+        if (BlockingIoExecutor.getInstance().submit(serverName, this)) {
+            return true;
+        }
+        return GerritSendCommandQueue.queue(this);
+    }
+
+    @Override
+    public void setCompletionCallback(Runnable callback) {
+        this.completionCallback = callback;
+    }
 }
@@ -0,0 +1,70 @@
+/*
+ *  The MIT License
+ *
+ *  Copyright 2026 agent. All rights reserved.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.job.ssh;
+
+import com.sonymobile.tools.gerrit.gerritevents.GerritConnectionConfig;
+import com.sonymobile.tools.gerrit.gerritevents.workers.cmd.AbstractSendCommandJob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+
+/**
+ * A send-command-job that runs its commands on the sessions of the {@link SshSessionPool}
+ * instead of opening a new SSH connection for each command.
+ *
+ * @author agent &lt;agent@local&gt;
+ */
+public abstract class AbstractPooledSendCommandJob extends AbstractSendCommandJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(AbstractPooledSendCommandJob.class);
+
+    /**
+     * Constructor.
+     *
+     * @param config the config.
+     */
+    protected AbstractPooledSendCommandJob(GerritConnectionConfig config) {
+        super(config);
+    }
+
+    @Override
+    public boolean sendCommand(String command) {
+        return sendCommandStr(command) != null;
+    }
+
+    @Override
+    public String sendCommandStr(String command) {
+        SshSessionPool pool = SshSessionPool.getInstance();
+        if (pool.isDisabled()) {
+            return super.sendCommandStr(command);
+        }
+        try {
+            return pool.execute(getConfig(), command);
+        } catch (IOException ex) {
+            logger.error("Could not run command " + command, ex);
+            return null;
+        }
+    }
+}
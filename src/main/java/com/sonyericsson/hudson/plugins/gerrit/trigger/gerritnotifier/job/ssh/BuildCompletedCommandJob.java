@@ -25,10 +25,12 @@
 
 package com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.job.ssh;
 
-import com.sonymobile.tools.gerrit.gerritevents.workers.cmd.AbstractSendCommandJob;
+import com.sonymobile.tools.gerrit.gerritevents.GerritSendCommandQueue;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.BlockingIoExecutor;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.config.IGerritHudsonTriggerConfig;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.GerritNotifier;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.GerritNotifierFactory;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.job.NotificationCommandJob;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.model.BuildMemory;
 
 import hudson.model.TaskListener;
@@ -40,10 +42,11 @@ import hudson.security.ACLContext;
  *
  * @author Robert Sandell &lt;robert.sandell@sonyericsson.com&gt;
  */
-public class BuildCompletedCommandJob extends AbstractSendCommandJob {
+public class BuildCompletedCommandJob extends AbstractPooledSendCommandJob implements NotificationCommandJob {
 
     private BuildMemory.MemoryImprint memoryImprint;
     private TaskListener listener;
+    private volatile Runnable completionCallback;
 
     /**
      * Standard constructor with all the needed data for the job to perform.
@@ -66,6 +69,24 @@ public class BuildCompletedCommandJob extends AbstractSendCommandJob {
             GerritNotifier notifier = GerritNotifierFactory.getInstance()
                 .createGerritNotifier((IGerritHudsonTriggerConfig)getConfig(), this);
             notifier.buildCompleted(memoryImprint, listener);
+        } finally {
+            Runnable callback = completionCallback;
+            if (callback != null) {
+                callback.run();
+            }
         }
     }
+
+    @Override
+    public boolean queue() {
+        if (BlockingIoExecutor.getInstance().submit(BlockingIoExecutor.serverOf(memoryImprint.getEvent()), this)) {
+            return true;
+        }
+        return GerritSendCommandQueue.queue(this);
+    }
+
+    @Override
+    public void setCompletionCallback(Runnable callback) {
+        this.completionCallback = callback;
+    }
 }
@@ -28,10 +28,12 @@ package com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.job.ssh;
 import hudson.model.Run;
 
 import com.sonymobile.tools.gerrit.gerritevents.dto.events.GerritTriggeredEvent;
-import com.sonymobile.tools.gerrit.gerritevents.workers.cmd.AbstractSendCommandJob;
+import com.sonymobile.tools.gerrit.gerritevents.GerritSendCommandQueue;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.BlockingIoExecutor;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.config.IGerritHudsonTriggerConfig;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.GerritNotifier;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.GerritNotifierFactory;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.job.NotificationCommandJob;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.model.BuildsStartedStats;
 
 import hudson.model.TaskListener;
@@ -43,12 +45,13 @@ import hudson.security.ACLContext;
  *
  * @author Robert Sandell &lt;robert.sandell@sonyericsson.com&gt;
  */
-public class BuildStartedCommandJob extends AbstractSendCommandJob {
+public class BuildStartedCommandJob extends AbstractPooledSendCommandJob implements NotificationCommandJob {
 
     private Run build;
     private TaskListener taskListener;
     private GerritTriggeredEvent event;
     private BuildsStartedStats stats;
+    private volatile Runnable completionCallback;
 
     /**
      * Standard constructor with all the required data for the job.
@@ -76,6 +79,24 @@ public class BuildStartedCommandJob extends AbstractSendCommandJob {
             GerritNotifier notifier = GerritNotifierFactory.getInstance()
                 .createGerritNotifier((IGerritHudsonTriggerConfig)getConfig(), this);
             notifier.buildStarted(build, taskListener, event, stats);
+        } finally {
+            Runnable callback = completionCallback;
+            if (callback != null) {
+                callback.run();
+            }
         }
     }
+
+    @Override
+    public boolean queue() {
+        if (BlockingIoExecutor.getInstance().submit(BlockingIoExecutor.serverOf(event), this)) {
+            return true;
+        }
+        return GerritSendCommandQueue.queue(this);
+    }
+
+    @Override
+    public void setCompletionCallback(Runnable callback) {
+        this.completionCallback = callback;
+    }
 }
@@ -0,0 +1,444 @@
+/*
+ *  The MIT License
+ *
+ *  Copyright 2026 agent. All rights reserved.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.job.ssh;
+
+import com.sonymobile.tools.gerrit.gerritevents.GerritConnectionConfig;
+import com.sonymobile.tools.gerrit.gerritevents.ssh.Authentication;
+import com.sonymobile.tools.gerrit.gerritevents.ssh.SshConnection;
+import com.sonymobile.tools.gerrit.gerritevents.ssh.SshConnectionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A pool of authenticated SSH sessions to Gerrit used to send review commands.
+ *
+ * Each command is run on its own exec channel of a session that is kept open between commands,
+ * so key exchange and authentication is done once per session instead of once per vote.
+ * Sessions are checked before they are reused, closed when idle for too long,
+ * and replaced if a command fails on them.
+ * The pool can be turned off with the system property <code>&lt;this class name&gt;.disabled</code>.
+ *
+ * @author agent &lt;agent@local&gt;
+ */
+public final class SshSessionPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(SshSessionPool.class);
+
+    private static final int DEFAULT_MAX_IDLE_PER_SERVER = 4;
+    private static final long DEFAULT_IDLE_TIMEOUT_SECONDS = 300;
+
+    private static SshSessionPool instance;
+
+    /**
+     * Opens new sessions, replaceable for testing.
+     */
+    interface ConnectionFactory {
+        /**
+         * Opens a new authenticated session.
+         *
+         * @param config the connection config.
+         * @return the session.
+         * @throws IOException if it fails.
+         */
+        SshConnection open(GerritConnectionConfig config) throws IOException;
+    }
+
+    private final ConnectionFactory factory;
+    private final int maxIdlePerServer;
+    private final long idleTimeout;
+    private final boolean disabled;
+    private final Map<String, Deque<Idle>> idle = new HashMap<String, Deque<Idle>>();
+    private final AtomicLong commandCount = new AtomicLong();
+    private final AtomicLong sessionCount = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private ScheduledFuture<?> evictor;
+
+    /**
+     * Constructor.
+     *
+     * @param factory opens new sessions.
+     * @param maxIdlePerServer how many idle sessions to keep per server.
+     * @param idleTimeout millis before an idle session is closed.
+     * @param disabled if true no sessions are kept, each command opens and closes its own.
+     */
+    SshSessionPool(ConnectionFactory factory, int maxIdlePerServer, long idleTimeout, boolean disabled) {
+        this.factory = factory;
+        this.maxIdlePerServer = maxIdlePerServer;
+        this.idleTimeout = idleTimeout;
+        this.disabled = disabled;
+    }
+
+    /**
+     * The singleton instance.
+     *
+     * @return the instance.
+     */
+    public static synchronized SshSessionPool getInstance() {
+        if (instance == null) {
+            String prefix = SshSessionPool.class.getName();
+            instance = new SshSessionPool(new ConnectionFactory() {
+                @Override
+                public SshConnection open(GerritConnectionConfig config) throws IOException {
+                    return SshConnectionFactory.getConnection(config.getGerritHostName(),
+                            config.getGerritSshPort(), config.getGerritProxy(), config.getGerritAuthentication());
+                }
+            },
+                    Integer.getInteger(prefix + ".maxIdlePerServer", DEFAULT_MAX_IDLE_PER_SERVER),
+                    TimeUnit.SECONDS.toMillis(Long.getLong(prefix + ".idleTimeoutSeconds",
+                            DEFAULT_IDLE_TIMEOUT_SECONDS)),
+                    Boolean.getBoolean(prefix + ".disabled"));
+        }
+        return instance;
+    }
+
+    /**
+     * If the pool is turned off.
+     *
+     * @return true if so.
+     */
+    public boolean isDisabled() {
+        return disabled;
+    }
+
+    /**
+     * Runs a command on a pooled session to the server.
+     * If a reused session is no longer connected right before the command is sent, or the session refuses the
+     * command because it is not connected before any channel is opened, the command is run on a new session
+     * instead. Any other failure is not retried, since the command might already have been run and e.g. a review
+     * would otherwise be posted twice.
+     *
+     * @param config the connection config of the server.
+     * @param command the command.
+     * @return the output of the command.
+     * @throws IOException if the command could not be run.
+     */
+    public String execute(GerritConnectionConfig config, String command) throws IOException {
+        String key = getKey(config);
+        long start = System.nanoTime();
+        try {
+            SshConnection connection = borrow(key);
+            if (connection != null && !connection.isConnected()) {
+                logger.debug("Reused session to {} was closed before the command was sent, using a new one", key);
+                disconnect(connection);
+                connection = null;
+            }
+            if (connection != null) {
+                try {
+                    String result = connection.executeCommand(command);
+                    release(key, connection);
+                    return result;
+                } catch (IOException e) {
+                    disconnect(connection);
+                    throw e;
+                } catch (IllegalStateException e) {
+                    // Thrown when the session is not connected, before a channel is opened for the command.
+                    disconnect(connection);
+                    logger.debug("Reused session to {} was closed, retrying on a new one", key, e);
+                }
+            }
+            connection = factory.open(config);
+            sessionCount.incrementAndGet();
+            try {
+                String result = connection.executeCommand(command);
+                release(key, connection);
+                return result;
+            } catch (IOException e) {
+                disconnect(connection);
+                throw e;
+            }
+        } catch (IOException e) {
+            failureCount.incrementAndGet();
+            throw e;
+        } finally {
+            long nanos = System.nanoTime() - start;
+            commandCount.incrementAndGet();
+            totalNanos.addAndGet(nanos);
+            long max = maxNanos.get();
+            while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+                max = maxNanos.get();
+            }
+        }
+    }
+
+    /**
+     * Takes an idle session that is still connected.
+     *
+     * @param key the server key.
+     * @return the session or null if there is none.
+     */
+    private SshConnection borrow(String key) {
+        List<SshConnection> stale = new ArrayList<SshConnection>();
+        SshConnection found = null;
+        synchronized (idle) {
+            Deque<Idle> sessions = idle.get(key);
+            while (sessions != null && !sessions.isEmpty() && found == null) {
+                Idle candidate = sessions.removeLast();
+                if (candidate.connection.isConnected()) {
+                    found = candidate.connection;
+                } else {
+                    stale.add(candidate.connection);
+                }
+            }
+        }
+        for (SshConnection connection : stale) {
+            disconnect(connection);
+        }
+        return found;
+    }
+
+    /**
+     * Puts a session back as idle, or closes it if there are enough idle sessions or the pool is turned off.
+     *
+     * @param key the server key.
+     * @param connection the session.
+     */
+    private void release(String key, SshConnection connection) {
+        if (!disabled) {
+            synchronized (idle) {
+                Deque<Idle> sessions = idle.get(key);
+                if (sessions == null) {
+                    sessions = new ArrayDeque<Idle>();
+                    idle.put(key, sessions);
+                }
+                if (sessions.size() < maxIdlePerServer) {
+                    sessions.addLast(new Idle(connection));
+                    scheduleEviction();
+                    return;
+                }
+            }
+        }
+        disconnect(connection);
+    }
+
+    /**
+     * Starts the periodic eviction of idle sessions if it isn't running. Called with the lock held.
+     */
+    private void scheduleEviction() {
+        if (evictor == null) {
+            long period = Math.max(1, idleTimeout / 2);
+            evictor = jenkins.util.Timer.get().scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    evictIdle();
+                }
+            }, period, period, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Closes the sessions that have been idle for longer than the timeout.
+     */
+    void evictIdle() {
+        long limit = System.currentTimeMillis() - idleTimeout;
+        List<SshConnection> evicted = new ArrayList<SshConnection>();
+        synchronized (idle) {
+            Iterator<Deque<Idle>> servers = idle.values().iterator();
+            while (servers.hasNext()) {
+                Deque<Idle> sessions = servers.next();
+                Iterator<Idle> it = sessions.iterator();
+                while (it.hasNext()) {
+                    Idle session = it.next();
+                    if (session.since < limit) {
+                        evicted.add(session.connection);
+                        it.remove();
+                    }
+                }
+                if (sessions.isEmpty()) {
+                    servers.remove();
+                }
+            }
+        }
+        for (SshConnection connection : evicted) {
+            disconnect(connection);
+        }
+    }
+
+    /**
+     * Closes all idle sessions.
+     */
+    public void shutdown() {
+        List<SshConnection> all = new ArrayList<SshConnection>();
+        synchronized (idle) {
+            for (Deque<Idle> sessions : idle.values()) {
+                for (Idle session : sessions) {
+                    all.add(session.connection);
+                }
+            }
+            idle.clear();
+            if (evictor != null) {
+                evictor.cancel(false);
+                evictor = null;
+            }
+        }
+        for (SshConnection connection : all) {
+            disconnect(connection);
+        }
+    }
+
+    /**
+     * Closes a session, ignoring any problems.
+     *
+     * @param connection the session.
+     */
+    private static void disconnect(SshConnection connection) {
+        try {
+            connection.disconnect();
+        } catch (Exception e) {
+            logger.debug("Failed to close SSH session", e);
+        }
+    }
+
+    /**
+     * The key of the sessions that can be used with the config.
+     * The credentials are part of the key so that a session is never reused after they have been changed.
+     * Only a hash of the key file password is kept.
+     *
+     * @param config the config.
+     * @return the key.
+     */
+    private static String getKey(GerritConnectionConfig config) {
+        StringBuilder key = new StringBuilder();
+        key.append(config.getGerritHostName()).append(':').append(config.getGerritSshPort())
+                .append('|').append(config.getGerritProxy());
+        Authentication authentication = config.getGerritAuthentication();
+        if (authentication != null) {
+            String password = authentication.getPrivateKeyFilePassword();
+            key.append('|').append(authentication.getUsername())
+                    .append('|').append(authentication.getPrivateKeyFile())
+                    .append('|').append(password != null ? password.hashCode() : 0);
+        } else {
+            key.append('|').append(config.getGerritUserName()).append('|').append(config.getGerritAuthKeyFile());
+        }
+        return key.toString();
+    }
+
+    /**
+     * How many commands that have been run through the pool.
+     *
+     * @return the count.
+     */
+    public long getCommandCount() {
+        return commandCount.get();
+    }
+
+    /**
+     * How many sessions that have been opened.
+     *
+     * @return the count.
+     */
+    public long getSessionCount() {
+        return sessionCount.get();
+    }
+
+    /**
+     * How many commands that failed.
+     *
+     * @return the count.
+     */
+    public long getFailureCount() {
+        return failureCount.get();
+    }
+
+    /**
+     * The share of commands that were run on an already open session.
+     *
+     * @return the ratio between 0 and 1.
+     */
+    public double getReuseRatio() {
+        long commands = commandCount.get();
+        if (commands == 0) {
+            return 0;
+        }
+        return Math.max(0, commands - sessionCount.get()) / (double)commands;
+    }
+
+    /**
+     * The average time to run a command, including opening a session when needed.
+     *
+     * @return the time in milliseconds.
+     */
+    public long getAverageLatencyMillis() {
+        long commands = commandCount.get();
+        if (commands == 0) {
+            return 0;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(totalNanos.get() / commands);
+    }
+
+    /**
+     * The longest time it has taken to run a command.
+     *
+     * @return the time in milliseconds.
+     */
+    public long getMaxLatencyMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxNanos.get());
+    }
+
+    /**
+     * How many sessions that are open and idle right now.
+     *
+     * @return the count.
+     */
+    public int getIdleCount() {
+        int count = 0;
+        synchronized (idle) {
+            for (Deque<Idle> sessions : idle.values()) {
+                count += sessions.size();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * An idle session.
+     */
+    private static final class Idle {
+        private final SshConnection connection;
+        private final long since;
+
+        /**
+         * Constructor.
+         *
+         * @param connection the session.
+         */
+        private Idle(SshConnection connection) {
+            this.connection = connection;
+            this.since = System.currentTimeMillis();
+        }
+    }
+}
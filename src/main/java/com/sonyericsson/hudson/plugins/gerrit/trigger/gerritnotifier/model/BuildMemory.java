@@ -26,6 +26,7 @@ package com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.model;
 
 import com.infradna.tool.bridge_method_injector.WithBridgeMethods;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.diagnostics.BuildMemoryReport;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.diagnostics.ReportSnapshot;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.model.BuildMemory.MemoryImprint.Entry;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.GerritCause;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.GerritTrigger;
@@ -85,6 +86,8 @@ public class BuildMemory {
             new TreeMap<GerritTriggeredEvent, MemoryImprint>(
                     new GerritTriggeredEventComparator());
     private static final Logger logger = LoggerFactory.getLogger(BuildMemory.class);
+    private final ReportSnapshot<BuildMemoryReport> snapshot =
+            ReportSnapshot.onChange(this::createReport, new BuildMemoryReport());
 
     /**
      * Gets the memory of a specific event.
@@ -165,6 +168,7 @@ public class BuildMemory {
      * @param build the build.
      */
     public synchronized void completed(GerritTriggeredEvent event, Run build) {
+        snapshot.changed();
         MemoryImprint pb = memory.get(event);
         if (pb == null) {
             //Shoudn't happen but just in case, keep the memory.
@@ -181,6 +185,7 @@ public class BuildMemory {
      * @param build the build.
      */
     public synchronized void started(GerritTriggeredEvent event, Run build) {
+        snapshot.changed();
         MemoryImprint pb = memory.get(event);
         if (pb == null) {
             //A build should not start for a job that hasn't been registered. Keep the memory anyway.
@@ -198,6 +203,7 @@ public class BuildMemory {
      * @param project the project that was triggered.
      */
     public synchronized void triggered(GerritTriggeredEvent event, Job project) {
+        snapshot.changed();
         MemoryImprint pb = memory.get(event);
         if (pb == null) {
             pb = new MemoryImprint(event);
@@ -219,6 +225,7 @@ public class BuildMemory {
             GerritTriggeredEvent event,
             Job project,
             List<Run> otherBuilds) {
+        snapshot.changed();
         MemoryImprint pb = memory.get(event);
         if (pb == null) {
             pb = new MemoryImprint(event);
@@ -240,6 +247,7 @@ public class BuildMemory {
      * @param project     the project that has been retriggered.
      */
     public synchronized void cancelled(GerritTriggeredEvent event, Job project) {
+        snapshot.changed();
         MemoryImprint pb = memory.get(event);
         if (pb == null) {
             //Shoudn't happen but just in case, keep the memory.
@@ -259,6 +267,7 @@ public class BuildMemory {
      * @param event the event.
      */
     public synchronized void forget(GerritTriggeredEvent event) {
+        snapshot.changed();
         memory.remove(event);
     }
 
@@ -271,6 +280,7 @@ public class BuildMemory {
      * @param r     the build the cause is in.
      */
     public synchronized void updateTriggerContext(GerritCause cause, Run r) {
+        snapshot.changed();
         MemoryImprint imprint = getMemoryImprint(cause.getEvent());
         TriggerContext context = cause.getContext();
         context.setThisBuild(r);
@@ -425,6 +435,7 @@ public class BuildMemory {
             if (entry != null) {
                 logger.trace("Recording custom URL for {}: {}", event, customUrl);
                 entry.setCustomUrl(customUrl);
+                snapshot.changed();
             }
         }
     }
@@ -445,6 +456,7 @@ public class BuildMemory {
             if (entry != null) {
                 logger.trace("Recording unsuccessful message for {}: {}", event, unsuccessfulMessage);
                 entry.setUnsuccessfulMessage(unsuccessfulMessage);
+                snapshot.changed();
             }
         }
     }
@@ -468,19 +480,31 @@ public class BuildMemory {
      * @param project to be removed.
      */
     public synchronized void removeProject(Job project) {
+        snapshot.changed();
         String projectFullName = project.getFullName();
         for (MemoryImprint memoryImprint : memory.values()) {
             memoryImprint.removeProject(projectFullName);
         }
     }
 
+    /**
+     * The last published snapshot clone of the coordination memory status.
+     * Never waits for the memory, every change is published within {@link ReportSnapshot#DEFAULT_MAX_AGE_MILLIS}.
+     *
+     * @return the report
+     */
+    @NonNull
+    public BuildMemoryReport report() {
+        return snapshot.get();
+    }
+
     /**
      * Creates a snapshot clone of the current coordination memory status.
      *
      * @return the report
      */
     @NonNull
-    public synchronized BuildMemoryReport report() {
+    public synchronized BuildMemoryReport createReport() {
         BuildMemoryReport report = new BuildMemoryReport();
         for (Map.Entry<GerritTriggeredEvent, MemoryImprint> entry : memory.entrySet()) {
             List<Entry> triggered = new LinkedList<Entry>();
@@ -859,6 +883,33 @@ public class BuildMemory {
             return false;
         }
 
+        /**
+         * Tells if all builds in the memory were aborted or cancelled.
+         *
+         * @return true if it is so, false if not all builds have completed or have any different result
+         *         than {@link Result#ABORTED}.
+         */
+        public synchronized boolean wereAllBuildsAborted() {
+            for (Entry entry : list) {
+                if (entry == null) {
+                    continue;
+                }
+                if (entry.isCancelled()) {
+                    continue;
+                }
+                Run build = entry.getBuild();
+                if (build == null) {
+                    return false;
+                } else if (!entry.isBuildCompleted()) {
+                    return false;
+                }
+                if (build.getResult() != Result.ABORTED) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
         //CS IGNORE FinalClass FOR NEXT 5 LINES. REASON: Testability.
 
         /**
@@ -25,6 +25,7 @@ package com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.notificati
 
 import com.sonyericsson.hudson.plugins.gerrit.trigger.GerritServer;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.PluginImpl;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.TopicChangesCache;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.config.IGerritHudsonTriggerConfig;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.ParameterExpander;
 import com.sonymobile.tools.gerrit.gerritevents.dto.attr.Change;
@@ -84,6 +85,7 @@ public abstract class Notification implements INotification {
 
     /**
      * Returns a map of changes and patchsets which are assigned to a topic.
+     * The result is cached, see {@link TopicChangesCache}.
      *
      * @return Map of changes and patchsets assigned to a topic
      */
@@ -103,7 +105,7 @@ public abstract class Notification implements INotification {
             return Collections.emptyMap();
         }
 
-        return topic.getChanges(server.getQueryHandler());
+        return TopicChangesCache.getInstance().getChanges(server, topic);
     }
 
     /**
@@ -68,10 +68,8 @@ public class NotificationBuildCompleted extends Notification {
      */
     private void initCommands() {
         ChangeBasedEvent event = (ChangeBasedEvent)gerritEvent;
-        String command = parameterExpander.getBuildCompletedCommand(
-                memoryImprint, listener, null);
-
-        this.commands = new NotificationCommands(command);
+        this.commands = new NotificationCommands(parameterExpander.getBuildCompletedReview(
+                memoryImprint, listener, null));
         Topic topic = event.getChange().getTopicObject();
 
         if (topic == null) {
@@ -97,10 +95,8 @@ public class NotificationBuildCompleted extends Notification {
             // Change and Patchset will be overwritten with information from change assigned in topic
             // So that ParameterExpander takes this event into account.
             GerritTriggeredEvent eventTopicChange = createEventTopicChange(event, change, patchSet);
-            String topicChangeCommand = parameterExpander.getBuildCompletedCommand(
-                    memoryImprint, listener, eventTopicChange);
-
-            this.commands.addTopicChangeCommand(topicChangeCommand);
+            this.commands.addTopicChange(parameterExpander.getBuildCompletedReview(
+                    memoryImprint, listener, eventTopicChange));
         }
     }
 
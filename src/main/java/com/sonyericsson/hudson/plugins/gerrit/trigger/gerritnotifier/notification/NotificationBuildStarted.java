@@ -80,10 +80,8 @@ public class NotificationBuildStarted extends Notification {
     private void initCommands() {
 
         ChangeBasedEvent event = (ChangeBasedEvent)gerritEvent;
-        String command = parameterExpander.getBuildStartedCommand(
-                build, listener, event, stats);
-
-        this.commands = new NotificationCommands(command);
+        this.commands = new NotificationCommands(parameterExpander.getBuildStartedReview(
+                build, listener, event, stats));
         Topic topic = event.getChange().getTopicObject();
 
         if (topic == null) {
@@ -109,10 +107,8 @@ public class NotificationBuildStarted extends Notification {
             // Change and Patchset will be overwritten with information from change assigned in topic
             // So that ParameterExpander takes this event into account.
             GerritTriggeredEvent eventTopicChange = createEventTopicChange(event, change, patchSet);
-            String topicChangeCommand = parameterExpander.getBuildStartedCommand(
-                    build, listener, (ChangeBasedEvent)eventTopicChange, stats);
-
-            this.commands.addTopicChangeCommand(topicChangeCommand);
+            this.commands.addTopicChange(parameterExpander.getBuildStartedReview(
+                    build, listener, (ChangeBasedEvent)eventTopicChange, stats));
         }
     }
 
@@ -23,6 +23,8 @@
  */
 package com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.notification;
 
+import com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.ParameterExpander;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -39,6 +41,14 @@ public class NotificationCommands {
      * List of commands for patches assigned to topic.
      */
     private List<String> commandsTopicChange;
+    /**
+     * The review the main command was expanded from, null if it was given as a string.
+     */
+    private ParameterExpander.Review review;
+    /**
+     * Reviews of changes assigned to the topic whose patch sets are reviewed by the main command.
+     */
+    private List<ParameterExpander.Review> batchedReviews;
 
     /**
      * Constructor.
@@ -48,15 +58,50 @@ public class NotificationCommands {
     public NotificationCommands(String command) {
         this.command = command;
         this.commandsTopicChange = new ArrayList<>();
+        this.batchedReviews = new ArrayList<>();
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param review The review of the main command.
+     */
+    public NotificationCommands(ParameterExpander.Review review) {
+        this(review.getCommand());
+        this.review = review;
     }
 
     /**
      * Returns the main commend of the initial event.
+     * Including the patch sets of changes assigned to the topic that get the same review, if any.
      *
      * @return the main command.
+     * @see #addTopicChange(ParameterExpander.Review)
      */
     public String getCommand() {
-        return command;
+        if (batchedReviews.isEmpty()) {
+            return command;
+        }
+        return review.getCommand(batchedReviews);
+    }
+
+    /**
+     * Adds the review of a change assigned to the topic. If the review is the same as the main review apart from
+     * the change it is about, the patch set is added to the main command, see
+     * {@link ParameterExpander.Review#canReviewWith(ParameterExpander.Review)}.
+     * gerrit review takes several CHANGE,PATCHSET arguments, so the whole topic can be reviewed in one go.
+     * Otherwise the command for the change is sent on its own.
+     *
+     * @param topicReview the review of the change assigned to the topic.
+     * @return true if it was added to the main command, false if its command is sent on its own.
+     */
+    public boolean addTopicChange(ParameterExpander.Review topicReview) {
+        if (review != null && isValidCommand(command) && review.canReviewWith(topicReview)) {
+            batchedReviews.add(topicReview);
+            return true;
+        }
+        addTopicChangeCommand(topicReview.getCommand());
+        return false;
     }
 
     /**
@@ -38,27 +38,32 @@ final class DynamicConfigurationCacheProxy {
      * @throws IOException if so.
      * @throws ParseException if so.
      */
-    synchronized List<GerritProject> fetchThroughCache(String url) throws IOException, ParseException {
-        if (cache.containsKey(url) && !isExpired(url)) {
-            logger.debug("Get dynamic projects from cache for URL: " + url);
-            // Maintain cache while not fetching from URL
-            Iterator<String> iterator = ttl.keySet().iterator();
-            while (iterator.hasNext()) {
-                String keyUrl = iterator.next();
-                if (isExpired(keyUrl)) {
-                    iterator.remove();
-                    cache.remove(keyUrl);
-                    logger.trace("Removing {} from cache", keyUrl);
+    List<GerritProject> fetchThroughCache(String url) throws IOException, ParseException {
+        synchronized (this) {
+            if (cache.containsKey(url) && !isExpired(url)) {
+                logger.debug("Get dynamic projects from cache for URL: " + url);
+                // Maintain cache while not fetching from URL
+                Iterator<String> iterator = ttl.keySet().iterator();
+                while (iterator.hasNext()) {
+                    String keyUrl = iterator.next();
+                    if (isExpired(keyUrl)) {
+                        iterator.remove();
+                        cache.remove(keyUrl);
+                        logger.trace("Removing {} from cache", keyUrl);
+                    }
                 }
-            }
 
-            return cache.get(url);
+                return cache.get(url);
+            }
         }
 
+        // Fetched without holding the lock so that one slow URL does not hold up the others
         logger.info("Get dynamic projects directly for URL: {}", url);
         List<GerritProject> gerritProjects = GerritDynamicUrlProcessor.fetch(url);
-        ttl.put(url, System.currentTimeMillis());
-        cache.put(url, gerritProjects);
+        synchronized (this) {
+            ttl.put(url, System.currentTimeMillis());
+            cache.put(url, gerritProjects);
+        }
 
         return gerritProjects;
     }
@@ -91,7 +96,7 @@ final class DynamicConfigurationCacheProxy {
     /**
      * Clears the cache.
      */
-    void clear() {
+    synchronized void clear() {
         ttl.clear();
         cache.clear();
     }
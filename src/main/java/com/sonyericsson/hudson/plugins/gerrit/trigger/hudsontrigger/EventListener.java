@@ -29,11 +29,13 @@ import com.sonyericsson.hudson.plugins.gerrit.trigger.events.lifecycle.GerritEve
 import com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.ToGerritRunListener;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.actions.RetriggerAction;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.actions.RetriggerAllAction;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.data.BuildCancellationPolicy;
 import com.sonymobile.tools.gerrit.gerritevents.GerritEventListener;
 import com.sonymobile.tools.gerrit.gerritevents.dto.GerritEvent;
 import com.sonymobile.tools.gerrit.gerritevents.dto.events.ChangeBasedEvent;
 import com.sonymobile.tools.gerrit.gerritevents.dto.events.CommentAdded;
 import com.sonymobile.tools.gerrit.gerritevents.dto.events.GerritTriggeredEvent;
+import com.sonymobile.tools.gerrit.gerritevents.dto.events.PatchsetCreated;
 import com.sonymobile.tools.gerrit.gerritevents.dto.events.RefUpdated;
 import hudson.model.CauseAction;
 import hudson.model.Job;
@@ -41,6 +43,9 @@ import hudson.model.ParameterDefinition;
 import hudson.model.ParameterValue;
 import hudson.model.ParametersAction;
 import hudson.model.ParametersDefinitionProperty;
+import hudson.model.TaskListener;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
 import jenkins.model.Jenkins;
 import jenkins.model.ParameterizedJobMixIn;
 import org.kohsuke.accmod.Restricted;
@@ -126,17 +131,114 @@ public final class EventListener implements GerritEventListener {
             GerritTriggeredEvent triggeredEvent = (GerritTriggeredEvent)event;
             if (t.isInteresting(triggeredEvent)) {
                 logger.trace("The event is interesting.");
-                abortBuild(t, triggeredEvent);
-                if (t.isOnlyAbortRunningBuild(triggeredEvent)) {
-                    logger.trace("Just aborting build based on event not scheduling new one.");
+                int debounceWindow = getDebounceWindow(t, triggeredEvent);
+                if (debounceWindow > 0) {
+                    logger.trace("Holding the event for {} seconds in case a newer patch set comes.", debounceWindow);
+                    String serverName = null;
+                    if (triggeredEvent.getProvider() != null) {
+                        serverName = triggeredEvent.getProvider().getName();
+                    }
+                    if (PatchsetDebouncer.getInstance().hold(serverName, (ChangeBasedEvent)triggeredEvent, job,
+                            debounceWindow, () -> releaseHeld(triggeredEvent), () -> dropHeld(triggeredEvent))) {
+                        // Recorded while the event is still being dispatched, so that the verdict of the change
+                        // and the jobs that depend on this one wait for the held build.
+                        notifyOnTriggered(t, triggeredEvent);
+                    }
                     return;
                 }
-                notifyOnTriggered(t, triggeredEvent);
-                schedule(t, new GerritCause(triggeredEvent, t.isSilentMode()), triggeredEvent);
+                trigger(t, triggeredEvent, true);
+            }
+        }
+    }
+
+    /**
+     * Aborts running builds and schedules a new one for an interesting event.
+     *
+     * @param t the trigger.
+     * @param event the event.
+     * @param notify if the job should be recorded as triggered, false when that was done when the event was held.
+     */
+    private void trigger(GerritTrigger t, GerritTriggeredEvent event, boolean notify) {
+        abortBuild(t, event);
+        if (t.isOnlyAbortRunningBuild(event)) {
+            logger.trace("Just aborting build based on event not scheduling new one.");
+            return;
+        }
+        if (notify) {
+            notifyOnTriggered(t, event);
+        }
+        schedule(t, new GerritCause(event, t.isSilentMode()), event);
+    }
+
+    /**
+     * Triggers the build for a patch set that has been held by the {@link PatchsetDebouncer},
+     * if the job still has the trigger and can be built.
+     * The event is not matched again, it was found interesting when it was held and the job has been
+     * recorded as triggered by it since.
+     *
+     * @param event the newest patch set of the change.
+     */
+    private void releaseHeld(GerritTriggeredEvent event) {
+        try (ACLContext ctx = ACL.as(ACL.SYSTEM)) {
+            GerritTrigger t = getTrigger();
+            if (t == null) {
+                logger.warn("Couldn't find a configured trigger for {}", job);
+                dropHeld(event);
+                return;
+            }
+            Job p = t.getJob();
+            if (p == null || !p.isBuildable()) {
+                logger.info("Job {} can no longer be built, dropping the held event {}", job, event);
+                dropHeld(event);
+                return;
             }
+            trigger(t, event, false);
         }
     }
 
+    /**
+     * Cancels the record of the job being triggered for a patch set held by the {@link PatchsetDebouncer}
+     * that will not be built, the same way as when it is cancelled in the queue.
+     *
+     * @param event the patch set.
+     */
+    private void dropHeld(GerritTriggeredEvent event) {
+        ToGerritRunListener listener = ToGerritRunListener.getInstance();
+        Job p = findJob();
+        if (listener == null || p == null || !listener.isTriggered(p, event)) {
+            return;
+        }
+        listener.setQueueCancelled(p, event);
+        listener.allBuildsCompleted(event, new GerritCause(event, false), TaskListener.NULL);
+    }
+
+    /**
+     * How long to hold the event before triggering, so that only the newest of patch sets uploaded in quick
+     * succession is built. Only new patch sets for jobs where builds of older patch sets are cancelled anyway
+     * are held.
+     *
+     * @param t the trigger.
+     * @param event the event.
+     * @return the window in seconds, 0 to trigger right away.
+     * @see IGerritHudsonTriggerConfig#getPatchsetDebounceWindow()
+     */
+    private int getDebounceWindow(GerritTrigger t, GerritTriggeredEvent event) {
+        if (!(event instanceof PatchsetCreated) || event instanceof ManualPatchsetCreated
+                || t.isOnlyAbortRunningBuild(event)) {
+            return 0;
+        }
+        IGerritHudsonTriggerConfig serverConfig = getServerConfig(event);
+        if (serverConfig == null || serverConfig.getPatchsetDebounceWindow() <= 0) {
+            return 0;
+        }
+        BuildCancellationPolicy jobPolicy = t.getBuildCancellationPolicy();
+        BuildCancellationPolicy serverPolicy = serverConfig.getBuildCurrentPatchesOnly();
+        if ((jobPolicy != null && jobPolicy.isEnabled()) || (serverPolicy != null && serverPolicy.isEnabled())) {
+            return serverConfig.getPatchsetDebounceWindow();
+        }
+        return 0;
+    }
+
     /**
      * Called when a ManualPatchsetCreated event arrives.
      *
@@ -162,6 +264,20 @@ public final class EventListener implements GerritEventListener {
             // to just return now without processing the event.
             return;
         }
+        scan(event, t);
+    }
+
+    /**
+     * Matches a manual event against an already looked up trigger that has its project list ready,
+     * and schedules a build if it is interesting.
+     * Used when many events are triggered at once so the trigger only needs to be looked up once.
+     *
+     * @param event the event.
+     * @param t the trigger of this listener's job.
+     * @see #getTrigger()
+     * @see GerritTrigger#waitForProjectListToBeReady()
+     */
+    public void scan(ManualPatchsetCreated event, GerritTrigger t) {
         if (t.isInteresting(event)) {
             logger.trace("The event is interesting.");
             abortBuild(t, event);
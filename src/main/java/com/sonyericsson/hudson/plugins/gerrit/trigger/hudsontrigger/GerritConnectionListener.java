@@ -33,6 +33,7 @@ import org.slf4j.LoggerFactory;
 
 import com.sonymobile.tools.gerrit.gerritevents.ConnectionListener;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.PluginImpl;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.version.GerritFeatureSet;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.version.GerritVersionChecker;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.version.GerritVersionNumber;
 
@@ -52,6 +53,7 @@ public class GerritConnectionListener implements ConnectionListener {
     private boolean connected;
     private boolean gerritSnapshotVersion;
     private List<GerritVersionChecker.Feature> disabledFeatures;
+    private volatile GerritFeatureSet featureSet;
 
     /**
      * Default constructor.
@@ -107,6 +109,16 @@ public class GerritConnectionListener implements ConnectionListener {
         return disabledFeatures;
     }
 
+    /**
+     * The features supported by the Gerrit server, computed when the connection was last established.
+     *
+     * @return the feature set, or null if not connected.
+     */
+    @CheckForNull
+    public GerritFeatureSet getFeatureSet() {
+        return featureSet;
+    }
+
     /**
      * @see ConnectionListener#connectionEstablished()
      */
@@ -155,17 +167,20 @@ public class GerritConnectionListener implements ConnectionListener {
         if (connected) {
             GerritVersionNumber version =
                     GerritVersionChecker.createVersionNumber(getVersionString());
+            GerritFeatureSet features = GerritFeatureSet.of(version);
             List<GerritVersionChecker.Feature> list = new LinkedList<GerritVersionChecker.Feature>();
             for (GerritVersionChecker.Feature f : GerritVersionChecker.Feature.values()) {
-                if (!GerritVersionChecker.isCorrectVersion(version, f)) {
+                if (!features.isSupported(f)) {
                     list.add(f);
                 }
             }
             disabledFeatures = list;
             gerritSnapshotVersion = version.isSnapshot();
+            featureSet = features;
         } else {
             disabledFeatures = null;
             gerritSnapshotVersion = false;
+            featureSet = null;
         }
     }
 
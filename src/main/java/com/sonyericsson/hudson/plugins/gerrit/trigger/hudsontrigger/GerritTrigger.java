@@ -24,8 +24,11 @@
  */
 package com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger;
 
+import com.sonyericsson.hudson.plugins.gerrit.trigger.BlockingIoExecutor;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.EventAdmission;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.GerritServer;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.PluginImpl;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.TopicChangesCache;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.VerdictCategory;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.config.Config;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.config.IGerritHudsonTriggerConfig;
@@ -39,16 +42,12 @@ import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.data.GerritP
 import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.data.GerritSlave;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.data.SkipVote;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.data.TriggerContext;
-import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.events.PluginCommentAddedContainsEvent;
-import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.events.PluginCommentAddedEvent;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.events.PluginDraftPublishedEvent;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.events.PluginGerritEvent;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.events.PluginPatchsetCreatedEvent;
-import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.events.PluginChangeAbandonedEvent;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.version.GerritVersionChecker;
 import com.sonymobile.tools.gerrit.gerritevents.GerritHandler;
 import com.sonymobile.tools.gerrit.gerritevents.GerritQueryHandler;
-import com.sonymobile.tools.gerrit.gerritevents.dto.attr.Approval;
 import com.sonymobile.tools.gerrit.gerritevents.dto.attr.Change;
 import com.sonymobile.tools.gerrit.gerritevents.dto.attr.PatchSet;
 import com.sonymobile.tools.gerrit.gerritevents.dto.attr.Provider;
@@ -161,6 +160,7 @@ public class GerritTrigger extends Trigger<Job> {
     private String serverName;
     private String gerritSlaveId;
     private List<PluginGerritEvent> triggerOnEvents;
+    private transient volatile TriggerOnEventsTable triggerOnEventsTable;
     private boolean dynamicTriggerConfiguration;
     private String triggerConfigURL;
 
@@ -502,6 +502,7 @@ public class GerritTrigger extends Trigger<Job> {
             GerritHandler handler = plugin.getHandler();
             handler.removeListener(new EventListener(oldFullName));
             handler.addListener(createListener());
+            EventAdmission.getInstance().invalidate();
         }
     }
 
@@ -577,6 +578,7 @@ public class GerritTrigger extends Trigger<Job> {
         super.start(project, newInstance);
         initializeServerName();
         initializeTriggerOnEvents();
+        triggerOnEventsTable = new TriggerOnEventsTable(triggerOnEvents);
         try {
             addThisTriggerAsListener(project);
         } catch (IllegalStateException e) {
@@ -598,6 +600,7 @@ public class GerritTrigger extends Trigger<Job> {
         }
 
         GerritProjectList.removeTriggerFromProjectList(this);
+        EventAdmission.getInstance().invalidate();
     }
 
     @Override
@@ -610,6 +613,7 @@ public class GerritTrigger extends Trigger<Job> {
         } catch (IllegalStateException e) {
             logger.error("I am too late!", e);
         }
+        EventAdmission.getInstance().invalidate();
 
         cancelTimer();
     }
@@ -664,7 +668,8 @@ public class GerritTrigger extends Trigger<Job> {
      * @return true if we should trigger, false if not.
      */
     private boolean shouldTriggerOnEventType(GerritTriggeredEvent event) {
-        if (triggerOnEvents == null || triggerOnEvents.isEmpty()) {
+        TriggerOnEventsTable table = getTriggerOnEventsTable();
+        if (table.isEmpty()) {
             return false;
         }
 
@@ -683,20 +688,31 @@ public class GerritTrigger extends Trigger<Job> {
             }
         }
 
-        for (PluginGerritEvent e : triggerOnEvents) {
-            if (!e.shouldTriggerOn(event)) {
-                continue;
-            }
-
-            if (event instanceof WipStateChanged) {
-                // Switching from an active patchset to Wip should not trigger a build
-                return !((WipStateChanged)event).getChange().isWip();
-            }
+        if (table.findTriggerOn(event) == null) {
+            return false;
+        }
 
-            return true;
+        if (event instanceof WipStateChanged) {
+            // Switching from an active patchset to Wip should not trigger a build
+            return !((WipStateChanged)event).getChange().isWip();
         }
 
-        return false;
+        return true;
+    }
+
+    /**
+     * The compiled form of {@link #triggerOnEvents}, compiled again if the list has been changed.
+     *
+     * @return the table.
+     */
+    private TriggerOnEventsTable getTriggerOnEventsTable() {
+        List<PluginGerritEvent> events = triggerOnEvents;
+        TriggerOnEventsTable table = triggerOnEventsTable;
+        if (table == null || !table.isCompiledFrom(events)) {
+            table = new TriggerOnEventsTable(events);
+            triggerOnEventsTable = table;
+        }
+        return table;
     }
 
     /**
@@ -943,18 +959,29 @@ public class GerritTrigger extends Trigger<Job> {
      *
      * @param change the incoming change
      * @param project the configured gerrit project
-     * @param gerritQueryHandler the gerrit query handler
+     * @param server the server the change is on, or null if not found
      * @return true if we should.
      */
-    private boolean isChangeInteresting(Change change, GerritProject project, GerritQueryHandler gerritQueryHandler) {
+    private boolean isChangeInteresting(Change change, GerritProject project, GerritServer server) {
         boolean shouldTrigger = false;
         boolean containsFilePathsOrForbiddenFilePaths = ((project.getFilePaths() != null
                 && project.getFilePaths().size() > 0)
                 || (project.getForbiddenFilePaths() != null && project.getForbiddenFilePaths().size() > 0));
 
         if (isFileTriggerEnabled() && containsFilePathsOrForbiddenFilePaths) {
-            if (project.isInteresting(change.getProject(), change.getBranch(), change.getTopic(),
-                    () -> change.getFiles(gerritQueryHandler))) {
+            GerritQueryHandler gerritQueryHandler = null;
+            String name = null;
+            if (server != null) {
+                gerritQueryHandler = server.getQueryHandler();
+                name = server.getName();
+            }
+            final GerritQueryHandler queryHandler = gerritQueryHandler;
+            final String serverName = name;
+            if (project.isInteresting(change.getProject(), change.getBranch(), change.getTopic(), () -> {
+                try (BlockingIoExecutor.Permit permit = BlockingIoExecutor.getInstance().acquire(serverName)) {
+                    return change.getFiles(queryHandler);
+                }
+            })) {
                 shouldTrigger = true;
             }
         } else {
@@ -977,16 +1004,16 @@ public class GerritTrigger extends Trigger<Job> {
      * @param topic the topic
      * @param project the configured gerrit project
      * @param event the event
+     * @param server the server the event came from, or null if not found
      * @return true if we should.
      */
-    private boolean isTopicInteresting(Topic topic, GerritProject project, ChangeBasedEvent event) {
+    private boolean isTopicInteresting(Topic topic, GerritProject project, ChangeBasedEvent event,
+                                       GerritServer server) {
 
         if (topicAssociation == null) {
             return false;
         }
 
-        GerritServer server = PluginImpl.getServer_(event);
-
         if (server == null) {
             return false;
         }
@@ -994,7 +1021,7 @@ public class GerritTrigger extends Trigger<Job> {
         logger.trace("query topic {} from {} ({}:{})", topic, server.getName(), server.getHostName(),
                 server.getSshPort());
 
-        Map<Change, PatchSet> changes = topic.getChanges(server.getQueryHandler());
+        Map<Change, PatchSet> changes = TopicChangesCache.getInstance().getChanges(server, topic);
 
         logger.trace("found {} changes with topic {} from {}", changes.size(), topic, server.getName());
 
@@ -1004,7 +1031,7 @@ public class GerritTrigger extends Trigger<Job> {
                 continue;
             }
 
-            if (!isChangeInteresting(change, project, server.getQueryHandler())) {
+            if (!isChangeInteresting(change, project, server)) {
                 continue;
             }
 
@@ -1021,20 +1048,18 @@ public class GerritTrigger extends Trigger<Job> {
     }
 
     /**
-     * Get gerrit query handler.
+     * Resolves the server that the event came from.
+     * Done once per event so that the server can be passed along to the checks for each project.
+     *
      * @param event the gerrit triggered event.
-     * @return A GerritQueryHandler.
+     * @return the server, or null if the event has no provider or the server is not found.
      */
-    private GerritQueryHandler getGerritQueryHandler(GerritTriggeredEvent event) {
+    private GerritServer getEventServer(GerritTriggeredEvent event) {
         Provider provider = event.getProvider();
         if (provider == null) {
             return null;
         }
-        GerritServer server = PluginImpl.getServer_(provider.getName());
-        if (server == null) {
-            return null;
-        }
-        return server.getQueryHandler();
+        return PluginImpl.getServer_(provider.getName());
     }
 
     /**
@@ -1042,15 +1067,17 @@ public class GerritTrigger extends Trigger<Job> {
      *
      * @param event the incoming change based event
      * @param project the configured gerrit project
+     * @param server the server the event came from, or null if not found
      * @return true if we should.
      */
-    private boolean isChangeBasedEventInteresting(ChangeBasedEvent event, GerritProject project) {
+    private boolean isChangeBasedEventInteresting(ChangeBasedEvent event, GerritProject project,
+                                                  GerritServer server) {
         Change change = event.getChange();
-        if (isChangeInteresting(change, project, getGerritQueryHandler(event))) {
+        if (isChangeInteresting(change, project, server)) {
             return true;
         }
 
-        if (isTopicAssociationInteresting(event, project)) {
+        if (isTopicAssociationInteresting(event, project, server)) {
             return true;
         }
 
@@ -1062,9 +1089,11 @@ public class GerritTrigger extends Trigger<Job> {
      *
      * @param event The incoming ChangeBasedEvent.
      * @param project The configured Gerrit project.
+     * @param server The server the event came from, or null if not found.
      * @return true if the topic associated to the build is interesting otherwise false.
      */
-    private boolean isTopicAssociationInteresting(ChangeBasedEvent event, GerritProject project) {
+    private boolean isTopicAssociationInteresting(ChangeBasedEvent event, GerritProject project,
+                                                  GerritServer server) {
 
         if (topicAssociation == null) {
             return false;
@@ -1076,7 +1105,7 @@ public class GerritTrigger extends Trigger<Job> {
             return false;
         }
 
-        return isTopicInteresting(topic, project, event);
+        return isTopicInteresting(topic, project, event, server);
     }
 
     /**
@@ -1096,10 +1125,8 @@ public class GerritTrigger extends Trigger<Job> {
             return false;
         }
 
-        for (PluginGerritEvent e : triggerOnEvents) {
-            if (e instanceof PluginChangeAbandonedEvent) {
-                return false;
-            }
+        if (getTriggerOnEventsTable().isChangeAbandonedConfigured()) {
+            return false;
         }
 
         if (buildCancellationPolicy != null && buildCancellationPolicy.isEnabled()) {
@@ -1156,13 +1183,17 @@ public class GerritTrigger extends Trigger<Job> {
 
         logger.trace("entering isInteresting for the event: {}", event);
 
+        GerritServer eventServer = null;
+        if (event instanceof ChangeBasedEvent) {
+            eventServer = getEventServer(event);
+        }
         Iterator<GerritProject> allGerritProjects = getAllGerritProjectsIterator();
         while (allGerritProjects.hasNext()) {
             GerritProject p = allGerritProjects.next();
             try {
                 if (event instanceof ChangeBasedEvent) {
                     ChangeBasedEvent changeBasedEvent = (ChangeBasedEvent)event;
-                    if (isChangeBasedEventInteresting(changeBasedEvent, p)) {
+                    if (isChangeBasedEventInteresting(changeBasedEvent, p, eventServer)) {
                         return true;
                     }
                 } else if (event instanceof RefUpdated) {
@@ -1209,49 +1240,19 @@ public class GerritTrigger extends Trigger<Job> {
      * @return true if the event matches the approval category and value configured.
      */
     /*package*/ boolean commentAddedMatch(CommentAdded event) {
-        PluginCommentAddedEvent commentAdded = null;
-        for (PluginGerritEvent e : triggerOnEvents) {
-            if (e instanceof PluginCommentAddedEvent) {
-                commentAdded = (PluginCommentAddedEvent)e;
-                for (Approval approval : event.getApprovals()) {
-                    /* Ensure that this trigger is backwards compatible.
-                     * Gerrit stream events changed to append approval info to
-                     * every comment-added event. We need to exclude snapshot
-                     * versions from this check. Otherwise, Gerrit snapshot
-                     * versions that are < 2.13 will handle comment added event
-                     * the way they are supposed to be for Gerrit >= 2.13.
-                     */
-                    if (GerritVersionChecker.isCorrectVersion(
-                                GerritVersionChecker.Feature.commentAlwaysApproval,
-                                serverName, true)) {
-                        if (approval.isUpdated()
-                                && approval.getType().equals(
-                                    commentAdded.getVerdictCategory())
-                                && (approval.getValue().equals(
-                                    commentAdded.getCommentAddedTriggerApprovalValue())
-                                || ("+" + approval.getValue()).equals(
-                                    commentAdded.getCommentAddedTriggerApprovalValue()))) {
-                                return true;
-                        }
-                    } else {
-                        if (approval.getType().equals(
-                                commentAdded.getVerdictCategory())
-                            && (approval.getValue().equals(
-                                commentAdded.getCommentAddedTriggerApprovalValue())
-                            || ("+" + approval.getValue()).equals(
-                                commentAdded.getCommentAddedTriggerApprovalValue()))) {
-                            return true;
-                        }
-                    }
-                }
-            }
-            if (e instanceof PluginCommentAddedContainsEvent) {
-                if (((PluginCommentAddedContainsEvent)e).match(event)) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        TriggerOnEventsTable table = getTriggerOnEventsTable();
+        /* Ensure that this trigger is backwards compatible.
+         * Gerrit stream events changed to append approval info to
+         * every comment-added event. We need to exclude snapshot
+         * versions from this check. Otherwise, Gerrit snapshot
+         * versions that are < 2.13 will handle comment added event
+         * the way they are supposed to be for Gerrit >= 2.13.
+         */
+        boolean commentAlwaysApproval = table.hasApprovalCriteria()
+                && GerritVersionChecker.isCorrectVersion(
+                        GerritVersionChecker.Feature.commentAlwaysApproval,
+                        serverName, true);
+        return table.commentAddedMatch(event, commentAlwaysApproval);
     }
 
     /**
@@ -1565,6 +1566,7 @@ public class GerritTrigger extends Trigger<Job> {
     @DataBoundSetter
     public void setTriggerOnEvents(List<PluginGerritEvent> triggerOnEvents) {
         this.triggerOnEvents = triggerOnEvents;
+        this.triggerOnEventsTable = null;
     }
 
     /**
@@ -31,6 +31,8 @@ import com.sonymobile.tools.gerrit.gerritevents.dto.events.GerritTriggeredEvent;
 import com.sonymobile.tools.gerrit.gerritevents.dto.events.RefUpdated;
 
 import hudson.Extension;
+import hudson.FilePath;
+import hudson.model.InvisibleAction;
 import hudson.model.Run;
 import hudson.model.TaskListener;
 import hudson.model.Result;
@@ -44,6 +46,7 @@ import hudson.plugins.git.util.BuildChooserDescriptor;
 import hudson.plugins.git.util.BuildData;
 import hudson.remoting.VirtualChannel;
 
+import org.eclipse.jgit.errors.MissingObjectException;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
 import org.eclipse.jgit.revwalk.RevWalk;
@@ -54,8 +57,11 @@ import org.eclipse.jgit.lib.ObjectId;
 
 
 import java.io.IOException;
+import java.io.Serializable;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.logging.Logger;
 
 import com.sonyericsson.hudson.plugins.gerrit.trigger.Messages;
@@ -106,17 +112,22 @@ public class GerritTriggerBuildChooser extends BuildChooser {
             throws GitException, IOException, InterruptedException {
 
         try {
-            String rev = context.actOnBuild(new GetGerritEventRevision());
-            if (rev == null) {
-                rev = "FETCH_HEAD";
+            ResolvedRevision resolved = context.actOnBuild(new GetResolvedRevision(!isPollCall));
+            String refspec = null;
+            ObjectId sha1 = null;
+            if (resolved != null) {
+                refspec = resolved.getRefspec();
+                sha1 = resolved.getRevisionId();
+                if (sha1 == null && resolved.getRevision() != null) {
+                    sha1 = git.revParse(resolved.getRevision());
+                }
             }
-
-            String refspec = context.actOnBuild(new GetGerritEventRefspec());
             if (refspec == null) {
                 refspec = singleBranch;
             }
-
-            ObjectId sha1 = git.revParse(rev);
+            if (sha1 == null) {
+                sha1 = git.revParse("FETCH_HEAD");
+            }
 
             Revision revision = new Revision(sha1);
             revision.getBranches().add(new Branch(refspec, sha1));
@@ -132,11 +143,36 @@ public class GerritTriggerBuildChooser extends BuildChooser {
     public Build prevBuildForChangelog(String singleBranch, BuildData data, GitClient git,
                                        BuildChooserContext context) throws InterruptedException, IOException {
         if (data != null) {
-            ObjectId sha1 = git.revParse("FETCH_HEAD");
+            ResolvedRevision resolved = context.actOnBuild(new GetResolvedRevision(true));
+            String repository = getRepositoryKey(git);
+            ObjectId sha1 = null;
+            ObjectId parentSha1 = null;
+            if (resolved != null) {
+                sha1 = resolved.getRevisionId();
+                if (sha1 != null) {
+                    parentSha1 = resolved.getParentId(repository, sha1);
+                }
+            }
 
             // Now we cheat and add the parent as the last build on the branch, so we can
             // get the changelog working properly-ish.
-            ObjectId parentSha1 = getFirstParent(sha1, git);
+            if (parentSha1 == null && sha1 != null) {
+                parentSha1 = getFirstParent(sha1, git);
+                if (parentSha1 == null) {
+                    // The revision of the event is not in this repository, when the job checks out several.
+                    sha1 = null;
+                }
+            }
+            if (sha1 == null) {
+                sha1 = git.revParse("FETCH_HEAD");
+                parentSha1 = getFirstParent(sha1, git);
+                if (parentSha1 == null) {
+                    throw new GitException("Failed to find parent id of FETCH_HEAD " + sha1.name());
+                }
+            }
+            if (resolved != null && !parentSha1.equals(resolved.getParentId(repository, sha1))) {
+                context.actOnBuild(new SetResolvedParent(repository, sha1.name(), parentSha1.name()));
+            }
             Revision parentRev = new Revision(parentSha1);
             parentRev.getBranches().add(new Branch(singleBranch, parentSha1));
 
@@ -156,13 +192,28 @@ public class GerritTriggerBuildChooser extends BuildChooser {
         }
     }
 
+    /**
+     * The key of the repository of the git client, among the repositories the build checks out.
+     *
+     * @param git GitClient API object
+     * @return the path of the work tree, or null if unknown.
+     */
+    private static String getRepositoryKey(GitClient git) {
+        FilePath workTree = git.getWorkTree();
+        if (workTree == null) {
+            return null;
+        }
+        return workTree.getRemote();
+    }
+
     //CS IGNORE RedundantThrows FOR NEXT 30 LINES. REASON: Informative, and could happen.
     /**
      * Gets the top parent of the given revision.
      *
      * @param id Revision
      * @param git GitClient API object
-     * @return object id of Revision's parent, or of Revision itself if there is no parent
+     * @return object id of Revision's parent, or of Revision itself if there is no parent,
+     *         or null if the repository doesn't have the revision.
      * @throws GitException In case of error in git call
      * @throws InterruptedException if the repository handling gets interrupted
      * @throws IOException in case of communication errors.
@@ -183,6 +234,8 @@ public class GerritTriggerBuildChooser extends BuildChooser {
                         // If this is the first commit in the git, there is no parent.
                         result = id;
                     }
+                } catch (MissingObjectException e) {
+                    return null;
                 } catch (Exception e) {
                     throw new GitException("Failed to find parent id. ", e);
                 }
@@ -208,44 +261,182 @@ public class GerritTriggerBuildChooser extends BuildChooser {
     }
 
     /**
-     * Retrieve the Gerrit event revision
+     * The revision and refspec of the Gerrit event that triggered a build, and the first parents of the revisions
+     * the changelog has been computed from, per repository the build checks out.
+     * Kept on the build so the revision is only resolved once per build.
+     */
+    public static class ResolvedRevision extends InvisibleAction implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private final String revision;
+        private final String refspec;
+        private Map<String, String> parents = new HashMap<String, String>();
+
+        /**
+         * Constructor.
+         *
+         * @param revision the revision of the event, can be null.
+         * @param refspec the refspec of the event, can be null.
+         */
+        public ResolvedRevision(String revision, String refspec) {
+            this.revision = revision;
+            this.refspec = refspec;
+        }
+
+        /**
+         * Makes sure there is a map of parents after deserialization.
+         *
+         * @return this.
+         */
+        protected Object readResolve() {
+            if (parents == null) {
+                parents = new HashMap<String, String>();
+            }
+            return this;
+        }
+
+        /**
+         * The revision of the event, as given by Gerrit.
+         *
+         * @return the revision or null.
+         */
+        public String getRevision() {
+            return revision;
+        }
+
+        /**
+         * The revision of the event, if it is a full SHA-1 that doesn't need to be resolved.
+         *
+         * @return the id or null.
+         */
+        public ObjectId getRevisionId() {
+            return toObjectId(revision);
+        }
+
+        /**
+         * The refspec of the event.
+         *
+         * @return the refspec or null.
+         */
+        public String getRefspec() {
+            return refspec;
+        }
+
+        /**
+         * The first parent of a revision in a repository.
+         *
+         * @param repository the key of the repository.
+         * @param sha1 the revision.
+         * @return the id of the parent or null if not looked up yet.
+         */
+        public synchronized ObjectId getParentId(String repository, ObjectId sha1) {
+            return toObjectId(parents.get(getParentKey(repository, sha1.name())));
+        }
+
+        /**
+         * Sets the first parent of a revision in a repository.
+         *
+         * @param repository the key of the repository.
+         * @param sha1 the revision.
+         * @param parent the parent.
+         */
+        synchronized void setParent(String repository, String sha1, String parent) {
+            parents.put(getParentKey(repository, sha1), parent);
+        }
+
+        /**
+         * The key of a revision in a repository in {@link #parents}.
+         *
+         * @param repository the key of the repository.
+         * @param sha1 the revision.
+         * @return the key.
+         */
+        private static String getParentKey(String repository, String sha1) {
+            return repository + "#" + sha1;
+        }
+
+        /**
+         * Converts a full SHA-1 to an id.
+         *
+         * @param sha1 the SHA-1.
+         * @return the id or null if it isn't a full SHA-1.
+         */
+        private static ObjectId toObjectId(String sha1) {
+            if (sha1 != null && ObjectId.isId(sha1)) {
+                return ObjectId.fromString(sha1);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Retrieve the revision and refspec of the Gerrit event, from the build if they have been resolved before.
      */
-    private static class GetGerritEventRevision
-            implements BuildChooserContext.ContextCallable<Run<?, ?>, String> {
+    private static class GetResolvedRevision
+            implements BuildChooserContext.ContextCallable<Run<?, ?>, ResolvedRevision> {
         static final long serialVersionUID = 0L;
+        private final boolean store;
+
+        /**
+         * Constructor.
+         *
+         * @param store if a newly resolved revision should be stored on the build.
+         */
+        GetResolvedRevision(boolean store) {
+            this.store = store;
+        }
+
         @Override
-        public String invoke(Run<?, ?> build, VirtualChannel channel) {
+        public ResolvedRevision invoke(Run<?, ?> build, VirtualChannel channel) throws IOException {
+            ResolvedRevision resolved = build.getAction(ResolvedRevision.class);
+            if (resolved != null) {
+                return resolved;
+            }
             GerritCause cause = build.getCause(GerritCause.class);
             if (cause != null) {
                 GerritTriggeredEvent event = cause.getEvent();
                 if (event instanceof ChangeBasedEvent) {
-                    return ((ChangeBasedEvent)event).getPatchSet().getRevision();
-                }
-                if (event instanceof RefUpdated) {
-                    return ((RefUpdated)event).getRefUpdate().getNewRev();
+                    resolved = new ResolvedRevision(((ChangeBasedEvent)event).getPatchSet().getRevision(),
+                            ((ChangeBasedEvent)event).getPatchSet().getRef());
+                } else if (event instanceof RefUpdated) {
+                    resolved = new ResolvedRevision(((RefUpdated)event).getRefUpdate().getNewRev(),
+                            ((RefUpdated)event).getRefUpdate().getRefName());
                 }
             }
-            return null;
+            if (resolved != null && store) {
+                build.addAction(resolved);
+            }
+            return resolved;
         }
     }
 
     /**
-     * Retrieve the Gerrit refspec
+     * Remembers the first parent of a revision in a repository on the build.
      */
-    private static class GetGerritEventRefspec
-            implements BuildChooserContext.ContextCallable<Run<?, ?>, String> {
+    private static class SetResolvedParent
+            implements BuildChooserContext.ContextCallable<Run<?, ?>, Void> {
         static final long serialVersionUID = 0L;
+        private final String repository;
+        private final String sha1;
+        private final String parent;
+
+        /**
+         * Constructor.
+         *
+         * @param repository the key of the repository.
+         * @param sha1 the revision.
+         * @param parent the first parent.
+         */
+        SetResolvedParent(String repository, String sha1, String parent) {
+            this.repository = repository;
+            this.sha1 = sha1;
+            this.parent = parent;
+        }
+
         @Override
-        public String invoke(Run<?, ?> build, VirtualChannel channel) {
-            GerritCause cause = build.getCause(GerritCause.class);
-            if (cause != null) {
-                GerritTriggeredEvent event = cause.getEvent();
-                if (event instanceof ChangeBasedEvent) {
-                    return ((ChangeBasedEvent)event).getPatchSet().getRef();
-                }
-                if (event instanceof RefUpdated) {
-                    return ((RefUpdated)event).getRefUpdate().getRefName();
-                }
+        public Void invoke(Run<?, ?> build, VirtualChannel channel) throws IOException {
+            ResolvedRevision resolved = build.getAction(ResolvedRevision.class);
+            if (resolved != null) {
+                resolved.setParent(repository, sha1, parent);
             }
             return null;
         }
@@ -23,6 +23,7 @@
  */
 package com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger;
 
+import com.sonyericsson.hudson.plugins.gerrit.trigger.BlockingIoExecutor;
 import hudson.model.Job;
 import hudson.triggers.SafeTimerTask;
 
@@ -31,6 +32,9 @@ import edu.umd.cs.findbugs.annotations.NonNull;
 
 import jenkins.model.Jenkins;
 
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * TimerTasks that are created from a GerritTrigger and periodically calls
  * GerritTrigger.updateTriggerConfigURL().
@@ -38,6 +42,8 @@ import jenkins.model.Jenkins;
  * @author Fredrik Abrahamson &lt;fredrik.abrahamson@sonymobile.com&gt;
  */
 public class GerritTriggerTimerTask extends SafeTimerTask {
+    private static final Set<String> UPDATING = ConcurrentHashMap.newKeySet();
+
     //TODO possible need to handle renames
     private String job;
 
@@ -59,8 +65,32 @@ public class GerritTriggerTimerTask extends SafeTimerTask {
         if (trigger == null) {
             return;
         }
-        // Do not skip updates since tasks might wait for the update
-        trigger.updateTriggerConfigURL();
+        // Do not skip updates since tasks might wait for the update,
+        // unless one is still running from the last time which then will do.
+        final String name = job;
+        if (!UPDATING.add(name)) {
+            return;
+        }
+        final GerritTrigger update = trigger;
+        Runnable work = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    update.updateTriggerConfigURL();
+                } finally {
+                    UPDATING.remove(name);
+                }
+            }
+
+            @Override
+            public String toString() {
+                return "Update of the dynamic trigger configuration of " + name;
+            }
+        };
+        //The configuration is fetched from a URL, not from the server of the trigger.
+        if (!BlockingIoExecutor.getInstance().submit(work)) {
+            work.run();
+        }
     }
 
 
@@ -0,0 +1,292 @@
+/*
+ *  The MIT License
+ *
+ *  Copyright 2026 agent. All rights reserved.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger;
+
+import com.sonymobile.tools.gerrit.gerritevents.dto.events.ChangeBasedEvent;
+import jenkins.util.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds the decision to build a new patch set for a while per server, change and job,
+ * so that when the developer uploads more patch sets in quick succession only the newest is built.
+ * The window is counted from the first patch set that is held, so a steady stream of uploads
+ * does not hold the build forever. The caller records the held job as triggered while the event is still being
+ * dispatched, so that the verdict and dependent jobs wait for it, and cancels that record when it is dropped.
+ *
+ * @author agent &lt;agent@local&gt;
+ * @see com.sonyericsson.hudson.plugins.gerrit.trigger.config.IGerritHudsonTriggerConfig#getPatchsetDebounceWindow()
+ */
+public final class PatchsetDebouncer {
+
+    private static final Logger logger = LoggerFactory.getLogger(PatchsetDebouncer.class);
+
+    private static PatchsetDebouncer instance;
+
+    private final ScheduledExecutorService scheduler;
+    private final Map<Key, Held> held = new HashMap<Key, Held>();
+    private final AtomicLong heldCount = new AtomicLong();
+    private final AtomicLong supersededCount = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param scheduler runs the held decisions when their window is over.
+     */
+    PatchsetDebouncer(ScheduledExecutorService scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * The singleton instance.
+     *
+     * @return the instance.
+     */
+    public static synchronized PatchsetDebouncer getInstance() {
+        if (instance == null) {
+            instance = new PatchsetDebouncer(Timer.get());
+        }
+        return instance;
+    }
+
+    /**
+     * Releases the held decisions of the singleton instance, if there is one.
+     */
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            instance.releaseAll();
+            instance = null;
+        }
+    }
+
+    /**
+     * Holds the decision to build a patch set. If a decision for the same server, change and job is already held
+     * the newest patch set of the two is kept. When the arriving patch set replaces the held one
+     * the <code>drop</code> of the held one is run, when it is not newer than the held one it is ignored.
+     *
+     * @param server the name of the server, can be null.
+     * @param event the patch set.
+     * @param job the full name of the job.
+     * @param windowSeconds how long the first patch set is held.
+     * @param release run when the window is over, for the newest patch set.
+     * @param drop run when the patch set is replaced by a newer one.
+     * @return true if the patch set is now the held one, false if it was ignored.
+     */
+    public boolean hold(String server, ChangeBasedEvent event, String job, int windowSeconds,
+                        Runnable release, Runnable drop) {
+        Key key = new Key(server, event.getChange().getNumber(), job);
+        Held superseded;
+        synchronized (held) {
+            Held current = held.get(key);
+            if (current == null) {
+                final Held entry = new Held(event, release, drop);
+                held.put(key, entry);
+                heldCount.incrementAndGet();
+                entry.future = scheduler.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        release(key, entry);
+                    }
+                }, windowSeconds, TimeUnit.SECONDS);
+                return true;
+            }
+            if (!isNewer(event, current.event)) {
+                logger.debug("Ignoring {} since the same or a newer patch set is held for {}", event, job);
+                return false;
+            }
+            logger.debug("Patch set {} supersedes held {} for {}", event, current.event, job);
+            supersededCount.incrementAndGet();
+            superseded = new Held(current.event, current.release, current.drop);
+            current.event = event;
+            current.release = release;
+            current.drop = drop;
+        }
+        try {
+            superseded.drop.run();
+        } catch (RuntimeException e) {
+            logger.error("Failed to drop superseded patch set " + superseded.event, e);
+        }
+        return true;
+    }
+
+    /**
+     * Runs the held decision, unless it has been dropped.
+     *
+     * @param key the key.
+     * @param entry the decision.
+     */
+    private void release(Key key, Held entry) {
+        Runnable release;
+        synchronized (held) {
+            if (held.get(key) != entry) {
+                return;
+            }
+            held.remove(key);
+            release = entry.release;
+        }
+        try {
+            release.run();
+        } catch (RuntimeException e) {
+            logger.error("Failed to schedule the builds for held patch set " + entry.event, e);
+        }
+    }
+
+    /**
+     * If the patch set of the event is newer than the one of the other event.
+     * Patch sets without a number are counted as newer.
+     *
+     * @param event the event.
+     * @param other the other event.
+     * @return true if so.
+     */
+    static boolean isNewer(ChangeBasedEvent event, ChangeBasedEvent other) {
+        try {
+            return Integer.parseInt(event.getPatchSet().getNumber())
+                    > Integer.parseInt(other.getPatchSet().getNumber());
+        } catch (NumberFormatException | NullPointerException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Releases all held decisions right away, so that no patch set is lost when the plugin stops.
+     */
+    void releaseAll() {
+        Map<Key, Held> released;
+        synchronized (held) {
+            released = new HashMap<Key, Held>(held);
+            held.clear();
+        }
+        for (Map.Entry<Key, Held> entry : released.entrySet()) {
+            Held h = entry.getValue();
+            h.future.cancel(false);
+            logger.info("Releasing held patch set {} for {} before its window is over", h.event, entry.getKey().job);
+            try {
+                h.release.run();
+            } catch (RuntimeException e) {
+                logger.error("Failed to schedule the builds for held patch set " + h.event, e);
+            }
+        }
+    }
+
+    /**
+     * The number of decisions being held.
+     *
+     * @return the number.
+     */
+    public int getHeldNow() {
+        synchronized (held) {
+            return held.size();
+        }
+    }
+
+    /**
+     * The number of patch sets that have been held.
+     *
+     * @return the number.
+     */
+    public long getHeldCount() {
+        return heldCount.get();
+    }
+
+    /**
+     * The number of patch sets that were not built since another patch set of the change came within the window.
+     *
+     * @return the number.
+     */
+    public long getSupersededCount() {
+        return supersededCount.get();
+    }
+
+    /**
+     * A held decision.
+     */
+    private static final class Held {
+        private ChangeBasedEvent event;
+        private Runnable release;
+        private Runnable drop;
+        private ScheduledFuture<?> future;
+
+        /**
+         * Constructor.
+         *
+         * @param event the patch set.
+         * @param release what to run when the window is over.
+         * @param drop what to run when a newer patch set replaces this one.
+         */
+        Held(ChangeBasedEvent event, Runnable release, Runnable drop) {
+            this.event = event;
+            this.release = release;
+            this.drop = drop;
+        }
+    }
+
+    /**
+     * Server, change and job.
+     */
+    private static final class Key {
+        private final String server;
+        private final String change;
+        private final String job;
+
+        /**
+         * Constructor.
+         *
+         * @param server the server name.
+         * @param change the change number.
+         * @param job the job full name.
+         */
+        Key(String server, String change, String job) {
+            this.server = server;
+            this.change = change;
+            this.job = job;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key)o;
+            return Objects.equals(server, key.server) && Objects.equals(change, key.change)
+                    && Objects.equals(job, key.job);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(server, change, job);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ *  The MIT License
+ *
+ *  Copyright 2026 agent. All rights reserved.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger;
+
+import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.events.PluginChangeAbandonedEvent;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.events.PluginCommentAddedContainsEvent;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.events.PluginCommentAddedEvent;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.events.PluginGerritEvent;
+import com.sonymobile.tools.gerrit.gerritevents.dto.GerritEventType;
+import com.sonymobile.tools.gerrit.gerritevents.dto.attr.Approval;
+import com.sonymobile.tools.gerrit.gerritevents.dto.events.CommentAdded;
+import com.sonymobile.tools.gerrit.gerritevents.dto.events.GerritTriggeredEvent;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The event types a {@link GerritTrigger} is configured to trigger on, compiled into lookup tables
+ * so that checking an event doesn't need to go through the whole configured list.
+ *
+ * The events configured for each {@link GerritEventType} are kept in the configured order
+ * and each of them still gets the final say through {@link PluginGerritEvent#shouldTriggerOn(GerritTriggeredEvent)}.
+ *
+ * @author agent &lt;agent@local&gt;
+ */
+final class TriggerOnEventsTable {
+
+    private static final PluginGerritEvent[] NONE = new PluginGerritEvent[0];
+    private static final char SEPARATOR = '\n';
+
+    private final List<PluginGerritEvent> source;
+    private final int size;
+    private final PluginGerritEvent[] all;
+    private final Map<GerritEventType, PluginGerritEvent[]> byType;
+    private final boolean changeAbandoned;
+    private final Set<String> approvals;
+    private final PluginCommentAddedContainsEvent[] commentContains;
+
+    /**
+     * Compiles the tables.
+     *
+     * @param triggerOnEvents the configured events, can be null.
+     */
+    TriggerOnEventsTable(List<PluginGerritEvent> triggerOnEvents) {
+        this.source = triggerOnEvents;
+        if (triggerOnEvents == null) {
+            this.all = NONE;
+        } else {
+            this.all = triggerOnEvents.toArray(NONE);
+        }
+        this.size = all.length;
+
+        byType = new EnumMap<GerritEventType, PluginGerritEvent[]>(GerritEventType.class);
+        for (GerritEventType type : GerritEventType.values()) {
+            List<PluginGerritEvent> candidates = new ArrayList<PluginGerritEvent>();
+            for (PluginGerritEvent e : all) {
+                if (isRelated(e, type)) {
+                    candidates.add(e);
+                }
+            }
+            if (!candidates.isEmpty()) {
+                byType.put(type, candidates.toArray(NONE));
+            }
+        }
+
+        boolean abandoned = false;
+        approvals = new HashSet<String>();
+        List<PluginCommentAddedContainsEvent> contains = new ArrayList<PluginCommentAddedContainsEvent>();
+        for (PluginGerritEvent e : all) {
+            if (e instanceof PluginChangeAbandonedEvent) {
+                abandoned = true;
+            } else if (e instanceof PluginCommentAddedEvent) {
+                PluginCommentAddedEvent commentAdded = (PluginCommentAddedEvent)e;
+                if (commentAdded.getVerdictCategory() != null
+                        && commentAdded.getCommentAddedTriggerApprovalValue() != null) {
+                    approvals.add(key(commentAdded.getVerdictCategory(),
+                            commentAdded.getCommentAddedTriggerApprovalValue()));
+                }
+            } else if (e instanceof PluginCommentAddedContainsEvent) {
+                contains.add((PluginCommentAddedContainsEvent)e);
+            }
+        }
+        changeAbandoned = abandoned;
+        commentContains = contains.toArray(new PluginCommentAddedContainsEvent[contains.size()]);
+    }
+
+    /**
+     * If the configured event could trigger on events of the type.
+     * An event class in the same hierarchy as the class of the type is enough,
+     * the final check is done by the configured event itself.
+     *
+     * @param e the configured event.
+     * @param type the type.
+     * @return true if so, or if it is not known.
+     */
+    private static boolean isRelated(PluginGerritEvent e, GerritEventType type) {
+        Class corresponding = e.getCorrespondingEventClass();
+        Class ref = type.getEventRef();
+        if (corresponding == null || ref == null) {
+            return true;
+        }
+        return corresponding.isAssignableFrom(ref) || ref.isAssignableFrom(corresponding);
+    }
+
+    /**
+     * The lookup key of an approval.
+     *
+     * @param category the approval category.
+     * @param value the approval value.
+     * @return the key.
+     */
+    private static String key(String category, String value) {
+        return category + SEPARATOR + value;
+    }
+
+    /**
+     * If the table was compiled from the list as it looks now.
+     * The list is modified in place by some callers of {@link GerritTrigger#getTriggerOnEvents()}.
+     *
+     * @param triggerOnEvents the current list.
+     * @return true if so.
+     */
+    boolean isCompiledFrom(List<PluginGerritEvent> triggerOnEvents) {
+        if (triggerOnEvents != source) {
+            return false;
+        }
+        return triggerOnEvents == null || triggerOnEvents.size() == size;
+    }
+
+    /**
+     * If no events are configured.
+     *
+     * @return true if so.
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * If a {@link PluginChangeAbandonedEvent} is configured.
+     *
+     * @return true if so.
+     */
+    boolean isChangeAbandonedConfigured() {
+        return changeAbandoned;
+    }
+
+    /**
+     * The first configured event that should trigger on the event.
+     *
+     * @param event the event.
+     * @return the configured event or null if none.
+     */
+    PluginGerritEvent findTriggerOn(GerritTriggeredEvent event) {
+        PluginGerritEvent[] candidates;
+        GerritEventType type = event.getEventType();
+        if (type == null) {
+            candidates = all;
+        } else {
+            candidates = byType.get(type);
+            if (candidates == null) {
+                return null;
+            }
+        }
+        for (PluginGerritEvent e : candidates) {
+            if (e.shouldTriggerOn(event)) {
+                return e;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * If the approvals or the comment of the event match any of the configured comment added events.
+     *
+     * @param event the event.
+     * @param commentAlwaysApproval if Gerrit sends all approvals with every comment,
+     *                              so only updated approvals should be considered.
+     * @return true if so.
+     */
+    boolean commentAddedMatch(CommentAdded event, boolean commentAlwaysApproval) {
+        if (!approvals.isEmpty() && event.getApprovals() != null) {
+            for (Approval approval : event.getApprovals()) {
+                if (commentAlwaysApproval && !approval.isUpdated()) {
+                    continue;
+                }
+                String type = approval.getType();
+                String value = approval.getValue();
+                if (type != null && value != null
+                        && (approvals.contains(key(type, value)) || approvals.contains(key(type, "+" + value)))) {
+                    return true;
+                }
+            }
+        }
+        for (PluginCommentAddedContainsEvent e : commentContains) {
+            if (e.match(event)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * If any {@link PluginCommentAddedEvent} is configured, so the approvals need to be checked.
+     *
+     * @return true if so.
+     */
+    boolean hasApprovalCriteria() {
+        return !approvals.isEmpty();
+    }
+}
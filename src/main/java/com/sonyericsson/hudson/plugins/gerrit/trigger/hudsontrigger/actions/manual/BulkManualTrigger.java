@@ -0,0 +1,243 @@
+/*
+ *  The MIT License
+ *
+ *  Copyright 2026 agent. All rights reserved.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.actions.manual;
+
+import com.sonyericsson.hudson.plugins.gerrit.trigger.JenkinsAwareGerritHandler;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.PluginImpl;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.events.ManualPatchsetCreated;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.EventListener;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.GerritTrigger;
+import com.sonymobile.tools.gerrit.gerritevents.GerritEventListener;
+import com.sonymobile.tools.gerrit.gerritevents.GerritHandler;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Triggers many manual events as one batch, off the request thread.
+ * The listeners of the jobs are looked up once for the whole batch,
+ * then each event is matched against them in parallel.
+ * Kept in the HTTP session as the progress of the batch.
+ *
+ * @author agent &lt;agent@local&gt;
+ */
+public final class BulkManualTrigger {
+
+    /**
+     * The number of threads scanning events.
+     */
+    public static final int NUMBER_OF_THREADS = Integer.getInteger(BulkManualTrigger.class.getName() + ".threads", 4);
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkManualTrigger.class);
+    private static ExecutorService executor;
+
+    private final List<ManualPatchsetCreated> events;
+    private final AtomicInteger scanned = new AtomicInteger();
+    private volatile int candidates = -1;
+
+    /**
+     * Constructor.
+     *
+     * @param events the events to trigger.
+     */
+    BulkManualTrigger(List<ManualPatchsetCreated> events) {
+        this.events = new ArrayList<ManualPatchsetCreated>(events);
+    }
+
+    /**
+     * Starts triggering the events in the background.
+     *
+     * @param events the events to trigger.
+     * @return the progress of the batch, or null if there is no handler to trigger them with.
+     */
+    public static BulkManualTrigger start(List<ManualPatchsetCreated> events) {
+        GerritHandler handler = PluginImpl.getHandler_();
+        if (!(handler instanceof JenkinsAwareGerritHandler)) {
+            return null;
+        }
+        BulkManualTrigger trigger = new BulkManualTrigger(events);
+        trigger.start(getExecutor(), (JenkinsAwareGerritHandler)handler);
+        return trigger;
+    }
+
+    /**
+     * The executor, created the first time it is needed.
+     *
+     * @return the executor.
+     */
+    private static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(NUMBER_OF_THREADS,
+                    new NamingThreadFactory(new DaemonThreadFactory(), BulkManualTrigger.class.getSimpleName()));
+        }
+        return executor;
+    }
+
+    /**
+     * Stops the threads, batches already started are still scanned.
+     * New threads are created for the next batch.
+     */
+    public static synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    /**
+     * Looks up the listeners and then scans each event on the executor.
+     *
+     * @param service the executor to scan on.
+     * @param handler the handler that has the listeners.
+     */
+    void start(ExecutorService service, JenkinsAwareGerritHandler handler) {
+        service.execute(() -> {
+            Map<EventListener, GerritTrigger> jobs = new LinkedHashMap<EventListener, GerritTrigger>();
+            List<GerritEventListener> others = new ArrayList<GerritEventListener>();
+            try (ACLContext ctx = ACL.as(ACL.SYSTEM)) {
+                if (!lookup(handler.getGerritEventListenersView(), jobs, others)) {
+                    scanned.set(events.size());
+                    return;
+                }
+            }
+            candidates = jobs.size();
+            logger.debug("Scanning {} events against {} jobs", events.size(), candidates);
+            for (ManualPatchsetCreated event : events) {
+                service.execute(() -> {
+                    try {
+                        handler.notifyListeners(event, () -> scan(event, jobs, others));
+                    } finally {
+                        scanned.incrementAndGet();
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Splits the listeners into job listeners, with their triggers, and other listeners.
+     * Waits for the project lists of the triggers to be ready.
+     *
+     * @param listeners all listeners.
+     * @param jobs where to put the job listeners.
+     * @param others where to put the other listeners.
+     * @return false if interrupted while waiting.
+     */
+    static boolean lookup(Collection<GerritEventListener> listeners,
+                          Map<EventListener, GerritTrigger> jobs, List<GerritEventListener> others) {
+        for (GerritEventListener listener : listeners) {
+            if (listener instanceof EventListener) {
+                EventListener eventListener = (EventListener)listener;
+                GerritTrigger t = eventListener.getTrigger();
+                if (t == null) {
+                    logger.warn("Couldn't find a configured trigger for {}", eventListener.getJob());
+                    continue;
+                }
+                try {
+                    t.waitForProjectListToBeReady();
+                } catch (InterruptedException e) {
+                    logger.debug("Interrupted while waiting for the project list of {}", eventListener.getJob());
+                    return false;
+                }
+                jobs.put(eventListener, t);
+            } else {
+                others.add(listener);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Scans one event against all listeners.
+     *
+     * @param event the event.
+     * @param jobs the job listeners and their triggers.
+     * @param others the other listeners.
+     */
+    static void scan(ManualPatchsetCreated event, Map<EventListener, GerritTrigger> jobs,
+                     List<GerritEventListener> others) {
+        for (GerritEventListener listener : others) {
+            try {
+                JenkinsAwareGerritHandler.notifyListener(listener, event);
+            } catch (Exception ex) {
+                logger.error("When notifying listener: " + listener + " about event: " + event, ex);
+            }
+        }
+        for (Map.Entry<EventListener, GerritTrigger> entry : jobs.entrySet()) {
+            try {
+                entry.getKey().scan(event, entry.getValue());
+            } catch (Exception ex) {
+                logger.error("When notifying listener: " + entry.getKey() + " about event: " + event, ex);
+            }
+        }
+    }
+
+    /**
+     * The number of events in the batch.
+     *
+     * @return the number of events.
+     */
+    public int getTotal() {
+        return events.size();
+    }
+
+    /**
+     * The number of events that have been scanned.
+     *
+     * @return the number of events.
+     */
+    public int getScanned() {
+        return scanned.get();
+    }
+
+    /**
+     * The number of jobs the events are matched against, -1 until they have been looked up.
+     *
+     * @return the number of jobs.
+     */
+    public int getCandidates() {
+        return candidates;
+    }
+
+    /**
+     * If all events have been scanned.
+     *
+     * @return true if so.
+     */
+    public boolean isDone() {
+        return scanned.get() >= events.size();
+    }
+}
@@ -82,6 +82,9 @@ public class ManualTriggerAction implements RootAction {
     private static final String SESSION_SEARCH_ERROR = "error_search";
     private static final String SESSION_BUILD_ERROR = "error_build";
     private static final String SESSION_TRIGGER_MONITOR = "trigger_monitor";
+    private static final String SESSION_BULK_TRIGGER = "bulk_trigger";
+    private static final String SESSION_PAGE = "page";
+    private static final String SESSION_HAS_NEXT_PAGE = "hasNextPage";
     private static final Logger logger = LoggerFactory.getLogger(ManualTriggerAction.class);
     /**
      * The char that separates the different id components in a search-result-row.
@@ -91,6 +94,10 @@ public class ManualTriggerAction implements RootAction {
      * The maximum length of a change subject to display.
      */
     private static final int MAX_SUBJECT_STR_LENGTH = 65;
+    /**
+     * The number of changes shown on each page of the search result.
+     */
+    static final int PAGE_SIZE = Integer.getInteger(ManualTriggerAction.class.getName() + ".pageSize", 50);
 
     @Override
     public String getIconFileName() {
@@ -328,12 +335,76 @@ public class ManualTriggerAction implements RootAction {
         IGerritHudsonTriggerConfig config = getServerConfig(selectedServer);
 
         if (config != null) {
-            GerritQueryHandler handler = new GerritQueryHandler(config);
             clearSessionData(session);
             session.setAttribute("queryString", queryString);
+            search(session, config, selectedServer, queryString, allPatchSets, 0);
+            response.sendRedirect2(".");
+        } else {
+            logger.error("Could not find config for the server {}", selectedServer);
+        }
+    }
 
-            try {
-                List<JSONObject> json = handler.queryJava(queryString, allPatchSets, true, false, true);
+    /**
+     * Shows another page of the last search done in this session.
+     *
+     * @param page     the page to show, starting at 0.
+     * @param request  the request.
+     * @param response the response.
+     * @throws IOException if the query fails.
+     */
+    @SuppressWarnings("unused")
+    //Called from jelly
+    @POST
+    public void doGerritSearchPage(@QueryParameter("page") final int page, StaplerRequest request,
+                                   StaplerResponse response) throws IOException {
+        HttpSession session = request.getSession(true);
+        String selectedServer = (String)session.getAttribute("selectedServer");
+        String queryString = (String)session.getAttribute("queryString");
+        if (queryString == null || !isServerEnabled(selectedServer)) {
+            response.sendRedirect2(".");
+            return;
+        }
+        Jenkins.get().checkPermission(PluginImpl.MANUAL_TRIGGER);
+        IGerritHudsonTriggerConfig config = getServerConfig(selectedServer);
+        if (config != null) {
+            Boolean allPatchSets = (Boolean)session.getAttribute("allPatchSets");
+            clearSessionData(session);
+            search(session, config, selectedServer, queryString,
+                    allPatchSets != null && allPatchSets, Math.max(0, page));
+            response.sendRedirect2(".");
+        } else {
+            logger.error("Could not find config for the server {}", selectedServer);
+        }
+    }
+
+    /**
+     * Searches Gerrit and puts the requested page of the result into the session.
+     * Only as many changes as needed to fill the page are fetched, unless the query has its own limit.
+     * The largest result of each search is cached, so going back or to a page already fetched does not
+     * query Gerrit again.
+     *
+     * @param session        the HTTP session.
+     * @param config         the config of the server to search.
+     * @param selectedServer the name of the server to search.
+     * @param queryString    the query.
+     * @param allPatchSets   if all patch sets should be included.
+     * @param page           the page to show.
+     */
+    private void search(HttpSession session, IGerritHudsonTriggerConfig config, String selectedServer,
+                        String queryString, boolean allPatchSets, int page) {
+        String query = queryString;
+        int limit = 0;
+        if (!queryString.contains("limit:")) {
+            // One more than needed, to know if there is a next page.
+            limit = (page + 1) * PAGE_SIZE + 1;
+            query = queryString + " limit:" + limit;
+        }
+        try {
+            SearchResultCache cache = SearchResultCache.getInstance();
+            List<JSONObject> json = cache.get(selectedServer, queryString, allPatchSets, limit);
+            if (json == null) {
+                GerritQueryHandler handler = new GerritQueryHandler(config);
+                json = handler.queryJava(query, allPatchSets, true, false, true);
                 if (!allPatchSets) {
                     for (JSONObject j : json) {
                         if (j.containsKey("id")) {
@@ -343,22 +414,63 @@ public class ManualTriggerAction implements RootAction {
                         }
                     }
                 }
-                session.setAttribute(SESSION_RESULT, json);
-                //TODO Implement some smart default selection.
-                //That can notice that a specific revision is searched or that there is only one result etc.
-            } catch (GerritQueryException gqe) {
-                logger.debug("Bad query {}", gqe);
-                session.setAttribute(SESSION_SEARCH_ERROR, gqe);
-            } catch (Exception ex) {
-                logger.warn("Could not query Gerrit for [" + queryString + "]", ex);
-                session.setAttribute(SESSION_SEARCH_ERROR, ex);
+                json = cache.put(selectedServer, queryString, allPatchSets, limit, json);
             }
-            response.sendRedirect2(".");
-        } else {
-            logger.error("Could not find config for the server {}", selectedServer);
+            session.setAttribute(SESSION_RESULT, getPage(json, page, PAGE_SIZE));
+            session.setAttribute(SESSION_PAGE, page);
+            session.setAttribute(SESSION_HAS_NEXT_PAGE, countChanges(json) > (page + 1) * PAGE_SIZE);
+            //TODO Implement some smart default selection.
+            //That can notice that a specific revision is searched or that there is only one result etc.
+        } catch (GerritQueryException gqe) {
+            logger.debug("Bad query {}", gqe);
+            session.setAttribute(SESSION_SEARCH_ERROR, gqe);
+        } catch (Exception ex) {
+            logger.warn("Could not query Gerrit for [" + queryString + "]", ex);
+            session.setAttribute(SESSION_SEARCH_ERROR, ex);
         }
     }
 
+    /**
+     * The changes on one page of a search result, without the statistics rows.
+     *
+     * @param result   the search result.
+     * @param page     the page, starting at 0.
+     * @param pageSize the number of changes on a page.
+     * @return the changes on the page.
+     */
+    static List<JSONObject> getPage(List<JSONObject> result, int page, int pageSize) {
+        List<JSONObject> changes = new ArrayList<JSONObject>(pageSize);
+        int skip = page * pageSize;
+        for (JSONObject res : result) {
+            if (!res.has("type")) {
+                if (skip > 0) {
+                    skip--;
+                } else if (changes.size() < pageSize) {
+                    changes.add(res);
+                } else {
+                    break;
+                }
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * The number of changes in a search result, not counting the statistics rows.
+     *
+     * @param result the search result.
+     * @return the number of changes.
+     */
+    static int countChanges(List<JSONObject> result) {
+        int count = 0;
+        for (JSONObject res : result) {
+            if (!res.has("type")) {
+                count++;
+            }
+        }
+        return count;
+    }
+
     /**
      * Builds the selected patch-set(s).
      *
@@ -405,7 +517,8 @@ public class ManualTriggerAction implements RootAction {
             session.setAttribute(SESSION_TRIGGER_MONITOR, monitor);
             logger.trace("Calling to index the search result.");
             HashMap<String, JSONObject> indexed = indexResult(result);
-            logger.debug("Creating and triggering events.");
+            logger.debug("Creating events.");
+            List<ManualPatchsetCreated> events = new ArrayList<ManualPatchsetCreated>(selectedRows.length);
             for (String rowId : selectedRows) {
                 ManualPatchsetCreated event = findAndCreatePatchSetEvent(rowId, indexed);
                 logger.debug("Created event: {}", event);
@@ -414,6 +527,15 @@ public class ManualTriggerAction implements RootAction {
                         event.setProvider(createProviderFromGerritServer(selectedServer));
                     }
                     monitor.add(event);
+                    events.add(event);
+                }
+            }
+            logger.debug("Triggering {} events.", events.size());
+            BulkManualTrigger bulk = BulkManualTrigger.start(events);
+            if (bulk != null) {
+                session.setAttribute(SESSION_BULK_TRIGGER, bulk);
+            } else {
+                for (ManualPatchsetCreated event : events) {
                     logger.trace("Triggering event: {}", event);
                     triggerEvent(event);
                 }
@@ -432,7 +554,10 @@ public class ManualTriggerAction implements RootAction {
         session.removeAttribute(SESSION_SEARCH_ERROR);
         session.removeAttribute(SESSION_BUILD_ERROR);
         session.removeAttribute(SESSION_RESULT);
+        session.removeAttribute(SESSION_PAGE);
+        session.removeAttribute(SESSION_HAS_NEXT_PAGE);
         session.removeAttribute(SESSION_TRIGGER_MONITOR);
+        session.removeAttribute(SESSION_BULK_TRIGGER);
     }
 
     /**
@@ -0,0 +1,168 @@
+/*
+ *  The MIT License
+ *
+ *  Copyright 2026 agent. All rights reserved.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.actions.manual;
+
+import com.sonyericsson.hudson.plugins.gerrit.trigger.utils.BoundedLinkedHashMap;
+import net.sf.json.JSONObject;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Short lived cache of manual trigger search results, shared between users.
+ * All users search with the credentials of the Gerrit server, so they would get the same result anyway.
+ * Only the largest result fetched for a query is kept, so that the pages of a search can be sliced from it
+ * instead of being fetched again with a higher limit.
+ * The cached results are not modified after they are put here.
+ *
+ * @author agent &lt;agent@local&gt;
+ */
+final class SearchResultCache {
+
+    private static final long DEFAULT_EXPIRE_SECONDS = 30;
+    private static final int MAX_ENTRIES = 50;
+
+    private static final SearchResultCache INSTANCE = new SearchResultCache(TimeUnit.SECONDS.toMillis(
+            Long.getLong(SearchResultCache.class.getName() + ".expireSeconds", DEFAULT_EXPIRE_SECONDS)));
+
+    private final long expireMillis;
+    private final Map<String, Entry> entries = new BoundedLinkedHashMap<String, Entry>(MAX_ENTRIES);
+
+    /**
+     * Constructor.
+     *
+     * @param expireMillis how long a result is used.
+     */
+    SearchResultCache(long expireMillis) {
+        this.expireMillis = expireMillis;
+    }
+
+    /**
+     * The singleton instance.
+     *
+     * @return the instance.
+     */
+    static SearchResultCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * The cached result of the search, if it has at least as many changes as asked for
+     * or all the changes there are.
+     *
+     * @param serverName the server searched.
+     * @param query the query, without the added limit.
+     * @param allPatchSets if all patch sets were included.
+     * @param limit the number of changes needed, 0 for all.
+     * @return the result or null if not cached.
+     */
+    synchronized List<JSONObject> get(String serverName, String query, boolean allPatchSets, int limit) {
+        String key = getKey(serverName, query, allPatchSets);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expires < System.currentTimeMillis()) {
+            entries.remove(key);
+            return null;
+        }
+        if (entry.covers(limit)) {
+            return entry.result;
+        }
+        return null;
+    }
+
+    /**
+     * Caches the result of a search, unless a larger result of the same search is cached already.
+     *
+     * @param serverName the server searched.
+     * @param query the query, without the added limit.
+     * @param allPatchSets if all patch sets were included.
+     * @param limit the limit the result was fetched with, 0 for none.
+     * @param result the result.
+     * @return the cached, unmodifiable, result.
+     */
+    synchronized List<JSONObject> put(String serverName, String query, boolean allPatchSets, int limit,
+                                      List<JSONObject> result) {
+        String key = getKey(serverName, query, allPatchSets);
+        Entry existing = entries.get(key);
+        long now = System.currentTimeMillis();
+        if (existing != null && existing.expires >= now && existing.covers(limit)) {
+            return existing.result;
+        }
+        List<JSONObject> cached = Collections.unmodifiableList(result);
+        boolean complete = limit <= 0 || ManualTriggerAction.countChanges(result) < limit;
+        entries.put(key, new Entry(cached, limit, complete, now + expireMillis));
+        return cached;
+    }
+
+    /**
+     * The cache key.
+     *
+     * @param serverName the server searched.
+     * @param query the full query.
+     * @param allPatchSets if all patch sets were included.
+     * @return the key.
+     */
+    private static String getKey(String serverName, String query, boolean allPatchSets) {
+        return serverName + "\n" + allPatchSets + "\n" + query;
+    }
+
+    /**
+     * A cached result.
+     */
+    private static final class Entry {
+        private final List<JSONObject> result;
+        private final int limit;
+        private final boolean complete;
+        private final long expires;
+
+        /**
+         * Constructor.
+         *
+         * @param result the result.
+         * @param limit the limit it was fetched with, 0 for none.
+         * @param complete if it has all the changes there are.
+         * @param expires when to stop using it.
+         */
+        private Entry(List<JSONObject> result, int limit, boolean complete, long expires) {
+            this.result = result;
+            this.limit = limit;
+            this.complete = complete;
+            this.expires = expires;
+        }
+
+        /**
+         * If this result is at least as large as one fetched with the limit.
+         *
+         * @param otherLimit the other limit, 0 for none.
+         * @return true if so.
+         */
+        private boolean covers(int otherLimit) {
+            return complete || (otherLimit > 0 && limit >= otherLimit);
+        }
+    }
+}
@@ -25,8 +25,8 @@
 package com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.actions.manual;
 
 import com.sonymobile.tools.gerrit.gerritevents.dto.GerritEvent;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.events.lifecycle.CoalescingGerritEventLifecycleListener;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.events.lifecycle.GerritEventLifecycle;
-import com.sonyericsson.hudson.plugins.gerrit.trigger.events.lifecycle.GerritEventLifecycleListener;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.data.TriggeredItemEntity;
 
 import hudson.model.BallColor;
@@ -40,9 +40,11 @@ import java.util.List;
 
 /**
  * Keeps track of the lifecycle of a GerritEvent.
+ * It is only used to display the state in the UI, so it is notified asynchronously
+ * and only about the latest state of each project.
  * @author Robert Sandell &lt;robert.sandell@sonyericsson.com&gt;
  */
-public class TriggerMonitor implements GerritEventLifecycleListener {
+public class TriggerMonitor implements CoalescingGerritEventLifecycleListener {
 
     private List<EventState> events = new LinkedList<EventState>();
 
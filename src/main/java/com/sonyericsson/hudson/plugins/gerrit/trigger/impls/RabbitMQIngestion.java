@@ -0,0 +1,291 @@
+/*
+ *  The MIT License
+ *
+ *  Copyright 2026 agent. All rights reserved.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package com.sonyericsson.hudson.plugins.gerrit.trigger.impls;
+
+import com.sonyericsson.hudson.plugins.gerrit.trigger.JenkinsAwareGerritHandler;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.events.source.GerritEventSource;
+import com.sonymobile.tools.gerrit.gerritevents.GerritHandler;
+import com.sonymobile.tools.gerrit.gerritevents.GerritJsonEventFactory;
+import com.sonymobile.tools.gerrit.gerritevents.Handler;
+import com.sonymobile.tools.gerrit.gerritevents.dto.GerritEvent;
+import com.sonymobile.tools.gerrit.gerritevents.dto.attr.Provider;
+import com.sonymobile.tools.gerrit.gerritevents.dto.events.GerritTriggeredEvent;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import net.sf.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feeds the messages received by {@link RabbitMQMessageListenerImpl} to the handler in batches.
+ *
+ * Received messages are put on a bounded queue that a single thread drains a batch at a time,
+ * decoding and parsing the events off the consumer thread. Only so many events are allowed to wait
+ * in the handler at the same time; when the workers fall behind the drain thread waits, the queue
+ * fills up and the consumer thread is blocked on it, so that consumption pauses instead of the
+ * backlog piling up on the heap.
+ *
+ * Enabled with the system property
+ * {@code com.sonyericsson.hudson.plugins.gerrit.trigger.impls.RabbitMQMessageListenerImpl.batched}.
+ *
+ * @author agent &lt;agent@local&gt;
+ */
+public final class RabbitMQIngestion {
+
+    //Not RabbitMQMessageListenerImpl.class.getName(), that would need the optional RabbitMQ Consumer plugin.
+    private static final String PROPERTY_PREFIX =
+            "com.sonyericsson.hudson.plugins.gerrit.trigger.impls.RabbitMQMessageListenerImpl";
+
+    /**
+     * If messages should be ingested through the bounded queue instead of posted one by one.
+     */
+    static final boolean ENABLED = Boolean.getBoolean(PROPERTY_PREFIX + ".batched");
+
+    /**
+     * The number of received messages that can wait to be parsed before consumption is paused.
+     */
+    static final int QUEUE_CAPACITY = Integer.getInteger(PROPERTY_PREFIX + ".queueCapacity", 1000);
+
+    /**
+     * The most messages parsed and posted in one go.
+     */
+    static final int BATCH_SIZE = Integer.getInteger(PROPERTY_PREFIX + ".batchSize", 100);
+
+    /**
+     * The number of posted events that can wait for the handler workers before the drain thread waits.
+     */
+    static final int MAX_IN_FLIGHT = Integer.getInteger(PROPERTY_PREFIX + ".maxInFlight", 500);
+
+    /**
+     * How long to wait for the handler workers before posting anyway,
+     * in case a notification about a handled event was lost.
+     */
+    private static final long IN_FLIGHT_WAIT_SECONDS = 60;
+
+    private static final Logger logger = LoggerFactory.getLogger(RabbitMQIngestion.class);
+    private static RabbitMQIngestion instance;
+
+    private final BlockingQueue<Message> queue;
+    private final int batchSize;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private volatile Thread drainer;
+
+    /**
+     * Constructor.
+     *
+     * @param queueCapacity the number of messages that can wait to be parsed.
+     * @param batchSize the most messages parsed and posted in one go.
+     * @param maxInFlight the number of events that can wait for the handler workers.
+     */
+    RabbitMQIngestion(int queueCapacity, int batchSize, int maxInFlight) {
+        this.queue = new ArrayBlockingQueue<Message>(queueCapacity);
+        this.batchSize = batchSize;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * The running instance, started on first use.
+     *
+     * @return the instance.
+     */
+    static synchronized RabbitMQIngestion getInstance() {
+        if (instance == null) {
+            instance = new RabbitMQIngestion(QUEUE_CAPACITY, BATCH_SIZE, MAX_IN_FLIGHT);
+            instance.start();
+        }
+        return instance;
+    }
+
+    /**
+     * Stops the running instance if there is one.
+     * Messages that have not been posted yet are dropped.
+     */
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            instance.stop();
+            instance = null;
+        }
+    }
+
+    /**
+     * Starts the thread that drains the queue.
+     */
+    void start() {
+        Thread thread = new NamingThreadFactory(new DaemonThreadFactory(), RabbitMQIngestion.class.getSimpleName())
+                .newThread(this::drain);
+        drainer = thread;
+        thread.start();
+    }
+
+    /**
+     * Stops the thread that drains the queue.
+     */
+    void stop() {
+        Thread thread = drainer;
+        drainer = null;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        int dropped = queue.size();
+        queue.clear();
+        if (dropped > 0) {
+            logger.warn("Dropped {} received messages that were not yet posted.", dropped);
+        }
+    }
+
+    /**
+     * Puts a received message on the queue, waiting for room when the queue is full.
+     *
+     * @param handler the handler to post the event to.
+     * @param body the message body.
+     * @param provider the provider of the event.
+     * @throws InterruptedException if interrupted while waiting for room.
+     */
+    void put(Handler handler, byte[] body, Provider provider) throws InterruptedException {
+        queue.put(new Message(handler, body, provider));
+    }
+
+    /**
+     * The number of messages waiting to be parsed.
+     *
+     * @return the number of messages.
+     */
+    int getQueued() {
+        return queue.size();
+    }
+
+    /**
+     * The number of posted events that the handler workers have not finished yet.
+     *
+     * @return the number of events.
+     */
+    int getInFlight() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+
+    /**
+     * The work of the drain thread.
+     */
+    private void drain() {
+        List<Message> batch = new ArrayList<Message>(batchSize);
+        while (drainer == Thread.currentThread()) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - 1);
+                for (Message message : batch) {
+                    post(message);
+                }
+            } catch (InterruptedException e) {
+                logger.debug("Interrupted while draining received messages.");
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Failed to post received messages.", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Parses the message and posts the event to the handler.
+     *
+     * @param message the message.
+     * @throws InterruptedException if interrupted while waiting for the handler workers.
+     */
+    void post(Message message) throws InterruptedException {
+        String line = new String(message.body, StandardCharsets.UTF_8);
+        if (!(message.handler instanceof GerritHandler)) {
+            message.handler.post(line, message.provider);
+            return;
+        }
+        GerritEventSource.fireReceived(message.provider, line);
+        JSONObject json;
+        try {
+            json = GerritJsonEventFactory.getJsonObjectIfInterestingAndUsable(line);
+        } catch (Exception ex) {
+            logger.warn("Unanticipated error when creating DTO representation of JSON string.", ex);
+            return;
+        }
+        if (json == null) {
+            logger.debug("Message is not an interesting event: {}", line);
+            return;
+        }
+        GerritEvent event = GerritJsonEventFactory.getEvent(json);
+        if (event == null) {
+            return;
+        }
+        if (event instanceof GerritTriggeredEvent) {
+            ((GerritTriggeredEvent)event).setProvider(message.provider);
+        }
+        if (message.handler instanceof JenkinsAwareGerritHandler) {
+            if (!inFlight.tryAcquire(IN_FLIGHT_WAIT_SECONDS, TimeUnit.SECONDS)) {
+                logger.warn("The handler workers have not caught up in {} seconds, posting anyway.",
+                        IN_FLIGHT_WAIT_SECONDS);
+                ((GerritHandler)message.handler).post(event);
+                return;
+            }
+            try {
+                ((JenkinsAwareGerritHandler)message.handler).post(event, inFlight::release);
+            } catch (RuntimeException e) {
+                inFlight.release();
+                throw e;
+            }
+        } else {
+            ((GerritHandler)message.handler).post(event);
+        }
+    }
+
+    /**
+     * A received message waiting to be parsed.
+     */
+    static final class Message {
+        private final Handler handler;
+        private final byte[] body;
+        private final Provider provider;
+
+        /**
+         * Constructor.
+         *
+         * @param handler the handler to post the event to.
+         * @param body the message body.
+         * @param provider the provider of the event.
+         */
+        Message(Handler handler, byte[] body, Provider provider) {
+            this.handler = handler;
+            this.body = body;
+            this.provider = provider;
+        }
+    }
+}
@@ -88,34 +88,28 @@ public class RabbitMQMessageListenerImpl extends MessageQueueListener {
     public void onReceive(String queueName, String contentType, Map<String, Object> headers, byte[] body) {
         if (queueNames.contains(queueName) && JSON_CONTENTTYPE.equals(contentType)) {
             logger.debug("Message received.");
-            Provider provider = new Provider();
-            if (headers != null) {
-                if (headers.containsKey(GERRIT_NAME)) {
-                    provider.setName(headers.get(GERRIT_NAME).toString());
-                }
-                if (headers.containsKey(GERRIT_HOST)) {
-                    provider.setHost(headers.get(GERRIT_HOST).toString());
-                }
-                if (headers.containsKey(GERRIT_SCHEME)) {
-                    provider.setScheme(headers.get(GERRIT_SCHEME).toString());
-                }
-                if (headers.containsKey(GERRIT_PORT)) {
-                    provider.setPort(headers.get(GERRIT_PORT).toString());
-                }
-                if (headers.containsKey(GERRIT_FRONT_URL)) {
-                    provider.setUrl(headers.get(GERRIT_FRONT_URL).toString());
-                }
-                if (headers.containsKey(GERRIT_VERSION)) {
-                    provider.setVersion(headers.get(GERRIT_VERSION).toString());
-                }
-            }
-
             if (api == null) {
                 api = new GerritTriggerApi();
             }
+            Handler handler;
             try {
-                Handler handler = api.getHandler();
-                handler.post(new String(body, StandardCharsets.UTF_8), provider);
+                handler = api.getHandler();
+            } catch (Exception ex) {
+                logger.warn("No handler for Gerrit Trigger. Message would be lost.");
+                return;
+            }
+            if (RabbitMQIngestion.ENABLED) {
+                RabbitMQIngestion ingestion = RabbitMQIngestion.getInstance();
+                try {
+                    ingestion.put(handler, body, createProvider(headers));
+                } catch (InterruptedException ex) {
+                    logger.warn("Interrupted while waiting to queue the message. Message would be lost.");
+                    Thread.currentThread().interrupt();
+                }
+                return;
+            }
+            try {
+                handler.post(new String(body, StandardCharsets.UTF_8), createProvider(headers));
             } catch (Exception ex) {
                 logger.warn("No handler for Gerrit Trigger. Message would be lost.");
             }
@@ -123,4 +117,35 @@ public class RabbitMQMessageListenerImpl extends MessageQueueListener {
             logger.debug("Message from unknown queue or unknown content type. This will be discarded.");
         }
     }
+
+    /**
+     * Creates the provider of an event from the headers of the message.
+     *
+     * @param headers the message headers, can be null.
+     * @return the provider.
+     */
+    static Provider createProvider(Map<String, Object> headers) {
+        Provider provider = new Provider();
+        if (headers != null) {
+            if (headers.containsKey(GERRIT_NAME)) {
+                provider.setName(headers.get(GERRIT_NAME).toString());
+            }
+            if (headers.containsKey(GERRIT_HOST)) {
+                provider.setHost(headers.get(GERRIT_HOST).toString());
+            }
+            if (headers.containsKey(GERRIT_SCHEME)) {
+                provider.setScheme(headers.get(GERRIT_SCHEME).toString());
+            }
+            if (headers.containsKey(GERRIT_PORT)) {
+                provider.setPort(headers.get(GERRIT_PORT).toString());
+            }
+            if (headers.containsKey(GERRIT_FRONT_URL)) {
+                provider.setUrl(headers.get(GERRIT_FRONT_URL).toString());
+            }
+            if (headers.containsKey(GERRIT_VERSION)) {
+                provider.setVersion(headers.get(GERRIT_VERSION).toString());
+            }
+        }
+        return provider;
+    }
 }
@@ -0,0 +1,247 @@
+/*
+ *  The MIT License
+ *
+ *  Copyright 2026 agent. All rights reserved.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package com.sonyericsson.hudson.plugins.gerrit.trigger.playback;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Append-only journal of the last-alive checkpoint of one server,
+ * the timestamp of the latest events and the identities of the events with that timestamp.
+ *
+ * Each record is one line, either <code>T &lt;timestamp&gt;</code> that starts a new time slice
+ * or <code>E &lt;identity&gt;</code> that adds an event to the current time slice.
+ * Only what is new since the last write is appended, all of it with one sync to disk,
+ * and the file is compacted into the current time slice when it has grown long enough.
+ * A record that was not completely written is ignored when reading.
+ *
+ * @author agent &lt;agent@local&gt;
+ */
+final class CheckpointJournal {
+
+    /**
+     * The number of records written before the journal is compacted.
+     */
+    static final int COMPACT_AFTER_RECORDS =
+            Integer.getInteger(CheckpointJournal.class.getName() + ".compactAfterRecords", 1000);
+
+    private static final String TIME_SLICE = "T ";
+    private static final String EVENT = "E ";
+
+    private final File file;
+    private final int compactAfterRecords;
+    private long writtenTimeSlice = -1;
+    private final Set<String> writtenIds = new HashSet<String>();
+    private int records = 0;
+    private boolean compactionNeeded = false;
+
+    /**
+     * Constructor.
+     *
+     * @param file the journal file.
+     */
+    CheckpointJournal(File file) {
+        this(file, COMPACT_AFTER_RECORDS);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param file the journal file.
+     * @param compactAfterRecords the number of records written before the journal is compacted.
+     */
+    CheckpointJournal(File file, int compactAfterRecords) {
+        this.file = file;
+        this.compactAfterRecords = compactAfterRecords;
+    }
+
+    /**
+     * The journal file.
+     *
+     * @return the file.
+     */
+    File getFile() {
+        return file;
+    }
+
+    /**
+     * Reads the last checkpoint in the journal.
+     *
+     * @return the time slice or null if there is none.
+     * @throws IOException if the file could not be read.
+     */
+    synchronized EventTimeSlice read() throws IOException {
+        writtenTimeSlice = -1;
+        writtenIds.clear();
+        records = 0;
+        compactionNeeded = false;
+        if (!file.exists()) {
+            return null;
+        }
+        String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        int end = content.lastIndexOf('\n') + 1;
+        if (end < content.length()) {
+            // The last record was not completely written, get rid of it before appending more.
+            compactionNeeded = true;
+        }
+        EventTimeSlice slice = null;
+        int start = 0;
+        while (start < end) {
+            int lineEnd = content.indexOf('\n', start);
+            String line = content.substring(start, lineEnd);
+            start = lineEnd + 1;
+            records++;
+            if (line.startsWith(TIME_SLICE)) {
+                try {
+                    slice = new EventTimeSlice(Long.parseLong(line.substring(TIME_SLICE.length())));
+                } catch (NumberFormatException e) {
+                    compactionNeeded = true;
+                }
+            } else if (line.startsWith(EVENT) && slice != null) {
+                slice.addEventId(line.substring(EVENT.length()));
+            } else {
+                compactionNeeded = true;
+            }
+        }
+        if (slice != null) {
+            writtenTimeSlice = slice.getTimeSlice();
+            writtenIds.addAll(slice.getEventIds());
+        }
+        return slice;
+    }
+
+    /**
+     * Writes what is new in the time slice since the last write, nothing if nothing is new.
+     *
+     * @param slice the current time slice.
+     * @return true if anything was written.
+     * @throws IOException if the file could not be written.
+     */
+    synchronized boolean write(EventTimeSlice slice) throws IOException {
+        List<String> ids = slice.getEventIds();
+        StringBuilder str = new StringBuilder();
+        int added = 0;
+        if (slice.getTimeSlice() != writtenTimeSlice) {
+            str.append(TIME_SLICE).append(slice.getTimeSlice()).append('\n');
+            added++;
+            for (String id : ids) {
+                str.append(EVENT).append(id).append('\n');
+                added++;
+            }
+        } else {
+            for (String id : ids) {
+                if (!writtenIds.contains(id)) {
+                    str.append(EVENT).append(id).append('\n');
+                    added++;
+                }
+            }
+        }
+        if (added == 0 && !compactionNeeded) {
+            return false;
+        }
+        try {
+            if (compactionNeeded || records + added > compactAfterRecords) {
+                compact(slice, ids);
+            } else {
+                write(file, str.toString(), true);
+                records += added;
+            }
+        } catch (IOException e) {
+            // Part of a record could have been written, start over with a clean file next time.
+            compactionNeeded = true;
+            throw e;
+        }
+        if (slice.getTimeSlice() != writtenTimeSlice) {
+            writtenTimeSlice = slice.getTimeSlice();
+            writtenIds.clear();
+        }
+        writtenIds.addAll(ids);
+        return true;
+    }
+
+    /**
+     * Replaces the journal with one that only holds the current time slice.
+     *
+     * @param slice the current time slice.
+     * @param ids the identities of the events in the time slice.
+     * @throws IOException if the file could not be written.
+     */
+    private void compact(EventTimeSlice slice, List<String> ids) throws IOException {
+        StringBuilder str = new StringBuilder();
+        str.append(TIME_SLICE).append(slice.getTimeSlice()).append('\n');
+        for (String id : ids) {
+            str.append(EVENT).append(id).append('\n');
+        }
+        File tmp = new File(file.getParentFile(), file.getName() + ".tmp");
+        write(tmp, str.toString(), false);
+        try {
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        records = ids.size() + 1;
+        compactionNeeded = false;
+    }
+
+    /**
+     * Writes the records to the file and syncs them to disk.
+     *
+     * @param target the file.
+     * @param content the records.
+     * @param append if the records should be appended to the file.
+     * @throws IOException if the file could not be written.
+     */
+    private static void write(File target, String content, boolean append) throws IOException {
+        File parent = target.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Could not create " + parent);
+        }
+        try (FileOutputStream out = new FileOutputStream(target, append)) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+            out.getChannel().force(false);
+        }
+    }
+
+    /**
+     * Deletes the journal.
+     *
+     * @return true if it was deleted.
+     */
+    synchronized boolean delete() {
+        writtenTimeSlice = -1;
+        writtenIds.clear();
+        records = 0;
+        compactionNeeded = false;
+        return file.delete();
+    }
+}
@@ -21,17 +21,26 @@
  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
  * THE SOFTWARE.
  */
-
 package com.sonyericsson.hudson.plugins.gerrit.trigger.playback;
 
+import com.sonymobile.tools.gerrit.gerritevents.dto.GerritEventType;
+import com.sonymobile.tools.gerrit.gerritevents.dto.attr.Account;
+import com.sonymobile.tools.gerrit.gerritevents.dto.attr.Change;
+import com.sonymobile.tools.gerrit.gerritevents.dto.attr.PatchSet;
+import com.sonymobile.tools.gerrit.gerritevents.dto.attr.RefUpdate;
+import com.sonymobile.tools.gerrit.gerritevents.dto.events.ChangeBasedEvent;
+import com.sonymobile.tools.gerrit.gerritevents.dto.events.CommentAdded;
 import com.sonymobile.tools.gerrit.gerritevents.dto.events.GerritTriggeredEvent;
+import com.sonymobile.tools.gerrit.gerritevents.dto.events.RefUpdated;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
- * This class holds events that were processed by the MissedEventPlaybackManager
+ * This class holds the identities of the events that were processed by the MissedEventPlaybackManager
  * for the most recent timestamp.
  *
  * For example, if 3 events were received at t1, they would be present in the Event Slice.
@@ -42,11 +51,16 @@ import java.util.List;
  */
 public class EventTimeSlice {
 
+    private static final char SEPARATOR = '|';
+
     private long timeSlice;
     /**
      * events to persist.
+     * @deprecated only the identities of the events are kept, this is read from old data files.
      */
-    protected List<GerritTriggeredEvent> events = Collections.synchronizedList(new ArrayList<GerritTriggeredEvent>());
+    @Deprecated
+    protected List<GerritTriggeredEvent> events;
+    private Set<String> eventIds = Collections.synchronizedSet(new LinkedHashSet<String>());
 
     /**
      *
@@ -56,6 +70,24 @@ public class EventTimeSlice {
         this.timeSlice = ts;
     }
 
+    /**
+     * Converts the events read from an old data file into identities.
+     *
+     * @return this object.
+     */
+    protected Object readResolve() {
+        if (eventIds == null) {
+            eventIds = Collections.synchronizedSet(new LinkedHashSet<String>());
+        }
+        if (events != null) {
+            for (GerritTriggeredEvent event : events) {
+                addEvent(event);
+            }
+            events = null;
+        }
+        return this;
+    }
+
     /**
      * Get the time slice in ms.
      * @return this time slice
@@ -68,15 +100,97 @@ public class EventTimeSlice {
      * @param evt Event to be persisted.
      */
     public void addEvent(GerritTriggeredEvent evt) {
-        events.add(evt);
+        eventIds.add(identityOf(evt));
+    }
+
+    /**
+     * Add the identity of an event.
+     * @param eventId the identity as given by {@link #identityOf(GerritTriggeredEvent)}.
+     */
+    void addEventId(String eventId) {
+        eventIds.add(eventId);
+    }
+
+    /**
+     * If the event is in this time slice.
+     * @param evt the event.
+     * @return true if so.
+     */
+    public boolean containsEvent(GerritTriggeredEvent evt) {
+        return eventIds.contains(identityOf(evt));
+    }
+
+    /**
+     * The identities of the events in this time slice.
+     * @return a copy of the identities, in the order added.
+     */
+    public List<String> getEventIds() {
+        synchronized (eventIds) {
+            return new ArrayList<String>(eventIds);
+        }
     }
 
     /**
      * get the events for this time slice.
-     * @return events that pertain to the time slice.
+     * @return an empty list, only the identities of the events are kept.
+     * @deprecated use {@link #containsEvent(GerritTriggeredEvent)} or {@link #getEventIds()}.
      */
+    @Deprecated
     public List<GerritTriggeredEvent> getEvents() {
-        return events;
+        return Collections.emptyList();
+    }
+
+    /**
+     * What tells an event apart from other events with the same timestamp from the same server,
+     * so that the same event coming from the stream and from the events-log plugin is seen as one.
+     *
+     * @param evt the event.
+     * @return the identity, a single line of text.
+     */
+    public static String identityOf(GerritTriggeredEvent evt) {
+        StringBuilder str = new StringBuilder();
+        GerritEventType type = evt.getEventType();
+        if (type != null) {
+            str.append(type.getTypeValue());
+        } else {
+            str.append(evt.getClass().getSimpleName());
+        }
+        str.append(SEPARATOR);
+        if (evt.getEventCreatedOn() != null) {
+            str.append(evt.getEventCreatedOn().getTime());
+        }
+        str.append(SEPARATOR);
+        Account account = evt.getAccount();
+        if (account != null) {
+            str.append(account.getEmail());
+        }
+        if (evt instanceof ChangeBasedEvent) {
+            Change change = ((ChangeBasedEvent)evt).getChange();
+            PatchSet patchSet = ((ChangeBasedEvent)evt).getPatchSet();
+            if (change != null) {
+                str.append(SEPARATOR).append(change.getProject()).append(SEPARATOR).append(change.getNumber());
+            }
+            if (patchSet != null) {
+                str.append(SEPARATOR).append(patchSet.getNumber());
+            }
+        } else if (evt instanceof RefUpdated) {
+            RefUpdate refUpdate = ((RefUpdated)evt).getRefUpdate();
+            if (refUpdate != null) {
+                str.append(SEPARATOR).append(refUpdate.getProject())
+                        .append(SEPARATOR).append(refUpdate.getRefName())
+                        .append(SEPARATOR).append(refUpdate.getNewRev());
+            }
+        }
+        if (evt instanceof CommentAdded && ((CommentAdded)evt).getComment() != null) {
+            str.append(SEPARATOR).append(Integer.toHexString(((CommentAdded)evt).getComment().hashCode()));
+        }
+        // Keep it to one line for the journal.
+        for (int i = 0; i < str.length(); i++) {
+            if (Character.isISOControl(str.charAt(i))) {
+                str.setCharAt(i, ' ');
+            }
+        }
+        return str.toString();
     }
 
     /**
@@ -87,8 +201,8 @@ public class EventTimeSlice {
    public static EventTimeSlice shallowCopy(EventTimeSlice ets) {
        long initialTs = ets.getTimeSlice();
        EventTimeSlice nets = new EventTimeSlice(initialTs);
-       for (GerritTriggeredEvent event : ets.getEvents()) {
-           nets.addEvent(event);
+       for (String eventId : ets.getEventIds()) {
+           nets.addEventId(eventId);
        }
        return nets;
    }
@@ -40,6 +40,8 @@ import com.sonymobile.tools.gerrit.gerritevents.dto.events.GerritTriggeredEvent;
 
 import hudson.Util;
 import hudson.XmlFile;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
 import net.sf.json.JSONObject;
 
 import org.apache.commons.io.IOUtils;
@@ -60,13 +62,19 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import edu.umd.cs.findbugs.annotations.CheckForNull;
 
@@ -91,23 +99,51 @@ public class GerritMissedEventsPlaybackManager implements ConnectionListener, Na
     static final String EVENTS_LOG_PLUGIN_NAME = "events-log";
     private static final String EVENTS_LOG_PLUGIN_URL = "a/plugins/" + EVENTS_LOG_PLUGIN_NAME + "/events/";
     private static final String GERRIT_TRIGGER_SERVER_TIMESTAMPS_XML = "gerrit-trigger-server-timestamps.xml";
+    private static final String XML_SUFFIX = ".xml";
+    private static final String JOURNAL_SUFFIX = ".journal";
+    /**
+     * The longest time in minutes a playback may go without progress before it is given up.
+     */
+    static final long PLAYBACK_TIMEOUT_MINUTES =
+            Long.getLong(GerritMissedEventsPlaybackManager.class.getName() + ".playbackTimeoutMinutes", 30);
+    /**
+     * The length in minutes of the time windows the missed events are requested in.
+     */
+    static final long PLAYBACK_WINDOW_MINUTES =
+            Long.getLong(GerritMissedEventsPlaybackManager.class.getName() + ".playbackWindowMinutes", 60);
+    /**
+     * The most time windows in one playback, the windows are made longer if needed.
+     */
+    static final int MAX_PLAYBACK_WINDOWS =
+            Integer.getInteger(GerritMissedEventsPlaybackManager.class.getName() + ".maxPlaybackWindows", 100);
+    /**
+     * The most missed events triggered per second.
+     */
+    static final int PLAYBACK_EVENTS_PER_SECOND =
+            Integer.getInteger(GerritMissedEventsPlaybackManager.class.getName() + ".playbackEventsPerSecond", 50);
 
     private String serverName;
     /**
      * Server Timestamp.
      */
     protected EventTimeSlice serverTimestamp = null;
-    private static long previousTimeSlice = 0;
     /**
-     * List that contains received Gerrit Events.
+     * The Gerrit Events received while playing back.
      */
-    protected List<GerritTriggeredEvent> receivedEventCache
-        = Collections.synchronizedList(new ArrayList<GerritTriggeredEvent>());
+    private final ReceivedEventsMemory receivedEvents = new ReceivedEventsMemory();
 
     private boolean isSupported = false;
-    private boolean playBackComplete = false;
+    private volatile boolean playBackComplete = false;
+    private volatile boolean playBackFailed = false;
+    private volatile PlaybackProgress playBackProgress;
+    private final AtomicLong playBackGeneration = new AtomicLong();
+    private volatile long lastProgressNanos;
+    private ExecutorService playBackExecutor;
+    private ExecutorService fetchExecutor;
+    private Future<?> playBackFuture;
     private boolean previousIsSupported;
     private GerritMissedEventsPlaybackPersistRunnable persistenceCheck;
+    private CheckpointJournal journal;
 
     /**
      * @param name Gerrit Server Name.
@@ -123,7 +159,6 @@ public class GerritMissedEventsPlaybackManager implements ConnectionListener, Na
      * Start the persistenceCheck thread.
      */
     private void startPersistenceCheck() {
-        previousTimeSlice = 0;
         persistenceCheck.start();
     }
 
@@ -151,6 +186,10 @@ public class GerritMissedEventsPlaybackManager implements ConnectionListener, Na
                         config.delete();
                         logger.warn("Deleting " + config.getFile().getAbsolutePath());
                     }
+                    CheckpointJournal journal = getJournal();
+                    if (journal != null && journal.delete()) {
+                        logger.warn("Deleting " + journal.getFile().getAbsolutePath());
+                    }
                 } catch (IOException e) {
                     logger.error(e.getMessage(), e);
                 }
@@ -196,9 +235,19 @@ public class GerritMissedEventsPlaybackManager implements ConnectionListener, Na
 
     /**
      * Load in the last-alive Timestamp file.
+     * The checkpoint journal is read if there is one, otherwise the timestamp file from older versions.
      * @throws IOException is we cannot unmarshal.
      */
     protected void load() throws IOException {
+        CheckpointJournal journal = getJournal();
+        EventTimeSlice slice = null;
+        if (journal != null) {
+            slice = journal.read();
+        }
+        if (slice != null) {
+            serverTimestamp = slice;
+            return;
+        }
         XmlFile xml = getConfigXml(serverName);
         if (xml != null && xml.exists()) {
             serverTimestamp  = (EventTimeSlice)xml.unmarshal(serverTimestamp);
@@ -207,6 +256,29 @@ public class GerritMissedEventsPlaybackManager implements ConnectionListener, Na
         }
     }
 
+    /**
+     * The checkpoint journal of the server, next to the timestamp file from older versions.
+     *
+     * @return the journal or null if Jenkins is not available.
+     * @throws IOException if it occurs.
+     */
+    @CheckForNull
+    private synchronized CheckpointJournal getJournal() throws IOException {
+        if (journal == null) {
+            XmlFile xml = getConfigXml(serverName);
+            if (xml == null) {
+                return null;
+            }
+            File xmlFile = xml.getFile();
+            String name = xmlFile.getName();
+            if (name.endsWith(XML_SUFFIX)) {
+                name = name.substring(0, name.length() - XML_SUFFIX.length());
+            }
+            journal = new CheckpointJournal(new File(xmlFile.getParentFile(), name + JOURNAL_SUFFIX));
+        }
+        return journal;
+    }
+
     /**
      * get DateRange from current and last known time.
      * @return last known timestamp or current date if not found.
@@ -229,7 +301,11 @@ public class GerritMissedEventsPlaybackManager implements ConnectionListener, Na
      */
     @Override
     public void connectionEstablished() {
+        // A playback still going from before the reconnect is stopped, the new one covers its time as well.
+        final long generation = playBackGeneration.incrementAndGet();
+        cancelPlayBack();
         playBackComplete = false;
+        playBackFailed = false;
         checkIfEventsLogPluginSupported();
         if (!isSupported) {
             logger.warn("Playback of missed events not supported for server {}!", serverName);
@@ -258,52 +334,281 @@ public class GerritMissedEventsPlaybackManager implements ConnectionListener, Na
             playBackComplete = true;
             return;
         }
-        try {
-            List<GerritTriggeredEvent> events = getEventsFromDateRange(timeStampDate);
-            logger.info("({}) missed events to process for server: {} ...", events.size(), serverName);
-            for (GerritTriggeredEvent evt: events) {
-                logger.debug("({}) Processing missed event {}", serverName, evt);
-                boolean receivedEvtFound = false;
-                synchronized (receivedEventCache) {
-                  Iterator<GerritTriggeredEvent> i = receivedEventCache.iterator(); // Must be in synchronized block
-                  while (i.hasNext()) {
-                      GerritTriggeredEvent rEvt = i.next();
-                      if (rEvt.equals(evt)) {
-                        receivedEvtFound = true;
-                        break;
-                      }
-                  }
+        final Date from = timeStampDate;
+        final Date to = new Date();
+        final EventTimeSlice checkpoint = serverTimestamp;
+        // Played back on a thread of its own so that the connection can go on receiving live events.
+        synchronized (this) {
+            playBackFuture = getPlayBackExecutor().submit(new Runnable() {
+                @Override
+                public void run() {
+                    playBack(from, to, checkpoint, generation);
                 }
-                if (receivedEvtFound) {
-                    logger.debug("({}) Event already triggered...skipping trigger.", serverName);
+            });
+        }
+    }
+
+    /**
+     * Interrupts the playback in progress, if any, and drops the thread fetching its missed events
+     * since a fetch blocked on the events-log plugin might not notice being interrupted.
+     */
+    private synchronized void cancelPlayBack() {
+        if (playBackFuture != null) {
+            playBackFuture.cancel(true);
+            playBackFuture = null;
+        }
+        if (fetchExecutor != null) {
+            fetchExecutor.shutdownNow();
+            fetchExecutor = null;
+        }
+    }
+
+    /**
+     * Plays back the missed events between two points in time, one time window at a time.
+     * The events of the next window are fetched while the events of the current window are triggered.
+     *
+     * @param from the last-alive timestamp.
+     * @param to when the connection was established.
+     * @param checkpoint the time slice of the last-alive timestamp.
+     * @param generation the playback, if another playback has started since this one stops.
+     */
+    void playBack(Date from, Date to, EventTimeSlice checkpoint, long generation) {
+        List<Date[]> windows = createWindows(from, to, PLAYBACK_WINDOW_MINUTES, MAX_PLAYBACK_WINDOWS);
+        PlaybackProgress progress = new PlaybackProgress(windows.size(), System.currentTimeMillis());
+        playBackProgress = progress;
+        progressed();
+        ScheduledFuture<?> watchdog = scheduleWatchdog(generation);
+        Future<List<GerritTriggeredEvent>> next = fetch(windows.get(0));
+        try {
+            for (int i = 0; i < windows.size(); i++) {
+                List<GerritTriggeredEvent> events = next.get(PLAYBACK_TIMEOUT_MINUTES, TimeUnit.MINUTES);
+                if (i + 1 < windows.size()) {
+                    next = fetch(windows.get(i + 1));
                 } else {
+                    next = null;
+                }
+                logger.info("({}) missed events to process for server: {} ...", events.size(), serverName);
+                if (!trigger(events, checkpoint, generation, progress)) {
+                    break;
+                }
+                progress.windowCompleted();
+                progressed();
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UnsupportedEncodingException) {
+                logger.error("Error building URL for playback query: " + cause.getMessage(), cause);
+            } else {
+                logger.error("Error accessing URL for playback query: " + cause.getMessage(), cause);
+            }
+        } catch (TimeoutException e) {
+            playBackStalled(generation);
+        } catch (InterruptedException e) {
+            logger.warn("Playback of missed events for server {} was interrupted", serverName);
+            Thread.currentThread().interrupt();
+        } finally {
+            watchdog.cancel(false);
+            if (next != null) {
+                next.cancel(true);
+            }
+        }
+        if (generation != playBackGeneration.get()) {
+            logger.info("Playback for server {} stopped since a new playback has started", serverName);
+            return;
+        }
+        playBackProgress = null;
+        playBackComplete = true;
+        receivedEvents.clear();
+        if (!playBackFailed) {
+            logger.info("Processing completed for server: {}", serverName);
+        }
+    }
 
-                    //do we have this event in the time slice?
-                    long currentEventCreatedTime = evt.getEventCreatedOn().getTime();
-                    if (serverTimestamp.getTimeSlice() == currentEventCreatedTime) {
-                        if (serverTimestamp.getEvents().contains(evt)) {
-                            logger.debug("({}) Event already triggered from time slice...skipping trigger.", serverName);
-                            continue;
-                        }
-                    }
-                    logger.info("({}) Triggering: {}", serverName, evt);
-                    GerritServer server = PluginImpl.getServer_(serverName);
-                    if (server == null) {
-                        logger.error("Server for {} could not be found. Skipping this event", serverName);
-                        continue;
-                    }
-                    server.triggerEvent(evt);
-                    receivedEventCache.add(evt);
-                    logger.debug("Added event {} to received cache for server: {}", evt, serverName);
+    /**
+     * Triggers the missed events that were not already received, at most {@link #PLAYBACK_EVENTS_PER_SECOND}.
+     *
+     * @param events the missed events.
+     * @param checkpoint the time slice of the last-alive timestamp.
+     * @param generation the playback.
+     * @param progress the progress of the playback.
+     * @return false if the playback should stop.
+     * @throws InterruptedException if interrupted while waiting to trigger the next event.
+     */
+    private boolean trigger(List<GerritTriggeredEvent> events, EventTimeSlice checkpoint, long generation,
+                            PlaybackProgress progress) throws InterruptedException {
+        long interval = TimeUnit.SECONDS.toNanos(1) / Math.max(1, PLAYBACK_EVENTS_PER_SECOND);
+        long nextAt = System.nanoTime();
+        for (int i = 0; i < events.size(); i++) {
+            GerritTriggeredEvent evt = events.get(i);
+            if (playBackFailed) {
+                logger.error("({}) Playback given up, {} missed events were not processed",
+                        serverName, events.size() - i);
+                return false;
+            }
+            if (generation != playBackGeneration.get()) {
+                return false;
+            }
+            logger.debug("({}) Processing missed event {}", serverName, evt);
+            if (receivedEvents.contains(evt)) {
+                logger.debug("({}) Event already triggered...skipping trigger.", serverName);
+                progress.eventSkipped();
+                progressed();
+                continue;
+            }
+            //do we have this event in the time slice?
+            if (checkpoint != null && evt.getEventCreatedOn() != null
+                    && checkpoint.getTimeSlice() == evt.getEventCreatedOn().getTime()
+                    && checkpoint.containsEvent(evt)) {
+                logger.debug("({}) Event already triggered from time slice...skipping trigger.", serverName);
+                progress.eventSkipped();
+                progressed();
+                continue;
+            }
+            GerritServer server = PluginImpl.getServer_(serverName);
+            if (server == null) {
+                logger.error("Server for {} could not be found. Skipping this event", serverName);
+                continue;
+            }
+            long wait = nextAt - System.nanoTime();
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+            nextAt = Math.max(nextAt, System.nanoTime()) + interval;
+            logger.info("({}) Triggering: {}", serverName, evt);
+            server.triggerEvent(evt);
+            receivedEvents.add(evt);
+            progress.eventTriggered();
+            progressed();
+            logger.debug("Added event {} to received cache for server: {}", evt, serverName);
+        }
+        return true;
+    }
+
+    /**
+     * Splits the time between two points in time into windows of the given length,
+     * longer if there would be more than the given number of windows.
+     *
+     * @param from the start.
+     * @param to the end.
+     * @param windowMinutes the length of a window.
+     * @param maxWindows the most windows.
+     * @return the windows, start and end, at least one.
+     */
+    static List<Date[]> createWindows(Date from, Date to, long windowMinutes, int maxWindows) {
+        long start = from.getTime();
+        long end = to.getTime();
+        long length = Math.max(TimeUnit.MINUTES.toMillis(Math.max(1, windowMinutes)),
+                (end - start + maxWindows - 1) / Math.max(1, maxWindows));
+        List<Date[]> windows = new ArrayList<Date[]>();
+        do {
+            long windowEnd = Math.min(end, start + length);
+            windows.add(new Date[]{new Date(start), new Date(windowEnd)});
+            start = windowEnd;
+        } while (start < end);
+        return windows;
+    }
+
+    /**
+     * Starts fetching the missed events of a time window.
+     *
+     * @param window the start and end of the window.
+     * @return the events, when fetched.
+     */
+    private Future<List<GerritTriggeredEvent>> fetch(final Date[] window) {
+        return getFetchExecutor().submit(new Callable<List<GerritTriggeredEvent>>() {
+            @Override
+            public List<GerritTriggeredEvent> call() throws IOException {
+                return getEventsFromDateRange(window[0], window[1]);
+            }
+        });
+    }
+
+    /**
+     * Remembers that the playback made progress, which keeps the watchdog from giving it up.
+     */
+    private void progressed() {
+        lastProgressNanos = System.nanoTime();
+    }
+
+    /**
+     * Schedules a check every minute that calls {@link #playBackStalled(long)}
+     * if the playback has not made progress in {@link #PLAYBACK_TIMEOUT_MINUTES}.
+     *
+     * @param generation the playback.
+     * @return the scheduled check.
+     */
+    private ScheduledFuture<?> scheduleWatchdog(final long generation) {
+        return jenkins.util.Timer.get().scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                if (System.nanoTime() - lastProgressNanos > TimeUnit.MINUTES.toNanos(PLAYBACK_TIMEOUT_MINUTES)) {
+                    playBackStalled(generation);
                 }
             }
-        } catch (UnsupportedEncodingException e) {
-            logger.error("Error building URL for playback query: " + e.getMessage(), e);
-        } catch (IOException e) {
-            logger.error("Error accessing URL for playback query: " + e.getMessage(), e);
+        }, 1, 1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * The thread that plays back missed events.
+     *
+     * @return the executor.
+     */
+    private synchronized ExecutorService getPlayBackExecutor() {
+        if (playBackExecutor == null) {
+            playBackExecutor = Executors.newSingleThreadExecutor(new NamingThreadFactory(new DaemonThreadFactory(),
+                    "Gerrit missed events playback [" + serverName + "]"));
+        }
+        return playBackExecutor;
+    }
+
+    /**
+     * The thread that fetches missed events from the events-log plugin.
+     *
+     * @return the executor.
+     */
+    private synchronized ExecutorService getFetchExecutor() {
+        if (fetchExecutor == null) {
+            fetchExecutor = Executors.newSingleThreadExecutor(new NamingThreadFactory(new DaemonThreadFactory(),
+                    "Gerrit missed events fetch [" + serverName + "]"));
+        }
+        return fetchExecutor;
+    }
+
+    /**
+     * How far the current playback has come.
+     *
+     * @return the progress or null if no playback is in progress.
+     */
+    @CheckForNull
+    public PlaybackProgress getPlayBackProgress() {
+        return playBackProgress;
+    }
+
+    /**
+     * Gives up the playback when it has taken too long, most likely because the events-log plugin doesn't answer.
+     * Events from the stream are no longer remembered and the playback stops before the next missed event.
+     *
+     * @param generation the playback, nothing is done if another playback has started since.
+     */
+    void playBackStalled(long generation) {
+        if (playBackComplete || generation != playBackGeneration.get()) {
+            return;
         }
+        logger.error("Playback of missed events for server {} has not made progress in {} minutes, giving up.",
+                serverName, PLAYBACK_TIMEOUT_MINUTES);
+        playBackFailed = true;
         playBackComplete = true;
-        logger.info("Processing completed for server: {}", serverName);
+        playBackProgress = null;
+        receivedEvents.clear();
+    }
+
+    /**
+     * If the last playback was given up before it completed.
+     *
+     * @return true if so.
+     */
+    public boolean isPlayBackFailed() {
+        return playBackFailed;
     }
 
     /**
@@ -345,25 +650,12 @@ public class GerritMissedEventsPlaybackManager implements ConnectionListener, Na
             saveTimestamp(triggeredEvent);
             //add to cache
             if (!playBackComplete) {
-                boolean receivedEvtFound = false;
-                synchronized (this) {
-                  Iterator<GerritTriggeredEvent> i = receivedEventCache.iterator(); // Must be in synchronized block
-                  while (i.hasNext()) {
-                      GerritTriggeredEvent rEvt = i.next();
-                      if (rEvt.equals(triggeredEvent)) {
-                        receivedEvtFound = true;
-                        break;
-                      }
-                  }
-                }
-                if (!receivedEvtFound) {
-                    receivedEventCache.add(triggeredEvent);
+                if (receivedEvents.add(triggeredEvent)) {
                     logger.debug("Added event {} to received cache for server: {}", event, serverName);
                 } else {
                     logger.debug("Event {} ALREADY in received cache for server: {}", event, serverName);
                 }
             } else {
-                receivedEventCache = Collections.synchronizedList(new ArrayList<GerritTriggeredEvent>());
                 logger.debug("Playback complete...will NOT add event {} to received cache for server: {}"
                         , event, serverName);
             }
@@ -377,6 +669,18 @@ public class GerritMissedEventsPlaybackManager implements ConnectionListener, Na
      * @throws IOException if HTTP errors occur
      */
     protected List<GerritTriggeredEvent> getEventsFromDateRange(Date lowerDate) throws IOException {
+        return getEventsFromDateRange(lowerDate, null);
+    }
+
+    /**
+     * Get events for a given date range.
+     * @param lowerDate lower bound for which to request missed events.
+     * @param upperDate upper bound for which to request missed events, or null for no upper bound.
+     * @return collection of gerrit events.
+     * @throws IOException if HTTP errors occur
+     */
+    protected List<GerritTriggeredEvent> getEventsFromDateRange(Date lowerDate, @CheckForNull Date upperDate)
+            throws IOException {
 
         GerritServer server = PluginImpl.getServer_(serverName);
         if (server == null) {
@@ -385,7 +689,7 @@ public class GerritMissedEventsPlaybackManager implements ConnectionListener, Na
         }
         IGerritHudsonTriggerConfig config = server.getConfig();
 
-        String events = getEventsFromEventsLogPlugin(config, buildEventsLogURL(config, lowerDate));
+        String events = getEventsFromEventsLogPlugin(config, buildEventsLogURL(config, lowerDate, upperDate));
 
         return createEventsFromString(events);
     }
@@ -478,9 +782,25 @@ public class GerritMissedEventsPlaybackManager implements ConnectionListener, Na
      */
     protected String buildEventsLogURL(IGerritHudsonTriggerConfig config, Date date1)
             throws UnsupportedEncodingException {
+        return buildEventsLogURL(config, date1, null);
+    }
+
+    /**
+     *
+     * @param config Gerrit Config for server.
+     * @param date1 lower bound for date range,
+     * @param date2 upper bound for date range, or null for no upper bound.
+     * @return url to use to request missed events.
+     * @throws UnsupportedEncodingException if URL encoding not supported.
+     */
+    protected String buildEventsLogURL(IGerritHudsonTriggerConfig config, Date date1, @CheckForNull Date date2)
+            throws UnsupportedEncodingException {
         SimpleDateFormat df = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
 
         String url = EVENTS_LOG_PLUGIN_URL + "?t1=" + URLEncoder.encode(df.format(date1), "UTF-8");
+        if (date2 != null) {
+            url += "&t2=" + URLEncoder.encode(df.format(date2), "UTF-8");
+        }
 
         String gerritFrontEndUrl = config.getGerritFrontEndUrl();
         String restUrl = gerritFrontEndUrl;
@@ -546,6 +866,18 @@ public class GerritMissedEventsPlaybackManager implements ConnectionListener, Na
             logger.error("Could not find server {}", serverName);
         }
         stopPersistenceCheck();
+        playBackGeneration.incrementAndGet();
+        synchronized (this) {
+            playBackFuture = null;
+            if (playBackExecutor != null) {
+                playBackExecutor.shutdownNow();
+                playBackExecutor = null;
+            }
+            if (fetchExecutor != null) {
+                fetchExecutor.shutdownNow();
+                fetchExecutor = null;
+            }
+        }
     }
 
     /**
@@ -589,8 +921,9 @@ public class GerritMissedEventsPlaybackManager implements ConnectionListener, Na
     }
 
     /**
-     * Responsible for persisting timestamps to xml.
-     * Time slices jump by 1000ms so the thread only checks every 1 second.
+     * Responsible for persisting timestamps to the checkpoint journal.
+     * Time slices jump by 1000ms so the thread only checks every 1 second,
+     * whatever was added since the last check is written with one sync to disk.
      */
     class GerritMissedEventsPlaybackPersistRunnable implements Runnable {
         private final AtomicBoolean running = new AtomicBoolean(false);
@@ -633,23 +966,25 @@ public class GerritMissedEventsPlaybackManager implements ConnectionListener, Na
 
         @Override
         public void run() {
-            if (serverTimestamp != null && previousTimeSlice < serverTimestamp.getTimeSlice()) {
-                previousTimeSlice = serverTimestamp.getTimeSlice();
+            if (serverTimestamp != null) {
                 persistTimeStamp();
             }
         }
 
         /**
-         * Saves the current event timestamp to xml.
+         * Appends what is new in the current time slice to the checkpoint journal.
          */
         private void persistTimeStamp() {
             try {
-                XmlFile config = getConfigXml(serverName);
-                if (config == null) {
-                    logger.error("XML " + serverName + " is null, please check file permissions.");
+                CheckpointJournal checkpoints = getJournal();
+                if (checkpoints == null) {
+                    logger.error("Journal for " + serverName + " is null, please check file permissions.");
                 } else {
-                    EventTimeSlice serverTimestampCopy = EventTimeSlice.shallowCopy(serverTimestamp);
-                    config.write(serverTimestampCopy);
+                    EventTimeSlice serverTimestampCopy;
+                    synchronized (GerritMissedEventsPlaybackManager.this) {
+                        serverTimestampCopy = EventTimeSlice.shallowCopy(serverTimestamp);
+                    }
+                    checkpoints.write(serverTimestampCopy);
                 }
             } catch (IOException e) {
                 logger.error(e.getMessage(), e);
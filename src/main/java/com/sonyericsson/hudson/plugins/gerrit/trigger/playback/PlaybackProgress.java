@@ -0,0 +1,148 @@
+/*
+ *  The MIT License
+ *
+ *  Copyright 2026 agent. All rights reserved.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package com.sonyericsson.hudson.plugins.gerrit.trigger.playback;
+
+import com.sonyericsson.hudson.plugins.gerrit.trigger.Messages;
+import hudson.Util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * How far a playback of missed events has come.
+ *
+ * @author agent &lt;agent@local&gt;
+ */
+public final class PlaybackProgress {
+
+    private final int totalWindows;
+    private final long startedAt;
+    private final AtomicInteger completedWindows = new AtomicInteger();
+    private final AtomicInteger triggered = new AtomicInteger();
+    private final AtomicInteger skipped = new AtomicInteger();
+
+    /**
+     * Constructor.
+     *
+     * @param totalWindows the number of time windows to play back.
+     * @param startedAt when the playback started.
+     */
+    PlaybackProgress(int totalWindows, long startedAt) {
+        this.totalWindows = totalWindows;
+        this.startedAt = startedAt;
+    }
+
+    /**
+     * Counts a time window as played back.
+     */
+    void windowCompleted() {
+        completedWindows.incrementAndGet();
+    }
+
+    /**
+     * Counts an event as triggered.
+     */
+    void eventTriggered() {
+        triggered.incrementAndGet();
+    }
+
+    /**
+     * Counts an event as skipped since it was already received.
+     */
+    void eventSkipped() {
+        skipped.incrementAndGet();
+    }
+
+    /**
+     * The number of time windows to play back.
+     *
+     * @return the number.
+     */
+    public int getTotalWindows() {
+        return totalWindows;
+    }
+
+    /**
+     * The number of time windows played back so far.
+     *
+     * @return the number.
+     */
+    public int getCompletedWindows() {
+        return completedWindows.get();
+    }
+
+    /**
+     * The number of missed events triggered so far.
+     *
+     * @return the number.
+     */
+    public int getTriggered() {
+        return triggered.get();
+    }
+
+    /**
+     * The number of missed events skipped so far since they were already received.
+     *
+     * @return the number.
+     */
+    public int getSkipped() {
+        return skipped.get();
+    }
+
+    /**
+     * The estimated time left, from how long the completed windows took.
+     *
+     * @param now the current time.
+     * @return the time in milliseconds or -1 if not known yet.
+     */
+    public long getEstimatedRemainingMillis(long now) {
+        int completed = completedWindows.get();
+        if (completed <= 0) {
+            return -1;
+        }
+        return (now - startedAt) * (totalWindows - completed) / completed;
+    }
+
+    /**
+     * Text for display.
+     *
+     * @return the text.
+     */
+    public String getDisplayText() {
+        long eta = getEstimatedRemainingMillis(System.currentTimeMillis());
+        String left;
+        if (eta < 0) {
+            left = "?";
+        } else {
+            left = Util.getTimeSpanString(eta);
+        }
+        return Messages.MissedEventsPlaybackProgress(getCompletedWindows(), totalWindows,
+                getTriggered(), getSkipped(), left);
+    }
+
+    @Override
+    public String toString() {
+        return "PlaybackProgress{" + getCompletedWindows() + "/" + totalWindows
+                + " windows, triggered=" + getTriggered() + ", skipped=" + getSkipped() + "}";
+    }
+}
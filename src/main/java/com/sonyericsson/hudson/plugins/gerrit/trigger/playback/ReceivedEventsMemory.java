@@ -0,0 +1,161 @@
+/*
+ *  The MIT License
+ *
+ *  Copyright 2026 agent. All rights reserved.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package com.sonyericsson.hudson.plugins.gerrit.trigger.playback;
+
+import com.sonyericsson.hudson.plugins.gerrit.trigger.utils.BoundedLinkedHashMap;
+import com.sonymobile.tools.gerrit.gerritevents.dto.events.GerritTriggeredEvent;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The events received from the stream while missed events are being played back,
+ * so that the same events from the events-log plugin are not triggered twice.
+ *
+ * Only the identities of the events, as given by {@link EventTimeSlice#identityOf(GerritTriggeredEvent)},
+ * are kept. Only the most recent events are remembered, oldest first out,
+ * and events received too long ago are forgotten.
+ *
+ * @author agent &lt;agent@local&gt;
+ */
+final class ReceivedEventsMemory {
+
+    /**
+     * The most events remembered.
+     */
+    static final int DEFAULT_MAX_EVENTS =
+            Integer.getInteger(ReceivedEventsMemory.class.getName() + ".maxEvents", 10000);
+    /**
+     * The longest time in minutes an event is remembered.
+     */
+    static final long DEFAULT_MAX_AGE_MINUTES =
+            Long.getLong(ReceivedEventsMemory.class.getName() + ".maxAgeMinutes", 60);
+
+    private final long maxAgeMillis;
+    /**
+     * The identities of the events and when they were received, in the order received.
+     */
+    private final Map<String, Long> events;
+
+    /**
+     * Constructor with the default limits.
+     */
+    ReceivedEventsMemory() {
+        this(DEFAULT_MAX_EVENTS, TimeUnit.MINUTES.toMillis(DEFAULT_MAX_AGE_MINUTES));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param maxEvents the most events to remember.
+     * @param maxAgeMillis the longest time to remember an event.
+     */
+    ReceivedEventsMemory(int maxEvents, long maxAgeMillis) {
+        this.events = new BoundedLinkedHashMap<String, Long>(Math.max(1, maxEvents), false);
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    /**
+     * Remembers the event unless it is remembered already.
+     *
+     * @param event the event.
+     * @return true if the event was not remembered before.
+     */
+    boolean add(GerritTriggeredEvent event) {
+        return add(event, System.currentTimeMillis());
+    }
+
+    /**
+     * Remembers the event unless it is remembered already.
+     *
+     * @param event the event.
+     * @param now the current time.
+     * @return true if the event was not remembered before.
+     */
+    boolean add(GerritTriggeredEvent event, long now) {
+        String identity = EventTimeSlice.identityOf(event);
+        synchronized (this) {
+            evict(now);
+            if (events.containsKey(identity)) {
+                return false;
+            }
+            events.put(identity, now);
+            return true;
+        }
+    }
+
+    /**
+     * If the event is remembered.
+     *
+     * @param event the event.
+     * @return true if so.
+     */
+    boolean contains(GerritTriggeredEvent event) {
+        return contains(event, System.currentTimeMillis());
+    }
+
+    /**
+     * If the event is remembered.
+     *
+     * @param event the event.
+     * @param now the current time.
+     * @return true if so.
+     */
+    boolean contains(GerritTriggeredEvent event, long now) {
+        String identity = EventTimeSlice.identityOf(event);
+        synchronized (this) {
+            evict(now);
+            return events.containsKey(identity);
+        }
+    }
+
+    /**
+     * Forgets all events.
+     */
+    synchronized void clear() {
+        events.clear();
+    }
+
+    /**
+     * The number of remembered events.
+     *
+     * @return the number.
+     */
+    synchronized int size() {
+        return events.size();
+    }
+
+    /**
+     * Forgets the events received too long ago.
+     *
+     * @param now the current time.
+     */
+    private void evict(long now) {
+        Iterator<Long> it = events.values().iterator();
+        while (it.hasNext() && now - it.next() > maxAgeMillis) {
+            it.remove();
+        }
+    }
+}
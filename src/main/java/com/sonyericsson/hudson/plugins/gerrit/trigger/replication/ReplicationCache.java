@@ -23,14 +23,32 @@
  */
 package com.sonyericsson.hudson.plugins.gerrit.trigger.replication;
 
-
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.OptionalLong;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.sonymobile.tools.gerrit.gerritevents.dto.attr.Provider;
 import com.sonymobile.tools.gerrit.gerritevents.dto.events.RefReplicated;
 
 /**
@@ -88,9 +106,11 @@ public class ReplicationCache {
     public static final int DEFAULT_EXPIRATION_IN_MINUTES = (int)TimeUnit.HOURS.toMinutes(6);
 
     private static final Logger logger = LoggerFactory.getLogger(ReplicationCache.class);
+    private static final int SNAPSHOT_VERSION = 1;
     private final long expiration;
     private final TimeUnit unit;
-    private long creationTime;
+    private final AtomicBoolean modified = new AtomicBoolean(false);
+    private volatile long creationTime;
     private Cache<RefReplicatedId, RefReplicated> events = null;
 
     /**
@@ -128,6 +148,15 @@ public class ReplicationCache {
         this.creationTime = time;
     }
 
+    /**
+     * The time since when the cache has seen every RefReplicated event.
+     * @return the creation time
+     * @see #setCreationTime(long)
+     */
+    public long getCreationTime() {
+        return creationTime;
+    }
+
     /**
      * Initialize cache.
      * @return true if success
@@ -135,8 +164,28 @@ public class ReplicationCache {
     public boolean initialize() {
         if (events == null) {
             try {
+                //Expires after write like before, but lets entries read from a snapshot keep their remaining time.
+                final long expirationNanos = unit.toNanos(expiration);
                 events = Caffeine.newBuilder()
-                        .expireAfterWrite(expiration, unit)
+                        .expireAfter(new Expiry<RefReplicatedId, RefReplicated>() {
+                            @Override
+                            public long expireAfterCreate(RefReplicatedId key, RefReplicated value,
+                                                          long currentTime) {
+                                return expirationNanos;
+                            }
+
+                            @Override
+                            public long expireAfterUpdate(RefReplicatedId key, RefReplicated value,
+                                                          long currentTime, long currentDuration) {
+                                return expirationNanos;
+                            }
+
+                            @Override
+                            public long expireAfterRead(RefReplicatedId key, RefReplicated value,
+                                                        long currentTime, long currentDuration) {
+                                return currentDuration;
+                            }
+                        })
                         .build();
                 logger.info("initialized replication cache with expiration in {}: {}", unit, expiration);
             } catch (Exception ex) {
@@ -154,7 +203,139 @@ public class ReplicationCache {
     public void put(RefReplicated refReplicated) {
         if (events != null) {
             events.put(RefReplicatedId.fromRefReplicated(refReplicated), refReplicated);
+            modified.set(true);
+        }
+    }
+
+    /**
+     * If events have been cached since the cache was created or the last snapshot was written or read.
+     * @return true if so
+     */
+    public boolean isModified() {
+        return modified.get();
+    }
+
+    /**
+     * Writes the cached events with the time they expire to a file, replacing it.
+     * The events only keep what is needed to unblock a build, a few strings and the time they were received.
+     * @param file the file
+     * @return the number of events written
+     * @throws IOException if it could not be written
+     */
+    public int writeSnapshot(File file) throws IOException {
+        if (events == null) {
+            return 0;
+        }
+        modified.set(false);
+        Policy.VarExpiration<RefReplicatedId, RefReplicated> expiry = events.policy().expireVariably().get();
+        long now = System.currentTimeMillis();
+        int count = 0;
+        File tmp = new File(file.getParentFile(), file.getName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(new FileOutputStream(tmp))))) {
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeLong(creationTime);
+            for (Map.Entry<RefReplicatedId, RefReplicated> entry : events.asMap().entrySet()) {
+                OptionalLong remaining = expiry.getExpiresAfter(entry.getKey(), TimeUnit.MILLISECONDS);
+                if (!remaining.isPresent() || remaining.getAsLong() <= 0) {
+                    continue;
+                }
+                RefReplicated refReplicated = entry.getValue();
+                out.writeBoolean(true);
+                writeString(out, entry.getKey().gerritServer);
+                writeString(out, refReplicated.getProject());
+                writeString(out, refReplicated.getRef());
+                writeString(out, refReplicated.getTargetNode());
+                writeString(out, refReplicated.getStatus());
+                out.writeLong(refReplicated.getReceivedOn());
+                out.writeLong(now + remaining.getAsLong());
+                count++;
+            }
+            out.writeBoolean(false);
+        } catch (IOException e) {
+            modified.set(true);
+            throw e;
+        }
+        try {
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        return count;
+    }
+
+    /**
+     * Reads the events from a snapshot written by {@link #writeSnapshot(File)} into the cache,
+     * each for the time it had left when the snapshot was written minus the time since.
+     * The creation time of the cache is left as it is, so items queued from before it still count as expired
+     * and are not held back waiting for events that may have happened while Jenkins was down.
+     * The restored events can only let items through sooner, never hold them back.
+     * @param file the file
+     * @return the number of events that had not expired
+     * @throws IOException if it could not be read, the events read until then are kept
+     */
+    public int readSnapshot(File file) throws IOException {
+        if (events == null || !file.isFile()) {
+            return 0;
+        }
+        Policy.VarExpiration<RefReplicatedId, RefReplicated> expiry = events.policy().expireVariably().get();
+        long now = System.currentTimeMillis();
+        int count = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(new FileInputStream(file))))) {
+            int version = in.readInt();
+            if (version != SNAPSHOT_VERSION) {
+                throw new IOException("Unknown replication cache snapshot version " + version);
+            }
+            // Creation time of the cache the snapshot was written from, not used.
+            in.readLong();
+            while (in.readBoolean()) {
+                RefReplicated refReplicated = new RefReplicated();
+                Provider provider = new Provider();
+                provider.setName(readString(in));
+                refReplicated.setProvider(provider);
+                refReplicated.setProject(readString(in));
+                refReplicated.setRef(readString(in));
+                refReplicated.setTargetNode(readString(in));
+                refReplicated.setStatus(readString(in));
+                refReplicated.setReceivedOn(in.readLong());
+                long remaining = in.readLong() - now;
+                if (remaining > 0) {
+                    expiry.put(RefReplicatedId.fromRefReplicated(refReplicated), refReplicated,
+                            remaining, TimeUnit.MILLISECONDS);
+                    count++;
+                }
+            }
+        }
+        modified.set(false);
+        return count;
+    }
+
+    /**
+     * Writes a string that can be null.
+     * @param out the stream
+     * @param value the string
+     * @throws IOException if so
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    /**
+     * Reads a string written by {@link #writeString(DataOutputStream, String)}.
+     * @param in the stream
+     * @return the string
+     * @throws IOException if so
+     */
+    private static String readString(DataInputStream in) throws IOException {
+        if (in.readBoolean()) {
+            return in.readUTF();
         }
+        return null;
     }
 
     /**
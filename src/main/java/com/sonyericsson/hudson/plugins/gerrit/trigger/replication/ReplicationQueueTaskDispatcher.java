@@ -25,6 +25,8 @@ package com.sonyericsson.hudson.plugins.gerrit.trigger.replication;
 
 import com.sonyericsson.hudson.plugins.gerrit.trigger.config.PluginConfig;
 import hudson.Extension;
+import hudson.ExtensionList;
+import hudson.init.Terminator;
 import hudson.model.Job;
 import hudson.model.Cause;
 import hudson.model.Queue;
@@ -32,14 +34,20 @@ import hudson.model.Queue.Item;
 import hudson.model.queue.QueueTaskDispatcher;
 import hudson.model.queue.CauseOfBlockage;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
+import jenkins.model.Jenkins;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.DoNotUse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -69,9 +77,18 @@ import edu.umd.cs.findbugs.annotations.NonNull;
 @Extension
 public class ReplicationQueueTaskDispatcher extends QueueTaskDispatcher implements GerritEventListener {
 
+    /**
+     * How often the replication cache is written to disk, in minutes.
+     * It is also written when Jenkins shuts down.
+     */
+    public static final long SNAPSHOT_INTERVAL_MINUTES =
+            Long.getLong(ReplicationQueueTaskDispatcher.class.getName() + ".snapshotIntervalMinutes", 5);
+
+    private static final String SNAPSHOT_FILE = "gerrit-trigger-replication-cache.bin";
     private static final Logger logger = LoggerFactory.getLogger(ReplicationQueueTaskDispatcher.class);
     private final Map<Long, BlockedItem> blockedItems;
     private final ReplicationCache replicationCache;
+    private ScheduledFuture<?> snapshotTask;
 
     /**
      * Default constructor.
@@ -79,6 +96,11 @@ public class ReplicationQueueTaskDispatcher extends QueueTaskDispatcher implemen
     public ReplicationQueueTaskDispatcher() {
         this(PluginImpl.getHandler_(),
                 createDefaultCache());
+        readSnapshot();
+        if (SNAPSHOT_INTERVAL_MINUTES > 0) {
+            snapshotTask = jenkins.util.Timer.get().scheduleWithFixedDelay(this::writeSnapshot,
+                    SNAPSHOT_INTERVAL_MINUTES, SNAPSHOT_INTERVAL_MINUTES, TimeUnit.MINUTES);
+        }
     }
 
     /**
@@ -118,6 +140,71 @@ public class ReplicationQueueTaskDispatcher extends QueueTaskDispatcher implemen
         logger.debug("Registered to gerrit events");
     }
 
+    /**
+     * The file the replication cache is written to.
+     *
+     * @return the file, or null if Jenkins is not running.
+     */
+    @CheckForNull
+    private static File getSnapshotFile() {
+        Jenkins jenkins = Jenkins.getInstanceOrNull();
+        if (jenkins == null) {
+            return null;
+        }
+        return new File(jenkins.getRootDir(), SNAPSHOT_FILE);
+    }
+
+    /**
+     * Fills the replication cache with what it held when it was last written to disk,
+     * so that builds queued after a restart for refs that were replicated before it are not held back.
+     * Builds restored to the queue from before the restart are not held back either since they count as expired.
+     */
+    private void readSnapshot() {
+        File file = getSnapshotFile();
+        if (file == null) {
+            return;
+        }
+        try {
+            int count = replicationCache.readSnapshot(file);
+            logger.info("Restored {} replication events from {}", count, file);
+        } catch (IOException e) {
+            logger.warn("Could not restore the replication cache from " + file, e);
+        }
+    }
+
+    /**
+     * Writes the replication cache to disk if it has changed since it was last written.
+     */
+    synchronized void writeSnapshot() {
+        if (!replicationCache.isModified()) {
+            return;
+        }
+        File file = getSnapshotFile();
+        if (file == null) {
+            return;
+        }
+        try {
+            int count = replicationCache.writeSnapshot(file);
+            logger.debug("Wrote {} replication events to {}", count, file);
+        } catch (IOException e) {
+            logger.warn("Could not write the replication cache to " + file, e);
+        }
+    }
+
+    /**
+     * Writes the replication cache to disk when Jenkins shuts down.
+     */
+    @Terminator
+    @Restricted(DoNotUse.class)
+    public static void writeSnapshotOnShutdown() {
+        for (ReplicationQueueTaskDispatcher dispatcher : ExtensionList.lookup(ReplicationQueueTaskDispatcher.class)) {
+            if (dispatcher.snapshotTask != null) {
+                dispatcher.snapshotTask.cancel(false);
+            }
+            dispatcher.writeSnapshot();
+        }
+    }
+
     @Override
     public CauseOfBlockage canRun(Item item) {
         //we do not block item when it reached the buildable state, a buildable item is an item that
@@ -0,0 +1,79 @@
+/*
+ *  The MIT License
+ *
+ *  Copyright 2026 agent. All rights reserved.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package com.sonyericsson.hudson.plugins.gerrit.trigger.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A {@link LinkedHashMap} that drops its eldest entry when it grows past a maximum size,
+ * the least recently used in access order or the first added in insertion order.
+ * Not thread safe, same as its parent.
+ *
+ * @param <K> the type of the keys.
+ * @param <V> the type of the values.
+ * @author agent &lt;agent@local&gt;
+ */
+public class BoundedLinkedHashMap<K, V> extends LinkedHashMap<K, V> {
+
+    private static final long serialVersionUID = 1L;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final int maxSize;
+
+    /**
+     * Constructor in access order.
+     *
+     * @param maxSize the most entries kept.
+     */
+    public BoundedLinkedHashMap(int maxSize) {
+        this(maxSize, true);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param maxSize the most entries kept.
+     * @param accessOrder true for access order, false for insertion order.
+     */
+    public BoundedLinkedHashMap(int maxSize, boolean accessOrder) {
+        super(INITIAL_CAPACITY, LOAD_FACTOR, accessOrder);
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * The most entries kept.
+     *
+     * @return the size.
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+        return size() > maxSize;
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ *  The MIT License
+ *
+ *  Copyright 2026 agent. All rights reserved.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package com.sonyericsson.hudson.plugins.gerrit.trigger.version;
+
+/**
+ * Immutable set of the {@link GerritVersionChecker.Feature}s supported by one Gerrit version.
+ * Computed once when the version of a server becomes known so that feature checks on the
+ * event path are a bit test instead of a version lookup and parse.
+ *
+ * @author agent &lt;agent@local&gt;
+ */
+public final class GerritFeatureSet {
+
+    /**
+     * The set used when the version of the server is not known, everything is supported.
+     * Same as what {@link GerritVersionChecker#createVersionNumber(String)} gives for a null version.
+     */
+    public static final GerritFeatureSet ALL = of(new HighestVersionNumber());
+
+    private final long supported;
+    private final long supportedExcludingSnapshots;
+    private final String version;
+
+    /**
+     * Constructor.
+     *
+     * @param supported bitmask of supported features when snapshots are considered new enough.
+     * @param supportedExcludingSnapshots bitmask of supported features when snapshots are not special.
+     * @param version the version the set was computed from, for display.
+     */
+    private GerritFeatureSet(long supported, long supportedExcludingSnapshots, String version) {
+        this.supported = supported;
+        this.supportedExcludingSnapshots = supportedExcludingSnapshots;
+        this.version = version;
+    }
+
+    /**
+     * Computes the feature set for the given version.
+     *
+     * @param gerritVersion the version of Gerrit.
+     * @return the features supported by that version.
+     */
+    public static GerritFeatureSet of(GerritVersionNumber gerritVersion) {
+        long supported = 0;
+        long supportedExcludingSnapshots = 0;
+        for (GerritVersionChecker.Feature feature : GerritVersionChecker.Feature.values()) {
+            if (GerritVersionChecker.isCorrectVersion(gerritVersion, feature, false)) {
+                supported |= bit(feature);
+            }
+            if (GerritVersionChecker.isCorrectVersion(gerritVersion, feature, true)) {
+                supportedExcludingSnapshots |= bit(feature);
+            }
+        }
+        return new GerritFeatureSet(supported, supportedExcludingSnapshots, gerritVersion.toString());
+    }
+
+    /**
+     * Computes the feature set for the given version string as reported by Gerrit.
+     *
+     * @param version the version string, can be null.
+     * @return the features supported by that version.
+     * @see GerritVersionChecker#createVersionNumber(String)
+     */
+    public static GerritFeatureSet of(String version) {
+        if (version == null || version.isEmpty()) {
+            return ALL;
+        }
+        return of(GerritVersionNumber.getGerritVersionNumber(version));
+    }
+
+    /**
+     * The bit for a feature.
+     *
+     * @param feature the feature.
+     * @return the bit.
+     */
+    private static long bit(GerritVersionChecker.Feature feature) {
+        return 1L << feature.ordinal();
+    }
+
+    /**
+     * If the feature is supported.
+     *
+     * @param feature the feature to check.
+     * @param excludeSnapshotVersions exclude snapshot versions from the check.
+     * @return true if the feature is supported.
+     * @see GerritVersionChecker#isCorrectVersion(GerritVersionNumber, GerritVersionChecker.Feature, boolean)
+     */
+    public boolean isSupported(GerritVersionChecker.Feature feature, boolean excludeSnapshotVersions) {
+        long mask;
+        if (excludeSnapshotVersions) {
+            mask = supportedExcludingSnapshots;
+        } else {
+            mask = supported;
+        }
+        return (mask & bit(feature)) != 0;
+    }
+
+    /**
+     * If the feature is supported, counting snapshot versions as new enough.
+     *
+     * @param feature the feature to check.
+     * @return true if the feature is supported.
+     */
+    public boolean isSupported(GerritVersionChecker.Feature feature) {
+        return isSupported(feature, false);
+    }
+
+    /**
+     * The version this set was computed from.
+     *
+     * @return the version.
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    @Override
+    public String toString() {
+        return "GerritFeatureSet{version=" + version + ", supported=" + Long.toBinaryString(supported) + "}";
+    }
+}
@@ -123,24 +123,7 @@ public final class GerritVersionChecker {
      * @return true if the Gerrit version is high enough for us to use this feature.
      */
     public static boolean isCorrectVersion(Feature feature, String serverName) {
-        if (PluginImpl.getInstance() != null) {
-            if (serverName == null || serverName.isEmpty() || GerritServer.ANY_SERVER.equals(serverName)) {
-                for (GerritServer server : PluginImpl.getServers_()) {
-                    GerritVersionNumber gerritVersion
-                            = createVersionNumber(server.getGerritVersion());
-                    if (isCorrectVersion(gerritVersion, feature)) {
-                        return true;
-                    }
-                }
-                return false;
-            } else {
-                GerritVersionNumber gerritVersion
-                    = createVersionNumber(getGerritVersion(serverName));
-                return isCorrectVersion(gerritVersion, feature);
-            }
-        } else {
-            return false;
-        }
+        return isCorrectVersion(feature, serverName, false);
     }
 
     /**
@@ -157,17 +140,18 @@ public final class GerritVersionChecker {
             if (serverName == null || serverName.isEmpty()
                     || GerritServer.ANY_SERVER.equals(serverName)) {
                 for (GerritServer server : PluginImpl.getServers_()) {
-                    GerritVersionNumber gerritVersion
-                            = createVersionNumber(server.getGerritVersion());
-                    if (isCorrectVersion(gerritVersion, feature, excludeSnapshotVersions)) {
+                    if (isCorrectVersion(server, feature, excludeSnapshotVersions)) {
                         return true;
                     }
                 }
                 return false;
             } else {
-                GerritVersionNumber gerritVersion
-                    = createVersionNumber(getGerritVersion(serverName));
-                return isCorrectVersion(gerritVersion, feature, excludeSnapshotVersions);
+                GerritServer server = PluginImpl.getServer_(serverName);
+                if (server == null) {
+                    logger.error("Could not find the server {}", serverName);
+                    return isCorrectVersion(new HighestVersionNumber(), feature, excludeSnapshotVersions);
+                }
+                return isCorrectVersion(server, feature, excludeSnapshotVersions);
             }
         } else {
             return false;
@@ -175,23 +159,25 @@ public final class GerritVersionChecker {
     }
 
     /**
-     *Returns the current Gerrit version.
-     *@param serverName the name of the server.
-     *@return the current Gerrit version as a String if connected, or null otherwise.
-    */
-    private static String getGerritVersion(String serverName) {
-        GerritServer server = PluginImpl.getServer_(serverName);
-        if (server != null) {
-            String version = server.getGerritVersion();
-            if (version != null) {
-                return version;
-            } else {
-                logger.error("Could not find the Gerrit version for {}", serverName);
-            }
-        } else {
-            logger.error("Could not find the server {}", serverName);
+     * Tells us if the given server runs the correct version for a particular feature.
+     * Uses the feature set computed when the server connected if there is one,
+     * otherwise falls back to parsing the version reported by the server.
+     *
+     * @param server the Gerrit server.
+     * @param feature the feature we want to check.
+     * @param excludeSnapshotVersions exclude snapshot versions from feature checks.
+     * @return true if the Gerrit version is high enough for us to use this feature.
+     */
+    public static boolean isCorrectVersion(GerritServer server, Feature feature, boolean excludeSnapshotVersions) {
+        GerritFeatureSet featureSet = server.getFeatureSet();
+        if (featureSet != null) {
+            return featureSet.isSupported(feature, excludeSnapshotVersions);
+        }
+        String version = server.getGerritVersion();
+        if (version == null) {
+            logger.error("Could not find the Gerrit version for {}", server.getName());
         }
-        return null;
+        return isCorrectVersion(createVersionNumber(version), feature, excludeSnapshotVersions);
     }
 
     /**
@@ -23,6 +23,7 @@
  */
 package com.sonyericsson.hudson.plugins.gerrit.trigger.diagnostics.Diagnostics
 
+import com.sonyericsson.hudson.plugins.gerrit.trigger.EventPriorityQueue
 import com.sonyericsson.hudson.plugins.gerrit.trigger.GerritManagement
 import com.sonyericsson.hudson.plugins.gerrit.trigger.Messages
 import com.sonyericsson.hudson.plugins.gerrit.trigger.diagnostics.Diagnostics
@@ -45,5 +46,85 @@ l.layout(title: _("Gerrit Trigger Diagnostics"), norefresh: false, permission: D
     l.'main-panel' {
         h1(_("Gerrit Trigger Diagnostics"))
         p(_("blurb"))
+        def scheduler = diag.notificationScheduler
+        h2(_("Notification Queue"))
+        p(style: "font-size: smaller; font-style: italic;",
+                _("queueBlurb", scheduler.maxInFlightPerServer, scheduler.sentCount,
+                        scheduler.obsoleteCount, scheduler.overflowCount, scheduler.supersededCount))
+        table(class: "pane bigtable") {
+            tr {
+                th(align: "left", _("Server"))
+                th(align: "left", _("Pending Completed"))
+                th(align: "left", _("Pending Started"))
+                th(align: "left", _("In Flight"))
+            }
+            scheduler.status.each { status ->
+                tr {
+                    td(status.serverName)
+                    td(status.pendingCompleted)
+                    td(status.pendingStarted)
+                    td(status.inFlight)
+                }
+            }
+        }
+        def pool = diag.sshSessionPool
+        h2(_("SSH Sessions"))
+        if (pool.disabled) {
+            p(_("poolDisabled"))
+        } else {
+            p(_("poolBlurb", pool.commandCount, pool.sessionCount, String.format("%.0f%%", pool.reuseRatio * 100),
+                    pool.averageLatencyMillis, pool.maxLatencyMillis, pool.failureCount, pool.idleCount))
+        }
+        def debouncer = diag.patchsetDebouncer
+        h2(_("Held Patch Sets"))
+        p(_("debounceBlurb", debouncer.heldCount, debouncer.supersededCount, debouncer.heldNow))
+        def queue = diag.eventQueue
+        if (queue != null) {
+            h2(_("Event Queue"))
+            p(style: "font-size: smaller; font-style: italic;",
+                    _("eventQueueBlurb", queue.overloadThreshold, queue.overloadPolicy))
+            table(class: "pane bigtable") {
+                tr {
+                    th(align: "left", _("Priority"))
+                    th(align: "left", _("Weight"))
+                    th(align: "left", _("Waiting"))
+                    th(align: "left", _("Deferred"))
+                    th(align: "left", _("Shed"))
+                }
+                EventPriorityQueue.Priority.values().each { priority ->
+                    tr {
+                        td(priority)
+                        td(queue.getWeight(priority))
+                        td(queue.getDepth(priority))
+                        td(queue.getDeferredCount(priority))
+                        td(queue.getShedCount(priority))
+                    }
+                }
+            }
+        }
+        def scaler = diag.workerPoolScaler
+        if (scaler != null) {
+            h2(_("Worker Threads"))
+            p(_("workersBlurb", scaler.receivingThreads, scaler.receivingQueueDepth,
+                    scaler.sendingThreads, scaler.sendingQueueDepth))
+            table(class: "pane bigtable") {
+                tr {
+                    th(align: "left", _("Time"))
+                    th(align: "left", _("Pool"))
+                    th(align: "left", _("From"))
+                    th(align: "left", _("To"))
+                    th(align: "left", _("Reason"))
+                }
+                scaler.decisions.each { decision ->
+                    tr {
+                        td(decision.time)
+                        td(decision.pool)
+                        td(decision.from)
+                        td(decision.to)
+                        td(decision.reason)
+                    }
+                }
+            }
+        }
     }
 }
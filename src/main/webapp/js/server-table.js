@@ -133,6 +133,12 @@ function serverTable() {
     var formatterControlServer = function(elLiner, oRecord, oColumn, oData, oDataTable) {
         var status = oRecord.getData("status");
         elLiner.innerHTML = btnServer(status);
+        var playback = oRecord.getData("playback");
+        if (playback) {
+            var text = document.createElement("div");
+            text.textContent = playback;
+            elLiner.appendChild(text);
+        }
     };
     YAHOO.widget.DataTable.Formatter.controlServer = formatterControlServer;
 
@@ -154,7 +160,7 @@ function serverTable() {
     var serverNames = new YAHOO.util.DataSource("serverStatuses");
     serverNames.responseType = YAHOO.util.DataSource.TYPE_JSON;
     serverNames.responseSchema = { resultsList: "servers",
-            fields: ["name", "frontEndUrl", "serverUrl", "version", "status", "hasErrors", "hasWarnings"] };
+            fields: ["name", "frontEndUrl", "serverUrl", "version", "status", "hasErrors", "hasWarnings", "playback"] };
 
     // DataTable
     var dataTable = new YAHOO.widget.DataTable("server-list", columnDefs, serverNames);
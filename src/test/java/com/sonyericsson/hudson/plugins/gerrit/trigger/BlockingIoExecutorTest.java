@@ -0,0 +1,173 @@
+/*
+ *  The MIT License
+ *
+ *  Copyright 2026 agent. All rights reserved.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package com.sonyericsson.hudson.plugins.gerrit.trigger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for {@link BlockingIoExecutor}.
+ *
+ * @author agent &lt;agent@local&gt;
+ */
+public class BlockingIoExecutorTest {
+
+    //CS IGNORE MagicNumber FOR NEXT 200 LINES. REASON: Test data.
+
+    private ExecutorService pool;
+
+    /**
+     * Stops the pool standing in for virtual threads.
+     */
+    @After
+    public void tearDown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Tests that nothing changes when turned off.
+     */
+    @Test
+    public void testDisabled() {
+        BlockingIoExecutor executor = new BlockingIoExecutor(null, 1);
+        assertFalse(executor.isEnabled());
+        assertFalse(executor.submit("gerrit", () -> fail("Should not run")));
+        BlockingIoExecutor.Permit first = executor.acquire("gerrit");
+        BlockingIoExecutor.Permit second = executor.acquire("gerrit");
+        assertSame(BlockingIoExecutor.Permit.NONE, first);
+        assertSame(BlockingIoExecutor.Permit.NONE, second);
+        assertEquals(0, executor.getActiveCount("gerrit"));
+        first.close();
+        second.close();
+    }
+
+    /**
+     * Tests that submitted work is run and counted.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    public void testSubmit() throws Exception {
+        pool = Executors.newCachedThreadPool();
+        BlockingIoExecutor executor = new BlockingIoExecutor(pool, 2);
+        assertTrue(executor.isEnabled());
+        CountDownLatch done = new CountDownLatch(1);
+        assertTrue(executor.submit("gerrit", done::countDown));
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(1, executor.getSubmittedCount());
+    }
+
+    /**
+     * Tests that submit says no once the executor is shut down so that the caller runs the work itself.
+     */
+    @Test
+    public void testSubmitAfterShutdown() {
+        pool = Executors.newCachedThreadPool();
+        BlockingIoExecutor executor = new BlockingIoExecutor(pool, 2);
+        pool.shutdown();
+        assertFalse(executor.submit("gerrit", () -> fail("Should not run")));
+        assertEquals(0, executor.getSubmittedCount());
+    }
+
+    /**
+     * Tests that no more than the limit of queries wait for one server at a time, that a query gives up waiting
+     * and is made anyway, and that other servers are not held up by it.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    public void testLimitPerServer() throws Exception {
+        pool = Executors.newCachedThreadPool();
+        final BlockingIoExecutor executor = new BlockingIoExecutor(pool, 2, 200);
+        BlockingIoExecutor.Permit first = executor.acquire("gerrit");
+        BlockingIoExecutor.Permit second = executor.acquire("gerrit");
+        assertEquals(2, executor.getActiveCount("gerrit"));
+
+        long start = System.nanoTime();
+        assertSame(BlockingIoExecutor.Permit.NONE, executor.acquire("gerrit"));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 150);
+        assertEquals(1, executor.getAcquireTimeoutCount());
+
+        BlockingIoExecutor.Permit other = executor.acquire("other");
+        assertEquals(1, executor.getActiveCount("other"));
+        other.close();
+        assertEquals(0, executor.getActiveCount("other"));
+
+        first.close();
+        first.close();
+        assertEquals(1, executor.getActiveCount("gerrit"));
+        second.close();
+        assertEquals(0, executor.getActiveCount("gerrit"));
+        assertEquals(0, executor.getActiveCount(null));
+    }
+
+    /**
+     * Tests that work is handed back instead of started when the server is at its limit,
+     * and that queries are not held up by it.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    public void testSubmitAtLimit() throws Exception {
+        pool = Executors.newCachedThreadPool();
+        BlockingIoExecutor executor = new BlockingIoExecutor(pool, 1, 200);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        assertTrue(executor.submit("gerrit", () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        assertFalse(executor.submit("gerrit", () -> fail("Should not run")));
+        assertEquals(1, executor.getHandedBackCount());
+
+        BlockingIoExecutor.Permit query = executor.acquire("gerrit");
+        assertNotSame(BlockingIoExecutor.Permit.NONE, query);
+        query.close();
+
+        CountDownLatch done = new CountDownLatch(1);
+        assertTrue("Other work has permits of its own", executor.submit(done::countDown));
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+
+        release.countDown();
+    }
+}
@@ -48,6 +48,22 @@ public class ChangeIdAnnotatorTest {
                           "Change-Id: I1234567890123456789012345678901234567890ffff");
     }
 
+    /**
+     * Tests {@link ChangeIdAnnotator#findChangeIds(String)} with several ids and near misses.
+     */
+    @Test
+    public void testFindChangeIds() {
+        String id = "I1234567890abcdef1234567890ABCDEF12345678";
+        String text = "Change-Id: " + id + "\n"
+                + "xxxChange-Id: " + id + "\n"
+                + "Change-Id: I1234\n"
+                + "Change-Id: " + id + "0\n"
+                + "Change-Id: Change-Id: " + id;
+        int[] found = ChangeIdAnnotator.findChangeIds(text);
+        Assert.assertArrayEquals(new int[]{"Change-Id: ".length(), text.length() - id.length()}, found);
+        Assert.assertEquals(0, ChangeIdAnnotator.findChangeIds("no ids here").length);
+    }
+
     /**
      * Utility method.
      * @param b b
@@ -0,0 +1,135 @@
+/*
+ *  The MIT License
+ *
+ *  Copyright 2026 agent. All rights reserved.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package com.sonyericsson.hudson.plugins.gerrit.trigger;
+
+import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.EventListener;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.GerritTrigger;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.data.CompareType;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.data.GerritProject;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.events.PluginGerritEvent;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.events.PluginPatchsetCreatedEvent;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.events.PluginRefUpdatedEvent;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.mock.Setup;
+import com.sonymobile.tools.gerrit.gerritevents.GerritEventListener;
+import com.sonymobile.tools.gerrit.gerritevents.dto.GerritEvent;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link EventAdmission}.
+ *
+ * @author agent &lt;agent@local&gt;
+ */
+public class EventAdmissionTest {
+
+    private EventAdmission admission;
+    private EventListener listener;
+    private GerritTrigger trigger;
+    private List<GerritEventListener> listeners;
+
+    /**
+     * Creates a trigger for patch sets of "project" on the default server.
+     */
+    @Before
+    public void setUp() {
+        admission = new EventAdmission(false);
+        listener = mock(EventListener.class);
+        trigger = mock(GerritTrigger.class);
+        when(listener.getTrigger()).thenReturn(trigger);
+        when(trigger.getServerName()).thenReturn(PluginImpl.DEFAULT_SERVER_NAME);
+        when(trigger.getTriggerOnEvents()).thenReturn(
+                Collections.<PluginGerritEvent>singletonList(new PluginPatchsetCreatedEvent()));
+        when(trigger.getGerritProjects()).thenReturn(Collections.singletonList(
+                new GerritProject(CompareType.PLAIN, "project", null, null, null, null, false)));
+        listeners = Collections.<GerritEventListener>singletonList(listener);
+    }
+
+    /**
+     * Tests that only events that the trigger could be interested in are admitted.
+     */
+    @Test
+    public void testAdmission() {
+        assertTrue(admission.isAdmitted(Setup.createPatchsetCreated(PluginImpl.DEFAULT_SERVER_NAME,
+                "project", "ref"), listeners));
+        assertFalse("Other project", admission.isAdmitted(Setup.createPatchsetCreated(
+                PluginImpl.DEFAULT_SERVER_NAME, "other", "ref"), listeners));
+        assertFalse("Other server", admission.isAdmitted(Setup.createPatchsetCreated("other", "project", "ref"),
+                listeners));
+        assertFalse("Other type", admission.isAdmitted(Setup.createRefUpdated(PluginImpl.DEFAULT_SERVER_NAME,
+                "project", "ref"), listeners));
+        assertFalse("Not a triggered event", admission.isAdmitted(mock(GerritEvent.class), listeners));
+        assertEquals(1, admission.getAdmittedCount());
+        assertEquals(4, admission.getDroppedCount());
+    }
+
+    /**
+     * Tests that changes to the configuration of a started trigger are seen,
+     * and that the trigger is only looked up again after {@link EventAdmission#invalidate()}.
+     */
+    @Test
+    public void testConfigurationChanged() {
+        assertFalse(admission.isAdmitted(Setup.createRefUpdated(PluginImpl.DEFAULT_SERVER_NAME,
+                "project", "ref"), listeners));
+        when(trigger.getTriggerOnEvents()).thenReturn(
+                Collections.<PluginGerritEvent>singletonList(new PluginRefUpdatedEvent()));
+        assertTrue(admission.isAdmitted(Setup.createRefUpdated(PluginImpl.DEFAULT_SERVER_NAME,
+                "project", "ref"), listeners));
+        verify(listener, times(1)).getTrigger();
+
+        admission.invalidate();
+        admission.isAdmitted(Setup.createPatchsetCreated(), listeners);
+        verify(listener, times(2)).getTrigger();
+    }
+
+    /**
+     * Tests that everything is admitted while a trigger can't be found.
+     */
+    @Test
+    public void testTriggerNotLoaded() {
+        when(listener.getTrigger()).thenReturn(null);
+        assertTrue(admission.isAdmitted(Setup.createPatchsetCreated(PluginImpl.DEFAULT_SERVER_NAME,
+                "other", "ref"), listeners));
+    }
+
+    /**
+     * Tests that a trigger with a dynamic configuration admits any project.
+     */
+    @Test
+    public void testDynamicConfiguration() {
+        when(trigger.isDynamicTriggerConfiguration()).thenReturn(true);
+        assertTrue(admission.isAdmitted(Setup.createPatchsetCreated(PluginImpl.DEFAULT_SERVER_NAME,
+                "other", "ref"), listeners));
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ *  The MIT License
+ *
+ *  Copyright 2026 agent. All rights reserved.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package com.sonyericsson.hudson.plugins.gerrit.trigger;
+
+import com.sonyericsson.hudson.plugins.gerrit.trigger.EventPriorityQueue.OverloadPolicy;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.EventPriorityQueue.Priority;
+import com.sonymobile.tools.gerrit.gerritevents.workers.Work;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for {@link EventPriorityQueue}.
+ *
+ * @author agent &lt;agent@local&gt;
+ */
+public class EventPriorityQueueTest {
+
+    //CS IGNORE MagicNumber FOR NEXT 200 LINES. REASON: Test data.
+
+    /**
+     * Tests that the most specific rule wins.
+     */
+    @Test
+    public void testRules() {
+        EventPriorityQueue queue = new EventPriorityQueue(null, new int[]{2, 1, 1}, 0, OverloadPolicy.DEFER);
+        queue.setRules("# comment\n"
+                + "comment-added=low\n"
+                + "patchset-created = HIGH\n"
+                + "ci:comment-added=normal\n"
+                + "bots:*=low\n"
+                + "not a rule\n"
+                + "ref-updated=urgent\n");
+        assertEquals(Priority.LOW, queue.getPriority("dev", "comment-added"));
+        assertEquals(Priority.NORMAL, queue.getPriority("ci", "comment-added"));
+        assertEquals(Priority.HIGH, queue.getPriority("dev", "patchset-created"));
+        assertEquals(Priority.LOW, queue.getPriority("bots", "patchset-created"));
+        assertEquals(Priority.NORMAL, queue.getPriority("dev", "ref-updated"));
+        assertEquals(Priority.NORMAL, queue.getPriority(null, null));
+        assertEquals(Priority.LOW, queue.getPriorityOfLine("dev",
+                "{\"approvals\":[{\"type\":\"Code-Review\",\"value\":\"1\"}],\"type\":\"comment-added\"}"));
+        assertEquals(Priority.NORMAL, queue.getPriorityOfLine("dev", "{\"type\":\"change-merged\"}"));
+    }
+
+    /**
+     * Tests that the lanes are served by their weights.
+     *
+     * @throws InterruptedException if so.
+     */
+    @Test
+    public void testWeightedTurns() throws InterruptedException {
+        EventPriorityQueue queue = new EventPriorityQueue(null, new int[]{2, 1, 1}, 0, OverloadPolicy.DEFER);
+        List<Work> high = fill(queue, Priority.HIGH, 4);
+        List<Work> normal = fill(queue, Priority.NORMAL, 2);
+        List<Work> low = fill(queue, Priority.LOW, 2);
+        assertEquals(8, queue.size());
+        assertEquals(4, queue.getDepth(Priority.HIGH));
+
+        assertSame(high.get(0), queue.take());
+        assertSame(high.get(1), queue.take());
+        assertSame(normal.get(0), queue.take());
+        assertSame(low.get(0), queue.take());
+        assertSame(high.get(2), queue.take());
+        assertSame(high.get(3), queue.take());
+        assertSame(normal.get(1), queue.take());
+        assertSame(low.get(1), queue.take());
+        assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Tests that low priority events are shed when overloaded.
+     */
+    @Test
+    public void testShed() {
+        EventPriorityQueue queue = new EventPriorityQueue(null, new int[]{2, 1, 1}, 3, OverloadPolicy.SHED);
+        fill(queue, Priority.NORMAL, 3);
+        assertFalse(queue.offer(mock(Work.class), Priority.LOW));
+        assertTrue(queue.offer(mock(Work.class), Priority.HIGH));
+        assertEquals(1, queue.getShedCount(Priority.LOW));
+        assertEquals(0, queue.getDepth(Priority.LOW));
+        assertEquals(4, queue.size());
+    }
+
+    /**
+     * Tests that low priority events are only taken when nothing else is waiting when overloaded.
+     */
+    @Test
+    public void testDefer() {
+        EventPriorityQueue queue = new EventPriorityQueue(null, new int[]{1, 1, 1}, 2, OverloadPolicy.DEFER);
+        List<Work> normal = fill(queue, Priority.NORMAL, 3);
+        List<Work> low = fill(queue, Priority.LOW, 1);
+        assertEquals(1, queue.getDeferredCount(Priority.LOW));
+        assertSame(normal.get(0), queue.poll());
+        assertSame(normal.get(1), queue.poll());
+        assertSame(normal.get(2), queue.poll());
+        assertSame(low.get(0), queue.poll());
+
+        queue = new EventPriorityQueue(null, new int[]{1, 1, 1}, 0, OverloadPolicy.DEFER);
+        normal = fill(queue, Priority.NORMAL, 3);
+        low = fill(queue, Priority.LOW, 1);
+        assertEquals(0, queue.getDeferredCount(Priority.LOW));
+        assertSame(normal.get(0), queue.poll());
+        assertSame(low.get(0), queue.poll());
+        assertSame(normal.get(1), queue.poll());
+        assertSame(normal.get(2), queue.poll());
+    }
+
+    /**
+     * Tests that ref replicated events are never low priority, so they are never shed.
+     */
+    @Test
+    public void testRefReplicatedNotLow() {
+        EventPriorityQueue queue = new EventPriorityQueue(null, new int[]{2, 1, 1}, 0, OverloadPolicy.SHED);
+        queue.setRules("ref-replicated=low\n*=low\n");
+        assertEquals(Priority.NORMAL, queue.getPriority("dev", "ref-replicated"));
+        assertEquals(Priority.LOW, queue.getPriority("dev", "comment-added"));
+        assertEquals(Priority.NORMAL, queue.getPriorityOfLine("dev",
+                "{\"type\":\"ref-replicated\",\"project\":\"p\",\"ref\":\"refs/changes/01/1/1\"}"));
+
+        queue.setRules("dev:*=low\n");
+        assertEquals(Priority.NORMAL, queue.getPriority("dev", "ref-replicated"));
+        assertEquals(Priority.NORMAL, queue.getPriorityOfLine("dev", "{\"type\":\"ref-replicated\"}"));
+    }
+
+    /**
+     * Tests that the events of one change are taken in the order they were added, whatever their priority.
+     */
+    @Test
+    public void testChangeOrder() {
+        EventPriorityQueue queue = new EventPriorityQueue(null, new int[]{1, 1, 1}, 0, OverloadPolicy.DEFER);
+        Work first = mock(Work.class);
+        Work second = mock(Work.class);
+        Work other = mock(Work.class);
+        Work third = mock(Work.class);
+        assertTrue(queue.offer(first, Priority.LOW, "I1"));
+        assertTrue(queue.offer(second, Priority.HIGH, "I1"));
+        assertTrue(queue.offer(other, Priority.HIGH, "I2"));
+        assertSame(other, queue.poll());
+        assertSame(first, queue.poll());
+        assertSame(second, queue.poll());
+
+        assertTrue("Nothing of the change is waiting", queue.offer(third, Priority.HIGH, "I1"));
+        assertEquals(1, queue.getDepth(Priority.HIGH));
+        assertSame(third, queue.poll());
+    }
+
+    /**
+     * Tests the order key of a line from the stream.
+     */
+    @Test
+    public void testOrderKeyOfLine() {
+        assertEquals(EventPriorityQueue.getOrderKey("dev", "I1"), EventPriorityQueue.getOrderKeyOfLine("dev",
+                "{\"type\":\"comment-added\",\"change\":{\"project\":\"p\",\"id\":\"I1\",\"number\":1}}"));
+        assertNull(EventPriorityQueue.getOrderKeyOfLine("dev", "{\"type\":\"ref-updated\"}"));
+        assertNull(EventPriorityQueue.getOrderKey("dev", null));
+    }
+
+    /**
+     * Tests that work added directly to the handler's own queue is taken as normal priority.
+     *
+     * @throws InterruptedException if so.
+     */
+    @Test
+    public void testLegacyQueue() throws InterruptedException {
+        BlockingQueue<Work> legacy = new LinkedBlockingQueue<Work>();
+        EventPriorityQueue queue = new EventPriorityQueue(legacy, new int[]{1, 1, 1}, 0, OverloadPolicy.DEFER);
+        Work work = mock(Work.class);
+        legacy.put(work);
+        assertEquals(1, queue.size());
+        assertSame(work, queue.poll(1, TimeUnit.SECONDS));
+        assertTrue(legacy.isEmpty());
+    }
+
+    /**
+     * Adds mocked work to the queue.
+     *
+     * @param queue the queue.
+     * @param priority the priority.
+     * @param count how many.
+     * @return the work in the order it was added.
+     */
+    private static List<Work> fill(EventPriorityQueue queue, Priority priority, int count) {
+        List<Work> added = new ArrayList<Work>();
+        for (int i = 0; i < count; i++) {
+            Work work = mock(Work.class);
+            assertTrue(queue.offer(work, priority));
+            added.add(work);
+        }
+        return added;
+    }
+}
@@ -42,10 +42,12 @@ import hudson.model.FreeStyleProject;
 import hudson.model.Result;
 
 import java.net.URL;
+import java.util.Collections;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
@@ -354,4 +356,59 @@ public class GerritServerHudsonTest {
         gerritServerOne.start();
         assertTrue(gerritServerOne.isNoConnectionOnStartup());
     }
+
+    /**
+     * Tests that server lookup by name follows additions, renames and removals.
+     */
+    @Test
+    public void testServerLookupByName() {
+        PluginImpl plugin = PluginImpl.getInstance();
+        GerritServer gerritServerOne = new GerritServer(gerritServerOneName, true);
+        GerritServer gerritServerTwo = new GerritServer(gerritServerTwoName, true);
+        plugin.addServer(gerritServerOne);
+        plugin.addServer(gerritServerTwo);
+        assertSame(gerritServerOne, PluginImpl.getServer_(gerritServerOneName));
+        assertSame(gerritServerTwo, PluginImpl.getServer_(gerritServerTwoName));
+
+        gerritServerTwo.setName("renamed");
+        assertNull(PluginImpl.getServer_(gerritServerTwoName));
+        assertSame(gerritServerTwo, PluginImpl.getServer_("renamed"));
+
+        plugin.removeServer(gerritServerOne);
+        assertNull(PluginImpl.getServer_(gerritServerOneName));
+        assertFalse(PluginImpl.containsServer_(gerritServerOneName));
+        assertTrue(PluginImpl.containsServer_("renamed"));
+        assertNull(PluginImpl.getServer_(GerritServer.ANY_SERVER));
+    }
+
+    /**
+     * Tests that server lookup by name follows changes made directly to the list of servers.
+     */
+    @Test
+    public void testServerLookupAfterListChange() {
+        PluginImpl plugin = PluginImpl.getInstance();
+        GerritServer gerritServerOne = new GerritServer(gerritServerOneName, true);
+        plugin.getServers().add(gerritServerOne);
+        assertSame(gerritServerOne, PluginImpl.getServer_(gerritServerOneName));
+
+        plugin.getServers().remove(gerritServerOne);
+        assertNull(PluginImpl.getServer_(gerritServerOneName));
+
+        plugin.getServers().add(gerritServerOne);
+        plugin.getServers().removeIf(server -> gerritServerOneName.equals(server.getName()));
+        assertNull(PluginImpl.getServer_(gerritServerOneName));
+
+        plugin.getServers().add(gerritServerOne);
+        plugin.getServers().retainAll(Collections.emptyList());
+        assertNull(PluginImpl.getServer_(gerritServerOneName));
+
+        plugin.getServers().add(gerritServerOne);
+        plugin.getServers().removeAll(Collections.singletonList(gerritServerOne));
+        assertNull(PluginImpl.getServer_(gerritServerOneName));
+
+        plugin.getServers().add(gerritServerOne);
+        plugin.getServers().clear();
+        assertNull(PluginImpl.getServer_(gerritServerOneName));
+        assertTrue(plugin.getServers().isEmpty());
+    }
 }
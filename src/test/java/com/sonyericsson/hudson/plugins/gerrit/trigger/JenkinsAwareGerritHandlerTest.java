@@ -26,19 +26,33 @@ package com.sonyericsson.hudson.plugins.gerrit.trigger;
 
 //CS IGNORE LineLength FOR NEXT 1 LINES. REASON: static import.
 import static com.sonymobile.tools.gerrit.gerritevents.GerritDefaultValues.DEFAULT_NR_OF_RECEIVING_WORKER_THREADS;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.InOrder;
 
 import com.sonymobile.tools.gerrit.gerritevents.GerritEventListener;
+import com.sonymobile.tools.gerrit.gerritevents.dto.GerritEvent;
 import com.sonymobile.tools.gerrit.gerritevents.dto.events.PatchsetCreated;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.events.ManualPatchsetCreated;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.events.lifecycle.GerritEventLifecycleListener;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.EventListener;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.mock.Setup;
 
 /**
@@ -99,4 +113,70 @@ public class JenkinsAwareGerritHandlerTest {
         inOrder.verify(lifecycleListenerMock).triggerScanDone(manualPatchset);
     }
 
+    /**
+     * Tests that the callback of a posted event is run once the listeners have been notified about it.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    public void shouldRunCallbackWhenNotified() throws Exception {
+        GerritEventListener eventListenerMock = mock(GerritEventListener.class);
+        gerritHandler.addListener(eventListenerMock);
+        PatchsetCreated patchset = Setup.createPatchsetCreated();
+        CountDownLatch notified = new CountDownLatch(1);
+
+        gerritHandler.post(patchset, notified::countDown);
+
+        assertTrue(notified.await(TimeUnit.MINUTES.toMillis(1), TimeUnit.MILLISECONDS));
+        verify(eventListenerMock).gerritEvent(patchset);
+    }
+
+    //CS IGNORE MagicNumber FOR NEXT 50 LINES. REASON: testdata.
+    /**
+     * Tests that with a parallel scan all listeners are notified, the other listeners before the ones for jobs,
+     * and that the scan is only done when all of them have been.
+     */
+    @Test
+    public void shouldNotifyListenersInParallel() {
+        gerritHandler.setParallelScanThreshold(2);
+        final Set<String> threads = ConcurrentHashMap.newKeySet();
+        final AtomicBoolean otherNotified = new AtomicBoolean(false);
+        final AtomicBoolean jobNotifiedFirst = new AtomicBoolean(false);
+        GerritEventListener other = mock(GerritEventListener.class);
+        doAnswer(invocation -> {
+            otherNotified.set(true);
+            return null;
+        }).when(other).gerritEvent(any(GerritEvent.class));
+        gerritHandler.addListener(other);
+        List<EventListener> jobListeners = new ArrayList<EventListener>();
+        for (int i = 0; i < 500; i++) {
+            EventListener listener = mock(EventListener.class);
+            doAnswer(invocation -> {
+                threads.add(Thread.currentThread().getName());
+                if (!otherNotified.get()) {
+                    jobNotifiedFirst.set(true);
+                }
+                return null;
+            }).when(listener).gerritEvent(any(ManualPatchsetCreated.class));
+            jobListeners.add(listener);
+            gerritHandler.addListener(listener);
+        }
+        GerritEventLifecycleListener lifecycleListenerMock = mock(GerritEventLifecycleListener.class);
+        ManualPatchsetCreated manualPatchset = Setup.createManualPatchsetCreated();
+        manualPatchset.addListener(lifecycleListenerMock);
+        doAnswer(invocation -> {
+            for (EventListener listener : jobListeners) {
+                verify(listener).gerritEvent(any(ManualPatchsetCreated.class));
+            }
+            return null;
+        }).when(lifecycleListenerMock).triggerScanDone(manualPatchset);
+
+        EventAdmission.getInstance().invalidate();
+        gerritHandler.notifyListeners(manualPatchset);
+
+        verify(other).gerritEvent(any(GerritEvent.class));
+        verify(lifecycleListenerMock).triggerScanDone(manualPatchset);
+        assertFalse(jobNotifiedFirst.get());
+        assertTrue(threads.stream().allMatch(name -> name.startsWith("Gerrit trigger scan")));
+    }
 }
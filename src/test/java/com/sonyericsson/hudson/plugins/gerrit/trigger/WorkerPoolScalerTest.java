@@ -0,0 +1,148 @@
+/*
+ *  The MIT License
+ *
+ *  Copyright 2026 agent. All rights reserved.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package com.sonyericsson.hudson.plugins.gerrit.trigger;
+
+import com.sonyericsson.hudson.plugins.gerrit.trigger.config.PluginConfig;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link WorkerPoolScaler}.
+ *
+ * @author agent &lt;agent@local&gt;
+ */
+public class WorkerPoolScalerTest {
+
+    //CS IGNORE MagicNumber FOR NEXT 200 LINES. REASON: Test data.
+
+    private JenkinsAwareGerritHandler handler;
+    private PluginConfig config;
+    private WorkerPoolScaler.SendingPool sendingPool;
+    private WorkerPoolScaler scaler;
+
+    /**
+     * Creates a scaler with 3 receiving and 2 sending threads.
+     */
+    @Before
+    public void setUp() {
+        handler = mock(JenkinsAwareGerritHandler.class);
+        when(handler.getNumberOfBaseWorkerThreads()).thenReturn(3);
+        when(handler.getWorkerThreadCount()).thenReturn(3);
+        config = new PluginConfig();
+        config.setNumberOfReceivingWorkerThreads(3);
+        config.setNumberOfSendingWorkerThreads(2);
+        config.setMaxReceivingWorkerThreads(10);
+        config.setMaxSendingWorkerThreads(5);
+        sendingPool = mock(WorkerPoolScaler.SendingPool.class);
+        scaler = new WorkerPoolScaler(handler, () -> config, sendingPool);
+    }
+
+    /**
+     * Tests that the receiving pool is grown when events are waiting and none are handled.
+     */
+    @Test
+    public void testGrowsReceivingWhenBehind() {
+        when(handler.getQueuedWorkCount()).thenReturn(100);
+        scaler.adjust();
+        verify(handler).setNumberOfExtraWorkerThreads(3);
+        assertEquals("receiving", scaler.getDecisions().get(0).getPool());
+        assertEquals(6, scaler.getDecisions().get(0).getTo());
+    }
+
+    /**
+     * Tests that the receiving pool is not grown beyond the max.
+     */
+    @Test
+    public void testReceivingCappedAtMax() {
+        config.setMaxReceivingWorkerThreads(4);
+        when(handler.getQueuedWorkCount()).thenReturn(100);
+        scaler.adjust();
+        verify(handler).setNumberOfExtraWorkerThreads(1);
+    }
+
+    /**
+     * Tests that the receiving pool is left alone when the max is not set.
+     */
+    @Test
+    public void testFixedReceivingWithoutMax() {
+        config.setMaxReceivingWorkerThreads(0);
+        when(handler.getQueuedWorkCount()).thenReturn(100);
+        scaler.adjust();
+        verify(handler, never()).setNumberOfExtraWorkerThreads(anyInt());
+        assertTrue(scaler.getDecisions().isEmpty());
+    }
+
+    /**
+     * Tests that the receiving pool is shrunk one thread after being idle for a while.
+     */
+    @Test
+    public void testShrinksReceivingWhenIdle() {
+        when(handler.getWorkerThreadCount()).thenReturn(6);
+        for (int i = 1; i < WorkerPoolScaler.IDLE_INTERVALS; i++) {
+            scaler.adjust();
+        }
+        verify(handler, never()).setNumberOfExtraWorkerThreads(anyInt());
+        scaler.adjust();
+        verify(handler).setNumberOfExtraWorkerThreads(2);
+    }
+
+    /**
+     * Tests that the sending pool is grown by the number of waiting commands, up to the max.
+     */
+    @Test
+    public void testGrowsSendingByBacklog() {
+        when(sendingPool.getQueueSize()).thenReturn(3 * WorkerPoolScaler.SEND_BACKLOG_PER_THREAD);
+        scaler.adjust();
+        verify(sendingPool).resize(3);
+        assertEquals(3, scaler.getSendingThreads());
+
+        when(sendingPool.getQueueSize()).thenReturn(100 * WorkerPoolScaler.SEND_BACKLOG_PER_THREAD);
+        scaler.adjust();
+        verify(sendingPool).resize(5);
+        assertEquals(5, scaler.getSendingThreads());
+    }
+
+    /**
+     * Tests that lowering the max in the configuration shrinks the sending pool right away.
+     */
+    @Test
+    public void testConfigurationChanged() {
+        when(sendingPool.getQueueSize()).thenReturn(100 * WorkerPoolScaler.SEND_BACKLOG_PER_THREAD);
+        scaler.adjust();
+        verify(sendingPool).resize(5);
+
+        config.setMaxSendingWorkerThreads(0);
+        scaler.configurationChanged();
+        assertEquals(2, scaler.getSendingThreads());
+        verify(sendingPool, never()).resize(2);
+    }
+}
@@ -74,6 +74,8 @@ public class PluginConfigTest {
         PluginConfig config = new PluginConfig(form);
         assertEquals(6, config.getNumberOfReceivingWorkerThreads());
         assertEquals(4, config.getNumberOfSendingWorkerThreads());
+        assertEquals(0, config.getMaxReceivingWorkerThreads());
+        assertEquals(0, config.getMaxSendingWorkerThreads());
         assertEquals(Arrays.asList(events.split(" ")), config.getFilterIn());
         for (GerritEventType type : GerritEventType.values()) {
             if (events.contains(type.getTypeValue())) {
@@ -96,12 +98,18 @@ public class PluginConfigTest {
         String formString = "{"
                 + "\"numberOfSendingWorkerThreads\":\"4\","
                 + "\"numberOfReceivingWorkerThreads\":\"6\","
+                + "\"maxSendingWorkerThreads\":\"8\","
+                + "\"maxReceivingWorkerThreads\":\"12\","
+                + "\"eventPriorities\":\"comment-added=low\","
                 + "\"filterIn\":\"" + events + "\"}";
         JSONObject form = (JSONObject)JSONSerializer.toJSON(formString);
         PluginConfig initialConfig = new PluginConfig(form);
         PluginConfig config = new PluginConfig(initialConfig);
         assertEquals(6, config.getNumberOfReceivingWorkerThreads());
         assertEquals(4, config.getNumberOfSendingWorkerThreads());
+        assertEquals(12, config.getMaxReceivingWorkerThreads());
+        assertEquals(8, config.getMaxSendingWorkerThreads());
+        assertEquals("comment-added=low", config.getEventPriorities());
         assertEquals(Arrays.asList(events.split(" ")), config.getFilterIn());
         for (GerritEventType type : GerritEventType.values()) {
             assertFalse(type.isInteresting());
@@ -0,0 +1,126 @@
+/*
+ *  The MIT License
+ *
+ *  Copyright 2026 agent. All rights reserved.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package com.sonyericsson.hudson.plugins.gerrit.trigger.diagnostics;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for {@link ReportSnapshot}.
+ *
+ * @author agent &lt;agent@local&gt;
+ */
+public class ReportSnapshotTest {
+
+    private static final long SHORT_AGE = 50;
+    private static final long LONG_AGE = 60000;
+    private static final long WAIT = 200;
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Creates the scheduler reports are published on.
+     */
+    @Before
+    public void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    /**
+     * Stops the scheduler.
+     */
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Tests that a snapshot tracking changes is only published again after a change and that reading it
+     * never produces it.
+     * @throws Exception if so.
+     */
+    @Test
+    public void testOnChange() throws Exception {
+        AtomicInteger produced = new AtomicInteger();
+        ReportSnapshot<Integer> snapshot = onChange(produced, SHORT_AGE);
+
+        assertEquals(0, snapshot.get().intValue());
+        Thread.sleep(WAIT);
+        assertEquals("Nothing changed", 0, snapshot.get().intValue());
+        assertEquals(0, produced.get());
+
+        snapshot.changed();
+        snapshot.changed();
+        Thread.sleep(WAIT);
+        assertEquals(1, snapshot.get().intValue());
+        assertEquals("Changes are published once", 1, produced.get());
+    }
+
+    /**
+     * Tests that a changed snapshot is not published again until it is old enough.
+     */
+    @Test
+    public void testOnChangeNotOldEnough() {
+        AtomicInteger produced = new AtomicInteger();
+        ReportSnapshot<Integer> snapshot = onChange(produced, LONG_AGE);
+
+        snapshot.changed();
+        assertEquals(0, snapshot.get().intValue());
+        assertEquals(0, produced.get());
+    }
+
+    /**
+     * Tests that a timed snapshot is produced again when it is old enough.
+     * @throws Exception if so.
+     */
+    @Test
+    public void testTimed() throws Exception {
+        AtomicInteger produced = new AtomicInteger();
+        ReportSnapshot<Integer> snapshot =
+                new ReportSnapshot<Integer>(produced::incrementAndGet, SHORT_AGE, false, null, null);
+
+        assertEquals(1, snapshot.get().intValue());
+        assertEquals(1, snapshot.get().intValue());
+        Thread.sleep(WAIT);
+        assertEquals(2, snapshot.get().intValue());
+    }
+
+    /**
+     * A snapshot tracking changes, starting at 0.
+     *
+     * @param produced counts the produced reports.
+     * @param maxAgeMillis the longest time a report is shown after a change.
+     * @return the snapshot.
+     */
+    private ReportSnapshot<Integer> onChange(AtomicInteger produced, long maxAgeMillis) {
+        return new ReportSnapshot<Integer>(produced::incrementAndGet, maxAgeMillis, true, 0, () -> scheduler);
+    }
+}
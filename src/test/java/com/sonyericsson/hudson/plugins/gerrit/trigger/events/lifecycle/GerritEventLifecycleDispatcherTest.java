@@ -0,0 +1,242 @@
+/*
+ *  The MIT License
+ *
+ *  Copyright 2026 agent. All rights reserved.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package com.sonyericsson.hudson.plugins.gerrit.trigger.events.lifecycle;
+
+import com.sonyericsson.hudson.plugins.gerrit.trigger.events.ManualPatchsetCreated;
+import com.sonymobile.tools.gerrit.gerritevents.dto.GerritEvent;
+import hudson.model.Job;
+import hudson.model.Run;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link GerritEventLifecycleDispatcher}.
+ */
+public class GerritEventLifecycleDispatcherTest {
+
+    //CS IGNORE MagicNumber FOR NEXT 140 LINES. REASON: Test data.
+
+    private ExecutorService executor;
+    private GerritEventLifecycleDispatcher dispatcher;
+
+    /**
+     * Creates a dispatcher with one thread.
+     */
+    @Before
+    public void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+        dispatcher = new GerritEventLifecycleDispatcher(executor);
+    }
+
+    /**
+     * Stops the thread.
+     */
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Tests that notifications are delivered in the order they were fired.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    public void testOrderedDelivery() throws Exception {
+        ManualPatchsetCreated event = new ManualPatchsetCreated();
+        RecordingListener listener = new RecordingListener();
+        Run build = mock(Run.class);
+        List<RecordingListener> listeners = Collections.singletonList(listener);
+        dispatcher.dispatch(event, listeners, LifecycleCallback.TRIGGER_SCAN_STARTING, null, null);
+        dispatcher.dispatch(event, listeners, LifecycleCallback.TRIGGER_SCAN_DONE, null, null);
+        dispatcher.dispatch(event, listeners, LifecycleCallback.BUILD_STARTED, null, build);
+        dispatcher.dispatch(event, listeners, LifecycleCallback.BUILD_COMPLETED, null, build);
+        dispatcher.dispatch(event, listeners, LifecycleCallback.ALL_BUILDS_COMPLETED, null, null);
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(Arrays.asList(LifecycleCallback.TRIGGER_SCAN_STARTING, LifecycleCallback.TRIGGER_SCAN_DONE,
+                LifecycleCallback.BUILD_STARTED, LifecycleCallback.BUILD_COMPLETED,
+                LifecycleCallback.ALL_BUILDS_COMPLETED), listener.received);
+        assertSame(event, listener.event);
+        assertEquals(0, dispatcher.getPendingCount());
+        assertEquals(5, dispatcher.getDeliveredCount());
+    }
+
+    /**
+     * Tests that notifications to a coalescing listener that a later one of the same kind about the same
+     * project makes obsolete are dropped, while a plain async listener gets all of them.
+     */
+    @Test
+    public void testCoalesce() {
+        GerritEventLifecycleListener plain = new RecordingListener();
+        GerritEventLifecycleListener coalescing = new CoalescingRecordingListener();
+        Job project = mock(Job.class);
+        List<GerritEventLifecycleDispatcher.Notification> batch =
+                new ArrayList<GerritEventLifecycleDispatcher.Notification>();
+        for (int i = 0; i < 2; i++) {
+            for (GerritEventLifecycleListener listener : Arrays.asList(plain, coalescing)) {
+                batch.add(new GerritEventLifecycleDispatcher.Notification(listener,
+                        LifecycleCallback.TRIGGER_SCAN_STARTING, null, null));
+                batch.add(new GerritEventLifecycleDispatcher.Notification(listener,
+                        LifecycleCallback.PROJECT_TRIGGERED, project, null));
+            }
+        }
+        List<GerritEventLifecycleDispatcher.Notification> result = GerritEventLifecycleDispatcher.coalesce(batch);
+        assertEquals(Arrays.asList(batch.get(0), batch.get(1), batch.get(4), batch.get(5), batch.get(6),
+                batch.get(7)), result);
+    }
+
+    /**
+     * Tests that a coalescing listener is told about every project and the latest build of every job,
+     * with the project and build each notification was fired with.
+     */
+    @Test
+    public void testCoalesceKeepsProjectAndBuild() {
+        GerritEventLifecycleListener coalescing = new CoalescingRecordingListener();
+        Job first = mock(Job.class);
+        Job second = mock(Job.class);
+        Run firstBuild = mock(Run.class);
+        Run secondBuild = mock(Run.class);
+        Run newerSecondBuild = mock(Run.class);
+        when(firstBuild.getParent()).thenReturn(first);
+        when(secondBuild.getParent()).thenReturn(second);
+        when(newerSecondBuild.getParent()).thenReturn(second);
+        List<GerritEventLifecycleDispatcher.Notification> batch = Arrays.asList(
+                new GerritEventLifecycleDispatcher.Notification(coalescing, LifecycleCallback.PROJECT_TRIGGERED,
+                        first, null),
+                new GerritEventLifecycleDispatcher.Notification(coalescing, LifecycleCallback.PROJECT_TRIGGERED,
+                        second, null),
+                new GerritEventLifecycleDispatcher.Notification(coalescing, LifecycleCallback.BUILD_STARTED,
+                        null, firstBuild),
+                new GerritEventLifecycleDispatcher.Notification(coalescing, LifecycleCallback.BUILD_STARTED,
+                        null, secondBuild),
+                new GerritEventLifecycleDispatcher.Notification(coalescing, LifecycleCallback.BUILD_STARTED,
+                        null, newerSecondBuild),
+                new GerritEventLifecycleDispatcher.Notification(coalescing, LifecycleCallback.ALL_BUILDS_COMPLETED,
+                        null, null));
+        List<GerritEventLifecycleDispatcher.Notification> result = GerritEventLifecycleDispatcher.coalesce(batch);
+        assertEquals(5, result.size());
+        assertSame(first, result.get(0).getProject());
+        assertSame(second, result.get(1).getProject());
+        assertSame(firstBuild, result.get(2).getBuild());
+        assertSame(newerSecondBuild, result.get(3).getBuild());
+        assertEquals(LifecycleCallback.ALL_BUILDS_COMPLETED, result.get(4).getCallback());
+    }
+
+    /**
+     * Tests that the dispatcher is not started again after it has been shut down,
+     * but delivers on the calling thread until it is initialized.
+     */
+    @Test
+    public void testNoRestartAfterShutdown() {
+        GerritEventLifecycleDispatcher.initialize();
+        GerritEventLifecycleDispatcher.shutdown();
+        try {
+            GerritEventLifecycleDispatcher stopped = GerritEventLifecycleDispatcher.getInstance();
+            assertSame(stopped, GerritEventLifecycleDispatcher.getInstance());
+            RecordingListener listener = new RecordingListener();
+            stopped.dispatch(new ManualPatchsetCreated(), Collections.singletonList(listener),
+                    LifecycleCallback.ALL_BUILDS_COMPLETED, null, null);
+            assertEquals(Collections.singletonList(LifecycleCallback.ALL_BUILDS_COMPLETED), listener.received);
+
+            GerritEventLifecycleDispatcher.initialize();
+            assertNotSame(stopped, GerritEventLifecycleDispatcher.getInstance());
+        } finally {
+            GerritEventLifecycleDispatcher.shutdown();
+        }
+    }
+
+    /**
+     * Records what it was notified about.
+     */
+    static class RecordingListener implements AsyncGerritEventLifecycleListener {
+        private final List<LifecycleCallback> received = new ArrayList<LifecycleCallback>();
+        private GerritEvent event;
+
+        @Override
+        public void triggerScanStarting(GerritEvent e) {
+            record(e, LifecycleCallback.TRIGGER_SCAN_STARTING);
+        }
+
+        @Override
+        public void triggerScanDone(GerritEvent e) {
+            record(e, LifecycleCallback.TRIGGER_SCAN_DONE);
+        }
+
+        @Override
+        public void projectTriggered(GerritEvent e, Job project) {
+            record(e, LifecycleCallback.PROJECT_TRIGGERED);
+        }
+
+        @Override
+        public void buildStarted(GerritEvent e, Run build) {
+            record(e, LifecycleCallback.BUILD_STARTED);
+        }
+
+        @Override
+        public void buildCompleted(GerritEvent e, Run build) {
+            record(e, LifecycleCallback.BUILD_COMPLETED);
+        }
+
+        @Override
+        public void allBuildsCompleted(GerritEvent e) {
+            record(e, LifecycleCallback.ALL_BUILDS_COMPLETED);
+        }
+
+        /**
+         * Records the notification.
+         *
+         * @param e the event.
+         * @param callback what was called.
+         */
+        private synchronized void record(GerritEvent e, LifecycleCallback callback) {
+            this.event = e;
+            received.add(callback);
+        }
+    }
+
+    /**
+     * A coalescing variant.
+     */
+    static class CoalescingRecordingListener extends RecordingListener
+            implements CoalescingGerritEventLifecycleListener {
+    }
+}
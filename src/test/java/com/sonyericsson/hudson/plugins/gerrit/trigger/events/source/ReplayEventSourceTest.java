@@ -0,0 +1,205 @@
+/*
+ *  The MIT License
+ *
+ *  Copyright 2026 agent. All rights reserved.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package com.sonyericsson.hudson.plugins.gerrit.trigger.events.source;
+
+import com.sonyericsson.jenkins.plugins.bfa.test.utils.Whitebox;
+import com.sonymobile.tools.gerrit.gerritevents.GerritHandler;
+import com.sonymobile.tools.gerrit.gerritevents.dto.GerritEvent;
+import com.sonymobile.tools.gerrit.gerritevents.dto.events.PatchsetCreated;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
+
+import java.io.File;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+//CS IGNORE MagicNumber FOR NEXT 300 LINES. REASON: testdata.
+/**
+ * Tests for {@link RecordingEventSource} and {@link ReplayEventSource}.
+ *
+ * @author agent &lt;agent@local&gt;
+ */
+public class ReplayEventSourceTest {
+
+    /**
+     * The folder to record to.
+     */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * A patchset-created event for the given change number.
+     *
+     * @param number the change number.
+     * @return the JSON.
+     */
+    private static String event(int number) {
+        return "{\"type\":\"patchset-created\",\"change\":{\"project\":\"project\",\"branch\":\"master\","
+                + "\"id\":\"Icae2322236e0e521950a0232effda08d6ffcdab7\",\"number\":\"" + number + "\","
+                + "\"subject\":\"Subject\",\"owner\":{\"name\":\"Owner\",\"email\":\"owner@example.com\"},"
+                + "\"url\":\"https://gerrit.example.com/" + number + "\",\"status\":\"NEW\"},"
+                + "\"patchSet\":{\"number\":\"1\",\"revision\":\"607eea8f472235b3ee47483b630003250764dab2\","
+                + "\"ref\":\"refs/changes/01/" + number + "/1\","
+                + "\"uploader\":{\"name\":\"Owner\",\"email\":\"owner@example.com\"},\"createdOn\":1413448337},"
+                + "\"uploader\":{\"name\":\"Owner\",\"email\":\"owner@example.com\"}}";
+    }
+
+    /**
+     * Tests that the streams of two servers are recorded and played back merged, with the server names.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    public void testRecordAndReplay() throws Exception {
+        File directory = folder.newFolder();
+        RecordingEventSource recorder = new RecordingEventSource(directory, 1024 * 1024, 10);
+        recorder.onReceived("gerrit one", event(1));
+        recorder.onReceived("gerrit2", event(2));
+        recorder.onReceived("gerrit one", "not json");
+        recorder.onReceived("gerrit one", event(3));
+        recorder.stop();
+        assertEquals(1, RecordingEventSource.listRecordings(recorder.getServerDirectory("gerrit one")).length);
+        assertEquals(1, RecordingEventSource.listRecordings(recorder.getServerDirectory("gerrit2")).length);
+        assertEquals(0, recorder.getDroppedCount());
+
+        GerritHandler handler = mock(GerritHandler.class);
+        assertEquals(3, new ReplayEventSource(directory, 0, true).replay(handler));
+        ArgumentCaptor<GerritEvent> events = ArgumentCaptor.forClass(GerritEvent.class);
+        verify(handler, times(3)).post(events.capture());
+        List<GerritEvent> posted = events.getAllValues();
+        int fromOne = 0;
+        for (GerritEvent event : posted) {
+            PatchsetCreated created = (PatchsetCreated)event;
+            if ("gerrit one".equals(created.getProvider().getName())) {
+                fromOne++;
+            } else {
+                assertEquals("gerrit2", created.getProvider().getName());
+                assertEquals("2", created.getChange().getNumber());
+            }
+        }
+        assertEquals(2, fromOne);
+    }
+
+    /**
+     * Tests that files are rolled over when full and that only the newest are kept.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    public void testRollOver() throws Exception {
+        File directory = folder.newFolder();
+        RecordingEventSource recorder = new RecordingEventSource(directory, 1, 2);
+        for (int i = 1; i <= 5; i++) {
+            recorder.onReceived("gerrit1", event(i));
+        }
+        recorder.stop();
+        assertEquals(2, RecordingEventSource.listRecordings(recorder.getServerDirectory("gerrit1")).length);
+
+        GerritHandler handler = mock(GerritHandler.class);
+        assertEquals(2, new ReplayEventSource(directory, 0, true).replay(handler));
+        ArgumentCaptor<GerritEvent> events = ArgumentCaptor.forClass(GerritEvent.class);
+        verify(handler, times(2)).post(events.capture());
+        assertEquals("4", ((PatchsetCreated)events.getAllValues().get(0)).getChange().getNumber());
+        assertEquals("5", ((PatchsetCreated)events.getAllValues().get(1)).getChange().getNumber());
+    }
+
+    /**
+     * Tests that a dry run reads the recordings without posting anything.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    public void testDryRun() throws Exception {
+        File directory = folder.newFolder();
+        RecordingEventSource recorder = new RecordingEventSource(directory, 1024 * 1024, 10);
+        recorder.onReceived("gerrit1", event(1));
+        recorder.onReceived("gerrit1", event(2));
+        recorder.stop();
+
+        GerritHandler handler = mock(GerritHandler.class);
+        assertEquals(2, new ReplayEventSource(directory, 0, false).replay(handler));
+        verifyNoInteractions(handler);
+    }
+
+    /**
+     * Tests that lines are dropped instead of waited for when too many are waiting to be written.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    public void testDropWhenFull() throws Exception {
+        File directory = folder.newFolder();
+        RecordingEventSource recorder = new RecordingEventSource(directory, 1024 * 1024, 10, 1);
+        Object files = Whitebox.getInternalState(recorder, "files");
+        //Holding the lock of the files keeps the writer from taking more than one line from the queue.
+        synchronized (files) {
+            for (int i = 1; i <= 3; i++) {
+                recorder.onReceived("gerrit1", event(i));
+            }
+        }
+        recorder.stop();
+        assertTrue(recorder.getDroppedCount() >= 1);
+    }
+
+    /**
+     * Tests that different server names get different directories.
+     */
+    @Test
+    public void testDirectoryNames() {
+        assertNotEquals(RecordingEventSource.toDirectoryName("gerrit one"),
+                RecordingEventSource.toDirectoryName("gerrit_one"));
+        assertEquals("gerrit_20one", RecordingEventSource.toDirectoryName("gerrit one"));
+        assertEquals("gerrit_5Fone", RecordingEventSource.toDirectoryName("gerrit_one"));
+        assertEquals("_2E_2E", RecordingEventSource.toDirectoryName(".."));
+        assertEquals("g_C3_A9", RecordingEventSource.toDirectoryName("g\u00e9"));
+    }
+
+    /**
+     * Tests reading records.
+     */
+    @Test
+    public void testParseRecord() {
+        StreamRecord record = StreamRecord.parse(
+                StreamRecord.format(42, StreamRecord.serverField("a\tb c"), "{\"a\":\"\\t\"}").trim());
+        assertEquals(42, record.getTime());
+        assertEquals("a\tb c", record.getServerName());
+        assertEquals("{\"a\":\"\\t\"}", record.getLine());
+
+        record = StreamRecord.parse(StreamRecord.format(7, StreamRecord.serverField(null), "{}").trim());
+        assertNull(record.getServerName());
+
+        assertNull(StreamRecord.parse("garbage"));
+        assertNull(StreamRecord.parse("x\ty\tz"));
+    }
+}
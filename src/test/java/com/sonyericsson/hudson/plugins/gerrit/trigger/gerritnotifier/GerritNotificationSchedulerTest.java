@@ -0,0 +1,322 @@
+/*
+ *  The MIT License
+ *
+ *  Copyright 2026 agent. All rights reserved.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier;
+
+import com.sonyericsson.hudson.plugins.gerrit.trigger.PluginImpl;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.events.ManualPatchsetCreated;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.job.NotificationCommandJob;
+import com.sonymobile.tools.gerrit.gerritevents.dto.events.PatchsetCreated;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Arrays;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.GerritNotificationScheduler.Priority;
+import static com.sonyericsson.hudson.plugins.gerrit.trigger.mock.Setup.createPatchsetCreated;
+import static java.util.Collections.singleton;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link GerritNotificationScheduler}.
+ */
+public class GerritNotificationSchedulerTest {
+
+    private static final String SERVER = PluginImpl.DEFAULT_SERVER_NAME;
+    private static final String JOB = "job";
+    private static final String OTHER_JOB = "other job";
+
+    private ScheduledExecutorService retryScheduler;
+    private GerritNotificationScheduler scheduler;
+    private NotificationCommandJob blocker;
+
+    /**
+     * Creates a scheduler sending one job at a time and occupies it.
+     */
+    @Before
+    public void setUp() {
+        retryScheduler = mock(ScheduledExecutorService.class);
+        scheduler = new GerritNotificationScheduler(1, 2, TimeUnit.MINUTES.toMillis(10), retryScheduler);
+        blocker = job();
+        scheduler.schedule(SERVER, Priority.BUILD_STARTED, event("1"), blocker);
+        verify(blocker).queue();
+    }
+
+    /**
+     * Tests that completed notifications are sent before started notifications.
+     */
+    @Test
+    public void testCompletedBeforeStarted() {
+        NotificationCommandJob started = job();
+        NotificationCommandJob completed = job();
+        scheduler.schedule(SERVER, Priority.BUILD_STARTED, event("2"), started);
+        scheduler.schedule(SERVER, Priority.BUILD_COMPLETED, event("3"), completed);
+        verify(started, never()).queue();
+        verify(completed, never()).queue();
+        assertEquals(1, scheduler.getStatus().get(0).getPendingStarted());
+        assertEquals(1, scheduler.getStatus().get(0).getPendingCompleted());
+
+        finish(blocker);
+        verify(completed).queue();
+        verify(started, never()).queue();
+        finish(completed);
+        verify(started).queue();
+    }
+
+    /**
+     * Tests that a waiting started notification is dropped when the event completes.
+     */
+    @Test
+    public void testObsoleteStartedIsDropped() {
+        PatchsetCreated event = event("4");
+        NotificationCommandJob started = job();
+        NotificationCommandJob completed = job();
+        scheduler.schedule(SERVER, Priority.BUILD_STARTED, event, started);
+        scheduler.schedule(SERVER, Priority.BUILD_COMPLETED, event, completed);
+        assertEquals(1, scheduler.getObsoleteCount());
+
+        finish(blocker);
+        finish(completed);
+        verify(started, never()).queue();
+        assertEquals(0, scheduler.getStatus().get(0).getInFlight());
+    }
+
+    /**
+     * Tests that the oldest started notifications are dropped when too many are waiting.
+     */
+    @Test
+    public void testOverflow() {
+        NotificationCommandJob first = job();
+        NotificationCommandJob second = job();
+        NotificationCommandJob third = job();
+        scheduler.schedule(SERVER, Priority.BUILD_STARTED, event("5"), first);
+        scheduler.schedule(SERVER, Priority.BUILD_STARTED, event("6"), second);
+        scheduler.schedule(SERVER, Priority.BUILD_STARTED, event("7"), third);
+        assertEquals(1, scheduler.getOverflowCount());
+
+        finish(blocker);
+        finish(second);
+        verify(first, never()).queue();
+        verify(third).queue();
+    }
+
+    /**
+     * Tests that servers don't wait for each other.
+     */
+    @Test
+    public void testPerServer() {
+        NotificationCommandJob other = job();
+        scheduler.schedule("other", Priority.BUILD_STARTED, event("8"), other);
+        verify(other).queue();
+        assertEquals(2, scheduler.getStatus().size());
+    }
+
+    /**
+     * Tests that notifications for a patch set superseded by a newer one are dropped.
+     */
+    @Test
+    public void testSuperseded() {
+        NotificationCommandJob started = job();
+        NotificationCommandJob aborted = job();
+        NotificationCommandJob completed = job();
+        NotificationCommandJob late = job();
+        scheduler.schedule(SERVER, Priority.BUILD_STARTED, event("9", "1"), started, singleton(JOB));
+        scheduler.supersede(event("9", "2"), JOB);
+        assertEquals(0, scheduler.getStatus().get(0).getPendingStarted());
+
+        scheduler.schedule(SERVER, Priority.BUILD_STARTED, event("9", "1"), late, singleton(JOB));
+        scheduler.schedule(SERVER, Priority.BUILD_COMPLETED, event("9", "1"), aborted, singleton(JOB));
+        scheduler.schedule(SERVER, Priority.BUILD_COMPLETED, event("9", "1"), completed);
+        assertEquals(3, scheduler.getSupersededCount());
+
+        finish(blocker);
+        verify(completed).queue();
+        verify(started, never()).queue();
+        verify(late, never()).queue();
+        verify(aborted, never()).queue();
+    }
+
+    /**
+     * Tests that superseding the builds of one job keeps the notifications about the builds of other jobs
+     * for the same change.
+     */
+    @Test
+    public void testSupersededPerJob() {
+        NotificationCommandJob otherStarted = job();
+        NotificationCommandJob bothAborted = job();
+        scheduler.supersede(event("16", "2"), JOB);
+        scheduler.schedule(SERVER, Priority.BUILD_STARTED, event("16", "1"), otherStarted, singleton(OTHER_JOB));
+        scheduler.schedule(SERVER, Priority.BUILD_COMPLETED, event("16", "1"), bothAborted,
+                Arrays.asList(JOB, OTHER_JOB));
+        assertEquals(0, scheduler.getSupersededCount());
+
+        scheduler.supersede(event("16", "2"), OTHER_JOB);
+        assertEquals(2, scheduler.getSupersededCount());
+        finish(blocker);
+        verify(otherStarted, never()).queue();
+        verify(bothAborted, never()).queue();
+    }
+
+    /**
+     * Tests that manually triggered builds of an old patch set are still reported.
+     */
+    @Test
+    public void testSupersededManual() {
+        scheduler.supersede(event("10", "2"), JOB);
+        ManualPatchsetCreated manual = new ManualPatchsetCreated();
+        manual.setChange(event("10", "1").getChange());
+        manual.setPatchset(event("10", "1").getPatchSet());
+        manual.setProvider(event("10", "1").getProvider());
+        NotificationCommandJob started = job();
+        scheduler.schedule(SERVER, Priority.BUILD_STARTED, manual, started, singleton(JOB));
+        finish(blocker);
+        verify(started).queue();
+    }
+
+    /**
+     * Tests that a job the send-command queue refuses frees its slot and is tried again first.
+     */
+    @Test
+    public void testRefusedIsPutBack() {
+        NotificationCommandJob refused = mock(NotificationCommandJob.class);
+        NotificationCommandJob started = job();
+        scheduler.schedule(SERVER, Priority.BUILD_COMPLETED, event("11"), refused);
+        scheduler.schedule(SERVER, Priority.BUILD_STARTED, event("12"), started);
+        finish(blocker);
+        verify(refused).queue();
+        assertEquals(0, scheduler.getStatus().get(0).getInFlight());
+        assertEquals(1, scheduler.getStatus().get(0).getPendingCompleted());
+        verify(started, never()).queue();
+
+        when(refused.queue()).thenReturn(true);
+        scheduler.schedule(SERVER, Priority.BUILD_STARTED, event("13"), job());
+        verify(refused, times(2)).queue();
+        verify(started, never()).queue();
+    }
+
+    /**
+     * Tests that refused jobs are tried again on their own with a growing delay, which starts over
+     * once a job gets through.
+     */
+    @Test
+    public void testRefusedIsRetried() {
+        //CS IGNORE MagicNumber FOR NEXT 30 LINES. REASON: Test data.
+        NotificationCommandJob refused = mock(NotificationCommandJob.class);
+        scheduler.schedule(SERVER, Priority.BUILD_COMPLETED, event("16"), refused);
+        finish(blocker);
+        verify(refused).queue();
+        ArgumentCaptor<Runnable> retry = ArgumentCaptor.forClass(Runnable.class);
+        verify(retryScheduler).schedule(retry.capture(), eq(2L), eq(TimeUnit.SECONDS));
+
+        retry.getValue().run();
+        verify(refused, times(2)).queue();
+        verify(retryScheduler).schedule(retry.capture(), eq(4L), eq(TimeUnit.SECONDS));
+
+        when(refused.queue()).thenReturn(true);
+        retry.getValue().run();
+        verify(refused, times(3)).queue();
+        assertEquals(1, scheduler.getStatus().get(0).getInFlight());
+        assertEquals(0, scheduler.getStatus().get(0).getPendingCompleted());
+
+        ArgumentCaptor<Runnable> callback = ArgumentCaptor.forClass(Runnable.class);
+        verify(refused, atLeastOnce()).setCompletionCallback(callback.capture());
+        callback.getValue().run();
+        NotificationCommandJob refusedAgain = mock(NotificationCommandJob.class);
+        scheduler.schedule(SERVER, Priority.BUILD_COMPLETED, event("17"), refusedAgain);
+        verify(retryScheduler, times(2)).schedule(any(Runnable.class), eq(2L), eq(TimeUnit.SECONDS));
+    }
+
+    /**
+     * Tests that waiting build completed notifications are sent on flush, and waiting build started ones are not.
+     */
+    @Test
+    public void testFlushSendsCompleted() {
+        NotificationCommandJob started = job();
+        NotificationCommandJob completed = job();
+        scheduler.schedule(SERVER, Priority.BUILD_STARTED, event("14"), started);
+        scheduler.schedule(SERVER, Priority.BUILD_COMPLETED, event("15"), completed);
+        scheduler.flush();
+        verify(completed).queue();
+        verify(started, never()).queue();
+        assertEquals(0, scheduler.getStatus().size());
+    }
+
+    /**
+     * A job that the send-command queue accepts.
+     *
+     * @return the job.
+     */
+    private static NotificationCommandJob job() {
+        NotificationCommandJob job = mock(NotificationCommandJob.class);
+        when(job.queue()).thenReturn(true);
+        return job;
+    }
+
+    /**
+     * An event for a patch set of a change.
+     *
+     * @param number the change number.
+     * @param patchSet the patch set number.
+     * @return the event.
+     */
+    private static PatchsetCreated event(String number, String patchSet) {
+        PatchsetCreated event = event(number);
+        event.getPatchSet().setNumber(patchSet);
+        return event;
+    }
+
+    /**
+     * An event for a change of its own.
+     *
+     * @param number the change number.
+     * @return the event.
+     */
+    private static PatchsetCreated event(String number) {
+        PatchsetCreated event = createPatchsetCreated();
+        event.getChange().setNumber(number);
+        event.getChange().setId("I" + number);
+        return event;
+    }
+
+    /**
+     * Runs the completion callback given to the job, like the job does when it has run.
+     *
+     * @param job the job.
+     */
+    private static void finish(NotificationCommandJob job) {
+        ArgumentCaptor<Runnable> callback = ArgumentCaptor.forClass(Runnable.class);
+        verify(job).setCompletionCallback(callback.capture());
+        callback.getValue().run();
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ *  The MIT License
+ *
+ *  Copyright 2026 agent. All rights reserved.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.job.ssh;
+
+import com.sonymobile.tools.gerrit.gerritevents.GerritConnectionConfig;
+import com.sonymobile.tools.gerrit.gerritevents.ssh.Authentication;
+import com.sonymobile.tools.gerrit.gerritevents.ssh.SshConnection;
+import com.sonymobile.tools.gerrit.gerritevents.ssh.SshException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link SshSessionPool}.
+ */
+public class SshSessionPoolTest {
+
+    private GerritConnectionConfig config;
+    private SshSessionPool.ConnectionFactory factory;
+    private SshSessionPool pool;
+
+    /**
+     * Creates a pool with a mocked connection factory.
+     */
+    @Before
+    public void setUp() {
+        config = mock(GerritConnectionConfig.class);
+        when(config.getGerritHostName()).thenReturn("gerrit");
+        factory = mock(SshSessionPool.ConnectionFactory.class);
+        pool = new SshSessionPool(factory, 1, TimeUnit.MINUTES.toMillis(5), false);
+    }
+
+    /**
+     * Closes the sessions.
+     */
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Tests that a session is reused for the next command.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    public void testReuse() throws Exception {
+        SshConnection connection = connection();
+        when(factory.open(config)).thenReturn(connection);
+        assertEquals("ok", pool.execute(config, "gerrit review 1,1"));
+        assertEquals("ok", pool.execute(config, "gerrit review 1,2"));
+        verify(factory, times(1)).open(config);
+        verify(connection, never()).disconnect();
+        assertEquals(2, pool.getCommandCount());
+        assertEquals(1, pool.getSessionCount());
+        assertEquals(0.5, pool.getReuseRatio(), 0.001);
+        assertEquals(1, pool.getIdleCount());
+    }
+
+    /**
+     * Tests that a session closed by the server is replaced.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    public void testClosedSessionIsReplaced() throws Exception {
+        SshConnection first = connection();
+        SshConnection second = connection();
+        when(factory.open(config)).thenReturn(first, second);
+        pool.execute(config, "gerrit review 1,1");
+        when(first.isConnected()).thenReturn(false);
+        pool.execute(config, "gerrit review 1,2");
+        verify(first).disconnect();
+        verify(second).executeCommand("gerrit review 1,2");
+    }
+
+    /**
+     * Tests that a command that a reused session refuses because it is not connected is retried on a new one.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    public void testRetryOnNewSession() throws Exception {
+        SshConnection first = connection();
+        SshConnection second = connection();
+        when(factory.open(config)).thenReturn(first, second);
+        pool.execute(config, "gerrit review 1,1");
+        when(first.executeCommand("gerrit review 1,2")).thenThrow(new IllegalStateException("Not connected!"));
+        assertEquals("ok", pool.execute(config, "gerrit review 1,2"));
+        verify(first).disconnect();
+        verify(second).executeCommand("gerrit review 1,2");
+        assertEquals(0, pool.getFailureCount());
+    }
+
+    /**
+     * Tests that a reused session that is closed after it was taken from the pool but before the command is sent
+     * is not used.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    public void testClosedBeforeSend() throws Exception {
+        SshConnection first = connection();
+        SshConnection second = connection();
+        when(factory.open(config)).thenReturn(first, second);
+        pool.execute(config, "gerrit review 1,1");
+        when(first.isConnected()).thenReturn(true, false);
+        assertEquals("ok", pool.execute(config, "gerrit review 1,2"));
+        verify(first, never()).executeCommand("gerrit review 1,2");
+        verify(first).disconnect();
+        verify(second).executeCommand("gerrit review 1,2");
+    }
+
+    /**
+     * Tests that a command failing on a connected session is not run again, whatever the failure says.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    public void testNoRetryAfterSent() throws Exception {
+        SshConnection first = connection();
+        when(factory.open(config)).thenReturn(first);
+        pool.execute(config, "gerrit review 1,1");
+        when(first.executeCommand("gerrit review 1,2")).thenThrow(new SshException("session is down"));
+        try {
+            pool.execute(config, "gerrit review 1,2");
+            fail("Should have failed");
+        } catch (IOException e) {
+            assertEquals("session is down", e.getMessage());
+        }
+        verify(factory, times(1)).open(config);
+        verify(first).disconnect();
+        assertEquals(1, pool.getFailureCount());
+    }
+
+    /**
+     * Tests that sessions are not shared between different credentials.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    public void testKeyedByCredentials() throws Exception {
+        GerritConnectionConfig other = mock(GerritConnectionConfig.class);
+        when(other.getGerritHostName()).thenReturn("gerrit");
+        when(other.getGerritAuthentication()).thenReturn(new Authentication(null, "other", null));
+        SshConnection first = connection();
+        SshConnection second = connection();
+        when(factory.open(config)).thenReturn(first);
+        when(factory.open(other)).thenReturn(second);
+        pool.execute(config, "gerrit review 1,1");
+        pool.execute(other, "gerrit review 1,2");
+        verify(first, never()).executeCommand("gerrit review 1,2");
+        verify(second).executeCommand("gerrit review 1,2");
+    }
+
+    /**
+     * Tests that a failure on a new session is reported.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    public void testFailure() throws Exception {
+        when(factory.open(config)).thenThrow(new SshException("refused"));
+        try {
+            pool.execute(config, "gerrit review 1,1");
+            fail("Should have failed");
+        } catch (IOException e) {
+            assertEquals(1, pool.getFailureCount());
+        }
+    }
+
+    /**
+     * Tests that idle sessions are closed after the timeout.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    public void testEvictIdle() throws Exception {
+        pool = new SshSessionPool(factory, 1, -1, false);
+        SshConnection connection = connection();
+        when(factory.open(config)).thenReturn(connection);
+        pool.execute(config, "gerrit review 1,1");
+        pool.evictIdle();
+        verify(connection).disconnect();
+        assertEquals(0, pool.getIdleCount());
+    }
+
+    /**
+     * Tests that nothing is kept when the pool is turned off.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    public void testDisabled() throws Exception {
+        pool = new SshSessionPool(factory, 1, TimeUnit.MINUTES.toMillis(5), true);
+        SshConnection connection = connection();
+        when(factory.open(config)).thenReturn(connection);
+        pool.execute(config, "gerrit review 1,1");
+        verify(connection).disconnect();
+        assertEquals(0, pool.getIdleCount());
+    }
+
+    /**
+     * A connected session that answers "ok".
+     *
+     * @return the session.
+     * @throws IOException never.
+     */
+    private static SshConnection connection() throws IOException {
+        SshConnection connection = mock(SshConnection.class);
+        when(connection.isConnected()).thenReturn(true);
+        when(connection.executeCommand(anyString())).thenReturn("ok");
+        return connection;
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ *  The MIT License
+ *
+ *  Copyright 2026 agent. All rights reserved.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.notification;
+
+import com.sonyericsson.hudson.plugins.gerrit.trigger.config.IGerritHudsonTriggerConfig;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.ParameterExpander;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.model.BuildMemory.MemoryImprint;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.GerritTrigger;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.mock.Setup;
+import com.sonymobile.tools.gerrit.gerritevents.dto.events.PatchsetCreated;
+import hudson.model.AbstractBuild;
+import hudson.model.AbstractProject;
+import hudson.model.Result;
+import hudson.model.TaskListener;
+import jenkins.model.Jenkins;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.MockedStatic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link NotificationCommands}.
+ */
+public class NotificationCommandsTest {
+
+    private static final String TEMPLATE =
+            "gerrit review <CHANGE>,<PATCHSET> --message 'Build Successful <BUILDS_STATS>' --verified <VERIFIED>";
+
+    private Jenkins jenkins;
+    private MockedStatic<Jenkins> jenkinsMockedStatic;
+    private TaskListener listener;
+    private MemoryImprint memoryImprint;
+
+    /**
+     * Creates the memory of one successful build of change 100, patch set 1.
+     *
+     * @throws Exception if so.
+     */
+    @Before
+    public void setUp() throws Exception {
+        jenkinsMockedStatic = mockStatic(Jenkins.class);
+        jenkins = mock(Jenkins.class);
+        jenkinsMockedStatic.when(Jenkins::get).thenReturn(jenkins);
+        when(jenkins.getRootUrl()).thenReturn("http://localhost/");
+
+        listener = mock(TaskListener.class);
+        AbstractProject project = mock(AbstractProject.class);
+        Setup.setTrigger(mock(GerritTrigger.class), project);
+        AbstractBuild build = Setup.createBuild(project, listener, Setup.createEnvVars());
+        when(build.getResult()).thenReturn(Result.SUCCESS);
+        memoryImprint = mock(MemoryImprint.class);
+        when(memoryImprint.getEvent()).thenReturn(patchset("100", "1"));
+        when(memoryImprint.getEntries()).thenReturn(new MemoryImprint.Entry[] {
+            Setup.createImprintEntry(project, build),
+        });
+        when(memoryImprint.wereAllBuildsSuccessful()).thenReturn(true);
+    }
+
+    /**
+     * Closes the Jenkins mock.
+     */
+    @After
+    public void tearDown() {
+        jenkinsMockedStatic.close();
+    }
+
+    /**
+     * Tests that topic changes getting the same review are added to the main command.
+     */
+    @Test
+    public void testBatchSameReview() {
+        ParameterExpander expander = expander(TEMPLATE);
+        ParameterExpander.Review review = expander.getBuildCompletedReview(memoryImprint, listener, null);
+        NotificationCommands commands = new NotificationCommands(review);
+        assertTrue(commands.addTopicChange(
+                expander.getBuildCompletedReview(memoryImprint, listener, patchset("101", "1"))));
+        assertTrue(commands.addTopicChange(
+                expander.getBuildCompletedReview(memoryImprint, listener, patchset("102", "3"))));
+        assertEquals(review.getCommand().replace("100,1", "100,1 101,1 102,3"), commands.getCommand());
+        assertFalse(commands.hasTopicChanges());
+    }
+
+    /**
+     * Tests that a topic change is sent on its own when the template uses a parameter that differs between changes
+     * outside of the revision argument.
+     */
+    @Test
+    public void testChangeParameterInMessage() {
+        ParameterExpander expander = expander(TEMPLATE.replace("Build Successful", "Build Successful <CHANGE_ID>"));
+        ParameterExpander.Review review = expander.getBuildCompletedReview(memoryImprint, listener, null);
+        NotificationCommands commands = new NotificationCommands(review);
+        ParameterExpander.Review topicReview =
+                expander.getBuildCompletedReview(memoryImprint, listener, patchset("101", "1"));
+        assertFalse(commands.addTopicChange(topicReview));
+        assertEquals(review.getCommand(), commands.getCommand());
+        assertEquals(1, commands.getCommandsTopicChanges().size());
+        assertEquals(topicReview.getCommand(), commands.getCommandsTopicChanges().get(0));
+    }
+
+    /**
+     * Tests that a template without the revision argument is never batched.
+     */
+    @Test
+    public void testNoRevisionArgument() {
+        ParameterExpander expander = expander("gerrit review --change <CHANGE> --patchset <PATCHSET> --verified 1");
+        NotificationCommands commands =
+                new NotificationCommands(expander.getBuildCompletedReview(memoryImprint, listener, null));
+        assertFalse(commands.addTopicChange(
+                expander.getBuildCompletedReview(memoryImprint, listener, patchset("101", "1"))));
+        assertTrue(commands.hasTopicChanges());
+    }
+
+    /**
+     * Creates an expander using the template for successful builds.
+     *
+     * @param template the template.
+     * @return the expander.
+     */
+    private ParameterExpander expander(String template) {
+        IGerritHudsonTriggerConfig config = spy(Setup.createConfig());
+        doReturn(template).when(config).getGerritCmdBuildSuccessful();
+        return new ParameterExpander(config, jenkins);
+    }
+
+    /**
+     * Creates a patch set.
+     *
+     * @param change the change number.
+     * @param number the patch set number.
+     * @return the event.
+     */
+    private static PatchsetCreated patchset(String change, String number) {
+        PatchsetCreated event = Setup.createPatchsetCreated();
+        event.getChange().setNumber(change);
+        event.getPatchSet().setNumber(number);
+        return event;
+    }
+}
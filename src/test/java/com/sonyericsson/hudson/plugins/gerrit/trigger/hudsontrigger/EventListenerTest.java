@@ -2,8 +2,10 @@ package com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger;
 
 import com.sonyericsson.hudson.plugins.gerrit.trigger.JenkinsAwareGerritHandler;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.PluginImpl;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.config.IGerritHudsonTriggerConfig;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.events.ManualPatchsetCreated;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.ToGerritRunListener;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.data.BuildCancellationPolicy;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.mock.Setup;
 import com.sonymobile.tools.gerrit.gerritevents.dto.events.ChangeMerged;
 import com.sonymobile.tools.gerrit.gerritevents.dto.events.CommentAdded;
@@ -17,14 +19,24 @@ import org.hamcrest.Description;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
 import org.mockito.MockedStatic;
 
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -141,6 +153,79 @@ public class EventListenerTest {
         verify(listener).schedule(same(trigger), isExactClass(GerritCause.class), same(commentAdded));
     }
 
+    /**
+     * Tests that a new patch set held by the {@link PatchsetDebouncer} is built when its window is over,
+     * although the job has been recorded as triggered by it when it was held.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    public void testHeldPatchsetReleased() throws Exception {
+        ToGerritRunListener runListener = new ToGerritRunListener();
+        gerritRunListenerMockedStatic.when(ToGerritRunListener::getInstance).thenReturn(runListener);
+        PatchsetCreated patchsetCreated = Setup.createPatchsetCreated();
+        when(project.isBuildable()).thenReturn(true);
+        Runnable window = holdAndGetWindow(runListener, patchsetCreated);
+
+        assertTrue(runListener.isTriggered(project, patchsetCreated));
+        verify(listener, never()).schedule(same(trigger), any(GerritCause.class), same(patchsetCreated));
+
+        window.run();
+        verify(listener).schedule(same(trigger), isExactClass(GerritCause.class), same(patchsetCreated));
+        assertTrue(runListener.isProjectTriggeredAndIncomplete(project, patchsetCreated));
+    }
+
+    /**
+     * Tests that a new patch set held by the {@link PatchsetDebouncer} is not built when the job
+     * can no longer be built when its window is over, and that the job is then no longer recorded as triggered.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    public void testHeldPatchsetDroppedWhenNotBuildable() throws Exception {
+        ToGerritRunListener runListener = new ToGerritRunListener();
+        gerritRunListenerMockedStatic.when(ToGerritRunListener::getInstance).thenReturn(runListener);
+        PatchsetCreated patchsetCreated = Setup.createPatchsetCreated();
+        Runnable window = holdAndGetWindow(runListener, patchsetCreated);
+
+        assertTrue(runListener.isTriggered(project, patchsetCreated));
+        when(project.isBuildable()).thenReturn(false);
+        window.run();
+        verify(listener, never()).schedule(same(trigger), any(GerritCause.class), same(patchsetCreated));
+        assertFalse(runListener.isTriggered(project, patchsetCreated));
+    }
+
+    /**
+     * Lets the listener handle a patch set with a debounce window configured and returns the task
+     * that the {@link PatchsetDebouncer} scheduled for when the window is over.
+     * The trigger finds the event interesting until the job has been recorded as triggered by it,
+     * as {@link GerritTrigger#isInteresting(GerritTriggeredEvent)} does.
+     *
+     * @param runListener the run listener that records the triggered jobs.
+     * @param event the patch set.
+     * @return the scheduled task.
+     */
+    private Runnable holdAndGetWindow(final ToGerritRunListener runListener, final PatchsetCreated event) {
+        when(trigger.isInteresting(same(event))).thenAnswer(invocation -> !runListener.isTriggered(project, event));
+        IGerritHudsonTriggerConfig config = mock(IGerritHudsonTriggerConfig.class);
+        BuildCancellationPolicy policy = mock(BuildCancellationPolicy.class);
+        when(policy.isEnabled()).thenReturn(true);
+        when(config.getBuildCurrentPatchesOnly()).thenReturn(policy);
+        when(config.getPatchsetDebounceWindow()).thenReturn(1);
+        pluginMockedStatic.when(() -> PluginImpl.getServerConfig(any(GerritTriggeredEvent.class))).thenReturn(config);
+        ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+        PatchsetDebouncer debouncer = new PatchsetDebouncer(scheduler);
+        try (MockedStatic<PatchsetDebouncer> debouncerMockedStatic =
+                     mockStatic(PatchsetDebouncer.class, Mockito.CALLS_REAL_METHODS)) {
+            debouncerMockedStatic.when(PatchsetDebouncer::getInstance).thenReturn(debouncer);
+            listener.gerritEvent(event);
+        }
+        assertEquals(1, debouncer.getHeldNow());
+        ArgumentCaptor<Runnable> window = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(window.capture(), eq(1L), eq(TimeUnit.SECONDS));
+        return window.getValue();
+    }
+
     /**
      * Matcher that tests the exact class name of a method argument.
      *
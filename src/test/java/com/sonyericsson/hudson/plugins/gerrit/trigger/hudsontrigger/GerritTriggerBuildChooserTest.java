@@ -2,6 +2,8 @@ package com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger;
 
 import hudson.plugins.git.util.BuildChooserContext;
 import hudson.plugins.git.Revision;
+import hudson.plugins.git.util.Build;
+import hudson.plugins.git.util.BuildData;
 import static org.junit.Assert.assertEquals;
 
 import jenkins.model.Jenkins;
@@ -12,14 +14,21 @@ import hudson.model.Run;
 import hudson.model.FreeStyleProject;
 import hudson.model.FreeStyleBuild;
 import hudson.EnvVars;
+import hudson.FilePath;
+import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
 import org.jenkinsci.plugins.gitclient.GitClient;
 import com.sonymobile.tools.gerrit.gerritevents.dto.events.PatchsetCreated;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.mock.Setup;
 import org.eclipse.jgit.lib.ObjectId;
+import org.jenkinsci.plugins.gitclient.RepositoryCallback;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -145,4 +154,77 @@ public class GerritTriggerBuildChooserTest {
         assertEquals(patchsetRefspec, revs.iterator().next().getBranches().iterator().next().getName());
         assertEquals(patchsetRevision, revs.iterator().next().getBranches().iterator().next().getSHA1());
     }
+
+    /**
+     * Tests that the revision of the event and an already resolved parent are used
+     * without asking the repository.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    public void testResolvedRevisionReused() throws Exception {
+        GerritTriggerBuildChooser chooser = new GerritTriggerBuildChooser();
+        final ObjectId patchsetRevision = ObjectId.fromString("38b0940738376ee1b66c332a2cb6d4d37bafa4e4");
+        final ObjectId parentRevision = ObjectId.fromString("7f3547c6d55946e25e99a847b5160d69e59994ba");
+        final String patchsetRefspec = "refs/changes/98/99498/2";
+
+        FreeStyleProject p = mock(FreeStyleProject.class);
+        FreeStyleBuild b = mock(FreeStyleBuild.class);
+        GitClient git = mock(GitClient.class);
+        GerritTriggerBuildChooser.ResolvedRevision resolved =
+                new GerritTriggerBuildChooser.ResolvedRevision(patchsetRevision.name(), patchsetRefspec);
+        resolved.setParent(null, patchsetRevision.name(), parentRevision.name());
+        when(b.getAction(GerritTriggerBuildChooser.ResolvedRevision.class)).thenReturn(resolved);
+        BuildChooserContextImpl context = new BuildChooserContextImpl(p, b, null);
+
+        Collection<Revision> revs = chooser.getCandidateRevisions(false, "origin/master", git, null, null, context);
+        assertEquals(1, revs.size());
+        assertEquals(patchsetRefspec, revs.iterator().next().getBranches().iterator().next().getName());
+        assertEquals(patchsetRevision, revs.iterator().next().getSha1());
+
+        Build prev = chooser.prevBuildForChangelog("origin/master", new BuildData(), git, context);
+        assertEquals(parentRevision, prev.getRevision().getSha1());
+
+        verify(git, never()).revParse(anyString());
+        verify(git, never()).withRepository(any(RepositoryCallback.class));
+    }
+
+    /**
+     * Tests that the parent resolved in one of the repositories a build checks out is not used for another,
+     * and that FETCH_HEAD is used in a repository that doesn't have the revision of the event.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    public void testResolvedParentPerRepository() throws Exception {
+        GerritTriggerBuildChooser chooser = new GerritTriggerBuildChooser();
+        final ObjectId patchsetRevision = ObjectId.fromString("38b0940738376ee1b66c332a2cb6d4d37bafa4e4");
+        final ObjectId parentRevision = ObjectId.fromString("7f3547c6d55946e25e99a847b5160d69e59994ba");
+        final ObjectId fetchHead = ObjectId.fromString("0e1c9b4f4c3a0c6d3f2b1a6e5d4c3b2a19081726");
+        final ObjectId fetchHeadParent = ObjectId.fromString("5b2a19081726e5d4c3b2a10e1c9b4f4c3a0c6d3f");
+
+        FreeStyleProject p = mock(FreeStyleProject.class);
+        FreeStyleBuild b = mock(FreeStyleBuild.class);
+        GitClient git = mock(GitClient.class);
+        when(git.getWorkTree()).thenReturn(new FilePath(new File("first")));
+        GitClient other = mock(GitClient.class);
+        when(other.getWorkTree()).thenReturn(new FilePath(new File("second")));
+        when(other.revParse("FETCH_HEAD")).thenReturn(fetchHead);
+        when(other.withRepository(any(RepositoryCallback.class))).thenReturn(null, fetchHeadParent);
+        GerritTriggerBuildChooser.ResolvedRevision resolved =
+                new GerritTriggerBuildChooser.ResolvedRevision(patchsetRevision.name(), "refs/changes/98/99498/2");
+        resolved.setParent(new FilePath(new File("first")).getRemote(), patchsetRevision.name(),
+                parentRevision.name());
+        when(b.getAction(GerritTriggerBuildChooser.ResolvedRevision.class)).thenReturn(resolved);
+        BuildChooserContextImpl context = new BuildChooserContextImpl(p, b, null);
+
+        Build prev = chooser.prevBuildForChangelog("origin/master", new BuildData(), git, context);
+        assertEquals(parentRevision, prev.getRevision().getSha1());
+
+        prev = chooser.prevBuildForChangelog("origin/master", new BuildData(), other, context);
+        assertEquals(fetchHeadParent, prev.getRevision().getSha1());
+        assertEquals(fetchHeadParent, resolved.getParentId(new FilePath(new File("second")).getRemote(), fetchHead));
+        assertEquals(parentRevision, resolved.getParentId(new FilePath(new File("first")).getRemote(),
+                patchsetRevision));
+    }
 }
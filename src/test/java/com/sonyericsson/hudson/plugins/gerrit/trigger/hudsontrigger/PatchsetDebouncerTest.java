@@ -0,0 +1,175 @@
+/*
+ *  The MIT License
+ *
+ *  Copyright 2026 agent. All rights reserved.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger;
+
+import com.sonyericsson.hudson.plugins.gerrit.trigger.mock.Setup;
+import com.sonymobile.tools.gerrit.gerritevents.dto.events.PatchsetCreated;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link PatchsetDebouncer}.
+ *
+ * @author agent &lt;agent@local&gt;
+ */
+public class PatchsetDebouncerTest {
+
+    //CS IGNORE MagicNumber FOR NEXT 140 LINES. REASON: Test data.
+
+    private ScheduledExecutorService scheduler;
+    private PatchsetDebouncer debouncer;
+    private List<String> released;
+    private List<String> dropped;
+
+    /**
+     * Creates a debouncer with a mocked scheduler.
+     */
+    @Before
+    public void setUp() {
+        scheduler = mock(ScheduledExecutorService.class);
+        debouncer = new PatchsetDebouncer(scheduler);
+        released = new ArrayList<String>();
+        dropped = new ArrayList<String>();
+    }
+
+    /**
+     * Tests that only the newest patch set is released when the window of the first one is over.
+     */
+    @Test
+    public void testNewestReleased() {
+        assertTrue(hold("server", "1000", "2", "job"));
+        assertTrue(hold("server", "1000", "4", "job"));
+        assertFalse(hold("server", "1000", "3", "job"));
+        ArgumentCaptor<Runnable> window = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(window.capture(), eq(30L), eq(TimeUnit.SECONDS));
+        assertEquals(1, debouncer.getHeldNow());
+
+        window.getValue().run();
+        assertEquals(1, released.size());
+        assertEquals("4", released.get(0));
+        assertEquals(0, debouncer.getHeldNow());
+        assertEquals(1, debouncer.getHeldCount());
+        assertEquals(1, debouncer.getSupersededCount());
+        assertEquals(1, dropped.size());
+        assertEquals("2", dropped.get(0));
+    }
+
+    /**
+     * Tests that the same patch set arriving again is ignored and not counted as superseded.
+     */
+    @Test
+    public void testSamePatchsetIgnored() {
+        assertTrue(hold("server", "1000", "2", "job"));
+        assertFalse(hold("server", "1000", "2", "job"));
+        assertEquals(1, debouncer.getHeldNow());
+        assertEquals(0, debouncer.getSupersededCount());
+        assertTrue(dropped.isEmpty());
+    }
+
+    /**
+     * Tests that other jobs, changes and servers are held on their own.
+     */
+    @Test
+    public void testSeparateKeys() {
+        hold("server", "1000", "1", "job");
+        hold("server", "1000", "1", "other job");
+        hold("server", "1001", "1", "job");
+        hold("other server", "1000", "1", "job");
+        verify(scheduler, times(4)).schedule(any(Runnable.class), eq(30L), eq(TimeUnit.SECONDS));
+        assertEquals(4, debouncer.getHeldNow());
+        assertEquals(0, debouncer.getSupersededCount());
+    }
+
+    /**
+     * Tests that held decisions are released once when released all at once, and not again when the window is over.
+     */
+    @Test
+    public void testReleaseAll() {
+        hold("server", "1000", "1", "job");
+        hold("server", "1001", "3", "job");
+        ArgumentCaptor<Runnable> window = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler, times(2)).schedule(window.capture(), eq(30L), eq(TimeUnit.SECONDS));
+        debouncer.releaseAll();
+        assertEquals(2, released.size());
+        assertTrue(released.contains("1"));
+        assertTrue(released.contains("3"));
+        assertEquals(0, debouncer.getHeldNow());
+        window.getAllValues().get(0).run();
+        assertEquals(2, released.size());
+    }
+
+    /**
+     * Tests the comparison of patch set numbers.
+     */
+    @Test
+    public void testIsNewer() {
+        assertTrue(PatchsetDebouncer.isNewer(patchset("1000", "10"), patchset("1000", "9")));
+        assertFalse(PatchsetDebouncer.isNewer(patchset("1000", "9"), patchset("1000", "10")));
+        assertFalse(PatchsetDebouncer.isNewer(patchset("1000", "10"), patchset("1000", "10")));
+        assertTrue(PatchsetDebouncer.isNewer(patchset("1000", null), patchset("1000", "10")));
+    }
+
+    /**
+     * Holds a patch set for 30 seconds, remembering its number when released or dropped.
+     *
+     * @param server the server.
+     * @param change the change number.
+     * @param number the patch set number.
+     * @param job the job.
+     * @return what the debouncer returned.
+     */
+    private boolean hold(String server, String change, final String number, String job) {
+        return debouncer.hold(server, patchset(change, number), job, 30,
+                () -> released.add(number), () -> dropped.add(number));
+    }
+
+    /**
+     * Creates a patch set.
+     *
+     * @param change the change number.
+     * @param number the patch set number.
+     * @return the event.
+     */
+    private static PatchsetCreated patchset(String change, String number) {
+        PatchsetCreated event = Setup.createPatchsetCreated();
+        event.getChange().setNumber(change);
+        event.getPatchSet().setNumber(number);
+        return event;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ *  The MIT License
+ *
+ *  Copyright 2026 agent. All rights reserved.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger;
+
+import com.sonyericsson.hudson.plugins.gerrit.trigger.PluginImpl;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.events.PluginChangeAbandonedEvent;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.events.PluginCommentAddedEvent;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.events.PluginGerritEvent;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.events.PluginPatchsetCreatedEvent;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.events.PluginRefUpdatedEvent;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.mock.Setup;
+import com.sonymobile.tools.gerrit.gerritevents.dto.events.CommentAdded;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link TriggerOnEventsTable}.
+ *
+ * @author agent &lt;agent@local&gt;
+ */
+public class TriggerOnEventsTableTest {
+
+    /**
+     * Tests that events are looked up by their type.
+     */
+    @Test
+    public void testFindTriggerOn() {
+        List<PluginGerritEvent> events = new ArrayList<PluginGerritEvent>();
+        PluginRefUpdatedEvent refUpdated = new PluginRefUpdatedEvent();
+        PluginPatchsetCreatedEvent patchsetCreated = new PluginPatchsetCreatedEvent();
+        events.add(refUpdated);
+        events.add(patchsetCreated);
+        TriggerOnEventsTable table = new TriggerOnEventsTable(events);
+
+        assertSame(patchsetCreated, table.findTriggerOn(Setup.createPatchsetCreated()));
+        assertSame(refUpdated, table.findTriggerOn(
+                Setup.createRefUpdated(PluginImpl.DEFAULT_SERVER_NAME, "project", "ref")));
+        assertNull(table.findTriggerOn(Setup.createChangeAbandoned()));
+        assertFalse(table.isChangeAbandonedConfigured());
+        assertTrue(table.isCompiledFrom(events));
+
+        events.add(new PluginChangeAbandonedEvent());
+        assertFalse(table.isCompiledFrom(events));
+        table = new TriggerOnEventsTable(events);
+        assertTrue(table.isChangeAbandonedConfigured());
+        assertTrue(table.findTriggerOn(Setup.createChangeAbandoned()) instanceof PluginChangeAbandonedEvent);
+    }
+
+    /**
+     * Tests that no events configured matches nothing.
+     */
+    @Test
+    public void testEmpty() {
+        TriggerOnEventsTable table = new TriggerOnEventsTable(null);
+        assertTrue(table.isEmpty());
+        assertTrue(table.isCompiledFrom(null));
+        assertNull(table.findTriggerOn(Setup.createPatchsetCreated()));
+        assertFalse(table.commentAddedMatch(Setup.createCommentAdded(), false));
+    }
+
+    /**
+     * Tests that the approvals of comment added events are matched with and without a plus sign.
+     */
+    @Test
+    public void testCommentAddedMatch() {
+        List<PluginGerritEvent> events = new ArrayList<PluginGerritEvent>();
+        events.add(new PluginCommentAddedEvent("Code-Review", "+1"));
+        TriggerOnEventsTable table = new TriggerOnEventsTable(events);
+        assertTrue(table.hasApprovalCriteria());
+
+        CommentAdded event = Setup.createCommentAdded();
+        assertTrue(table.commentAddedMatch(event, false));
+        event.getApprovals().get(0).setValue("2");
+        assertFalse(table.commentAddedMatch(event, false));
+
+        events.clear();
+        events.add(new PluginCommentAddedEvent("Code-Review", "2"));
+        table = new TriggerOnEventsTable(events);
+        assertTrue(table.commentAddedMatch(event, false));
+        event.getApprovals().get(0).setType("Verified");
+        assertFalse(table.commentAddedMatch(event, false));
+    }
+}
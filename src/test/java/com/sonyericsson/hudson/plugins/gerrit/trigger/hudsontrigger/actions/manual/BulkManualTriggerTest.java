@@ -0,0 +1,152 @@
+/*
+ *  The MIT License
+ *
+ *  Copyright 2026 agent. All rights reserved.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.actions.manual;
+
+import com.sonyericsson.hudson.plugins.gerrit.trigger.events.ManualPatchsetCreated;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.EventListener;
+import com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.GerritTrigger;
+import com.sonymobile.tools.gerrit.gerritevents.GerritEventListener;
+import com.sonymobile.tools.gerrit.gerritevents.dto.GerritEvent;
+import com.sonymobile.tools.gerrit.gerritevents.dto.events.PatchsetCreated;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link BulkManualTrigger}.
+ *
+ * @author agent &lt;agent@local&gt;
+ */
+public class BulkManualTriggerTest {
+
+    /**
+     * Tests that {@link BulkManualTrigger#lookup(java.util.Collection, Map, List)} resolves the triggers
+     * of the job listeners and skips the ones without a trigger.
+     */
+    @Test
+    public void testLookup() {
+        EventListener withTrigger = mock(EventListener.class);
+        GerritTrigger trigger = mock(GerritTrigger.class);
+        when(withTrigger.getTrigger()).thenReturn(trigger);
+        EventListener withoutTrigger = mock(EventListener.class);
+        GerritEventListener other = mock(GerritEventListener.class);
+
+        Map<EventListener, GerritTrigger> jobs = new LinkedHashMap<EventListener, GerritTrigger>();
+        List<GerritEventListener> others = new ArrayList<GerritEventListener>();
+        assertTrue(BulkManualTrigger.lookup(Arrays.asList(withTrigger, withoutTrigger, other), jobs, others));
+
+        assertEquals(1, jobs.size());
+        assertSame(trigger, jobs.get(withTrigger));
+        assertEquals(Collections.singletonList(other), others);
+    }
+
+    /**
+     * Tests that {@link BulkManualTrigger#lookup(java.util.Collection, Map, List)} gives up when interrupted.
+     * @throws Exception if so.
+     */
+    @Test
+    public void testLookupInterrupted() throws Exception {
+        EventListener listener = mock(EventListener.class);
+        GerritTrigger trigger = mock(GerritTrigger.class);
+        when(listener.getTrigger()).thenReturn(trigger);
+        doThrow(new InterruptedException()).when(trigger).waitForProjectListToBeReady();
+
+        assertFalse(BulkManualTrigger.lookup(Collections.<GerritEventListener>singletonList(listener),
+                new LinkedHashMap<EventListener, GerritTrigger>(), new ArrayList<GerritEventListener>()));
+    }
+
+    /**
+     * Tests that {@link BulkManualTrigger#scan(ManualPatchsetCreated, Map, List)} notifies all listeners
+     * even when one of them fails.
+     */
+    @Test
+    public void testScan() {
+        ManualPatchsetCreated event = new ManualPatchsetCreated();
+        EventListener failing = mock(EventListener.class);
+        GerritTrigger failingTrigger = mock(GerritTrigger.class);
+        doThrow(new RuntimeException("Expected")).when(failing).scan(event, failingTrigger);
+        EventListener listener = mock(EventListener.class);
+        GerritTrigger trigger = mock(GerritTrigger.class);
+        GerritEventListener other = mock(GerritEventListener.class);
+        PatchsetCreatedListener specific = new PatchsetCreatedListener();
+
+        Map<EventListener, GerritTrigger> jobs = new LinkedHashMap<EventListener, GerritTrigger>();
+        jobs.put(failing, failingTrigger);
+        jobs.put(listener, trigger);
+        BulkManualTrigger.scan(event, jobs, Arrays.asList(other, specific));
+
+        verify(listener).scan(event, trigger);
+        verify(other).gerritEvent(any(GerritEvent.class));
+        assertSame(event, specific.received);
+    }
+
+    /**
+     * Tests the progress of a batch before it is started.
+     */
+    @Test
+    public void testProgress() {
+        BulkManualTrigger bulk = new BulkManualTrigger(Arrays.asList(new ManualPatchsetCreated(),
+                new ManualPatchsetCreated()));
+        assertEquals(2, bulk.getTotal());
+        assertEquals(0, bulk.getScanned());
+        assertEquals(-1, bulk.getCandidates());
+        assertFalse(bulk.isDone());
+    }
+
+    /**
+     * A listener with a method for a more specific event type.
+     */
+    public static class PatchsetCreatedListener implements GerritEventListener {
+        private GerritEvent received;
+
+        @Override
+        public void gerritEvent(GerritEvent event) {
+            throw new IllegalStateException("The more specific method should be called");
+        }
+
+        /**
+         * Receives patchset created events.
+         *
+         * @param event the event.
+         */
+        public void gerritEvent(PatchsetCreated event) {
+            received = event;
+        }
+    }
+}
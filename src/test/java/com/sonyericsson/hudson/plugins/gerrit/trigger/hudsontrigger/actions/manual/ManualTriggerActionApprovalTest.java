@@ -80,10 +80,11 @@ public class ManualTriggerActionApprovalTest {
         sshd = SshdServerMock.startServer(server);
         server.returnCommandFor("gerrit ls-projects", SshdServerMock.EofCommandMock.class);
         server.returnCommandFor("gerrit version", SshdServerMock.EofCommandMock.class);
-        server.returnCommandFor("gerrit query --format=JSON --current-patch-set --commit-message \"status:open\"",
+        server.returnCommandFor("gerrit query --format=JSON --current-patch-set "
+                                + "--commit-message \"status:open limit:\\d+\"",
                 SshdServerMock.SendQueryLastPatchSet.class);
         server.returnCommandFor("gerrit query --format=JSON --patch-sets --current-patch-set "
-                                + "--commit-message \"status:open\"",
+                                + "--commit-message \"status:open limit:\\d+\"",
                 SshdServerMock.SendQueryAllPatchSets.class);
 
         GerritServer gerritServer = new GerritServer(gerritServerName);
@@ -38,11 +38,15 @@ import org.mockito.MockedStatic;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 //CS IGNORE LineLength FOR NEXT 1 LINES. REASON: static import
 import static com.sonyericsson.hudson.plugins.gerrit.trigger.hudsontrigger.actions.manual.ManualTriggerAction.ID_SEPARATOR;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.when;
@@ -284,4 +288,78 @@ public class ManualTriggerActionTest {
             assertEquals("http://gerrit/100", url);
         }
     }
+
+    /**
+     * Tests {@link ManualTriggerAction#getPage(List, int, int)}.
+     * The statistics row is not counted and the last page can be partial.
+     */
+    @Test
+    public void testGetPage() {
+        List<JSONObject> result = new LinkedList<JSONObject>();
+        for (int i = 0; i < 5; i++) {
+            JSONObject change = new JSONObject();
+            change.put("number", String.valueOf(i));
+            result.add(change);
+        }
+        JSONObject stats = new JSONObject();
+        stats.put("type", "stats");
+        result.add(stats);
+
+        List<JSONObject> page = ManualTriggerAction.getPage(result, 0, 2);
+        assertEquals(2, page.size());
+        assertSame(result.get(0), page.get(0));
+        assertSame(result.get(1), page.get(1));
+
+        page = ManualTriggerAction.getPage(result, 2, 2);
+        assertEquals(1, page.size());
+        assertSame(result.get(4), page.get(0));
+
+        assertTrue(ManualTriggerAction.getPage(result, 3, 2).isEmpty());
+    }
+
+    /**
+     * Tests that {@link SearchResultCache} keeps results per server and query and lets them expire.
+     * @throws Exception if so.
+     */
+    @Test
+    public void testSearchResultCache() throws Exception {
+        SearchResultCache cache = new SearchResultCache(100);
+        List<JSONObject> result = new LinkedList<JSONObject>();
+        result.add(new JSONObject());
+
+        List<JSONObject> cached = cache.put("server", "status:open", false, 0, result);
+        assertSame(cached, cache.get("server", "status:open", false, 0));
+        assertNull(cache.get("server", "status:open", true, 0));
+        assertNull(cache.get("other", "status:open", false, 0));
+        assertNull(cache.get("server", "status:merged", false, 0));
+
+        Thread.sleep(200);
+        assertNull(cache.get("server", "status:open", false, 0));
+    }
+
+    /**
+     * Tests that {@link SearchResultCache} serves smaller pages from the largest result of a search.
+     */
+    @Test
+    public void testSearchResultCacheLimit() {
+        SearchResultCache cache = new SearchResultCache(TimeUnit.MINUTES.toMillis(1));
+        List<JSONObject> small = new LinkedList<JSONObject>();
+        small.add(new JSONObject());
+        small.add(new JSONObject());
+        List<JSONObject> large = new LinkedList<JSONObject>(small);
+        large.add(new JSONObject());
+
+        //CS IGNORE MagicNumber FOR NEXT 12 LINES. REASON: Test data.
+        List<JSONObject> cached = cache.put("server", "status:open", false, 2, small);
+        assertSame(cached, cache.get("server", "status:open", false, 2));
+        assertNull(cache.get("server", "status:open", false, 3));
+
+        List<JSONObject> larger = cache.put("server", "status:open", false, 3, large);
+        assertSame(larger, cache.get("server", "status:open", false, 2));
+        assertSame(larger, cache.put("server", "status:open", false, 2, small));
+
+        // Fewer changes than the limit means there are no more to fetch.
+        cache.put("server", "status:merged", false, 3, small);
+        assertNotNull(cache.get("server", "status:merged", false, 5));
+    }
 }
@@ -0,0 +1,133 @@
+/*
+ *  The MIT License
+ *
+ *  Copyright 2026 agent. All rights reserved.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package com.sonyericsson.hudson.plugins.gerrit.trigger.impls;
+
+import com.sonyericsson.hudson.plugins.gerrit.trigger.JenkinsAwareGerritHandler;
+import com.sonymobile.tools.gerrit.gerritevents.Handler;
+import com.sonymobile.tools.gerrit.gerritevents.dto.GerritEvent;
+import com.sonymobile.tools.gerrit.gerritevents.dto.attr.Provider;
+import com.sonymobile.tools.gerrit.gerritevents.dto.events.PatchsetCreated;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+//CS IGNORE MagicNumber FOR NEXT 200 LINES. REASON: testdata.
+/**
+ * Tests for {@link RabbitMQIngestion}.
+ *
+ * @author agent &lt;agent@local&gt;
+ */
+public class RabbitMQIngestionTest {
+
+    private static final String EVENT = "{\"type\":\"patchset-created\",\"change\":{\"project\":\"project\","
+            + "\"branch\":\"master\",\"id\":\"Icae2322236e0e521950a0232effda08d6ffcdab7\",\"number\":\"1\","
+            + "\"subject\":\"Subject\",\"owner\":{\"name\":\"Owner\",\"email\":\"owner@example.com\"},"
+            + "\"url\":\"https://gerrit.example.com/1\",\"status\":\"NEW\"},"
+            + "\"patchSet\":{\"number\":\"1\",\"revision\":\"607eea8f472235b3ee47483b630003250764dab2\","
+            + "\"ref\":\"refs/changes/01/1/1\",\"uploader\":{\"name\":\"Owner\",\"email\":\"owner@example.com\"},"
+            + "\"createdOn\":1413448337},\"uploader\":{\"name\":\"Owner\",\"email\":\"owner@example.com\"}}";
+
+    /**
+     * Tests that the parsed event is posted with the provider and counted as in flight until handled.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    public void testPostToJenkinsAwareHandler() throws Exception {
+        JenkinsAwareGerritHandler handler = mock(JenkinsAwareGerritHandler.class);
+        RabbitMQIngestion ingestion = new RabbitMQIngestion(10, 10, 10);
+        Provider provider = new Provider("gerrit1", "gerrit.example.com", "29418", "ssh", null, null);
+        ingestion.post(new RabbitMQIngestion.Message(handler, EVENT.getBytes(StandardCharsets.UTF_8), provider));
+
+        ArgumentCaptor<GerritEvent> event = ArgumentCaptor.forClass(GerritEvent.class);
+        ArgumentCaptor<Runnable> notified = ArgumentCaptor.forClass(Runnable.class);
+        verify(handler).post(event.capture(), notified.capture());
+        assertTrue(event.getValue() instanceof PatchsetCreated);
+        assertSame(provider, ((PatchsetCreated)event.getValue()).getProvider());
+        assertEquals(1, ingestion.getInFlight());
+
+        notified.getValue().run();
+        assertEquals(0, ingestion.getInFlight());
+    }
+
+    /**
+     * Tests that messages are posted as strings to handlers that don't parse events themselves.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    public void testPostToOtherHandler() throws Exception {
+        Handler handler = mock(Handler.class);
+        RabbitMQIngestion ingestion = new RabbitMQIngestion(10, 10, 10);
+        Provider provider = new Provider();
+        ingestion.post(new RabbitMQIngestion.Message(handler, "message".getBytes(StandardCharsets.UTF_8), provider));
+        verify(handler).post("message", provider);
+    }
+
+    /**
+     * Tests that putting a message waits while the queue is full and that the drain thread empties it.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    public void testBackpressure() throws Exception {
+        Handler handler = mock(Handler.class);
+        final RabbitMQIngestion ingestion = new RabbitMQIngestion(1, 10, 10);
+        final Provider provider = new Provider();
+        ingestion.put(handler, "first".getBytes(StandardCharsets.UTF_8), provider);
+        Thread producer = new Thread(() -> {
+            try {
+                ingestion.put(handler, "second".getBytes(StandardCharsets.UTF_8), provider);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        producer.join(TimeUnit.MILLISECONDS.toMillis(200));
+        assertTrue("The producer should wait for room in the queue", producer.isAlive());
+
+        ingestion.start();
+        try {
+            producer.join(TimeUnit.SECONDS.toMillis(10));
+            assertFalse(producer.isAlive());
+            verify(handler, timeout(10000).times(2)).post(any(String.class), any(Provider.class));
+            assertEquals(0, ingestion.getQueued());
+        } finally {
+            ingestion.stop();
+        }
+        verify(handler, times(1)).post("second", provider);
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ *  The MIT License
+ *
+ *  Copyright 2026 agent. All rights reserved.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package com.sonyericsson.hudson.plugins.gerrit.trigger.playback;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link CheckpointJournal}.
+ *
+ * @author agent &lt;agent@local&gt;
+ */
+public class CheckpointJournalTest {
+
+    private static final long FIRST = 1430244884000L;
+    private static final long SECOND = 1430244885000L;
+
+    /**
+     * Temporary folder for the journal.
+     */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Tests that the last time slice is read back exactly.
+     *
+     * @throws IOException if so.
+     */
+    @Test
+    public void testWriteAndRead() throws IOException {
+        File file = new File(folder.getRoot(), "server.journal");
+        CheckpointJournal journal = new CheckpointJournal(file);
+        assertNull(journal.read());
+
+        EventTimeSlice slice = new EventTimeSlice(FIRST);
+        slice.addEventId("a");
+        assertTrue(journal.write(slice));
+        assertFalse("Nothing new", journal.write(slice));
+        slice.addEventId("b");
+        assertTrue(journal.write(slice));
+        slice = new EventTimeSlice(SECOND);
+        slice.addEventId("c");
+        assertTrue(journal.write(slice));
+
+        EventTimeSlice read = new CheckpointJournal(file).read();
+        assertEquals(SECOND, read.getTimeSlice());
+        assertEquals(Arrays.asList("c"), read.getEventIds());
+        assertEquals(Arrays.asList("T " + FIRST, "E a", "E b", "T " + SECOND, "E c"),
+                Files.readAllLines(file.toPath(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Tests that the journal is compacted into the current time slice.
+     *
+     * @throws IOException if so.
+     */
+    @Test
+    public void testCompaction() throws IOException {
+        File file = new File(folder.getRoot(), "server.journal");
+        CheckpointJournal journal = new CheckpointJournal(file, 3);
+        EventTimeSlice slice = new EventTimeSlice(FIRST);
+        slice.addEventId("a");
+        journal.write(slice);
+        slice = new EventTimeSlice(SECOND);
+        slice.addEventId("b");
+        journal.write(slice);
+
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        assertEquals(Arrays.asList("T " + SECOND, "E b"), lines);
+        assertFalse(new File(folder.getRoot(), "server.journal.tmp").exists());
+    }
+
+    /**
+     * Tests that a record that was not completely written is ignored and cleaned away.
+     *
+     * @throws IOException if so.
+     */
+    @Test
+    public void testTornRecord() throws IOException {
+        File file = new File(folder.getRoot(), "server.journal");
+        CheckpointJournal journal = new CheckpointJournal(file);
+        EventTimeSlice slice = new EventTimeSlice(FIRST);
+        slice.addEventId("a");
+        journal.write(slice);
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            out.write("T 14302".getBytes(StandardCharsets.UTF_8));
+        }
+
+        journal = new CheckpointJournal(file);
+        EventTimeSlice read = journal.read();
+        assertEquals(FIRST, read.getTimeSlice());
+        assertEquals(Arrays.asList("a"), read.getEventIds());
+
+        read.addEventId("b");
+        journal.write(read);
+        assertEquals(Arrays.asList("T " + FIRST, "E a", "E b"),
+                Files.readAllLines(file.toPath(), StandardCharsets.UTF_8));
+    }
+}
@@ -52,6 +52,7 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
@@ -402,4 +403,57 @@ public class GerritMissedEventsPlaybackManagerTest {
         missingEventsPlaybackManager.checkIfEventsLogPluginSupported();
         Assert.assertTrue("isSupported should be true", missingEventsPlaybackManager.isSupported());
     }
+
+    /**
+     * Tests that the time since the last-alive timestamp is split into windows,
+     * and that there are not too many of them.
+     */
+    @Test
+    public void testCreateWindows() {
+        final long hour = 3600000L;
+        Date from = new Date(0);
+        List<Date[]> windows = GerritMissedEventsPlaybackManager.createWindows(from, new Date(hour * 5 / 2), 60, 10);
+        Assert.assertEquals(3, windows.size());
+        Assert.assertEquals(from, windows.get(0)[0]);
+        Assert.assertEquals(new Date(hour), windows.get(0)[1]);
+        Assert.assertEquals(new Date(hour), windows.get(1)[0]);
+        Assert.assertEquals(new Date(hour * 5 / 2), windows.get(2)[1]);
+
+        windows = GerritMissedEventsPlaybackManager.createWindows(from, new Date(hour * 100), 60, 10);
+        Assert.assertEquals(10, windows.size());
+        Assert.assertEquals(new Date(hour * 100), windows.get(9)[1]);
+
+        windows = GerritMissedEventsPlaybackManager.createWindows(from, from, 60, 10);
+        Assert.assertEquals(1, windows.size());
+    }
+
+    /**
+     * Tests that the upper bound of a window is part of the events-log URL.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    public void testBuildEventsLogURLWithUpperBound() throws Exception {
+        GerritMissedEventsPlaybackManager missingEventsPlaybackManager
+                = new GerritMissedEventsPlaybackManager("defaultServer");
+        IGerritHudsonTriggerConfig config = Setup.createConfig();
+        String url = missingEventsPlaybackManager.buildEventsLogURL(config, new Date(0), new Date(3600000L));
+        assertTrue(url, url.contains("?t1="));
+        assertTrue(url, url.contains("&t2="));
+        url = missingEventsPlaybackManager.buildEventsLogURL(config, new Date(0));
+        Assert.assertFalse(url, url.contains("&t2="));
+    }
+
+    /**
+     * Tests that a stalled playback only gives up itself and not a playback that has started since.
+     */
+    @Test
+    public void testStalledOnlyGivesUpOwnPlayback() {
+        GerritMissedEventsPlaybackManager missingEventsPlaybackManager
+                = new GerritMissedEventsPlaybackManager("defaultServer");
+        missingEventsPlaybackManager.playBackStalled(1);
+        Assert.assertFalse(missingEventsPlaybackManager.isPlayBackFailed());
+        missingEventsPlaybackManager.playBackStalled(0);
+        assertTrue(missingEventsPlaybackManager.isPlayBackFailed());
+    }
 }
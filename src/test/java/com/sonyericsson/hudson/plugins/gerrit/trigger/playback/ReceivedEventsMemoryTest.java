@@ -0,0 +1,108 @@
+/*
+ *  The MIT License
+ *
+ *  Copyright 2026 agent. All rights reserved.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package com.sonyericsson.hudson.plugins.gerrit.trigger.playback;
+
+import com.sonyericsson.hudson.plugins.gerrit.trigger.mock.Setup;
+import com.sonymobile.tools.gerrit.gerritevents.dto.events.PatchsetCreated;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link ReceivedEventsMemory}.
+ *
+ * @author agent &lt;agent@local&gt;
+ */
+public class ReceivedEventsMemoryTest {
+
+    private static final int MAX_EVENTS = 10;
+    private static final long MAX_AGE = 1000;
+
+    /**
+     * Tests that the same event is only remembered once.
+     */
+    @Test
+    public void testAddTwice() {
+        ReceivedEventsMemory memory = new ReceivedEventsMemory(MAX_EVENTS, MAX_AGE);
+        PatchsetCreated event = Setup.createPatchsetCreated();
+        assertTrue(memory.add(event, 0));
+        assertFalse(memory.add(event, 1));
+        assertTrue(memory.contains(event, 2));
+        assertEquals(1, memory.size());
+    }
+
+    /**
+     * Tests that another instance of the same event is seen as remembered.
+     */
+    @Test
+    public void testSameIdentity() {
+        ReceivedEventsMemory memory = new ReceivedEventsMemory(MAX_EVENTS, MAX_AGE);
+        memory.add(createPatchsetCreated("1"), 0);
+        assertTrue(memory.contains(createPatchsetCreated("1"), 1));
+        assertFalse(memory.contains(createPatchsetCreated("2"), 1));
+    }
+
+    /**
+     * Tests that the oldest events are forgotten when the memory is full.
+     */
+    @Test
+    public void testMaxEvents() {
+        ReceivedEventsMemory memory = new ReceivedEventsMemory(2, MAX_AGE);
+        PatchsetCreated first = createPatchsetCreated("1");
+        memory.add(first, 0);
+        memory.add(createPatchsetCreated("2"), 0);
+        memory.add(createPatchsetCreated("3"), 0);
+        assertEquals(2, memory.size());
+        assertFalse(memory.contains(first, 0));
+    }
+
+    /**
+     * Tests that events received too long ago are forgotten.
+     */
+    @Test
+    public void testMaxAge() {
+        ReceivedEventsMemory memory = new ReceivedEventsMemory(MAX_EVENTS, MAX_AGE);
+        PatchsetCreated event = Setup.createPatchsetCreated();
+        memory.add(event, 0);
+        assertTrue(memory.contains(event, MAX_AGE));
+        assertFalse(memory.contains(event, MAX_AGE + 1));
+        assertEquals(0, memory.size());
+    }
+
+    /**
+     * A patchset created event for a change of its own.
+     *
+     * @param number the change number.
+     * @return the event.
+     */
+    private static PatchsetCreated createPatchsetCreated(String number) {
+        PatchsetCreated event = Setup.createPatchsetCreated();
+        event.getChange().setNumber(number);
+        event.getChange().setId("I" + number);
+        event.getChange().setProject("project" + number);
+        return event;
+    }
+}
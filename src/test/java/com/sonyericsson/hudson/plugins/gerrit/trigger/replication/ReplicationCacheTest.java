@@ -28,14 +28,17 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.File;
 import java.util.concurrent.TimeUnit;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import com.sonymobile.tools.gerrit.gerritevents.dto.events.RefReplicated;
 import com.sonyericsson.hudson.plugins.gerrit.trigger.mock.Setup;
 
-//CS IGNORE MagicNumber FOR NEXT 100 LINES. REASON: testdata.
+//CS IGNORE MagicNumber FOR NEXT 200 LINES. REASON: testdata.
 
 /**
  * Tests {@link com.sonyericsson.hudson.plugins.gerrit.trigger.replication.ReplicationCache}.
@@ -43,6 +46,12 @@ import com.sonyericsson.hudson.plugins.gerrit.trigger.mock.Setup;
  */
 public class ReplicationCacheTest {
 
+    /**
+     * Folder for snapshots.
+     */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     /**
      * Test that it should return cached event.
      */
@@ -96,4 +105,58 @@ public class ReplicationCacheTest {
         assertFalse(replicationCache.isExpired(System.currentTimeMillis()));
         assertTrue(replicationCache.isExpired(System.currentTimeMillis() - 200));
     }
+
+    /**
+     * Test that cached events survive a snapshot, while the creation time stays that of the new cache.
+     * @throws Exception if something goes wrong
+     */
+    @Test
+    public void shouldRestoreEventsFromSnapshot() throws Exception {
+        ReplicationCache replicationCache = ReplicationCache.Factory.createCache();
+        replicationCache.setCreationTime(1000);
+        RefReplicated refReplicated = Setup.createRefReplicatedEvent("someProject", "refs/changes/1/1/1", "someServer",
+            "someSlave", RefReplicated.SUCCEEDED_STATUS);
+        refReplicated.setReceivedOn(2000);
+        replicationCache.put(refReplicated);
+        replicationCache.put(Setup.createRefReplicatedEvent("otherProject", "refs/heads/master", "someServer",
+            "otherSlave", null));
+        assertTrue(replicationCache.isModified());
+
+        File file = new File(folder.getRoot(), "cache.bin");
+        assertEquals(2, replicationCache.writeSnapshot(file));
+        assertFalse(replicationCache.isModified());
+
+        ReplicationCache restored = ReplicationCache.Factory.createCache();
+        long started = System.currentTimeMillis();
+        restored.setCreationTime(started);
+        assertEquals(2, restored.readSnapshot(file));
+        assertEquals(started, restored.getCreationTime());
+        assertTrue(restored.isExpired(started - 1));
+        assertFalse(restored.isModified());
+        RefReplicated found = restored.getIfPresent("someServer", "someProject", "refs/changes/1/1/1", "someSlave");
+        assertEquals("someServer", found.getProvider().getName());
+        assertEquals(RefReplicated.SUCCEEDED_STATUS, found.getStatus());
+        assertEquals(2000, found.getReceivedOn());
+        found = restored.getIfPresent("someServer", "otherProject", "refs/heads/master", "otherSlave");
+        assertNull(found.getStatus());
+    }
+
+    /**
+     * Test that events that expired after the snapshot was written are not restored.
+     * @throws Exception if something goes wrong
+     */
+    @Test
+    public void shouldNotRestoreExpiredEvents() throws Exception {
+        ReplicationCache replicationCache = ReplicationCache.Factory.createCache(100, TimeUnit.MILLISECONDS);
+        replicationCache.put(Setup.createRefReplicatedEvent("someProject", "refs/changes/1/1/1", "someServer",
+            "someSlave", null));
+        File file = new File(folder.getRoot(), "cache.bin");
+        assertEquals(1, replicationCache.writeSnapshot(file));
+
+        Thread.sleep(150);
+        ReplicationCache restored = ReplicationCache.Factory.createCache(100, TimeUnit.MILLISECONDS);
+        assertEquals(0, restored.readSnapshot(file));
+        assertNull(restored.getIfPresent("someServer", "someProject", "refs/changes/1/1/1", "someSlave"));
+        assertEquals(0, restored.readSnapshot(new File(folder.getRoot(), "missing.bin")));
+    }
 }
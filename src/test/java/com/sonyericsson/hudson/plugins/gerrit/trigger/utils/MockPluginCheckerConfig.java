@@ -203,6 +203,11 @@ public class MockPluginCheckerConfig implements IGerritHudsonTriggerConfig {
         return 0;
     }
 
+    @Override
+    public int getPatchsetDebounceWindow() {
+        return 0;
+    }
+
     @Override
     public int getDynamicConfigRefreshInterval() {
         return 0;
@@ -0,0 +1,79 @@
+/*
+ *  The MIT License
+ *
+ *  Copyright 2026 agent. All rights reserved.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package com.sonyericsson.hudson.plugins.gerrit.trigger.version;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link GerritFeatureSet}.
+ */
+public class GerritFeatureSetTest {
+
+    /**
+     * Tests that the set agrees with {@link GerritVersionChecker} for every feature.
+     */
+    @Test
+    public void testSameAsVersionChecker() {
+        String[] versions = {"2.2.2.1-150", "2.9", "2.12.1-340-g47084d4", "2.13", "3.3.0", "3.2.5-12-gabcdef0"};
+        for (String version : versions) {
+            GerritVersionNumber number = GerritVersionNumber.getGerritVersionNumber(version);
+            GerritFeatureSet set = GerritFeatureSet.of(version);
+            for (GerritVersionChecker.Feature feature : GerritVersionChecker.Feature.values()) {
+                assertTrue(version + " " + feature,
+                        GerritVersionChecker.isCorrectVersion(number, feature, false)
+                                == set.isSupported(feature, false));
+                assertTrue(version + " " + feature,
+                        GerritVersionChecker.isCorrectVersion(number, feature, true)
+                                == set.isSupported(feature, true));
+            }
+        }
+    }
+
+    /**
+     * Tests that a snapshot is only considered new enough when snapshots are not excluded.
+     */
+    @Test
+    public void testSnapshot() {
+        GerritFeatureSet set = GerritFeatureSet.of("2.12.1-340-g47084d4");
+        assertTrue(set.isSupported(GerritVersionChecker.Feature.commentAlwaysApproval));
+        assertFalse(set.isSupported(GerritVersionChecker.Feature.commentAlwaysApproval, true));
+        assertTrue(set.isSupported(GerritVersionChecker.Feature.projectCreatedEvents, true));
+    }
+
+    /**
+     * Tests that an unknown version supports everything.
+     */
+    @Test
+    public void testUnknownVersion() {
+        assertSame(GerritFeatureSet.ALL, GerritFeatureSet.of((String)null));
+        assertSame(GerritFeatureSet.ALL, GerritFeatureSet.of(""));
+        for (GerritVersionChecker.Feature feature : GerritVersionChecker.Feature.values()) {
+            assertTrue(GerritFeatureSet.ALL.isSupported(feature, true));
+        }
+    }
+}
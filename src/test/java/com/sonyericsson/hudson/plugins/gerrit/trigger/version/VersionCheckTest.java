@@ -37,6 +37,8 @@ import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -112,4 +114,16 @@ public class VersionCheckTest {
         assertTrue(GerritVersionChecker.isCorrectVersion(GerritVersionChecker.Feature.fileTrigger , testServer));
         assertTrue(GerritVersionNumber.getGerritVersionNumber(version).isSnapshot());
     }
+
+    /**
+     * Tests that the feature set computed at connection time is used instead of the version string.
+     */
+    @Test
+    public void testFeatureSetFromConnection() {
+        when(server.getFeatureSet()).thenReturn(GerritFeatureSet.of("2.12"));
+        assertTrue(GerritVersionChecker.isCorrectVersion(GerritVersionChecker.Feature.fileTrigger, testServer));
+        assertFalse(GerritVersionChecker.isCorrectVersion(GerritVersionChecker.Feature.commentAlwaysApproval,
+                testServer, true));
+        verify(server, never()).getGerritVersion();
+    }
 }